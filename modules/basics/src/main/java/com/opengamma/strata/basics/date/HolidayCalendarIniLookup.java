@@ -33,6 +33,7 @@ import com.opengamma.strata.collect.io.IniFile;
 import com.opengamma.strata.collect.io.PropertySet;
 import com.opengamma.strata.collect.io.ResourceConfig;
 import com.opengamma.strata.collect.io.ResourceLocator;
+import com.opengamma.strata.collect.io.ResourceSnapshot;
 import com.opengamma.strata.collect.named.NamedLookup;
 
 /**
@@ -95,6 +96,10 @@ final class HolidayCalendarIniLookup
   // accessible for testing
   static ImmutableMap<String, HolidayCalendar> loadFromIni(String filename) {
     List<ResourceLocator> resources = ResourceConfig.orderedResources(filename);
+    return ResourceSnapshot.load(filename, resources, HolidayCalendar.class, () -> parseIni(resources));
+  }
+
+  private static ImmutableMap<String, HolidayCalendar> parseIni(List<ResourceLocator> resources) {
     Map<String, HolidayCalendar> map = new HashMap<>();
     for (ResourceLocator resource : resources) {
       try {
@@ -20,6 +20,7 @@ import com.opengamma.strata.collect.io.CsvFile;
 import com.opengamma.strata.collect.io.CsvRow;
 import com.opengamma.strata.collect.io.ResourceConfig;
 import com.opengamma.strata.collect.io.ResourceLocator;
+import com.opengamma.strata.collect.io.ResourceSnapshot;
 import com.opengamma.strata.collect.named.NamedLookup;
 
 /**
@@ -68,6 +69,10 @@ final class FxIndexCsvLookup
 
   private static ImmutableMap<String, FxIndex> loadFromCsv() {
     List<ResourceLocator> resources = ResourceConfig.orderedResources("FxIndexData.csv");
+    return ResourceSnapshot.load("FxIndexData.csv", resources, FxIndex.class, () -> parseCsv(resources));
+  }
+
+  private static ImmutableMap<String, FxIndex> parseCsv(List<ResourceLocator> resources) {
     Map<String, FxIndex> map = new HashMap<>();
     for (ResourceLocator resource : resources) {
       try {
@@ -33,6 +33,7 @@ import com.opengamma.strata.collect.io.CsvFile;
 import com.opengamma.strata.collect.io.CsvRow;
 import com.opengamma.strata.collect.io.ResourceConfig;
 import com.opengamma.strata.collect.io.ResourceLocator;
+import com.opengamma.strata.collect.io.ResourceSnapshot;
 import com.opengamma.strata.collect.named.NamedLookup;
 
 /**
@@ -96,6 +97,10 @@ final class IborIndexCsvLookup
 
   private static ImmutableMap<String, IborIndex> loadFromCsv() {
     List<ResourceLocator> resources = ResourceConfig.orderedResources("IborIndexData.csv");
+    return ResourceSnapshot.load("IborIndexData.csv", resources, IborIndex.class, () -> parseCsv(resources));
+  }
+
+  private static ImmutableMap<String, IborIndex> parseCsv(List<ResourceLocator> resources) {
     Map<String, IborIndex> map = new HashMap<>();
     for (ResourceLocator resource : resources) {
       try {
@@ -19,6 +19,7 @@ import com.opengamma.strata.collect.io.CsvFile;
 import com.opengamma.strata.collect.io.CsvRow;
 import com.opengamma.strata.collect.io.ResourceConfig;
 import com.opengamma.strata.collect.io.ResourceLocator;
+import com.opengamma.strata.collect.io.ResourceSnapshot;
 import com.opengamma.strata.collect.named.NamedLookup;
 
 /**
@@ -68,6 +69,10 @@ final class OvernightIndexCsvLookup
 
   private static ImmutableMap<String, OvernightIndex> loadFromCsv() {
     List<ResourceLocator> resources = ResourceConfig.orderedResources("OvernightIndexData.csv");
+    return ResourceSnapshot.load("OvernightIndexData.csv", resources, OvernightIndex.class, () -> parseCsv(resources));
+  }
+
+  private static ImmutableMap<String, OvernightIndex> parseCsv(List<ResourceLocator> resources) {
     Map<String, OvernightIndex> map = new HashMap<>();
     for (ResourceLocator resource : resources) {
       try {
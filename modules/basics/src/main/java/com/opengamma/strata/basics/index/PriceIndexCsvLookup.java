@@ -19,6 +19,7 @@ import com.opengamma.strata.collect.io.CsvFile;
 import com.opengamma.strata.collect.io.CsvRow;
 import com.opengamma.strata.collect.io.ResourceConfig;
 import com.opengamma.strata.collect.io.ResourceLocator;
+import com.opengamma.strata.collect.io.ResourceSnapshot;
 import com.opengamma.strata.collect.named.NamedLookup;
 
 /**
@@ -66,6 +67,10 @@ final class PriceIndexCsvLookup
 
   private static ImmutableMap<String, PriceIndex> loadFromCsv() {
     List<ResourceLocator> resources = ResourceConfig.orderedResources("PriceIndexData.csv");
+    return ResourceSnapshot.load("PriceIndexData.csv", resources, PriceIndex.class, () -> parseCsv(resources));
+  }
+
+  private static ImmutableMap<String, PriceIndex> parseCsv(List<ResourceLocator> resources) {
     Map<String, PriceIndex> map = new HashMap<>();
     for (ResourceLocator resource : resources) {
       try {
@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.basics;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.date.HolidayCalendars;
+import com.opengamma.strata.basics.date.ImmutableHolidayCalendar;
+import com.opengamma.strata.basics.index.FxIndex;
+import com.opengamma.strata.basics.index.IborIndex;
+import com.opengamma.strata.basics.index.ImmutableFxIndex;
+import com.opengamma.strata.basics.index.ImmutableIborIndex;
+import com.opengamma.strata.basics.index.ImmutablePriceIndex;
+import com.opengamma.strata.basics.index.PriceIndex;
+import com.opengamma.strata.collect.io.BinarySnapshotReader;
+import com.opengamma.strata.collect.io.BinarySnapshotWriter;
+import com.opengamma.strata.collect.io.ResourceSnapshot;
+import com.opengamma.strata.collect.named.Named;
+
+/**
+ * Test the standard holiday calendars and indices can be stored in a {@link ResourceSnapshot}.
+ */
+@Test
+public class StandardDataSnapshotTest {
+
+  public void test_holidayCalendars() throws IOException {
+    assertRoundTrip(filter(HolidayCalendars.extendedEnum().lookupAll(), ImmutableHolidayCalendar.class));
+  }
+
+  public void test_iborIndices() throws IOException {
+    assertRoundTrip(filter(IborIndex.extendedEnum().lookupAll(), ImmutableIborIndex.class));
+  }
+
+  public void test_fxIndices() throws IOException {
+    assertRoundTrip(filter(FxIndex.extendedEnum().lookupAll(), ImmutableFxIndex.class));
+  }
+
+  public void test_priceIndices() throws IOException {
+    assertRoundTrip(filter(PriceIndex.extendedEnum().lookupAll(), ImmutablePriceIndex.class));
+  }
+
+  //-------------------------------------------------------------------------
+  // the values parsed from the resources, excluding those defined in code
+  private static <T extends Named> ImmutableMap<String, T> filter(Map<String, ? super T> map, Class<T> type) {
+    return map.entrySet().stream()
+        .filter(entry -> type.isInstance(entry.getValue()))
+        .collect(toImmutableMap(entry -> entry.getKey(), entry -> type.cast(entry.getValue())));
+  }
+
+  // writes and memory-maps the snapshot in the same way as ResourceSnapshot
+  private static void assertRoundTrip(ImmutableMap<String, ?> values) throws IOException {
+    assertThat(values).isNotEmpty();
+    Path file = Files.createTempFile("standard", ".snapshot");
+    try {
+      try (BinarySnapshotWriter writer = BinarySnapshotWriter.of(Files.newOutputStream(file))) {
+        writer.write(values);
+      }
+      try (BinarySnapshotReader reader = BinarySnapshotReader.ofMappedFile(file)) {
+        assertThat(reader.read(Map.class)).isEqualTo(values);
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+}
@@ -12,6 +12,8 @@ import com.opengamma.strata.basics.CalculationTarget;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.calc.runner.CalculationListener;
 import com.opengamma.strata.calc.runner.CalculationTaskRunner;
+import com.opengamma.strata.calc.runner.ColumnarResultsListener;
+import com.opengamma.strata.calc.runner.ResolutionCache;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 
@@ -66,6 +68,42 @@ public interface CalculationRunner extends AutoCloseable {
     return DefaultCalculationRunner.of(executor);
   }
 
+  /**
+   * Creates a calculation runner capable of performing calculations, specifying the executor
+   * and the maximum number of tasks in flight.
+   * <p>
+   * A task is in flight from the time it is submitted to the executor until its result
+   * has been delivered to the listener. When the maximum is reached, the thread submitting the tasks
+   * blocks until a result has been delivered. This bounds the memory used by the asynchronous methods
+   * when the listener is slower than the calculations, for example when writing results to a database.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param maxTasksInFlight  the maximum number of tasks submitted whose result has not been delivered
+   * @return the calculation runner
+   */
+  public static CalculationRunner of(ExecutorService executor, int maxTasksInFlight) {
+    return DefaultCalculationRunner.of(executor, maxTasksInFlight);
+  }
+
+  /**
+   * Creates a calculation runner capable of performing calculations, specifying the executor
+   * and the cache of resolved targets.
+   * <p>
+   * When the same targets are calculated repeatedly, such as in intraday reruns,
+   * the cache avoids resolving the targets each time.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param resolutionCache  the cache of resolved targets
+   * @return the calculation runner
+   */
+  public static CalculationRunner of(ExecutorService executor, ResolutionCache resolutionCache) {
+    return DefaultCalculationRunner.of(executor, resolutionCache);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Performs calculations for a single set of market data.
@@ -112,6 +150,33 @@ public interface CalculationRunner extends AutoCloseable {
       ReferenceData refData,
       CalculationListener listener);
 
+  /**
+   * Performs calculations for a single set of market data, storing the results by column.
+   * <p>
+   * This returns the same grid of results as {@link #calculate}, but stored in a form suitable for
+   * large numbers of targets. The numeric values of each column are held in primitive arrays,
+   * and each result is stored as it is received rather than sorted when the calculations complete.
+   * 
+   * @param calculationRules  the rules defining how the calculation is performed
+   * @param targets  the targets for which values of the measures will be calculated
+   * @param columns  the configuration for the columns that will be calculated,
+   *   including the measure and any column-specific overrides
+   * @param marketData  the market data to be used in the calculations
+   * @param refData  the reference data to be used in the calculations
+   * @return the grid of calculation results, based on the targets and columns
+   */
+  public default ColumnarResults calculateColumnar(
+      CalculationRules calculationRules,
+      List<? extends CalculationTarget> targets,
+      List<Column> columns,
+      MarketData marketData,
+      ReferenceData refData) {
+
+    ColumnarResultsListener listener = new ColumnarResultsListener(columns, targets.size());
+    calculateAsync(calculationRules, targets, columns, marketData, refData, listener);
+    return listener.result();
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Performs calculations for multiple scenarios, each with a different set of market data.
@@ -158,6 +223,33 @@ public interface CalculationRunner extends AutoCloseable {
       ReferenceData refData,
       CalculationListener listener);
 
+  /**
+   * Performs calculations for multiple scenarios, storing the results by column.
+   * <p>
+   * This returns the same grid of results as {@link #calculateMultiScenario}, but stored in a form suitable for
+   * large numbers of targets. The numeric values of each column, including scenario arrays, are held in
+   * primitive arrays, and each result is stored as it is received rather than sorted when the calculations complete.
+   * 
+   * @param calculationRules  the rules defining how the calculation is performed
+   * @param targets  the targets for which values of the measures will be calculated
+   * @param columns  the configuration for the columns that will be calculated,
+   *   including the measure and any column-specific overrides
+   * @param marketData  the market data to be used in the calculations
+   * @param refData  the reference data to be used in the calculations
+   * @return the grid of calculation results, based on the targets and columns
+   */
+  public default ColumnarResults calculateMultiScenarioColumnar(
+      CalculationRules calculationRules,
+      List<? extends CalculationTarget> targets,
+      List<Column> columns,
+      ScenarioMarketData marketData,
+      ReferenceData refData) {
+
+    ColumnarResultsListener listener = new ColumnarResultsListener(columns, targets.size());
+    calculateMultiScenarioAsync(calculationRules, targets, columns, marketData, refData, listener);
+    return listener.result();
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Gets the underlying task runner.
@@ -0,0 +1,812 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+import com.opengamma.strata.data.scenario.MultiCurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+
+/**
+ * Calculation results of performing calculations for a set of targets and columns, stored by column.
+ * <p>
+ * This defines the same grid of results as {@link Results}, with a row for each target and a column
+ * for each measure, but is designed for large calculation runs. Instead of a {@link Result} object
+ * for each cell, the values of each column are held in primitive arrays where possible:
+ * <ul>
+ * <li>{@code Double} values are stored in a {@code double[]}
+ * <li>{@link CurrencyAmount} values are stored in a {@code double[]} and an array of currencies
+ * <li>{@link DoubleScenarioArray} values are stored in a single {@code double[]}, row by row
+ * <li>{@link CurrencyScenarioArray} values are stored in a single {@code double[]} and an array of currencies
+ * <li>{@link MultiCurrencyAmount} and {@link MultiCurrencyScenarioArray} values are stored in a {@code double[]}
+ *  for each currency of the column, row by row, with the amount being zero in the rows without the currency
+ * </ul>
+ * Any other value, or a column mixing types or numbers of scenarios, is stored as an array of objects.
+ * Failures are rare, thus they are held separately, keyed by cell.
+ * <p>
+ * The {@link Result} accessors match those of {@code Results}, recreating the values as required.
+ * The typed accessors, such as {@link #getDoubleColumn(int)}, read the arrays directly.
+ * <p>
+ * Instances are created using a {@link Builder}, which is populated cell by cell, in any order.
+ * This class is immutable and thread-safe.
+ */
+public final class ColumnarResults {
+
+  /**
+   * The column headers.
+   */
+  private final ImmutableList<ColumnHeader> columns;
+  /**
+   * The number of rows.
+   */
+  private final int rowCount;
+  /**
+   * The values of each column.
+   */
+  private final ImmutableList<ColumnValues> values;
+  /**
+   * The failures, keyed by the index of the cell, {@code (rowIndex * columnCount) + columnIndex}.
+   */
+  private final ImmutableMap<Integer, Result<?>> failures;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a builder for the specified columns and number of rows.
+   *
+   * @param columns  the column headers
+   * @param rowCount  the number of rows, which is the number of targets
+   * @return the builder
+   */
+  public static Builder builder(List<ColumnHeader> columns, int rowCount) {
+    ArgChecker.notNull(columns, "columns");
+    ArgChecker.notNegative(rowCount, "rowCount");
+    return new Builder(columns, rowCount);
+  }
+
+  /**
+   * Obtains an instance from a set of results.
+   *
+   * @param results  the results
+   * @return the columnar results
+   */
+  public static ColumnarResults of(Results results) {
+    ArgChecker.notNull(results, "results");
+    Builder builder = builder(results.getColumns(), results.getRowCount());
+    for (int row = 0; row < results.getRowCount(); row++) {
+      for (int column = 0; column < results.getColumnCount(); column++) {
+        builder.set(row, column, results.get(row, column));
+      }
+    }
+    return builder.build();
+  }
+
+  // restricted constructor
+  private ColumnarResults(
+      List<ColumnHeader> columns,
+      int rowCount,
+      List<ColumnValues> values,
+      Map<Integer, Result<?>> failures) {
+
+    this.columns = ImmutableList.copyOf(columns);
+    this.rowCount = rowCount;
+    this.values = ImmutableList.copyOf(values);
+    this.failures = ImmutableMap.copyOf(failures);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the column headers.
+   *
+   * @return the column headers
+   */
+  public ImmutableList<ColumnHeader> getColumns() {
+    return columns;
+  }
+
+  /**
+   * Gets the number of rows in the results.
+   * <p>
+   * The number of rows equals the number of targets input to the calculation.
+   *
+   * @return the number of rows
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Gets the number of columns in the results.
+   *
+   * @return the number of columns
+   */
+  public int getColumnCount() {
+    return columns.size();
+  }
+
+  /**
+   * Gets the number of cells whose calculation failed.
+   *
+   * @return the number of failures
+   */
+  public int getFailureCount() {
+    return failures.size();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the results for a target and column index.
+   * <p>
+   * The result may be a single value or a multi-scenario value.
+   * A multi-scenario value will implement {@link ScenarioArray} unless it has been aggregated.
+   * <p>
+   * If the calculation did not complete successfully, a failure result will be returned
+   * explaining the problem. Callers must check whether the result is a success or failure
+   * before examining the result value.
+   *
+   * @param rowIndex   the index of the row containing the results for a target
+   * @param columnIndex  the index of the column
+   * @return the result for the specified row and column for a set of scenarios
+   * @throws IllegalArgumentException if the row or column index is invalid
+   */
+  public Result<?> get(int rowIndex, int columnIndex) {
+    validateIndices(rowIndex, columnIndex);
+    Result<?> failure = failures.get(cellIndex(rowIndex, columnIndex));
+    if (failure != null) {
+      return failure;
+    }
+    return Result.success(values.get(columnIndex).get(rowIndex));
+  }
+
+  /**
+   * Returns the results for a target and column index, casting the result to a known type.
+   * <p>
+   * The result may be a single value or a multi-scenario value.
+   * A multi-scenario value will implement {@link ScenarioArray} unless it has been aggregated.
+   * <p>
+   * If the calculation did not complete successfully, a failure result will be returned
+   * explaining the problem. Callers must check whether the result is a success or failure
+   * before examining the result value.
+   *
+   * @param <T>  the result type
+   * @param rowIndex   the index of the row containing the results for a target
+   * @param columnIndex  the index of the column
+   * @param type  the result type
+   * @return the result for the specified row and column for a set of scenarios, cast to the specified type
+   * @throws IllegalArgumentException if the row or column index is invalid
+   * @throws ClassCastException if the result is not of the specified type
+   */
+  public <T> Result<T> get(int rowIndex, int columnIndex, Class<T> type) {
+    return cast(get(rowIndex, columnIndex), type);
+  }
+
+  /**
+   * Returns the results for a target and column name.
+   * <p>
+   * The result may be a single value or a multi-scenario value.
+   * A multi-scenario value will implement {@link ScenarioArray} unless it has been aggregated.
+   * <p>
+   * If the calculation did not complete successfully, a failure result will be returned
+   * explaining the problem. Callers must check whether the result is a success or failure
+   * before examining the result value.
+   *
+   * @param rowIndex   the index of the row containing the results for a target
+   * @param columnName  the name of the column
+   * @return the result for the specified row and column for a set of scenarios
+   * @throws IllegalArgumentException if the row index or column name is invalid
+   */
+  public Result<?> get(int rowIndex, ColumnName columnName) {
+    return get(rowIndex, columnIndex(columnName));
+  }
+
+  /**
+   * Returns the results for a target and column name, casting the result to a known type.
+   * <p>
+   * The result may be a single value or a multi-scenario value.
+   * A multi-scenario value will implement {@link ScenarioArray} unless it has been aggregated.
+   * <p>
+   * If the calculation did not complete successfully, a failure result will be returned
+   * explaining the problem. Callers must check whether the result is a success or failure
+   * before examining the result value.
+   *
+   * @param <T>  the result type
+   * @param rowIndex   the index of the row containing the results for a target
+   * @param columnName  the name of the column
+   * @param type  the result type
+   * @return the result for the specified row and column for a set of scenarios, cast to the specified type
+   * @throws IllegalArgumentException if the row index or column name is invalid
+   * @throws ClassCastException if the result is not of the specified type
+   */
+  public <T> Result<T> get(int rowIndex, ColumnName columnName, Class<T> type) {
+    return cast(get(rowIndex, columnName), type);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> Result<T> cast(Result<?> result, Class<T> type) {
+    // cannot use result.map() as we want the exception to be thrown
+    if (result.isFailure() || type.isInstance(result.getValue())) {
+      return (Result<T>) result;
+    }
+    throw new ClassCastException(Messages.format(
+        "Result queried with type '{}' but was '{}'", type.getName(), result.getValue().getClass().getName()));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Checks if the calculation of a cell failed.
+   *
+   * @param rowIndex   the index of the row containing the results for a target
+   * @param columnIndex  the index of the column
+   * @return true if the result is a failure
+   * @throws IllegalArgumentException if the row or column index is invalid
+   */
+  public boolean isFailure(int rowIndex, int columnIndex) {
+    validateIndices(rowIndex, columnIndex);
+    return failures.containsKey(cellIndex(rowIndex, columnIndex));
+  }
+
+  /**
+   * Returns the value of a cell containing a {@code Double} or a {@code CurrencyAmount}.
+   * <p>
+   * For a currency amount, the amount is returned, see {@link #getCurrency(int, int)}.
+   *
+   * @param rowIndex   the index of the row containing the results for a target
+   * @param columnIndex  the index of the column
+   * @return the value
+   * @throws IllegalArgumentException if the row or column index is invalid,
+   *   or if the column does not contain single numeric values
+   * @throws IllegalStateException if the calculation of the cell failed
+   */
+  public double getValue(int rowIndex, int columnIndex) {
+    validateSuccess(rowIndex, columnIndex);
+    ColumnValues column = values.get(columnIndex);
+    column.checkSingle(columnIndex);
+    return column.doubles[rowIndex];
+  }
+
+  /**
+   * Returns the currency of a cell containing a {@code CurrencyAmount} or a {@code CurrencyScenarioArray}.
+   *
+   * @param rowIndex   the index of the row containing the results for a target
+   * @param columnIndex  the index of the column
+   * @return the currency
+   * @throws IllegalArgumentException if the row or column index is invalid,
+   *   or if the column does not contain currency values
+   * @throws IllegalStateException if the calculation of the cell failed
+   */
+  public Currency getCurrency(int rowIndex, int columnIndex) {
+    validateSuccess(rowIndex, columnIndex);
+    ColumnValues column = values.get(columnIndex);
+    if (column.currencies == null) {
+      throw new IllegalArgumentException(
+          Messages.format("Column {} does not contain currency values", columnIndex));
+    }
+    return column.currencies[rowIndex];
+  }
+
+  /**
+   * Returns the scenario values of a cell containing a {@code DoubleScenarioArray} or a {@code CurrencyScenarioArray}.
+   *
+   * @param rowIndex   the index of the row containing the results for a target
+   * @param columnIndex  the index of the column
+   * @return the value in each scenario
+   * @throws IllegalArgumentException if the row or column index is invalid,
+   *   or if the column does not contain scenario values
+   * @throws IllegalStateException if the calculation of the cell failed
+   */
+  public DoubleArray getScenarioValues(int rowIndex, int columnIndex) {
+    validateSuccess(rowIndex, columnIndex);
+    ColumnValues column = values.get(columnIndex);
+    if (column.kind != Kind.DOUBLE_SCENARIOS && column.kind != Kind.CURRENCY_SCENARIOS) {
+      throw new IllegalArgumentException(
+          Messages.format("Column {} does not contain scenario values", columnIndex));
+    }
+    return column.scenarioValues(rowIndex);
+  }
+
+  /**
+   * Returns the values of a column containing {@code Double} or {@code CurrencyAmount} values.
+   * <p>
+   * The array contains the value of each row, NaN for the rows whose calculation failed.
+   * For currency amounts, the amounts are returned, which may be in different currencies.
+   *
+   * @param columnIndex  the index of the column
+   * @return the value of each row
+   * @throws IllegalArgumentException if the column index is invalid,
+   *   or if the column does not contain single numeric values
+   */
+  public DoubleArray getDoubleColumn(int columnIndex) {
+    validateColumnIndex(columnIndex);
+    ColumnValues column = values.get(columnIndex);
+    if (column.kind == Kind.EMPTY) {
+      return DoubleArray.filled(rowCount, Double.NaN);
+    }
+    column.checkSingle(columnIndex);
+    return DoubleArray.copyOf(column.doubles);
+  }
+
+  /**
+   * Returns the currencies of a column containing {@code MultiCurrencyAmount} or {@code MultiCurrencyScenarioArray}
+   * values.
+   * <p>
+   * The set contains the currencies of all the rows, see {@link #getCurrencyColumn(int, Currency)}.
+   *
+   * @param columnIndex  the index of the column
+   * @return the currencies of the column
+   * @throws IllegalArgumentException if the column index is invalid,
+   *   or if the column does not contain multi-currency values
+   */
+  public ImmutableSortedSet<Currency> getCurrencies(int columnIndex) {
+    validateColumnIndex(columnIndex);
+    ColumnValues column = values.get(columnIndex);
+    if (column.kind == Kind.EMPTY) {
+      return ImmutableSortedSet.of();
+    }
+    column.checkMultiCurrency(columnIndex);
+    return ImmutableSortedSet.copyOf(column.currencyValues.keySet());
+  }
+
+  /**
+   * Returns the amounts in a currency of a column containing {@code MultiCurrencyAmount}
+   * or {@code MultiCurrencyScenarioArray} values.
+   * <p>
+   * For multi-currency amounts, the array contains the amount of each row.
+   * For scenario arrays, the array contains the amount in each scenario, row by row.
+   * The amount is zero for the rows without an amount in the currency, and NaN for the rows whose calculation failed.
+   *
+   * @param columnIndex  the index of the column
+   * @param currency  the currency
+   * @return the amounts in the currency
+   * @throws IllegalArgumentException if the column index is invalid,
+   *   or if the column does not contain multi-currency values
+   */
+  public DoubleArray getCurrencyColumn(int columnIndex, Currency currency) {
+    validateColumnIndex(columnIndex);
+    ArgChecker.notNull(currency, "currency");
+    ColumnValues column = values.get(columnIndex);
+    if (column.kind == Kind.EMPTY) {
+      return DoubleArray.filled(rowCount, Double.NaN);
+    }
+    column.checkMultiCurrency(columnIndex);
+    return column.currencyColumn(currency);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Converts these results to an instance of {@link Results}.
+   * <p>
+   * This creates a {@link Result} for each cell.
+   *
+   * @return the results
+   */
+  public Results toResults() {
+    int columnCount = getColumnCount();
+    List<Result<?>> cells = new ArrayList<>(rowCount * columnCount);
+    for (int row = 0; row < rowCount; row++) {
+      for (int column = 0; column < columnCount; column++) {
+        cells.add(get(row, column));
+      }
+    }
+    return Results.of(columns, cells);
+  }
+
+  //-------------------------------------------------------------------------
+  private int cellIndex(int rowIndex, int columnIndex) {
+    return (rowIndex * columns.size()) + columnIndex;
+  }
+
+  private int columnIndex(ColumnName columnName) {
+    for (int i = 0; i < columns.size(); i++) {
+      if (columns.get(i).getName().equals(columnName)) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException(Messages.format("Column name not found: {}", columnName));
+  }
+
+  private void validateIndices(int rowIndex, int columnIndex) {
+    if (rowIndex < 0 || rowIndex >= rowCount) {
+      throw new IllegalArgumentException(Messages.format(
+          "Row index must be greater than or equal to zero and less than the row count ({}), but it was {}",
+          rowCount,
+          rowIndex));
+    }
+    validateColumnIndex(columnIndex);
+  }
+
+  private void validateColumnIndex(int columnIndex) {
+    if (columnIndex < 0 || columnIndex >= columns.size()) {
+      throw new IllegalArgumentException(Messages.format(
+          "Column index must be greater than or equal to zero and less than the column count ({}), but it was {}",
+          columns.size(),
+          columnIndex));
+    }
+  }
+
+  private void validateSuccess(int rowIndex, int columnIndex) {
+    validateIndices(rowIndex, columnIndex);
+    if (failures.containsKey(cellIndex(rowIndex, columnIndex))) {
+      throw new IllegalStateException(Messages.format(
+          "Calculation of row {} and column {} failed: {}",
+          rowIndex,
+          columnIndex,
+          failures.get(cellIndex(rowIndex, columnIndex)).getFailure().getMessage()));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return Messages.format("ColumnarResults[rows={}, columns={}, failures={}]", rowCount, columns, failures.size());
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * A mutable builder for {@code ColumnarResults}.
+   * <p>
+   * The result of each cell is set once, in any order, then {@link #build()} is called.
+   * The storage of each column is chosen from the first successful value set in it.
+   * This class is not thread-safe.
+   */
+  public static final class Builder {
+
+    /**
+     * The column headers.
+     */
+    private final List<ColumnHeader> columns;
+    /**
+     * The number of rows.
+     */
+    private final int rowCount;
+    /**
+     * The values of each column.
+     */
+    private final List<ColumnValues> values;
+    /**
+     * The failures, keyed by the index of the cell.
+     */
+    private final Map<Integer, Result<?>> failures = new HashMap<>();
+    /**
+     * The cells that have been set.
+     */
+    private final BitSet populated;
+    /**
+     * Whether the results have been built, after which the builder cannot be used.
+     */
+    private boolean built;
+
+    // restricted constructor
+    private Builder(List<ColumnHeader> columns, int rowCount) {
+      this.columns = ImmutableList.copyOf(columns);
+      this.rowCount = rowCount;
+      this.values = new ArrayList<>(columns.size());
+      for (int i = 0; i < columns.size(); i++) {
+        values.add(new ColumnValues(rowCount));
+      }
+      this.populated = new BitSet(rowCount * columns.size());
+    }
+
+    /**
+     * Sets the result of a cell.
+     *
+     * @param rowIndex  the index of the row
+     * @param columnIndex  the index of the column
+     * @param result  the result of the cell
+     * @return this builder
+     * @throws IllegalArgumentException if the indices are invalid or the cell has already been set
+     * @throws IllegalStateException if the results have been built
+     */
+    public Builder set(int rowIndex, int columnIndex, Result<?> result) {
+      if (built) {
+        throw new IllegalStateException("Results have already been built");
+      }
+      ArgChecker.inRange(rowIndex, 0, rowCount, "rowIndex");
+      ArgChecker.inRange(columnIndex, 0, columns.size(), "columnIndex");
+      ArgChecker.notNull(result, "result");
+      int index = (rowIndex * columns.size()) + columnIndex;
+      if (populated.get(index)) {
+        throw new IllegalArgumentException(Messages.format(
+            "Result already set for row {} and column {}", rowIndex, columnIndex));
+      }
+      populated.set(index);
+      if (result.isFailure()) {
+        failures.put(index, result);
+      } else {
+        values.get(columnIndex).set(rowIndex, result.getValue());
+      }
+      return this;
+    }
+
+    /**
+     * Builds the results.
+     *
+     * @return the results
+     * @throws IllegalStateException if the result of a cell has not been set
+     */
+    public ColumnarResults build() {
+      int cellCount = rowCount * columns.size();
+      int missing = populated.nextClearBit(0);
+      if (missing < cellCount) {
+        throw new IllegalStateException(Messages.format(
+            "Result not set for row {} and column {}", missing / columns.size(), missing % columns.size()));
+      }
+      built = true;
+      return new ColumnarResults(columns, rowCount, values, failures);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The kind of storage of a column.
+   */
+  private enum Kind {
+    /** No successful value. */
+    EMPTY,
+    /** Double values. */
+    DOUBLE,
+    /** Currency amounts. */
+    CURRENCY_AMOUNT,
+    /** Double scenario arrays with the same number of scenarios. */
+    DOUBLE_SCENARIOS,
+    /** Currency scenario arrays with the same number of scenarios. */
+    CURRENCY_SCENARIOS,
+    /** Multi-currency amounts. */
+    MULTI_CURRENCY_AMOUNT,
+    /** Multi-currency scenario arrays with the same number of scenarios. */
+    MULTI_CURRENCY_SCENARIOS,
+    /** Any values. */
+    OBJECT,
+  }
+
+  /**
+   * The values of a column.
+   * <p>
+   * This is mutable while the builder populates it, then effectively immutable.
+   * The values of failed rows are NaN in the primitive arrays and null in the object arrays.
+   */
+  private static final class ColumnValues {
+
+    private final int rowCount;
+    private final BitSet present;
+    private Kind kind = Kind.EMPTY;
+    private int scenarioCount;
+    private double[] doubles;
+    private Currency[] currencies;
+    private Map<Currency, double[]> currencyValues;
+    private Map<Currency, BitSet> currencyRows;
+    private Object[] objects;
+
+    private ColumnValues(int rowCount) {
+      this.rowCount = rowCount;
+      this.present = new BitSet(rowCount);
+    }
+
+    // sets the value of a row, choosing or changing the storage as necessary
+    private void set(int row, Object value) {
+      if (kind == Kind.EMPTY) {
+        initialize(value);
+      } else if (kind != Kind.OBJECT && !isCompatible(value)) {
+        demote();
+      }
+      present.set(row);
+      switch (kind) {
+        case DOUBLE:
+          doubles[row] = (Double) value;
+          break;
+        case CURRENCY_AMOUNT: {
+          CurrencyAmount amount = (CurrencyAmount) value;
+          doubles[row] = amount.getAmount();
+          currencies[row] = amount.getCurrency();
+          break;
+        }
+        case DOUBLE_SCENARIOS:
+          ((DoubleScenarioArray) value).getValues().copyInto(doubles, row * scenarioCount);
+          break;
+        case CURRENCY_SCENARIOS: {
+          CurrencyScenarioArray array = (CurrencyScenarioArray) value;
+          array.getAmounts().getValues().copyInto(doubles, row * scenarioCount);
+          currencies[row] = array.getCurrency();
+          break;
+        }
+        case MULTI_CURRENCY_AMOUNT: {
+          clearCurrencyValues(row);
+          for (CurrencyAmount amount : ((MultiCurrencyAmount) value).getAmounts()) {
+            currencyBlock(amount.getCurrency(), row)[row] = amount.getAmount();
+          }
+          break;
+        }
+        case MULTI_CURRENCY_SCENARIOS: {
+          clearCurrencyValues(row);
+          MultiCurrencyScenarioArray array = (MultiCurrencyScenarioArray) value;
+          for (Map.Entry<Currency, DoubleArray> entry : array.getAmounts().getValues().entrySet()) {
+            entry.getValue().copyInto(currencyBlock(entry.getKey(), row), row * scenarioCount);
+          }
+          break;
+        }
+        default:
+          objects[row] = value;
+      }
+    }
+
+    private void initialize(Object value) {
+      if (value instanceof Double) {
+        kind = Kind.DOUBLE;
+        scenarioCount = 1;
+      } else if (value instanceof CurrencyAmount) {
+        kind = Kind.CURRENCY_AMOUNT;
+        scenarioCount = 1;
+        currencies = new Currency[rowCount];
+      } else if (value instanceof DoubleScenarioArray) {
+        kind = Kind.DOUBLE_SCENARIOS;
+        scenarioCount = ((DoubleScenarioArray) value).getScenarioCount();
+      } else if (value instanceof CurrencyScenarioArray) {
+        kind = Kind.CURRENCY_SCENARIOS;
+        scenarioCount = ((CurrencyScenarioArray) value).getScenarioCount();
+        currencies = new Currency[rowCount];
+      } else if (value instanceof MultiCurrencyAmount) {
+        kind = Kind.MULTI_CURRENCY_AMOUNT;
+        scenarioCount = 1;
+        currencyValues = new TreeMap<>();
+        currencyRows = new HashMap<>();
+        return;
+      } else if (value instanceof MultiCurrencyScenarioArray) {
+        kind = Kind.MULTI_CURRENCY_SCENARIOS;
+        scenarioCount = ((MultiCurrencyScenarioArray) value).getScenarioCount();
+        currencyValues = new TreeMap<>();
+        currencyRows = new HashMap<>();
+        return;
+      } else {
+        kind = Kind.OBJECT;
+        objects = new Object[rowCount];
+        return;
+      }
+      doubles = new double[rowCount * scenarioCount];
+      Arrays.fill(doubles, Double.NaN);
+    }
+
+    private boolean isCompatible(Object value) {
+      switch (kind) {
+        case DOUBLE:
+          return value instanceof Double;
+        case CURRENCY_AMOUNT:
+          return value instanceof CurrencyAmount;
+        case DOUBLE_SCENARIOS:
+          return value instanceof DoubleScenarioArray &&
+              ((DoubleScenarioArray) value).getScenarioCount() == scenarioCount;
+        case CURRENCY_SCENARIOS:
+          return value instanceof CurrencyScenarioArray &&
+              ((CurrencyScenarioArray) value).getScenarioCount() == scenarioCount;
+        case MULTI_CURRENCY_AMOUNT:
+          return value instanceof MultiCurrencyAmount;
+        case MULTI_CURRENCY_SCENARIOS:
+          return value instanceof MultiCurrencyScenarioArray &&
+              ((MultiCurrencyScenarioArray) value).getScenarioCount() == scenarioCount;
+        default:
+          return false;
+      }
+    }
+
+    // converts the stored values to objects, used when the types of the values differ
+    private void demote() {
+      Object[] converted = new Object[rowCount];
+      for (int row = present.nextSetBit(0); row >= 0; row = present.nextSetBit(row + 1)) {
+        converted[row] = get(row);
+      }
+      kind = Kind.OBJECT;
+      objects = converted;
+      doubles = null;
+      currencies = null;
+      currencyValues = null;
+      currencyRows = null;
+    }
+
+    // recreates the value of a row
+    private Object get(int row) {
+      switch (kind) {
+        case DOUBLE:
+          return doubles[row];
+        case CURRENCY_AMOUNT:
+          return CurrencyAmount.of(currencies[row], doubles[row]);
+        case DOUBLE_SCENARIOS:
+          return DoubleScenarioArray.of(scenarioValues(row));
+        case CURRENCY_SCENARIOS:
+          return CurrencyScenarioArray.of(currencies[row], scenarioValues(row));
+        case MULTI_CURRENCY_AMOUNT: {
+          Map<Currency, Double> amounts = new HashMap<>();
+          for (Currency currency : currencyValues.keySet()) {
+            if (currencyRows.get(currency).get(row)) {
+              amounts.put(currency, currencyValues.get(currency)[row]);
+            }
+          }
+          return MultiCurrencyAmount.of(amounts);
+        }
+        case MULTI_CURRENCY_SCENARIOS: {
+          Map<Currency, DoubleArray> amounts = new HashMap<>();
+          for (Currency currency : currencyValues.keySet()) {
+            if (currencyRows.get(currency).get(row)) {
+              double[] values = currencyValues.get(currency);
+              amounts.put(currency, DoubleArray.copyOf(values, row * scenarioCount, (row + 1) * scenarioCount));
+            }
+          }
+          return MultiCurrencyScenarioArray.of(amounts);
+        }
+        default:
+          return objects[row];
+      }
+    }
+
+    private DoubleArray scenarioValues(int row) {
+      return DoubleArray.copyOf(doubles, row * scenarioCount, (row + 1) * scenarioCount);
+    }
+
+    // sets the amounts of a row to zero in each currency, before the amounts of the row are set
+    private void clearCurrencyValues(int row) {
+      for (double[] values : currencyValues.values()) {
+        Arrays.fill(values, row * scenarioCount, (row + 1) * scenarioCount, 0d);
+      }
+    }
+
+    // gets the amounts in a currency for the row being set, adding the currency to the column if necessary
+    private double[] currencyBlock(Currency currency, int row) {
+      double[] values = currencyValues.get(currency);
+      if (values == null) {
+        values = zeroBlock();
+        currencyValues.put(currency, values);
+        currencyRows.put(currency, new BitSet(rowCount));
+      }
+      currencyRows.get(currency).set(row);
+      return values;
+    }
+
+    // gets the amounts in a currency, which are zero in the rows without the currency
+    private DoubleArray currencyColumn(Currency currency) {
+      double[] values = currencyValues.get(currency);
+      return values != null ? DoubleArray.copyOf(values) : DoubleArray.ofUnsafe(zeroBlock());
+    }
+
+    // creates the amounts of a currency in no row, zero in the rows that are set and NaN in the others
+    private double[] zeroBlock() {
+      double[] values = new double[rowCount * scenarioCount];
+      Arrays.fill(values, Double.NaN);
+      for (int row = present.nextSetBit(0); row >= 0; row = present.nextSetBit(row + 1)) {
+        Arrays.fill(values, row * scenarioCount, (row + 1) * scenarioCount, 0d);
+      }
+      return values;
+    }
+
+    private void checkMultiCurrency(int columnIndex) {
+      if (kind != Kind.MULTI_CURRENCY_AMOUNT && kind != Kind.MULTI_CURRENCY_SCENARIOS) {
+        throw new IllegalArgumentException(
+            Messages.format("Column {} does not contain multi-currency values", columnIndex));
+      }
+    }
+
+    private void checkSingle(int columnIndex) {
+      if (kind != Kind.DOUBLE && kind != Kind.CURRENCY_AMOUNT) {
+        throw new IllegalArgumentException(
+            Messages.format("Column {} does not contain single numeric values", columnIndex));
+      }
+    }
+  }
+
+}
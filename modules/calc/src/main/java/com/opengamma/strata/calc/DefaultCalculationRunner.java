@@ -13,6 +13,7 @@ import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.calc.runner.CalculationListener;
 import com.opengamma.strata.calc.runner.CalculationTaskRunner;
 import com.opengamma.strata.calc.runner.CalculationTasks;
+import com.opengamma.strata.calc.runner.ResolutionCache;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
@@ -59,6 +60,34 @@ class DefaultCalculationRunner implements CalculationRunner {
     return new DefaultCalculationRunner(CalculationTaskRunner.of(executor));
   }
 
+  /**
+   * Creates a calculation runner capable of performing calculations, specifying the executor
+   * and the maximum number of tasks in flight.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param maxTasksInFlight  the maximum number of tasks submitted whose result has not been delivered
+   * @return the calculation runner
+   */
+  static DefaultCalculationRunner of(ExecutorService executor, int maxTasksInFlight) {
+    return new DefaultCalculationRunner(CalculationTaskRunner.of(executor, maxTasksInFlight));
+  }
+
+  /**
+   * Creates a calculation runner capable of performing calculations, specifying the executor
+   * and the cache of resolved targets.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param resolutionCache  the cache of resolved targets
+   * @return the calculation runner
+   */
+  static DefaultCalculationRunner of(ExecutorService executor, ResolutionCache resolutionCache) {
+    return new DefaultCalculationRunner(CalculationTaskRunner.of(executor, resolutionCache));
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Creates an instance specifying the underlying task runner to use.
@@ -10,15 +10,20 @@ import static com.opengamma.strata.collect.Guavate.toImmutableMap;
 import static com.opengamma.strata.collect.Guavate.toImmutableSet;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 
 import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.collect.MapStream;
 import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
 import com.opengamma.strata.collect.tuple.Pair;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.MarketDataId;
@@ -30,6 +35,14 @@ import com.opengamma.strata.data.scenario.ScenarioMarketData;
  * The default market data factory.
  * <p>
  * This uses two providers, one for observable data and one for time-series.
+ * <p>
+ * If an executor is specified, the non-observable market data is built in parallel.
+ * Each item is submitted to the executor as soon as the items it depends on have been built,
+ * rather than waiting for a whole level of the dependency tree to complete.
+ * <p>
+ * If a provider executor is specified, the providers are invoked concurrently on that executor.
+ * Each time-series is requested separately, while the observable values are still requested in bulk.
+ * This overlaps the requests when the providers block, for example when reading from a database.
  */
 final class DefaultMarketDataFactory implements MarketDataFactory {
 
@@ -42,6 +55,12 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
   /** Market data functions, keyed by the type of the market data ID they can handle. */
   private final Map<Class<? extends MarketDataId<?>>, MarketDataFunction<?, ?>> functions;
 
+  /** The executor used to build market data in parallel, null to build it level by level on the calling thread. */
+  private final ExecutorService executor;
+
+  /** The executor used to invoke the providers concurrently, null to invoke them on the calling thread. */
+  private final ExecutorService providerExecutor;
+
   //-------------------------------------------------------------------------
   /**
    * Creates an instance of the factory based on providers of market data and time-series.
@@ -52,14 +71,56 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
    * @param timeSeriesProvider  the provider time-series
    * @param functions  the functions that create the market data
    */
-  @SuppressWarnings("unchecked")
   DefaultMarketDataFactory(
       ObservableDataProvider observableDataProvider,
       TimeSeriesProvider timeSeriesProvider,
       List<MarketDataFunction<?, ?>> functions) {
 
+    this(observableDataProvider, timeSeriesProvider, null, functions);
+  }
+
+  /**
+   * Creates an instance of the factory that builds market data in parallel using an executor.
+   * <p>
+   * The market data functions are used to build the market data.
+   *
+   * @param observableDataProvider  the provider observable market data
+   * @param timeSeriesProvider  the provider time-series
+   * @param executor  the executor used to build the market data, null to build on the calling thread
+   * @param functions  the functions that create the market data
+   */
+  DefaultMarketDataFactory(
+      ObservableDataProvider observableDataProvider,
+      TimeSeriesProvider timeSeriesProvider,
+      ExecutorService executor,
+      List<MarketDataFunction<?, ?>> functions) {
+
+    this(observableDataProvider, timeSeriesProvider, executor, null, functions);
+  }
+
+  /**
+   * Creates an instance of the factory that builds market data in parallel using an executor,
+   * invoking the providers concurrently using a second executor.
+   * <p>
+   * The market data functions are used to build the market data.
+   *
+   * @param observableDataProvider  the provider observable market data
+   * @param timeSeriesProvider  the provider time-series
+   * @param executor  the executor used to build the market data, null to build on the calling thread
+   * @param providerExecutor  the executor used to invoke the providers, null to invoke them on the calling thread
+   * @param functions  the functions that create the market data
+   */
+  DefaultMarketDataFactory(
+      ObservableDataProvider observableDataProvider,
+      TimeSeriesProvider timeSeriesProvider,
+      ExecutorService executor,
+      ExecutorService providerExecutor,
+      List<MarketDataFunction<?, ?>> functions) {
+
     this.observableDataProvider = observableDataProvider;
     this.timeSeriesProvider = timeSeriesProvider;
+    this.executor = executor;
+    this.providerExecutor = providerExecutor;
 
     // Use a HashMap instead of an ImmutableMap.Builder so values can be overwritten.
     // If the functions argument includes a missing mapping builder it can overwrite the one inserted below
@@ -110,6 +171,10 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
     // of those nodes represent the market data required to build that data, and so on
     MarketDataNode root = MarketDataNode.buildDependencyTree(requirements, suppliedData, marketDataConfig, functions);
 
+    if (executor != null) {
+      return createParallel(root, marketDataConfig, suppliedData, refData, scenarioDefinition, dataBuilder);
+    }
+
     // The leaf nodes of the dependency tree represent market data with no missing requirements for market data.
     // This includes:
     //   * Market data that is already available
@@ -138,38 +203,8 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
       // The requirements contained in the leaf nodes
       MarketDataRequirements leafRequirements = pair.getSecond();
 
-      // Time series of observable data ------------------------------------------------------------
-
-      // Build any time series that are required but not available
-      leafRequirements.getTimeSeries().stream()
-          .filter(id -> marketData.getTimeSeries(id).isEmpty())
-          .filter(id -> suppliedData.getTimeSeries(id).isEmpty())
-          .forEach(id -> dataBuilder.addTimeSeriesResult(id, timeSeriesProvider.provideTimeSeries(id)));
-
-      // Copy supplied time series to the scenario data
-      leafRequirements.getTimeSeries().stream()
-          .filter(id -> !suppliedData.getTimeSeries(id).isEmpty())
-          .forEach(id -> dataBuilder.addTimeSeries(id, suppliedData.getTimeSeries(id)));
-
-      // Single values of observable data -----------------------------------------------------------
-
-      // Filter out IDs for the data that is already available
-      Set<ObservableId> observableIds = leafRequirements.getObservables().stream()
-          .filter(not(marketData::containsValue))
-          .filter(not(suppliedData::containsValue))
-          .collect(toImmutableSet());
-
-      // Observable data is built in bulk so it can be efficiently requested from data provider in one operation
-      if (!observableIds.isEmpty()) {
-        Map<ObservableId, Result<Double>> observableResults = observableDataProvider.provideObservableData(observableIds);
-        MapStream.of(observableResults)
-            .forEach((id, res) -> addObservableResult(id, res, refData, scenarioDefinition, dataBuilder));
-      }
-
-      // Copy observable data from the supplied data to the builder, applying any matching perturbations
-      leafRequirements.getObservables().stream()
-          .filter(suppliedData::containsValue)
-          .forEach(id -> addValue(id, suppliedData.getValue(id), refData, scenarioDefinition, dataBuilder));
+      // Time series and single values of observable data
+      addObservableData(leafRequirements, marketData, suppliedData, refData, scenarioDefinition, dataBuilder);
 
       // Non-observable data -----------------------------------------------------------------------
 
@@ -201,6 +236,217 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
     return builtData;
   }
 
+  /**
+   * Builds the market data in parallel, treating the dependency tree as a graph.
+   * <p>
+   * The observable data, time-series and supplied data are added first, as they have no dependencies.
+   * Each item of non-observable data is then built once, submitted to the executor as soon as
+   * all the non-observable data it depends on has been built.
+   * The market data passed to each market data function is a snapshot of the data built so far,
+   * which is guaranteed to contain the data it depends on.
+   *
+   * @param root  the root of the dependency tree
+   * @param marketDataConfig  configuration specifying how the market data should be built
+   * @param suppliedData  market data supplied by the user
+   * @param refData  the reference data
+   * @param scenarioDefinition  definition of a set of scenarios
+   * @param dataBuilder  the builder to which the market data is added
+   * @return the market data
+   */
+  private BuiltScenarioMarketData createParallel(
+      MarketDataNode root,
+      MarketDataConfig marketDataConfig,
+      ScenarioMarketData suppliedData,
+      ReferenceData refData,
+      ScenarioDefinition scenarioDefinition,
+      BuiltScenarioMarketDataBuilder dataBuilder) {
+
+    // Split the tree into the data with no dependencies and the unique items of data that must be built
+    MarketDataRequirementsBuilder leafRequirementsBuilder = MarketDataRequirements.builder();
+    Map<MarketDataId<?>, MarketDataNode> nodesToBuild = new LinkedHashMap<>();
+    collectNodes(root, suppliedData, leafRequirementsBuilder, nodesToBuild);
+    MarketDataRequirements leafRequirements = leafRequirementsBuilder.build();
+
+    // The observable data is requested from the provider in one operation
+    addObservableData(leafRequirements, dataBuilder.build(), suppliedData, refData, scenarioDefinition, dataBuilder);
+    leafRequirements.getNonObservables()
+        .forEach(id -> addValue(id, suppliedData.getValue(id), refData, scenarioDefinition, dataBuilder));
+
+    // Schedule each item of data to be built once the data it depends on is available
+    Map<MarketDataId<?>, CompletableFuture<Void>> futures = new HashMap<>();
+    for (MarketDataNode node : nodesToBuild.values()) {
+      scheduleBuild(node, nodesToBuild, futures, marketDataConfig, refData, scenarioDefinition, dataBuilder);
+    }
+    join(CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[futures.size()])));
+    return dataBuilder.build();
+  }
+
+  // waits for the future to complete, rethrowing the exception from the function or provider
+  // as would happen when invoking it on the calling thread
+  private static <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw ex;
+    }
+  }
+
+  // collects the data with no dependencies and the unique non-observable data that must be built
+  private static void collectNodes(
+      MarketDataNode node,
+      ScenarioMarketData suppliedData,
+      MarketDataRequirementsBuilder leafRequirementsBuilder,
+      Map<MarketDataId<?>, MarketDataNode> nodesToBuild) {
+
+    for (MarketDataNode child : node.getDependencies()) {
+      MarketDataId<?> id = child.getId();
+      if (child.getDataType() == MarketDataNode.DataType.TIME_SERIES) {
+        leafRequirementsBuilder.addTimeSeries((ObservableId) id);
+      } else if (id instanceof ObservableId || suppliedData.containsValue(id)) {
+        leafRequirementsBuilder.addValues(id);
+      } else if (!nodesToBuild.containsKey(id)) {
+        nodesToBuild.put(id, child);
+        collectNodes(child, suppliedData, leafRequirementsBuilder, nodesToBuild);
+      }
+    }
+  }
+
+  // schedules an item of data to be built once its dependencies have been built, returning the future
+  private CompletableFuture<Void> scheduleBuild(
+      MarketDataNode node,
+      Map<MarketDataId<?>, MarketDataNode> nodesToBuild,
+      Map<MarketDataId<?>, CompletableFuture<Void>> futures,
+      MarketDataConfig marketDataConfig,
+      ReferenceData refData,
+      ScenarioDefinition scenarioDefinition,
+      BuiltScenarioMarketDataBuilder dataBuilder) {
+
+    CompletableFuture<Void> existing = futures.get(node.getId());
+    if (existing != null) {
+      return existing;
+    }
+    CompletableFuture<?>[] dependencies = node.getDependencies().stream()
+        .map(MarketDataNode::getId)
+        .filter(nodesToBuild::containsKey)
+        .map(id -> scheduleBuild(
+            nodesToBuild.get(id), nodesToBuild, futures, marketDataConfig, refData, scenarioDefinition, dataBuilder))
+        .toArray(CompletableFuture<?>[]::new);
+    CompletableFuture<Void> future = CompletableFuture.allOf(dependencies)
+        .thenRunAsync(
+            () -> buildNode(node.getId(), marketDataConfig, refData, scenarioDefinition, dataBuilder), executor);
+    futures.put(node.getId(), future);
+    return future;
+  }
+
+  // builds an item of data from a snapshot of the data built so far, adding the result to the shared builder
+  private void buildNode(
+      MarketDataId<?> id,
+      MarketDataConfig marketDataConfig,
+      ReferenceData refData,
+      ScenarioDefinition scenarioDefinition,
+      BuiltScenarioMarketDataBuilder dataBuilder) {
+
+    BuiltScenarioMarketData marketData;
+    synchronized (dataBuilder) {
+      marketData = dataBuilder.build();
+    }
+    Result<MarketDataBox<?>> result = buildNonObservableData(id, marketDataConfig, marketData, refData);
+    // perturbations are applied outside the lock as they may be expensive
+    Optional<Result<MarketDataBox<?>>> perturbed = result.isSuccess() ?
+        perturb(id, result.getValue(), refData, scenarioDefinition) :
+        Optional.empty();
+    synchronized (dataBuilder) {
+      if (perturbed.isPresent()) {
+        dataBuilder.addResult(id, perturbed.get());
+      } else if (result.isFailure()) {
+        dataBuilder.addResult(id, result);
+      } else {
+        dataBuilder.addBox(id, result.getValue());
+      }
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Adds the time-series and single values of observable data to a builder.
+   * <p>
+   * Data that is not supplied is requested from the providers, with the single values requested in bulk.
+   * Supplied data is copied to the builder, applying any matching perturbations.
+   *
+   * @param requirements  the requirements for the data
+   * @param marketData  the data built so far, which is not requested again
+   * @param suppliedData  market data supplied by the user
+   * @param refData  the reference data
+   * @param scenarioDefinition  definition of a set of scenarios
+   * @param dataBuilder  the builder to which the market data is added
+   */
+  private void addObservableData(
+      MarketDataRequirements requirements,
+      BuiltScenarioMarketData marketData,
+      ScenarioMarketData suppliedData,
+      ReferenceData refData,
+      ScenarioDefinition scenarioDefinition,
+      BuiltScenarioMarketDataBuilder dataBuilder) {
+
+    // Filter out IDs for the data that is already available
+    Set<ObservableId> timeSeriesIds = requirements.getTimeSeries().stream()
+        .filter(id -> marketData.getTimeSeries(id).isEmpty())
+        .filter(id -> suppliedData.getTimeSeries(id).isEmpty())
+        .collect(toImmutableSet());
+    Set<ObservableId> observableIds = requirements.getObservables().stream()
+        .filter(not(marketData::containsValue))
+        .filter(not(suppliedData::containsValue))
+        .collect(toImmutableSet());
+
+    // Time series of observable data ------------------------------------------------------------
+
+    // Request the observable values in the background while the time series are requested
+    CompletableFuture<Map<ObservableId, Result<Double>>> observableFuture = provideObservableData(observableIds);
+
+    // Build any time series that are required but not available
+    if (providerExecutor == null) {
+      timeSeriesIds.forEach(id -> dataBuilder.addTimeSeriesResult(id, timeSeriesProvider.provideTimeSeries(id)));
+    } else {
+      Map<ObservableId, CompletableFuture<Result<LocalDateDoubleTimeSeries>>> timeSeriesFutures = timeSeriesIds.stream()
+          .collect(toImmutableMap(
+              id -> id,
+              id -> CompletableFuture.supplyAsync(() -> timeSeriesProvider.provideTimeSeries(id), providerExecutor)));
+      MapStream.of(timeSeriesFutures)
+          .forEach((id, future) -> dataBuilder.addTimeSeriesResult(id, join(future)));
+    }
+
+    // Copy supplied time series to the scenario data
+    requirements.getTimeSeries().stream()
+        .filter(id -> !suppliedData.getTimeSeries(id).isEmpty())
+        .forEach(id -> dataBuilder.addTimeSeries(id, suppliedData.getTimeSeries(id)));
+
+    // Single values of observable data -----------------------------------------------------------
+
+    MapStream.of(join(observableFuture))
+        .forEach((id, res) -> addObservableResult(id, res, refData, scenarioDefinition, dataBuilder));
+
+    // Copy observable data from the supplied data to the builder, applying any matching perturbations
+    requirements.getObservables().stream()
+        .filter(suppliedData::containsValue)
+        .forEach(id -> addValue(id, suppliedData.getValue(id), refData, scenarioDefinition, dataBuilder));
+  }
+
+  // requests the observable values, using the provider executor if available
+  private CompletableFuture<Map<ObservableId, Result<Double>>> provideObservableData(Set<ObservableId> observableIds) {
+    // Observable data is built in bulk so it can be efficiently requested from data provider in one operation
+    if (observableIds.isEmpty()) {
+      return CompletableFuture.completedFuture(ImmutableMap.of());
+    }
+    if (providerExecutor == null) {
+      return CompletableFuture.completedFuture(observableDataProvider.provideObservableData(observableIds));
+    }
+    return CompletableFuture.supplyAsync(
+        () -> observableDataProvider.provideObservableData(observableIds), providerExecutor);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Builds items of non-observable market data using a market data function.
@@ -310,7 +556,6 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
    * @param scenarioDefinition  definition of a set of scenarios
    * @param builder  the market data is added to this builder
    */
-  @SuppressWarnings("unchecked")
   private void addValue(
       MarketDataId<?> id,
       MarketDataBox<?> value,
@@ -318,6 +563,30 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
       ScenarioDefinition scenarioDefinition,
       BuiltScenarioMarketDataBuilder builder) {
 
+    Optional<Result<MarketDataBox<?>>> perturbed = perturb(id, value, refData, scenarioDefinition);
+    if (perturbed.isPresent()) {
+      builder.addResult(id, perturbed.get());
+    } else {
+      builder.addBox(id, value);
+    }
+  }
+
+  /**
+   * Applies the first matching mapping from the scenario definition to an item of market data.
+   *
+   * @param id  ID of the market data value
+   * @param value  the market data value
+   * @param refData  the reference data
+   * @param scenarioDefinition  definition of a set of scenarios
+   * @return the perturbed value or details of why it couldn't be perturbed, empty if no mapping matches the value
+   */
+  @SuppressWarnings("unchecked")
+  private Optional<Result<MarketDataBox<?>>> perturb(
+      MarketDataId<?> id,
+      MarketDataBox<?> value,
+      ReferenceData refData,
+      ScenarioDefinition scenarioDefinition) {
+
     Optional<PerturbationMapping<?>> optionalMapping = scenarioDefinition.getMappings().stream()
         .filter(m -> m.matches(id, value, refData))
         .findFirst();
@@ -328,11 +597,9 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
       PerturbationMapping<Object> mapping = (PerturbationMapping<Object>) optionalMapping.get();
       MarketDataBox<Object> objectValue = ((MarketDataBox<Object>) value);
       // Result.of() catches any exceptions thrown by the mapping and wraps them in a failure
-      Result<MarketDataBox<?>> result = Result.of(() -> mapping.applyPerturbation(objectValue, refData));
-      builder.addResult(id, result);
-    } else {
-      builder.addBox(id, value);
+      return Optional.of(Result.of(() -> mapping.applyPerturbation(objectValue, refData)));
     }
+    return Optional.empty();
   }
 
 }
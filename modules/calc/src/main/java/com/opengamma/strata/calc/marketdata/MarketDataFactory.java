@@ -6,10 +6,12 @@
 package com.opengamma.strata.calc.marketdata;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.calc.runner.CalculationTasks;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 
@@ -74,6 +76,66 @@ public interface MarketDataFactory {
     return new DefaultMarketDataFactory(observableDataProvider, timeSeriesProvider, functions);
   }
 
+  /**
+   * Obtains an instance of the factory that builds independent market data in parallel.
+   * <p>
+   * The market data functions are used to build the market data.
+   * Each item of market data that must be built is submitted to the executor as soon as
+   * the market data it depends on is available. For example, curve groups for different
+   * currencies that do not depend on one another are built concurrently.
+   * The market data functions must be safe to invoke from multiple threads.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   *
+   * @param observableDataProvider  the provider of observable market data
+   * @param timeSeriesProvider  the provider of time-series
+   * @param executor  the executor used to build the market data
+   * @param functions  the functions that create the market data
+   * @return the market data factory
+   */
+  public static MarketDataFactory of(
+      ObservableDataProvider observableDataProvider,
+      TimeSeriesProvider timeSeriesProvider,
+      ExecutorService executor,
+      List<MarketDataFunction<?, ?>> functions) {
+
+    return new DefaultMarketDataFactory(observableDataProvider, timeSeriesProvider, executor, functions);
+  }
+
+  /**
+   * Obtains an instance of the factory that builds independent market data in parallel,
+   * invoking the providers concurrently on a separate executor.
+   * <p>
+   * The market data is built as described in {@link #of(ObservableDataProvider, TimeSeriesProvider,
+   * ExecutorService, List)}. In addition, each time-series is requested from the provider in a separate task
+   * submitted to the provider executor, concurrently with the bulk request for the observable values.
+   * This is intended for providers that block, for example when reading from a cache or database.
+   * The provider executor can then be sized for the blocking requests, such as a cached thread pool,
+   * while the executor building the market data remains bounded by the number of processors.
+   * The providers must be safe to invoke from multiple threads.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executors.
+   *
+   * @param observableDataProvider  the provider of observable market data
+   * @param timeSeriesProvider  the provider of time-series
+   * @param executor  the executor used to build the market data
+   * @param providerExecutor  the executor used to invoke the providers
+   * @param functions  the functions that create the market data
+   * @return the market data factory
+   */
+  public static MarketDataFactory of(
+      ObservableDataProvider observableDataProvider,
+      TimeSeriesProvider timeSeriesProvider,
+      ExecutorService executor,
+      ExecutorService providerExecutor,
+      List<MarketDataFunction<?, ?>> functions) {
+
+    ArgChecker.notNull(executor, "executor");
+    ArgChecker.notNull(providerExecutor, "providerExecutor");
+    return new DefaultMarketDataFactory(
+        observableDataProvider, timeSeriesProvider, executor, providerExecutor, functions);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Builds a set of market data.
@@ -26,12 +26,14 @@ import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.CalculationTarget;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.ReferenceDataNotFoundException;
+import com.opengamma.strata.basics.Resolvable;
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.CurrencyPair;
 import com.opengamma.strata.basics.currency.FxRate;
 import com.opengamma.strata.calc.Measure;
 import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
 import com.opengamma.strata.calc.marketdata.MarketDataRequirementsBuilder;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.data.FxRateId;
@@ -215,6 +217,27 @@ public final class CalculationTask implements ImmutableBean {
     return CalculationResults.of(target, resultBuilder.build());
   }
 
+  /**
+   * Executes the task, performing calculations for the target using multiple sets of market data
+   * and resolving the target using a cache.
+   * <p>
+   * While the task is executing, {@link FunctionUtils#resolve(Resolvable, ReferenceData)}
+   * obtains the resolved target from the cache.
+   *
+   * @param marketData  the market data used in the calculation
+   * @param refData  the reference data
+   * @param resolutionCache  the cache of resolved targets
+   * @return results of the calculation, one for every scenario in the market data
+   */
+  public CalculationResults execute(
+      ScenarioMarketData marketData,
+      ReferenceData refData,
+      ResolutionCache resolutionCache) {
+
+    ArgChecker.notNull(resolutionCache, "resolutionCache");
+    return FunctionUtils.withResolutionCache(resolutionCache, () -> execute(marketData, refData));
+  }
+
   // calculates the result
   private Map<Measure, Result<?>> calculate(ScenarioMarketData marketData, ReferenceData refData) {
     try {
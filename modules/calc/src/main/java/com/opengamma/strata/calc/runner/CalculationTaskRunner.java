@@ -79,6 +79,44 @@ public interface CalculationTaskRunner extends AutoCloseable {
     return DefaultCalculationTaskRunner.of(executor);
   }
 
+  /**
+   * Creates a calculation task runner capable of performing calculations, specifying the executor
+   * and the maximum number of tasks in flight.
+   * <p>
+   * A task is in flight from the time it is submitted to the executor until its result
+   * has been delivered to the listener. When the maximum is reached, the thread submitting the tasks
+   * blocks until a result has been delivered. This bounds the memory used by the asynchronous methods
+   * when the listener is slower than the calculations, for example when writing results to a database.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param maxTasksInFlight  the maximum number of tasks submitted whose result has not been delivered
+   * @return the calculation task runner
+   */
+  public static CalculationTaskRunner of(ExecutorService executor, int maxTasksInFlight) {
+    return DefaultCalculationTaskRunner.of(executor, maxTasksInFlight);
+  }
+
+  /**
+   * Creates a calculation task runner capable of performing calculations, specifying the executor
+   * and the cache of resolved targets.
+   * <p>
+   * While each task is executed, functions obtain the resolved form of the target from the cache using
+   * {@link FunctionUtils#resolve(com.opengamma.strata.basics.Resolvable, ReferenceData)}.
+   * When the same targets are calculated repeatedly, such as in intraday reruns, this avoids
+   * resolving the targets each time. The cache is owned by the runner, not the calculation parameters.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param resolutionCache  the cache of resolved targets
+   * @return the calculation task runner
+   */
+  public static CalculationTaskRunner of(ExecutorService executor, ResolutionCache resolutionCache) {
+    return DefaultCalculationTaskRunner.of(executor, resolutionCache);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Performs calculations for a single set of market data.
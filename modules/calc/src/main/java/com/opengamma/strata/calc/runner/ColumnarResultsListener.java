@@ -0,0 +1,54 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.List;
+
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.ColumnHeader;
+import com.opengamma.strata.calc.ColumnarResults;
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * Calculation listener that receives the results of individual calculations
+ * and builds a set of {@link ColumnarResults}.
+ * <p>
+ * Each result is stored directly in its row and column as it is received,
+ * thus the results are not retained as objects nor sorted when the calculations complete.
+ */
+public final class ColumnarResultsListener extends AggregatingCalculationListener<ColumnarResults> {
+
+  /** The builder populated with the results as they arrive. */
+  private final ColumnarResults.Builder builder;
+
+  /**
+   * Creates an instance for the specified columns and number of targets.
+   *
+   * @param columns  the columns that define what values are calculated
+   * @param targetCount  the number of targets, which is the number of rows
+   */
+  public ColumnarResultsListener(List<Column> columns, int targetCount) {
+    ArgChecker.notNull(columns, "columns");
+    List<ColumnHeader> headers = columns.stream()
+        .map(c -> c.toHeader())
+        .collect(toImmutableList());
+    this.builder = ColumnarResults.builder(headers, targetCount);
+  }
+
+  @Override
+  public void resultReceived(CalculationTarget target, CalculationResult result) {
+    builder.set(result.getRowIndex(), result.getColumnIndex(), result.getResult());
+  }
+
+  @Override
+  protected ColumnarResults createAggregateResult() {
+    return builder.build();
+  }
+
+}
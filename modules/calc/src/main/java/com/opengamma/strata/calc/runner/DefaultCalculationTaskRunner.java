@@ -7,12 +7,12 @@ package com.opengamma.strata.calc.runner;
 
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
 
-import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -33,6 +33,7 @@ import com.opengamma.strata.data.scenario.ScenarioMarketData;
  * The default calculation task runner.
  * <p>
  * This uses a single instance of {@link ExecutorService}.
+ * The number of tasks in flight may be limited, bounding the memory used when the listener is slow.
  */
 class DefaultCalculationTaskRunner implements CalculationTaskRunner {
 
@@ -41,6 +42,15 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * This will typically be multi-threaded, but single or direct executors also work.
    */
   private final ExecutorService executor;
+  /**
+   * The maximum number of tasks submitted to the executor whose result has not been delivered.
+   * Zero means there is no limit.
+   */
+  private final int maxTasksInFlight;
+  /**
+   * The cache of resolved targets, used by the functions while the tasks are executed.
+   */
+  private final ResolutionCache resolutionCache;
 
   //-------------------------------------------------------------------------
   /**
@@ -57,7 +67,8 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * @return the calculation task runner
    */
   static DefaultCalculationTaskRunner ofMultiThreaded() {
-    return new DefaultCalculationTaskRunner(createExecutor(Runtime.getRuntime().availableProcessors()));
+    return new DefaultCalculationTaskRunner(
+        createExecutor(Runtime.getRuntime().availableProcessors()), 0, ResolutionCache.none());
   }
 
   /**
@@ -69,7 +80,36 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * @return the calculation task runner
    */
   static DefaultCalculationTaskRunner of(ExecutorService executor) {
-    return new DefaultCalculationTaskRunner(executor);
+    return new DefaultCalculationTaskRunner(executor, 0, ResolutionCache.none());
+  }
+
+  /**
+   * Creates a calculation task runner capable of performing calculations, specifying the executor
+   * and the maximum number of tasks in flight.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param maxTasksInFlight  the maximum number of tasks submitted whose result has not been delivered
+   * @return the calculation task runner
+   */
+  static DefaultCalculationTaskRunner of(ExecutorService executor, int maxTasksInFlight) {
+    ArgChecker.notNegativeOrZero(maxTasksInFlight, "maxTasksInFlight");
+    return new DefaultCalculationTaskRunner(executor, maxTasksInFlight, ResolutionCache.none());
+  }
+
+  /**
+   * Creates a calculation task runner capable of performing calculations, specifying the executor
+   * and the cache of resolved targets.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * 
+   * @param executor  the executor to use
+   * @param resolutionCache  the cache of resolved targets
+   * @return the calculation task runner
+   */
+  static DefaultCalculationTaskRunner of(ExecutorService executor, ResolutionCache resolutionCache) {
+    return new DefaultCalculationTaskRunner(executor, 0, resolutionCache);
   }
 
   // create an executor with daemon threads
@@ -89,9 +129,17 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * Creates an instance specifying the executor to use.
    * 
    * @param executor  the executor that is used to perform the calculations
+   * @param maxTasksInFlight  the maximum number of tasks in flight, zero for no limit
+   * @param resolutionCache  the cache of resolved targets
    */
-  private DefaultCalculationTaskRunner(ExecutorService executor) {
+  private DefaultCalculationTaskRunner(
+      ExecutorService executor,
+      int maxTasksInFlight,
+      ResolutionCache resolutionCache) {
+
     this.executor = ArgChecker.notNull(executor, "executor");
+    this.maxTasksInFlight = maxTasksInFlight;
+    this.resolutionCache = ArgChecker.notNull(resolutionCache, "resolutionCache");
   }
 
   //-------------------------------------------------------------------------
@@ -163,7 +211,7 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
       ScenarioMarketData marketData,
       ReferenceData refData) {
 
-    AggregatingListener listener = new AggregatingListener(tasks.getColumns());
+    AggregatingListener listener = new AggregatingListener(tasks);
     calculateMultiScenarioAsync(tasks, marketData, refData, listener);
     return listener.result();
   }
@@ -176,16 +224,33 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
       CalculationListener listener) {
 
     List<CalculationTask> taskList = tasks.getTasks();
-    // the listener is invoked via this wrapper
-    // the wrapper ensures thread-safety for the listener
-    // it also calls the listener with single CalculationResult cells, not CalculationResults
-    Consumer<CalculationResults> consumer = new ListenerWrapper(listener, taskList.size());
-    // run each task using the executor
-    taskList.stream().forEach(task -> runTask(task, marketData, refData, consumer));
+    if (maxTasksInFlight == 0) {
+      // the listener is invoked via this wrapper
+      // the wrapper ensures thread-safety for the listener
+      // it also calls the listener with single CalculationResult cells, not CalculationResults
+      Consumer<CalculationResults> consumer = new ListenerWrapper(listener, taskList.size());
+      // run each task using the executor
+      taskList.stream().forEach(task -> runTask(task, marketData, refData, consumer));
+    } else {
+      // a permit is acquired before submitting a task, and released once its result is delivered
+      // this blocks the submitting thread while the window is full, bounding the queue of results
+      // a task that completes exceptionally has no result to deliver, thus its permit is released directly
+      Semaphore permits = new Semaphore(maxTasksInFlight);
+      Consumer<CalculationResults> consumer = new ListenerWrapper(listener, taskList.size(), permits::release);
+      for (CalculationTask task : taskList) {
+        permits.acquireUninterruptibly();
+        runTask(task, marketData, refData, consumer)
+            .whenComplete((ignored, ex) -> {
+              if (ex != null) {
+                permits.release();
+              }
+            });
+      }
+    }
   }
 
-  // submits a task to the executor to be run
-  private void runTask(
+  // submits a task to the executor to be run, returning the future that completes once the result is delivered
+  private CompletableFuture<Void> runTask(
       CalculationTask task,
       ScenarioMarketData marketData,
       ReferenceData refData,
@@ -193,8 +258,8 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
 
     // the task is executed, with the result passed to the consumer
     // the consumer wraps the listener to ensure thread-safety
-    Supplier<CalculationResults> taskExecutor = () -> task.execute(marketData, refData);
-    CompletableFuture.supplyAsync(taskExecutor, executor).thenAccept(consumer);
+    Supplier<CalculationResults> taskExecutor = () -> task.execute(marketData, refData, resolutionCache);
+    return CompletableFuture.supplyAsync(taskExecutor, executor).thenAccept(consumer);
   }
 
   //-------------------------------------------------------------------------
@@ -207,47 +272,40 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
   /**
    * Calculation listener that receives the results of individual calculations
    * and builds a set of {@link Results}. This is used by the non-async methods.
+   * <p>
+   * Each result is stored directly at the index of its cell, thus no sort is needed.
    */
   private static final class AggregatingListener extends AggregatingCalculationListener<Results> {
 
-    /** Comparator for sorting the results by row and then column. */
-    private static final Comparator<CalculationResult> COMPARATOR =
-        Comparator.comparingInt(CalculationResult::getRowIndex)
-            .thenComparingInt(CalculationResult::getColumnIndex);
-
-    /** List that is populated with the results as they arrive. */
-    private final List<CalculationResult> results = new ArrayList<>();
+    /** Array that is populated with the results as they arrive, indexed by cell. */
+    private final Result<?>[] results;
 
     /** The columns that define what values are calculated. */
     private final List<Column> columns;
 
-    private AggregatingListener(List<Column> columns) {
-      this.columns = columns;
+    private AggregatingListener(CalculationTasks tasks) {
+      this.columns = tasks.getColumns();
+      this.results = new Result<?>[tasks.getTargets().size() * columns.size()];
     }
 
     @Override
     public void resultReceived(CalculationTarget target, CalculationResult result) {
-      results.add(result);
+      results[result.getRowIndex() * columns.size() + result.getColumnIndex()] = result.getResult();
     }
 
     @Override
     protected Results createAggregateResult() {
-      results.sort(COMPARATOR);
-      return buildResults(results, columns);
+      return buildResults(Arrays.asList(results), columns);
     }
 
     /**
      * Builds a set of results from the results of the individual calculations.
      *
-     * @param calculationResults  the results of the individual calculations
+     * @param results  the results of the individual calculations, grouped by target, then column
      * @param columns  the columns that define what values are calculated
      * @return the results
      */
-    private static Results buildResults(List<CalculationResult> calculationResults, List<Column> columns) {
-      List<Result<?>> results =
-          calculationResults.stream()
-              .map(r -> r.getResult())
-              .collect(toImmutableList());
+    private static Results buildResults(List<Result<?>> results, List<Column> columns) {
       List<ColumnHeader> headers = columns.stream()
           .map(c -> c.toHeader())
           .collect(toImmutableList());
@@ -259,13 +317,13 @@ class DefaultCalculationTaskRunner implements CalculationTaskRunner {
   /**
    * Listener that decorates another listener and unwraps {@link ScenarioArray} instances
    * containing a single value before passing the value to the delegate listener.
-   * This is used by the single scenario async method.
+   * This is used by the single scenario async method and {@link IncrementalCalculationSession}.
    */
-  private static final class UnwrappingListener implements CalculationListener {
+  static final class UnwrappingListener implements CalculationListener {
 
     private final CalculationListener delegate;
 
-    private UnwrappingListener(CalculationListener delegate) {
+    UnwrappingListener(CalculationListener delegate) {
       this.delegate = delegate;
     }
 
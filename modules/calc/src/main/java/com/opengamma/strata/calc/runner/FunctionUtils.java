@@ -8,9 +8,12 @@ package com.opengamma.strata.calc.runner;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collector;
 import java.util.stream.DoubleStream;
 
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.Resolvable;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
 import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
 import com.opengamma.strata.calc.Measure;
@@ -25,6 +28,13 @@ import com.opengamma.strata.data.scenario.DoubleScenarioArray;
  */
 public final class FunctionUtils {
 
+  /**
+   * The resolution cache of the task being executed by the current thread.
+   * This is set by the task runner for the duration of the task.
+   */
+  private static final ThreadLocal<ResolutionCache> RESOLUTION_CACHE =
+      ThreadLocal.withInitial(ResolutionCache::none);
+
   // Private constructor because this only contains static helper methods.
   private FunctionUtils() {
   }
@@ -130,4 +140,30 @@ public final class FunctionUtils {
     mutableMeasureMap.put(newKey, result);
   }
 
+  /**
+   * Resolves a target, using the resolution cache of the task runner if there is one.
+   * <p>
+   * If the task being executed was passed a {@link ResolutionCache} by the task runner,
+   * it is used to obtain the resolved target. Otherwise, the target is resolved directly.
+   *
+   * @param <T>  the type of the resolved target
+   * @param target  the target to resolve, such as a trade
+   * @param refData  the reference data to use when resolving
+   * @return the resolved target
+   */
+  public static <T> T resolve(Resolvable<T> target, ReferenceData refData) {
+    return RESOLUTION_CACHE.get().resolve(target, refData);
+  }
+
+  // invokes the supplier with the resolution cache used by resolve(), restoring the previous cache afterwards
+  static <T> T withResolutionCache(ResolutionCache cache, Supplier<T> supplier) {
+    ResolutionCache previous = RESOLUTION_CACHE.get();
+    RESOLUTION_CACHE.set(cache);
+    try {
+      return supplier.get();
+    } finally {
+      RESOLUTION_CACHE.set(previous);
+    }
+  }
+
 }
@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.Resolvable;
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * A resolution cache holding the resolved targets in memory.
+ * <p>
+ * The size of the cache is bounded, the least recently used entries being discarded first.
+ * Two threads resolving the same target at the same time may both perform the resolution.
+ */
+final class InMemoryResolutionCache implements ResolutionCache {
+
+  /**
+   * The maximum number of entries.
+   */
+  private final long maximumSize;
+  /**
+   * The cached resolved targets.
+   */
+  private final Cache<Key, Object> cache;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance holding up to the specified number of resolved targets.
+   *
+   * @param maximumSize  the maximum number of resolved targets
+   * @return the cache
+   */
+  static InMemoryResolutionCache of(long maximumSize) {
+    ArgChecker.notNegativeOrZero(maximumSize, "maximumSize");
+    return new InMemoryResolutionCache(maximumSize);
+  }
+
+  // restricted constructor
+  private InMemoryResolutionCache(long maximumSize) {
+    this.maximumSize = maximumSize;
+    this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T resolve(Resolvable<T> target, ReferenceData refData) {
+    ArgChecker.notNull(target, "target");
+    ArgChecker.notNull(refData, "refData");
+    Key key = new Key(target, refData);
+    Object cached = cache.getIfPresent(key);
+    if (cached != null) {
+      return (T) cached;
+    }
+    // exceptions are not cached, so a target that fails is attempted again
+    T resolved = target.resolve(refData);
+    cache.put(key, resolved);
+    return resolved;
+  }
+
+  @Override
+  public void clear() {
+    cache.invalidateAll();
+  }
+
+  /**
+   * Gets the number of resolved targets in the cache.
+   *
+   * @return the number of entries
+   */
+  long size() {
+    return cache.size();
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "InMemoryResolutionCache[maximumSize=" + maximumSize + "]";
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The key of the cache, the target matched by equality and the reference data by identity.
+   */
+  private static final class Key {
+
+    private final Resolvable<?> target;
+    private final ReferenceData refData;
+    private final int hashCode;
+
+    private Key(Resolvable<?> target, ReferenceData refData) {
+      this.target = target;
+      this.refData = refData;
+      this.hashCode = target.hashCode() * 31 + System.identityHashCode(refData);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (obj instanceof Key) {
+        Key other = (Key) obj;
+        return refData == other.refData && target.equals(other.target);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+}
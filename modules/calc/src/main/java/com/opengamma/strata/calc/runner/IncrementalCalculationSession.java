@@ -0,0 +1,300 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.ObservableId;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * A calculation session that recalculates only the tasks affected by a change in market data.
+ * <p>
+ * When the session is created, the market data requirements of each task are used to build a reverse index
+ * from market data ID to the tasks that depend on it. The first set of market data is calculated in full.
+ * When a new set of market data is received, the IDs whose value or time-series has changed are determined,
+ * and only the tasks that depend on those IDs are recalculated. For example, if only the EUR curves change,
+ * only the trades that require the EUR curves are recalculated.
+ * <p>
+ * The listener receives the recalculated cells only, each with the row and column of the cell
+ * in the grid of results defined by the tasks. It is thus a stream of deltas to the previous results.
+ * {@link CalculationListener#calculationsComplete()} is invoked when the recalculated cells have been delivered,
+ * including when no cell needed recalculating.
+ * <p>
+ * This relies on each function declaring all the market data it uses in its requirements.
+ * If the valuation date changes, all the tasks are recalculated.
+ * <p>
+ * The calculations of successive calls are run one after another, in the order of the calls.
+ * The tasks of a call are not started until the results of the previous call have been delivered,
+ * thus a listener never receives results older than those delivered to the listener of a previous call.
+ * <p>
+ * It is the callers responsibility to manage the life-cycle of the executor.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class IncrementalCalculationSession {
+
+  /**
+   * The calculation tasks.
+   */
+  private final CalculationTasks tasks;
+  /**
+   * The reference data.
+   */
+  private final ReferenceData refData;
+  /**
+   * Executes the tasks that perform the individual calculations.
+   */
+  private final ExecutorService executor;
+  /**
+   * The index of the tasks, keyed by the market data values they require.
+   */
+  private final ImmutableSetMultimap<MarketDataId<?>, Integer> valueIndex;
+  /**
+   * The index of the tasks, keyed by the time-series they require.
+   */
+  private final ImmutableSetMultimap<ObservableId, Integer> timeSeriesIndex;
+  /**
+   * The market data of the last calculation, null until the first calculation.
+   */
+  private MarketData marketData;
+  /**
+   * The future that completes when the results of the last calculation have been delivered.
+   */
+  private CompletableFuture<Void> lastRun = CompletableFuture.completedFuture(null);
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates a session for the specified tasks.
+   * <p>
+   * The market data requirements of each task are queried once, building the reverse index.
+   *
+   * @param tasks  the calculation tasks
+   * @param refData  the reference data to be used in the calculations
+   * @param executor  the executor that is used to perform the calculations
+   * @return the session
+   */
+  public static IncrementalCalculationSession of(
+      CalculationTasks tasks,
+      ReferenceData refData,
+      ExecutorService executor) {
+
+    return new IncrementalCalculationSession(tasks, refData, executor);
+  }
+
+  // restricted constructor
+  private IncrementalCalculationSession(CalculationTasks tasks, ReferenceData refData, ExecutorService executor) {
+    this.tasks = ArgChecker.notNull(tasks, "tasks");
+    this.refData = ArgChecker.notNull(refData, "refData");
+    this.executor = ArgChecker.notNull(executor, "executor");
+    ImmutableSetMultimap.Builder<MarketDataId<?>, Integer> valueBuilder = ImmutableSetMultimap.builder();
+    ImmutableSetMultimap.Builder<ObservableId, Integer> timeSeriesBuilder = ImmutableSetMultimap.builder();
+    List<CalculationTask> taskList = tasks.getTasks();
+    for (int i = 0; i < taskList.size(); i++) {
+      MarketDataRequirements requirements = taskList.get(i).requirements(refData);
+      for (MarketDataId<?> id : requirements.getObservables()) {
+        valueBuilder.put(id, i);
+      }
+      for (MarketDataId<?> id : requirements.getNonObservables()) {
+        valueBuilder.put(id, i);
+      }
+      for (ObservableId id : requirements.getTimeSeries()) {
+        timeSeriesBuilder.put(id, i);
+      }
+    }
+    this.valueIndex = valueBuilder.build();
+    this.timeSeriesIndex = timeSeriesBuilder.build();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the calculation tasks.
+   *
+   * @return the tasks
+   */
+  public CalculationTasks getTasks() {
+    return tasks;
+  }
+
+  /**
+   * Gets the market data of the last calculation.
+   * <p>
+   * This is empty until the first calculation.
+   *
+   * @return the market data of the last calculation
+   */
+  public synchronized Optional<MarketData> getMarketData() {
+    return Optional.ofNullable(marketData);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Performs all the calculations asynchronously for a single set of market data,
+   * invoking a listener as each calculation completes.
+   * <p>
+   * The market data becomes the reference for subsequent calls to
+   * {@link #updateAsync(MarketData, CalculationListener)}.
+   *
+   * @param marketData  the market data to be used in the calculations
+   * @param listener  listener that is invoked when individual results are calculated
+   */
+  public void calculateAsync(MarketData marketData, CalculationListener listener) {
+    ArgChecker.notNull(marketData, "marketData");
+    ArgChecker.notNull(listener, "listener");
+    synchronized (this) {
+      this.marketData = marketData;
+      runAfterLastRun(tasks.getTasks(), marketData, listener);
+    }
+  }
+
+  /**
+   * Performs the calculations affected by a change in market data asynchronously,
+   * invoking a listener as each calculation completes.
+   * <p>
+   * The market data is compared to the market data of the last calculation, and only the tasks
+   * depending on the changed IDs are recalculated. If there has been no previous calculation,
+   * all the calculations are performed.
+   * The market data becomes the reference for subsequent calls.
+   *
+   * @param marketData  the market data to be used in the calculations
+   * @param listener  listener that is invoked when individual results are calculated
+   * @return the IDs of the market data that changed
+   */
+  public Set<MarketDataId<?>> updateAsync(MarketData marketData, CalculationListener listener) {
+    ArgChecker.notNull(marketData, "marketData");
+    ArgChecker.notNull(listener, "listener");
+    synchronized (this) {
+      MarketData previous = this.marketData;
+      this.marketData = marketData;
+      if (previous == null || !previous.getValuationDate().equals(marketData.getValuationDate())) {
+        runAfterLastRun(tasks.getTasks(), marketData, listener);
+        return allIds();
+      }
+      Set<MarketDataId<?>> changedIds = changedIds(previous, marketData);
+      runAfterLastRun(dependentTasks(changedIds), marketData, listener);
+      return changedIds;
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Determines the IDs of the market data that differ between two sets of market data.
+   * <p>
+   * Only the IDs required by the tasks are compared.
+   * A value or time-series that is present in one set and not the other is a change.
+   *
+   * @param previous  the previous market data
+   * @param current  the current market data
+   * @return the IDs of the market data that changed
+   */
+  public Set<MarketDataId<?>> changedIds(MarketData previous, MarketData current) {
+    ArgChecker.notNull(previous, "previous");
+    ArgChecker.notNull(current, "current");
+    ImmutableSet.Builder<MarketDataId<?>> builder = ImmutableSet.builder();
+    for (MarketDataId<?> id : valueIndex.keySet()) {
+      if (!Objects.equals(previous.findValue(id), current.findValue(id))) {
+        builder.add(id);
+      }
+    }
+    for (ObservableId id : timeSeriesIndex.keySet()) {
+      if (!previous.getTimeSeries(id).equals(current.getTimeSeries(id))) {
+        builder.add(id);
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Finds the tasks that depend on any of the specified market data IDs.
+   * <p>
+   * The tasks are returned in the order of the calculation tasks.
+   *
+   * @param ids  the market data IDs
+   * @return the tasks that depend on the IDs
+   */
+  public ImmutableList<CalculationTask> dependentTasks(Set<? extends MarketDataId<?>> ids) {
+    ArgChecker.notNull(ids, "ids");
+    SortedSet<Integer> indices = new TreeSet<>();
+    for (MarketDataId<?> id : ids) {
+      indices.addAll(valueIndex.get(id));
+      if (id instanceof ObservableId) {
+        indices.addAll(timeSeriesIndex.get((ObservableId) id));
+      }
+    }
+    List<CalculationTask> taskList = tasks.getTasks();
+    return indices.stream()
+        .map(taskList::get)
+        .collect(toImmutableList());
+  }
+
+  // all the IDs required by the tasks
+  private Set<MarketDataId<?>> allIds() {
+    return ImmutableSet.<MarketDataId<?>>builder()
+        .addAll(valueIndex.keySet())
+        .addAll(timeSeriesIndex.keySet())
+        .build();
+  }
+
+  //-------------------------------------------------------------------------
+  // runs the tasks once the results of the last calculation have been delivered, must be called holding the lock
+  private void runAfterLastRun(List<CalculationTask> taskList, MarketData marketData, CalculationListener listener) {
+    // a failed calculation must not prevent the following ones from running
+    lastRun = lastRun
+        .thenCompose(ignored -> runTasks(taskList, marketData, listener))
+        .exceptionally(ex -> null);
+  }
+
+  // submits the tasks to the executor to be run, unwrapping the single scenario results
+  // the future completes when all the results have been delivered to the listener
+  private CompletableFuture<Void> runTasks(
+      List<CalculationTask> taskList,
+      MarketData marketData,
+      CalculationListener listener) {
+
+    if (taskList.isEmpty()) {
+      listener.calculationsComplete();
+      return CompletableFuture.completedFuture(null);
+    }
+    ScenarioMarketData md = ScenarioMarketData.of(1, marketData);
+    // the wrapper ensures thread-safety for the listener
+    Consumer<CalculationResults> consumer = new ListenerWrapper(
+        new DefaultCalculationTaskRunner.UnwrappingListener(listener), taskList.size());
+    CompletableFuture<?>[] futures = new CompletableFuture<?>[taskList.size()];
+    for (int i = 0; i < futures.length; i++) {
+      CalculationTask task = taskList.get(i);
+      Supplier<CalculationResults> taskExecutor = () -> task.execute(md, refData);
+      futures[i] = CompletableFuture.supplyAsync(taskExecutor, executor).thenAccept(consumer);
+    }
+    return CompletableFuture.allOf(futures);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "IncrementalCalculationSession[tasks=" + tasks.getTasks().size() +
+        ", ids=" + valueIndex.keySet().size() + "]";
+  }
+
+}
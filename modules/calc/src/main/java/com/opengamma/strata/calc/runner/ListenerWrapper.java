@@ -43,6 +43,9 @@ final class ListenerWrapper implements Consumer<CalculationResults> {
   /** The total number of tasks to be executed. */
   private final int tasksExpected;
 
+  /** The action invoked once the result of each task has been delivered. */
+  private final Runnable deliveredAction;
+
   // Mutable state -----------------------------------------------------
 
   /**
@@ -71,8 +74,23 @@ final class ListenerWrapper implements Consumer<CalculationResults> {
    * @param tasksExpected  the number of tasks to be executed
    */
   ListenerWrapper(CalculationListener listener, int tasksExpected) {
+    this(listener, tasksExpected, () -> { });
+  }
+
+  /**
+   * Creates an instance wrapping the specified listener, invoking an action as each result is delivered.
+   * <p>
+   * The action is invoked once the listener has received the result of a task.
+   * It is typically used to limit the number of results waiting to be delivered.
+   * 
+   * @param listener  the underlying listener wrapped by this object
+   * @param tasksExpected  the number of tasks to be executed
+   * @param deliveredAction  the action invoked once the result of each task has been delivered
+   */
+  ListenerWrapper(CalculationListener listener, int tasksExpected, Runnable deliveredAction) {
     this.listener = ArgChecker.notNull(listener, "listener");
     this.tasksExpected = ArgChecker.notNegativeOrZero(tasksExpected, "tasksExpected");
+    this.deliveredAction = ArgChecker.notNull(deliveredAction, "deliveredAction");
   }
 
   //-------------------------------------------------------------------------
@@ -124,6 +142,7 @@ final class ListenerWrapper implements Consumer<CalculationResults> {
       } catch (RuntimeException e) {
         log.warn("Exception invoking listener.resultReceived", e);
       }
+      deliveredAction.run();
       lock.lock();
       try {
         if (++tasksReceived == tasksExpected) {
@@ -0,0 +1,41 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.Resolvable;
+
+/**
+ * A resolution cache that does not store anything.
+ */
+final class NoResolutionCache implements ResolutionCache {
+
+  /**
+   * The singleton instance.
+   */
+  static final NoResolutionCache INSTANCE = new NoResolutionCache();
+
+  // restricted constructor
+  private NoResolutionCache() {
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public <T> T resolve(Resolvable<T> target, ReferenceData refData) {
+    return target.resolve(refData);
+  }
+
+  @Override
+  public void clear() {
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "NoResolutionCache";
+  }
+
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.Resolvable;
+
+/**
+ * A cache of resolved targets, such as trades, used by calculation functions.
+ * <p>
+ * Calculation functions typically resolve the target against the reference data before pricing it,
+ * for example to produce the schedules of a swap. When the same targets are calculated repeatedly,
+ * such as in intraday reruns, the cache allows the resolution to be performed only once.
+ * <p>
+ * The cache is owned by the task runner, see {@link DefaultCalculationTaskRunner}.
+ * While a task is executed, functions obtain the resolved form of a target using
+ * {@link FunctionUtils#resolve(Resolvable, ReferenceData)}, which resolves directly if the runner has no cache.
+ * The cache is not a {@link CalculationParameter}, as the parameters must be immutable.
+ * <p>
+ * The resolved form depends on both the target and the reference data.
+ * Implementations must only return a cached value if both are the same.
+ * <p>
+ * Implementations must be thread-safe.
+ */
+public interface ResolutionCache {
+
+  /**
+   * Obtains a cache that does not store anything, resolving each time.
+   *
+   * @return the cache
+   */
+  public static ResolutionCache none() {
+    return NoResolutionCache.INSTANCE;
+  }
+
+  /**
+   * Obtains an in-memory cache holding up to the specified number of resolved targets.
+   * <p>
+   * The targets are matched using {@code equals}, thus an amended target is resolved again.
+   * The reference data is matched by identity, thus each instance of reference data has its own entries.
+   * When the cache is full, the least recently used entries are discarded.
+   *
+   * @param maximumSize  the maximum number of resolved targets
+   * @return the cache
+   */
+  public static ResolutionCache ofMaximumSize(long maximumSize) {
+    return InMemoryResolutionCache.of(maximumSize);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the resolved form of the target, using the cache if possible.
+   * <p>
+   * If the target has already been resolved using the same reference data, the cached result is returned.
+   * Otherwise, the target is resolved and the result may be added to the cache.
+   *
+   * @param <T>  the type of the resolved target
+   * @param target  the target to resolve
+   * @param refData  the reference data to use when resolving
+   * @return the resolved target
+   * @throws RuntimeException if unable to resolve the target
+   */
+  public abstract <T> T resolve(Resolvable<T> target, ReferenceData refData);
+
+  /**
+   * Discards all the cached resolved targets.
+   */
+  public abstract void clear();
+
+}
@@ -0,0 +1,236 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc;
+
+import static com.opengamma.strata.basics.currency.Currency.EUR;
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.JPY;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+import com.opengamma.strata.data.scenario.MultiCurrencyScenarioArray;
+
+/**
+ * Test {@link ColumnarResults}.
+ */
+@Test
+public class ColumnarResultsTest {
+
+  private static final ColumnName NAME_A = ColumnName.of("A");
+  private static final ColumnName NAME_B = ColumnName.of("B");
+  private static final ColumnName NAME_C = ColumnName.of("C");
+  private static final ColumnHeader HEADER1 = ColumnHeader.of(NAME_A, TestingMeasures.PRESENT_VALUE);
+  private static final ColumnHeader HEADER2 = ColumnHeader.of(NAME_B, TestingMeasures.PRESENT_VALUE);
+  private static final ColumnHeader HEADER3 = ColumnHeader.of(NAME_C, TestingMeasures.PRESENT_VALUE);
+  private static final List<ColumnHeader> HEADERS = ImmutableList.of(HEADER1, HEADER2, HEADER3);
+  private static final Result<?> FAILURE = Result.failure(FailureReason.CALCULATION_FAILED, "Failed");
+
+  //-------------------------------------------------------------------------
+  public void test_empty() {
+    ColumnarResults test = ColumnarResults.builder(ImmutableList.of(), 0).build();
+    assertEquals(test.getColumns(), ImmutableList.of());
+    assertEquals(test.getRowCount(), 0);
+    assertEquals(test.getColumnCount(), 0);
+    assertEquals(test.getFailureCount(), 0);
+    assertThrows(() -> test.get(0, 0), IllegalArgumentException.class, "Row index must be greater than or.*");
+    assertThrows(() -> test.get(0, NAME_A), IllegalArgumentException.class, "Column name not found.*");
+  }
+
+  public void test_singleValues() {
+    ColumnarResults test = ColumnarResults.builder(HEADERS, 2)
+        .set(1, 2, Result.success(CurrencyAmount.of(USD, 6)))
+        .set(0, 0, Result.success(1d))
+        .set(1, 0, Result.success(4d))
+        .set(0, 1, Result.success("2"))
+        .set(1, 1, Result.success("5"))
+        .set(0, 2, Result.success(CurrencyAmount.of(GBP, 3)))
+        .build();
+    assertEquals(test.getColumns(), HEADERS);
+    assertEquals(test.getRowCount(), 2);
+    assertEquals(test.getColumnCount(), 3);
+    assertEquals(test.getFailureCount(), 0);
+    assertEquals(test.get(0, 0).getValue(), 1d);
+    assertEquals(test.get(0, 0, Double.class).getValue(), 1d);
+    assertEquals(test.get(0, NAME_B).getValue(), "2");
+    assertEquals(test.get(0, NAME_B, String.class).getValue(), "2");
+    assertEquals(test.get(1, 2).getValue(), CurrencyAmount.of(USD, 6));
+    assertEquals(test.getValue(1, 0), 4d);
+    assertEquals(test.getValue(1, 2), 6d);
+    assertEquals(test.getCurrency(0, 2), GBP);
+    assertEquals(test.getDoubleColumn(0), DoubleArray.of(1, 4));
+    assertEquals(test.getDoubleColumn(2), DoubleArray.of(3, 6));
+    assertFalse(test.isFailure(0, 0));
+    assertThrowsIllegalArg(() -> test.getValue(0, 1));
+    assertThrowsIllegalArg(() -> test.getCurrency(0, 0));
+    assertThrowsIllegalArg(() -> test.getScenarioValues(0, 2));
+    assertThrowsIllegalArg(() -> test.getDoubleColumn(1));
+    assertThrowsIllegalArg(() -> test.getDoubleColumn(3));
+    assertThrows(() -> test.get(2, 0), IllegalArgumentException.class, "Row index must be greater than or.*");
+    assertThrows(() -> test.get(0, 3), IllegalArgumentException.class, "Column index must be greater than or.*");
+    assertThrows(() -> test.get(0, 0, Integer.class), ClassCastException.class,
+        "Result queried with type 'java.lang.Integer' but was 'java.lang.Double'");
+  }
+
+  public void test_scenarioValues() {
+    DoubleScenarioArray doubles1 = DoubleScenarioArray.of(DoubleArray.of(1, 2, 3));
+    DoubleScenarioArray doubles2 = DoubleScenarioArray.of(DoubleArray.of(4, 5, 6));
+    CurrencyScenarioArray amounts1 = CurrencyScenarioArray.of(GBP, DoubleArray.of(7, 8));
+    CurrencyScenarioArray amounts2 = CurrencyScenarioArray.of(EUR, DoubleArray.of(9, 10));
+    ColumnarResults test = ColumnarResults.builder(ImmutableList.of(HEADER1, HEADER2), 2)
+        .set(0, 0, Result.success(doubles1))
+        .set(1, 0, Result.success(doubles2))
+        .set(0, 1, Result.success(amounts1))
+        .set(1, 1, Result.success(amounts2))
+        .build();
+    assertEquals(test.get(0, 0).getValue(), doubles1);
+    assertEquals(test.get(1, 0).getValue(), doubles2);
+    assertEquals(test.get(0, 1).getValue(), amounts1);
+    assertEquals(test.get(1, 1).getValue(), amounts2);
+    assertEquals(test.getScenarioValues(1, 0), DoubleArray.of(4, 5, 6));
+    assertEquals(test.getScenarioValues(1, 1), DoubleArray.of(9, 10));
+    assertEquals(test.getCurrency(1, 1), EUR);
+    assertThrowsIllegalArg(() -> test.getValue(0, 0));
+    assertThrowsIllegalArg(() -> test.getCurrency(0, 0));
+    assertThrowsIllegalArg(() -> test.getDoubleColumn(0));
+  }
+
+  public void test_multiCurrencyValues() {
+    MultiCurrencyAmount mca1 = MultiCurrencyAmount.of(CurrencyAmount.of(GBP, 1), CurrencyAmount.of(USD, 2));
+    MultiCurrencyAmount mca2 = MultiCurrencyAmount.of(CurrencyAmount.of(EUR, 3));
+    MultiCurrencyScenarioArray array1 = MultiCurrencyScenarioArray.of(
+        ImmutableMap.of(GBP, DoubleArray.of(4, 5), USD, DoubleArray.of(6, 7)));
+    MultiCurrencyScenarioArray array2 = MultiCurrencyScenarioArray.of(ImmutableMap.of(USD, DoubleArray.of(8, 9)));
+    ColumnarResults test = ColumnarResults.builder(ImmutableList.of(HEADER1, HEADER2), 3)
+        .set(0, 0, Result.success(mca1))
+        .set(1, 0, FAILURE)
+        .set(2, 0, Result.success(mca2))
+        .set(2, 1, Result.success(array2))
+        .set(0, 1, Result.success(array1))
+        .set(1, 1, Result.success(MultiCurrencyScenarioArray.of(ImmutableMap.of(GBP, DoubleArray.of(0, 0)))))
+        .build();
+    assertEquals(test.get(0, 0).getValue(), mca1);
+    assertEquals(test.get(2, 0).getValue(), mca2);
+    assertEquals(test.get(0, 1).getValue(), array1);
+    assertEquals(test.get(2, 1).getValue(), array2);
+    assertEquals(test.getCurrencies(0), ImmutableSortedSet.of(EUR, GBP, USD));
+    assertEquals(test.getCurrencies(1), ImmutableSortedSet.of(GBP, USD));
+    assertEquals(test.getCurrencyColumn(0, GBP), DoubleArray.of(1, Double.NaN, 0));
+    assertEquals(test.getCurrencyColumn(0, EUR), DoubleArray.of(0, Double.NaN, 3));
+    assertEquals(test.getCurrencyColumn(0, JPY), DoubleArray.of(0, Double.NaN, 0));
+    assertEquals(test.getCurrencyColumn(1, GBP), DoubleArray.of(4, 5, 0, 0, 0, 0));
+    assertEquals(test.getCurrencyColumn(1, USD), DoubleArray.of(6, 7, 0, 0, 8, 9));
+    assertThrowsIllegalArg(() -> test.getDoubleColumn(0));
+    assertThrowsIllegalArg(() -> test.getScenarioValues(0, 1));
+  }
+
+  public void test_multiCurrencyValues_invalidColumn() {
+    ColumnarResults test = ColumnarResults.builder(ImmutableList.of(HEADER1, HEADER2), 1)
+        .set(0, 0, Result.success(CurrencyAmount.of(GBP, 1)))
+        .set(0, 1, FAILURE)
+        .build();
+    assertThrowsIllegalArg(() -> test.getCurrencies(0));
+    assertThrowsIllegalArg(() -> test.getCurrencyColumn(0, GBP));
+    assertEquals(test.getCurrencies(1), ImmutableSortedSet.of());
+    assertEquals(test.getCurrencyColumn(1, GBP), DoubleArray.of(Double.NaN));
+  }
+
+  public void test_mixedValues() {
+    MultiCurrencyAmount mca = MultiCurrencyAmount.of(CurrencyAmount.of(GBP, 1), CurrencyAmount.of(USD, 2));
+    DoubleScenarioArray doubles1 = DoubleScenarioArray.of(DoubleArray.of(1, 2, 3));
+    DoubleScenarioArray doubles2 = DoubleScenarioArray.of(DoubleArray.of(4, 5));
+    ColumnarResults test = ColumnarResults.builder(HEADERS, 3)
+        .set(0, 0, Result.success(1d))
+        .set(1, 0, Result.success(CurrencyAmount.of(GBP, 2)))
+        .set(2, 0, Result.success(3d))
+        .set(0, 1, Result.success(doubles1))
+        .set(1, 1, Result.success(doubles2))
+        .set(2, 1, FAILURE)
+        .set(0, 2, Result.success(mca))
+        .set(1, 2, Result.success(mca))
+        .set(2, 2, Result.success(mca))
+        .build();
+    assertEquals(test.get(0, 0).getValue(), 1d);
+    assertEquals(test.get(1, 0).getValue(), CurrencyAmount.of(GBP, 2));
+    assertEquals(test.get(2, 0).getValue(), 3d);
+    assertEquals(test.get(0, 1).getValue(), doubles1);
+    assertEquals(test.get(1, 1).getValue(), doubles2);
+    assertEquals(test.get(2, 2).getValue(), mca);
+    assertThrowsIllegalArg(() -> test.getDoubleColumn(0));
+    assertThrowsIllegalArg(() -> test.getScenarioValues(0, 1));
+  }
+
+  public void test_failures() {
+    ColumnarResults test = ColumnarResults.builder(ImmutableList.of(HEADER1, HEADER2), 3)
+        .set(0, 0, Result.success(1d))
+        .set(1, 0, FAILURE)
+        .set(2, 0, Result.success(3d))
+        .set(0, 1, FAILURE)
+        .set(1, 1, FAILURE)
+        .set(2, 1, FAILURE)
+        .build();
+    assertEquals(test.getFailureCount(), 4);
+    assertTrue(test.isFailure(1, 0));
+    assertFalse(test.isFailure(2, 0));
+    assertEquals(test.get(1, 0), FAILURE);
+    assertEquals(test.get(1, 0, String.class), FAILURE);
+    assertEquals(test.get(2, NAME_B), FAILURE);
+    assertEquals(test.getDoubleColumn(0), DoubleArray.of(1, Double.NaN, 3));
+    assertEquals(test.getDoubleColumn(1), DoubleArray.of(Double.NaN, Double.NaN, Double.NaN));
+    assertThrows(() -> test.getValue(1, 0), IllegalStateException.class, ".*Failed");
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_builder_invalid() {
+    ColumnarResults.Builder builder = ColumnarResults.builder(ImmutableList.of(HEADER1, HEADER2), 1);
+    builder.set(0, 0, Result.success(1d));
+    assertThrowsIllegalArg(() -> builder.set(0, 0, Result.success(2d)));
+    assertThrowsIllegalArg(() -> builder.set(1, 0, Result.success(2d)));
+    assertThrowsIllegalArg(() -> builder.set(0, 2, Result.success(2d)));
+    assertThrows(() -> builder.build(), IllegalStateException.class, "Result not set for row 0 and column 1");
+    builder.set(0, 1, Result.success(2d));
+    builder.build();
+    assertThrows(() -> builder.set(0, 1, Result.success(2d)), IllegalStateException.class);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_toResults() {
+    Results results = Results.of(HEADERS, ImmutableList.of(
+        Result.success(1d),
+        Result.success(CurrencyAmount.of(GBP, 2)),
+        Result.success(DoubleScenarioArray.of(DoubleArray.of(3, 4))),
+        FAILURE,
+        Result.success(CurrencyAmount.of(USD, 5)),
+        Result.success(DoubleScenarioArray.of(DoubleArray.of(6, 7)))));
+    ColumnarResults test = ColumnarResults.of(results);
+    assertEquals(test.getRowCount(), 2);
+    assertEquals(test.getFailureCount(), 1);
+    assertEquals(test.toResults(), results);
+  }
+
+  public void test_toString() {
+    ColumnarResults test = ColumnarResults.builder(ImmutableList.of(HEADER1), 1).set(0, 0, FAILURE).build();
+    assertTrue(test.toString().contains("failures=1"));
+  }
+
+}
@@ -51,6 +51,26 @@ public class DefaultCalculationRunnerTest {
     }
   }
 
+  public void calculateColumnar() {
+    ImmutableList<CalculationTarget> targets = ImmutableList.of(TARGET, TARGET);
+    Column column1 = Column.of(TestingMeasures.PRESENT_VALUE);
+    Column column2 = Column.of(TestingMeasures.BUCKETED_PV01);
+    ImmutableList<Column> columns = ImmutableList.of(column1, column2);
+    CalculationRules rules = CalculationRules.of(CalculationFunctions.empty());
+    MarketData md = MarketData.empty(date(2016, 6, 30));
+    ScenarioMarketData smd = ScenarioMarketData.empty();
+
+    try (CalculationRunner test = CalculationRunner.of(MoreExecutors.newDirectExecutorService())) {
+      ColumnarResults results = test.calculateColumnar(rules, targets, columns, md, REF_DATA);
+      assertThat(results.getRowCount()).isEqualTo(2);
+      assertThat(results.getColumnCount()).isEqualTo(2);
+      assertThat(results.getFailureCount()).isEqualTo(4);
+      assertThat(results.get(1, 0).isFailure()).isTrue();
+      ColumnarResults scenarioResults = test.calculateMultiScenarioColumnar(rules, targets, columns, smd, REF_DATA);
+      assertThat(scenarioResults.isFailure(1, 1)).isTrue();
+    }
+  }
+
   //-------------------------------------------------------------------------
   private static class TestTarget implements CalculationTarget {
   }
@@ -13,6 +13,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.testng.annotations.Test;
 
@@ -355,6 +357,137 @@ public class DefaultMarketDataFactoryTest {
     assertThat(marketData.getValue(new TestIdC("2"))).isEqualTo(expectedC2);
   }
 
+  /**
+   * Tests building a result and keeping the intermediate values when the data is built in parallel.
+   */
+  public void buildWithIntermediateValuesInParallel() {
+    MarketDataRequirements requirements = MarketDataRequirements.builder()
+        .addValues(new TestIdB("1"), new TestIdB("2"))
+        .build();
+
+    LocalDateDoubleTimeSeries timeSeries1 = LocalDateDoubleTimeSeries.builder()
+        .put(date(2011, 3, 8), 1)
+        .put(date(2011, 3, 9), 2)
+        .put(date(2011, 3, 10), 3)
+        .build();
+
+    LocalDateDoubleTimeSeries timeSeries2 = LocalDateDoubleTimeSeries.builder()
+        .put(date(2011, 3, 8), 10)
+        .put(date(2011, 3, 9), 20)
+        .put(date(2011, 3, 10), 30)
+        .build();
+
+    Map<TestIdA, LocalDateDoubleTimeSeries> timeSeriesMap = ImmutableMap.of(
+        new TestIdA("1"), timeSeries1,
+        new TestIdA("2"), timeSeries2);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      MarketDataFactory factory = MarketDataFactory.of(
+          new TestObservableDataProvider(),
+          new TestTimeSeriesProvider(timeSeriesMap),
+          executor,
+          ImmutableList.of(new TestMarketDataFunctionB(), new TestMarketDataFunctionC()));
+
+      MarketData suppliedData = MarketData.empty(date(2011, 3, 8));
+      BuiltMarketData marketData = factory.create(requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA);
+
+      assertThat(marketData.getValueFailures()).isEmpty();
+      assertThat(marketData.getTimeSeriesFailures()).isEmpty();
+
+      TestMarketDataC expectedC1 = new TestMarketDataC(timeSeries1);
+      TestMarketDataC expectedC2 = new TestMarketDataC(timeSeries2);
+      assertThat(marketData.getValue(new TestIdB("1"))).isEqualTo(new TestMarketDataB(1, expectedC1));
+      assertThat(marketData.getValue(new TestIdB("2"))).isEqualTo(new TestMarketDataB(2, expectedC2));
+      assertThat(marketData.getValue(new TestIdA("1"))).isEqualTo(1d);
+      assertThat(marketData.getValue(new TestIdA("2"))).isEqualTo(2d);
+      assertThat(marketData.getValue(new TestIdC("1"))).isEqualTo(expectedC1);
+      assertThat(marketData.getValue(new TestIdC("2"))).isEqualTo(expectedC2);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Tests the exception from a missing market data function is propagated when the data is built in parallel.
+   */
+  public void noMarketDataBuilderAvailableInParallel() {
+    MarketDataRequirements requirements = MarketDataRequirements.builder()
+        .addValues(new TestIdB("1"), new TestIdB("2"))
+        .build();
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      MarketDataFactory factory = MarketDataFactory.of(
+          new TestObservableDataProvider(),
+          new TestTimeSeriesProvider(ImmutableMap.of()),
+          executor,
+          ImmutableList.of(new TestMarketDataFunctionB()));
+
+      BuiltScenarioMarketData suppliedData = BuiltScenarioMarketData.builder(date(2011, 3, 8)).build();
+      assertThrows(
+          () -> factory.createMultiScenario(
+              requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA, ScenarioDefinition.empty()),
+          IllegalStateException.class,
+          "No market data function available for market data ID of type.*");
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Tests requesting the time-series and observable values concurrently using a provider executor.
+   */
+  public void buildWithProviderExecutor() {
+    TestObservableId id1 = TestObservableId.of(StandardId.of("reqs", "a"));
+    TestObservableId id2 = TestObservableId.of(StandardId.of("reqs", "b"));
+    MarketDataRequirements requirements = MarketDataRequirements.builder()
+        .addValues(new TestIdB("1"), new TestIdB("2"), id1, id2)
+        .addTimeSeries(new TestIdA("3"))
+        .build();
+
+    LocalDateDoubleTimeSeries timeSeries1 = LocalDateDoubleTimeSeries.builder()
+        .put(date(2011, 3, 8), 1)
+        .put(date(2011, 3, 9), 2)
+        .build();
+
+    LocalDateDoubleTimeSeries timeSeries2 = LocalDateDoubleTimeSeries.builder()
+        .put(date(2011, 3, 8), 10)
+        .put(date(2011, 3, 9), 20)
+        .build();
+
+    Map<TestIdA, LocalDateDoubleTimeSeries> timeSeriesMap = ImmutableMap.of(
+        new TestIdA("1"), timeSeries1,
+        new TestIdA("2"), timeSeries2);
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    ExecutorService providerExecutor = Executors.newCachedThreadPool();
+    try {
+      MarketDataFactory factory = MarketDataFactory.of(
+          new TestObservableDataProvider(),
+          new TestTimeSeriesProvider(timeSeriesMap),
+          executor,
+          providerExecutor,
+          ImmutableList.of(new TestMarketDataFunctionB(), new TestMarketDataFunctionC()));
+
+      MarketData suppliedData = MarketData.empty(date(2011, 3, 8));
+      BuiltMarketData marketData = factory.create(requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA);
+
+      assertThat(marketData.getValueFailures()).isEmpty();
+      assertThat(marketData.getTimeSeriesFailures()).containsOnlyKeys(new TestIdA("3"));
+
+      TestMarketDataC expectedC1 = new TestMarketDataC(timeSeries1);
+      TestMarketDataC expectedC2 = new TestMarketDataC(timeSeries2);
+      assertThat(marketData.getValue(new TestIdB("1"))).isEqualTo(new TestMarketDataB(1, expectedC1));
+      assertThat(marketData.getValue(new TestIdB("2"))).isEqualTo(new TestMarketDataB(2, expectedC2));
+      assertThat(marketData.getValue(id1)).isEqualTo(1d);
+      assertThat(marketData.getValue(id2)).isEqualTo(2d);
+    } finally {
+      executor.shutdown();
+      providerExecutor.shutdown();
+    }
+  }
+
   /**
    * Tests building multiple observable values for scenarios where the values aren't perturbed.
    */
@@ -8,12 +8,22 @@ package com.opengamma.strata.calc.runner;
 import static com.opengamma.strata.basics.currency.Currency.USD;
 import static com.opengamma.strata.calc.ReportingCurrency.NATURAL;
 import static com.opengamma.strata.collect.CollectProjectAssertions.assertThat;
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
 import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertTrue;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import org.testng.annotations.Test;
 
@@ -121,6 +131,72 @@ public class DefaultCalculationTaskRunnerTest {
     assertThat(result2).hasValue(scenarioResult);
   }
 
+  /**
+   * Test that the number of tasks in flight is limited, with a listener slower than the calculations.
+   */
+  public void maxTasksInFlight() throws InterruptedException {
+    InFlightFunction fn = new InFlightFunction();
+    List<CalculationTask> taskList = IntStream.range(0, 20)
+        .mapToObj(i -> CalculationTask.of(
+            TARGET, fn, CalculationTaskCell.of(i, 0, TestingMeasures.PRESENT_VALUE, NATURAL)))
+        .collect(toImmutableList());
+    Column column = Column.of(TestingMeasures.PRESENT_VALUE);
+    CalculationTasks tasks = CalculationTasks.of(taskList, ImmutableList.of(column));
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      CalculationTaskRunner test = CalculationTaskRunner.of(executor, 2);
+      CountDownLatch latch = new CountDownLatch(1);
+      CalculationListener listener = new CalculationListener() {
+        @Override
+        public void resultReceived(CalculationTarget target, CalculationResult result) {
+          try {
+            Thread.sleep(5);
+          } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+          }
+          fn.inFlight.decrementAndGet();
+        }
+
+        @Override
+        public void calculationsComplete() {
+          latch.countDown();
+        }
+      };
+      test.calculateAsync(tasks, MarketData.empty(VAL_DATE), REF_DATA, listener);
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdown();
+    }
+    assertTrue(fn.maxInFlight.get() <= 2);
+    assertThrowsIllegalArg(() -> CalculationTaskRunner.of(executor, 0));
+  }
+
+  /**
+   * Test that a task completing exceptionally does not hold its permit.
+   */
+  public void maxTasksInFlight_taskFails() throws Exception {
+    ErrorFunction fn = new ErrorFunction();
+    List<CalculationTask> taskList = IntStream.range(0, 3)
+        .mapToObj(i -> CalculationTask.of(
+            TARGET, fn, CalculationTaskCell.of(i, 0, TestingMeasures.PRESENT_VALUE, NATURAL)))
+        .collect(toImmutableList());
+    Column column = Column.of(TestingMeasures.PRESENT_VALUE);
+    CalculationTasks tasks = CalculationTasks.of(taskList, ImmutableList.of(column));
+
+    // each task fails, the second task can only be submitted if the permit of the first is released
+    CalculationTaskRunner test = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService(), 1);
+    ExecutorService caller = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> future = caller.submit(
+          () -> test.calculateAsync(tasks, MarketData.empty(VAL_DATE), REF_DATA, new Listener()));
+      future.get(10, TimeUnit.SECONDS);
+    } finally {
+      caller.shutdownNow();
+    }
+    assertThat(fn.calls.get()).isEqualTo(3);
+  }
+
   //-------------------------------------------------------------------------
   public static final class TestFunction implements CalculationFunction<TestTarget> {
 
@@ -216,6 +292,95 @@ public class DefaultCalculationTaskRunnerTest {
     }
   }
 
+  //-------------------------------------------------------------------------
+  private static final class InFlightFunction implements CalculationFunction<TestTarget> {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @Override
+    public Class<TestTarget> targetType() {
+      return TestTarget.class;
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return MEASURES;
+    }
+
+    @Override
+    public Currency naturalCurrency(TestTarget trade, ReferenceData refData) {
+      return USD;
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      return FunctionRequirements.empty();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      int count = inFlight.incrementAndGet();
+      maxInFlight.accumulateAndGet(count, Math::max);
+      return ImmutableMap.of(TestingMeasures.PRESENT_VALUE, Result.success(ScenarioArray.of("bar")));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  private static final class ErrorFunction implements CalculationFunction<TestTarget> {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Override
+    public Class<TestTarget> targetType() {
+      return TestTarget.class;
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return MEASURES;
+    }
+
+    @Override
+    public Currency naturalCurrency(TestTarget trade, ReferenceData refData) {
+      return USD;
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      return FunctionRequirements.empty();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      calls.incrementAndGet();
+      // an error is not converted to a failure result by the task
+      throw new AssertionError("Calculation failed");
+    }
+  }
+
   //-------------------------------------------------------------------------
   private static final class Listener implements CalculationListener {
 
@@ -0,0 +1,285 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.calc.ReportingCurrency.NATURAL;
+import static com.opengamma.strata.collect.CollectProjectAssertions.assertThat;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.calc.TestingMeasures;
+import com.opengamma.strata.calc.marketdata.TestId;
+import com.opengamma.strata.calc.marketdata.TestObservableId;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Test {@link IncrementalCalculationSession}.
+ */
+@Test
+public class IncrementalCalculationSessionTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate VAL_DATE = date(2011, 3, 8);
+  private static final TestId ID_EUR = TestId.of("EUR");
+  private static final TestId ID_USD = TestId.of("USD");
+  private static final TestObservableId ID_TS = TestObservableId.of("TS");
+  private static final LocalDateDoubleTimeSeries TS = LocalDateDoubleTimeSeries.of(date(2011, 3, 7), 1d);
+  private static final MarketData MARKET_DATA = MarketData.of(
+      VAL_DATE, ImmutableMap.of(ID_EUR, "EUR1", ID_USD, "USD1"), ImmutableMap.of(ID_TS, TS));
+  private static final CalculationTasks TASKS = CalculationTasks.of(
+      ImmutableList.of(
+          task(0, new IdTarget(ID_EUR, false)),
+          task(1, new IdTarget(ID_USD, false)),
+          task(2, new IdTarget(ID_EUR, false)),
+          task(3, new IdTarget(ID_TS, true))),
+      ImmutableList.of(Column.of(TestingMeasures.PRESENT_VALUE)));
+
+  private static CalculationTask task(int row, IdTarget target) {
+    CalculationTaskCell cell = CalculationTaskCell.of(row, 0, TestingMeasures.PRESENT_VALUE, NATURAL);
+    return CalculationTask.of(target, new IdFunction(), cell);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_calculateAsync() {
+    // using the direct executor means the calculations complete before the method returns
+    IncrementalCalculationSession test =
+        IncrementalCalculationSession.of(TASKS, REF_DATA, MoreExecutors.newDirectExecutorService());
+    assertEquals(test.getTasks(), TASKS);
+    assertEquals(test.getMarketData().isPresent(), false);
+
+    Listener listener = new Listener();
+    test.calculateAsync(MARKET_DATA, listener);
+    assertEquals(listener.rows, ImmutableList.of(0, 1, 2, 3));
+    assertThat(listener.results.get(0)).hasValue("EUR1");
+    assertEquals(listener.complete, true);
+    assertEquals(test.getMarketData().get(), MARKET_DATA);
+  }
+
+  public void test_updateAsync() {
+    IncrementalCalculationSession test =
+        IncrementalCalculationSession.of(TASKS, REF_DATA, MoreExecutors.newDirectExecutorService());
+    // no previous market data, all tasks are calculated
+    Listener listener1 = new Listener();
+    Set<MarketDataId<?>> changed1 = test.updateAsync(MARKET_DATA, listener1);
+    assertEquals(changed1, ImmutableSet.of(ID_EUR, ID_USD, ID_TS));
+    assertEquals(listener1.rows, ImmutableList.of(0, 1, 2, 3));
+
+    // only the EUR trades are recalculated
+    MarketData marketData2 = MARKET_DATA.withValue(ID_EUR, "EUR2");
+    Listener listener2 = new Listener();
+    Set<MarketDataId<?>> changed2 = test.updateAsync(marketData2, listener2);
+    assertEquals(changed2, ImmutableSet.of(ID_EUR));
+    assertEquals(listener2.rows, ImmutableList.of(0, 2));
+    assertThat(listener2.results.get(0)).hasValue("EUR2");
+    assertEquals(listener2.complete, true);
+
+    // nothing changed
+    Listener listener3 = new Listener();
+    assertTrue(test.updateAsync(marketData2, listener3).isEmpty());
+    assertEquals(listener3.rows, ImmutableList.of());
+    assertEquals(listener3.complete, true);
+
+    // time-series changed
+    MarketData marketData4 = MarketData.of(
+        VAL_DATE,
+        ImmutableMap.of(ID_EUR, "EUR2", ID_USD, "USD1"),
+        ImmutableMap.of(ID_TS, TS.toBuilder().put(VAL_DATE, 2d).build()));
+    Listener listener4 = new Listener();
+    assertEquals(test.updateAsync(marketData4, listener4), ImmutableSet.of(ID_TS));
+    assertEquals(listener4.rows, ImmutableList.of(3));
+
+    // valuation date changed, all tasks are recalculated
+    MarketData marketData5 = MarketData.of(
+        VAL_DATE.plusDays(1), ImmutableMap.of(ID_EUR, "EUR2", ID_USD, "USD1"), ImmutableMap.of(ID_TS, TS));
+    Listener listener5 = new Listener();
+    test.updateAsync(marketData5, listener5);
+    assertEquals(listener5.rows, ImmutableList.of(0, 1, 2, 3));
+  }
+
+  public void test_updateAsync_concurrent() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      IncrementalCalculationSession test = IncrementalCalculationSession.of(TASKS, REF_DATA, executor);
+      int updates = 50;
+      List<Object[]> log = Collections.synchronizedList(new ArrayList<>());
+      CountDownLatch latch = new CountDownLatch(updates);
+      List<Callable<Set<MarketDataId<?>>>> calls = new ArrayList<>();
+      for (int i = 0; i < updates; i++) {
+        int update = i;
+        MarketData marketData = MARKET_DATA.withValue(ID_EUR, "EUR" + i).withValue(ID_USD, "USD" + (i / 2));
+        CalculationListener listener = new CalculationListener() {
+          @Override
+          public void resultReceived(CalculationTarget target, CalculationResult result) {
+            log.add(new Object[] {update, result.getRowIndex(), result.getResult().getValue()});
+          }
+
+          @Override
+          public void calculationsComplete() {
+            log.add(new Object[] {update});
+            latch.countDown();
+          }
+        };
+        calls.add(() -> test.updateAsync(marketData, listener));
+      }
+      ExecutorService callers = Executors.newFixedThreadPool(4);
+      try {
+        callers.invokeAll(calls);
+      } finally {
+        callers.shutdown();
+      }
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+      // the results of each update are delivered before those of the next update
+      // applying the deltas in the order they are delivered gives the results of the latest market data
+      Set<Object> completed = new HashSet<>();
+      Map<Integer, Object> grid = new HashMap<>();
+      for (Object[] entry : log) {
+        assertFalse(completed.contains(entry[0]));
+        if (entry.length == 1) {
+          completed.add(entry[0]);
+        } else {
+          grid.put((Integer) entry[1], entry[2]);
+        }
+      }
+      MarketData latest = test.getMarketData().get();
+      assertEquals(grid.get(0), latest.getValue(ID_EUR));
+      assertEquals(grid.get(1), latest.getValue(ID_USD));
+      assertEquals(grid.get(2), latest.getValue(ID_EUR));
+      assertEquals(grid.get(3), "TS");
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  public void test_changedIds() {
+    IncrementalCalculationSession test =
+        IncrementalCalculationSession.of(TASKS, REF_DATA, MoreExecutors.newDirectExecutorService());
+    MarketData removed = MarketData.of(VAL_DATE, ImmutableMap.of(ID_EUR, "EUR1"), ImmutableMap.of(ID_TS, TS));
+    assertEquals(test.changedIds(MARKET_DATA, removed), ImmutableSet.of(ID_USD));
+    assertEquals(test.changedIds(MARKET_DATA, MARKET_DATA), ImmutableSet.of());
+  }
+
+  public void test_dependentTasks() {
+    IncrementalCalculationSession test =
+        IncrementalCalculationSession.of(TASKS, REF_DATA, MoreExecutors.newDirectExecutorService());
+    assertEquals(
+        test.dependentTasks(ImmutableSet.of(ID_EUR)),
+        ImmutableList.of(TASKS.getTasks().get(0), TASKS.getTasks().get(2)));
+    assertEquals(
+        test.dependentTasks(ImmutableSet.of(ID_TS, ID_USD)),
+        ImmutableList.of(TASKS.getTasks().get(1), TASKS.getTasks().get(3)));
+    assertEquals(test.dependentTasks(ImmutableSet.of(TestId.of("GBP"))), ImmutableList.of());
+  }
+
+  //-------------------------------------------------------------------------
+  private static final class IdTarget implements CalculationTarget {
+
+    private final MarketDataId<?> id;
+    private final boolean timeSeries;
+
+    private IdTarget(MarketDataId<?> id, boolean timeSeries) {
+      this.id = id;
+      this.timeSeries = timeSeries;
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  private static final class IdFunction implements CalculationFunction<IdTarget> {
+
+    @Override
+    public Class<IdTarget> targetType() {
+      return IdTarget.class;
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return ImmutableSet.of(TestingMeasures.PRESENT_VALUE);
+    }
+
+    @Override
+    public Currency naturalCurrency(IdTarget target, ReferenceData refData) {
+      return USD;
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        IdTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      if (target.timeSeries) {
+        return FunctionRequirements.builder().timeSeriesRequirements((TestObservableId) target.id).build();
+      }
+      return FunctionRequirements.builder().valueRequirements(target.id).build();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        IdTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      Object value = target.timeSeries ? "TS" : marketData.getValue(target.id).getValue(0);
+      return ImmutableMap.of(TestingMeasures.PRESENT_VALUE, Result.success(ScenarioArray.of(value)));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  private static final class Listener implements CalculationListener {
+
+    private final List<Integer> rows = new ArrayList<>();
+    private final List<Result<?>> results = new ArrayList<>();
+    private boolean complete;
+
+    @Override
+    public void resultReceived(CalculationTarget target, CalculationResult result) {
+      rows.add(result.getRowIndex());
+      results.add(result.getResult());
+    }
+
+    @Override
+    public void calculationsComplete() {
+      complete = true;
+    }
+  }
+
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.Resolvable;
+
+/**
+ * Test {@link ResolutionCache}.
+ */
+@Test
+public class ResolutionCacheTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+
+  //-------------------------------------------------------------------------
+  public void test_none() {
+    ResolutionCache test = ResolutionCache.none();
+    TestResolvable target = new TestResolvable("A");
+    assertThat(test.resolve(target, REF_DATA)).isEqualTo("A-resolved");
+    assertThat(test.resolve(target, REF_DATA)).isEqualTo("A-resolved");
+    assertThat(target.count.get()).isEqualTo(2);
+    test.clear();
+  }
+
+  public void test_ofMaximumSize() {
+    ResolutionCache test = ResolutionCache.ofMaximumSize(10);
+    TestResolvable target = new TestResolvable("A");
+    assertThat(test.resolve(target, REF_DATA)).isEqualTo("A-resolved");
+    assertThat(test.resolve(target, REF_DATA)).isEqualTo("A-resolved");
+    assertThat(target.count.get()).isEqualTo(1);
+    // equal target
+    TestResolvable equalTarget = new TestResolvable("A");
+    assertThat(test.resolve(equalTarget, REF_DATA)).isEqualTo("A-resolved");
+    assertThat(equalTarget.count.get()).isEqualTo(0);
+    // different target
+    TestResolvable otherTarget = new TestResolvable("B");
+    assertThat(test.resolve(otherTarget, REF_DATA)).isEqualTo("B-resolved");
+    assertThat(otherTarget.count.get()).isEqualTo(1);
+    // different reference data
+    assertThat(test.resolve(target, ReferenceData.empty())).isEqualTo("A-resolved");
+    assertThat(target.count.get()).isEqualTo(2);
+    assertThat(((InMemoryResolutionCache) test).size()).isEqualTo(3);
+    // clear
+    test.clear();
+    assertThat(test.resolve(target, REF_DATA)).isEqualTo("A-resolved");
+    assertThat(target.count.get()).isEqualTo(3);
+  }
+
+  public void test_ofMaximumSize_evicted() {
+    ResolutionCache test = ResolutionCache.ofMaximumSize(1);
+    TestResolvable target1 = new TestResolvable("A");
+    TestResolvable target2 = new TestResolvable("B");
+    test.resolve(target1, REF_DATA);
+    test.resolve(target2, REF_DATA);
+    test.resolve(target1, REF_DATA);
+    assertThat(target1.count.get()).isEqualTo(2);
+    assertThat(((InMemoryResolutionCache) test).size()).isEqualTo(1);
+  }
+
+  public void test_ofMaximumSize_invalid() {
+    assertThrowsIllegalArg(() -> ResolutionCache.ofMaximumSize(0));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_functionUtils_resolve() {
+    TestResolvable target = new TestResolvable("A");
+    ResolutionCache cache = ResolutionCache.ofMaximumSize(10);
+    String resolved = FunctionUtils.withResolutionCache(cache, () -> {
+      FunctionUtils.resolve(target, REF_DATA);
+      return FunctionUtils.resolve(target, REF_DATA);
+    });
+    assertThat(resolved).isEqualTo("A-resolved");
+    assertThat(target.count.get()).isEqualTo(1);
+    // the cache is only used while the supplier is invoked
+    assertThat(FunctionUtils.resolve(target, REF_DATA)).isEqualTo("A-resolved");
+    assertThat(target.count.get()).isEqualTo(2);
+  }
+
+  //-------------------------------------------------------------------------
+  private static final class TestResolvable implements Resolvable<String> {
+
+    private final String name;
+    private final AtomicInteger count = new AtomicInteger();
+
+    private TestResolvable(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String resolve(ReferenceData refData) {
+      count.incrementAndGet();
+      return name + "-resolved";
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof TestResolvable && ((TestResolvable) obj).name.equals(name);
+    }
+
+    @Override
+    public int hashCode() {
+      return name.hashCode();
+    }
+  }
+
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.joda.beans.Bean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+
+/**
+ * Constants and shared methods of the binary snapshot format.
+ * <p>
+ * The format starts with a header, the magic number and the version,
+ * followed by a sequence of values, each starting with a tag byte.
+ * <p>
+ * Types are written in full the first time they occur in the stream and by index thereafter.
+ * The definition of a bean type includes the names of its buildable properties, the schema,
+ * thus each bean only contains the values of its properties, in the order of the schema.
+ * Within each top-level value, a bean that has already been written is referred to by index.
+ */
+final class BinarySnapshotFormat {
+
+  /** The magic number at the start of the stream. */
+  static final int MAGIC = 0x53534E50;
+  /** The version of the format. */
+  static final int VERSION = 1;
+
+  /** Tag for null. */
+  static final int NULL = 0;
+  /** Tag for true. */
+  static final int TRUE = 1;
+  /** Tag for false. */
+  static final int FALSE = 2;
+  /** Tag for an integer. */
+  static final int INTEGER = 3;
+  /** Tag for a long. */
+  static final int LONG = 4;
+  /** Tag for a double. */
+  static final int DOUBLE = 5;
+  /** Tag for a string. */
+  static final int STRING = 6;
+  /** Tag for a local date. */
+  static final int LOCAL_DATE = 7;
+  /** Tag for a primitive double array. */
+  static final int DOUBLE_PRIMITIVE_ARRAY = 8;
+  /** Tag for a primitive int array. */
+  static final int INT_PRIMITIVE_ARRAY = 9;
+  /** Tag for a two dimensional primitive double array. */
+  static final int DOUBLE_PRIMITIVE_MATRIX = 10;
+  /** Tag for a {@code DoubleArray}. */
+  static final int DOUBLE_ARRAY = 11;
+  /** Tag for an {@code IntArray}. */
+  static final int INT_ARRAY = 12;
+  /** Tag for a {@code DoubleMatrix}. */
+  static final int DOUBLE_MATRIX = 13;
+  /** Tag for a {@code LocalDateDoubleTimeSeries}. */
+  static final int TIME_SERIES = 14;
+  /** Tag for a list. */
+  static final int LIST = 15;
+  /** Tag for a set. */
+  static final int SET = 16;
+  /** Tag for a sorted set. */
+  static final int SORTED_SET = 17;
+  /** Tag for a map. */
+  static final int MAP = 18;
+  /** Tag for a sorted map. */
+  static final int SORTED_MAP = 19;
+  /** Tag for an object array. */
+  static final int OBJECT_ARRAY = 20;
+  /** Tag for a value converted to a string using Joda-Convert. */
+  static final int CONVERTED = 21;
+  /** Tag for a bean. */
+  static final int BEAN = 22;
+  /** Tag for a reference to a bean already written. */
+  static final int BEAN_REFERENCE = 23;
+
+  // restricted constructor
+  private BinarySnapshotFormat() {
+  }
+
+  //-------------------------------------------------------------------------
+  // checks if the type has a bean schema
+  static boolean isBeanType(Class<?> type) {
+    return Bean.class.isAssignableFrom(type) && !Modifier.isAbstract(type.getModifiers());
+  }
+
+  // the buildable properties of a bean type, which form its schema
+  static List<MetaProperty<?>> schema(Class<?> type) {
+    MetaBean metaBean = JodaBeanUtils.metaBean(type);
+    return metaBean.metaPropertyMap().values().stream()
+        .filter(mp -> mp.style().isBuildable())
+        .collect(Collectors.toList());
+  }
+
+  //-------------------------------------------------------------------------
+  // writes a non-negative int using 7 bits per byte
+  static void writeVarInt(DataOutput out, int value) throws IOException {
+    writeVarLong(out, value & 0xFFFFFFFFL);
+  }
+
+  // writes a non-negative long using 7 bits per byte
+  static void writeVarLong(DataOutput out, long value) throws IOException {
+    long remaining = value;
+    while ((remaining & ~0x7FL) != 0) {
+      out.writeByte((int) ((remaining & 0x7F) | 0x80));
+      remaining >>>= 7;
+    }
+    out.writeByte((int) remaining);
+  }
+
+  // writes a signed long using zig-zag encoding, so that small negative values are short
+  static void writeSignedVarLong(DataOutput out, long value) throws IOException {
+    writeVarLong(out, (value << 1) ^ (value >> 63));
+  }
+
+  // reads a non-negative int written by writeVarInt
+  static int readVarInt(DataInput in) throws IOException {
+    return (int) readVarLong(in);
+  }
+
+  // reads a long written by writeVarLong
+  static long readVarLong(DataInput in) throws IOException {
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = in.readUnsignedByte();
+      result |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return result;
+      }
+    }
+    throw new IOException("Malformed variable length integer");
+  }
+
+  // reads a long written by writeSignedVarLong
+  static long readSignedVarLong(DataInput in) throws IOException {
+    long value = readVarLong(in);
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+}
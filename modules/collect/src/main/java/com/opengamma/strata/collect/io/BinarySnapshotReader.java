@@ -0,0 +1,473 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect.io;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.joda.beans.BeanBuilder;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+import org.joda.convert.StringConvert;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ImmutableSortedSet;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.collect.array.IntArray;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeriesBuilder;
+
+/**
+ * Reads values written by {@link BinarySnapshotWriter}.
+ * <p>
+ * The values are read one after the other, in the order they were written.
+ * The reader can read from any input stream, or from a memory-mapped file, which avoids
+ * copying the file into memory before reading it.
+ * <p>
+ * The classes of the values must be available to the reader.
+ * Beans are created using their meta-bean, matching the properties by name,
+ * thus a property added to a bean since the values were written takes its default value.
+ * A class named in the input is only initialized once it is known to be a bean,
+ * or it is converted from a string using Joda-Convert.
+ * <p>
+ * This class is mutable and not thread-safe.
+ */
+public final class BinarySnapshotReader implements AutoCloseable {
+
+  /**
+   * The input.
+   */
+  private final DataInputStream in;
+  /**
+   * The types read, in order.
+   */
+  private final List<Class<?>> types = new ArrayList<>();
+  /**
+   * The schema of each type read, null if not a bean.
+   */
+  private final List<List<MetaProperty<?>>> schemas = new ArrayList<>();
+  /**
+   * The beans read in the current value.
+   */
+  private final List<Object> beans = new ArrayList<>();
+  /**
+   * The next tag, -1 if not yet read.
+   */
+  private int nextTag = -1;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates a reader from an input stream, reading the header.
+   *
+   * @param input  the input stream
+   * @return the reader
+   * @throws IllegalArgumentException if the stream is not in the binary snapshot format
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  public static BinarySnapshotReader of(InputStream input) {
+    ArgChecker.notNull(input, "input");
+    return new BinarySnapshotReader(new BufferedInputStream(input));
+  }
+
+  /**
+   * Creates a reader from a file, mapping the file into memory.
+   * <p>
+   * The file is mapped read-only, and the operating system loads its content as it is read.
+   * The file must be smaller than 2Gb.
+   *
+   * @param file  the file
+   * @return the reader
+   * @throws IllegalArgumentException if the file is not in the binary snapshot format
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  public static BinarySnapshotReader ofMappedFile(Path file) {
+    ArgChecker.notNull(file, "file");
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return new BinarySnapshotReader(new ByteBufferInputStream(buffer));
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  // restricted constructor
+  private BinarySnapshotReader(InputStream input) {
+    this.in = new DataInputStream(input);
+    try {
+      int magic = in.readInt();
+      int version = in.readUnsignedByte();
+      if (magic != BinarySnapshotFormat.MAGIC) {
+        throw new IllegalArgumentException("Input is not in the binary snapshot format");
+      }
+      if (version != BinarySnapshotFormat.VERSION) {
+        throw new IllegalArgumentException(Messages.format(
+            "Unsupported binary snapshot version {}, expected {}", version, BinarySnapshotFormat.VERSION));
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Checks if there is another value to read.
+   *
+   * @return true if there is another value
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  public boolean hasNext() {
+    if (nextTag < 0) {
+      try {
+        nextTag = in.read();
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    }
+    return nextTag >= 0;
+  }
+
+  /**
+   * Reads the next value.
+   *
+   * @return the value, may be null
+   * @throws IllegalStateException if there are no more values
+   * @throws IllegalArgumentException if the value cannot be created
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  public Object read() {
+    if (!hasNext()) {
+      throw new IllegalStateException("No more values to read");
+    }
+    int tag = nextTag;
+    nextTag = -1;
+    try {
+      return readValue(tag);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    } finally {
+      beans.clear();
+    }
+  }
+
+  /**
+   * Reads the next value, checking its type.
+   *
+   * @param <T>  the type of the value
+   * @param type  the type of the value
+   * @return the value
+   * @throws IllegalStateException if there are no more values
+   * @throws IllegalArgumentException if the value cannot be created or is not of the specified type
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  public <T> T read(Class<T> type) {
+    ArgChecker.notNull(type, "type");
+    Object value = read();
+    if (!type.isInstance(value)) {
+      throw new IllegalArgumentException(Messages.format(
+          "Value read was expected to be of type '{}' but was '{}'",
+          type.getName(),
+          value == null ? "null" : value.getClass().getName()));
+    }
+    return type.cast(value);
+  }
+
+  /**
+   * Reads all the remaining values.
+   *
+   * @return the values
+   * @throws IllegalArgumentException if a value cannot be created
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  public List<Object> readAll() {
+    List<Object> values = new ArrayList<>();
+    while (hasNext()) {
+      values.add(read());
+    }
+    return values;
+  }
+
+  /**
+   * Closes the underlying stream.
+   *
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  @Override
+  public void close() {
+    try {
+      in.close();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // reads a value following its tag
+  private Object readValue(int tag) throws IOException {
+    switch (tag) {
+      case BinarySnapshotFormat.NULL:
+        return null;
+      case BinarySnapshotFormat.TRUE:
+        return Boolean.TRUE;
+      case BinarySnapshotFormat.FALSE:
+        return Boolean.FALSE;
+      case BinarySnapshotFormat.INTEGER:
+        return (int) BinarySnapshotFormat.readSignedVarLong(in);
+      case BinarySnapshotFormat.LONG:
+        return BinarySnapshotFormat.readSignedVarLong(in);
+      case BinarySnapshotFormat.DOUBLE:
+        return in.readDouble();
+      case BinarySnapshotFormat.STRING:
+        return readString();
+      case BinarySnapshotFormat.LOCAL_DATE:
+        return LocalDate.ofEpochDay(BinarySnapshotFormat.readSignedVarLong(in));
+      case BinarySnapshotFormat.DOUBLE_PRIMITIVE_ARRAY:
+        return readDoubles();
+      case BinarySnapshotFormat.DOUBLE_PRIMITIVE_MATRIX:
+        return readDoubleMatrix();
+      case BinarySnapshotFormat.INT_PRIMITIVE_ARRAY:
+        return readInts();
+      case BinarySnapshotFormat.DOUBLE_ARRAY:
+        return DoubleArray.ofUnsafe(readDoubles());
+      case BinarySnapshotFormat.INT_ARRAY:
+        return IntArray.ofUnsafe(readInts());
+      case BinarySnapshotFormat.DOUBLE_MATRIX:
+        return DoubleMatrix.ofUnsafe(readDoubleMatrix());
+      case BinarySnapshotFormat.TIME_SERIES:
+        return readTimeSeries();
+      case BinarySnapshotFormat.LIST:
+        return ImmutableList.copyOf(readElements());
+      case BinarySnapshotFormat.SET:
+        return ImmutableSet.copyOf(readElements());
+      case BinarySnapshotFormat.SORTED_SET:
+        return ImmutableSortedSet.copyOf(naturalOrder(), readElements());
+      case BinarySnapshotFormat.MAP:
+        return readEntries(ImmutableMap.builder());
+      case BinarySnapshotFormat.SORTED_MAP:
+        return readEntries(ImmutableSortedMap.orderedBy(naturalOrder()));
+      case BinarySnapshotFormat.OBJECT_ARRAY:
+        return readObjectArray();
+      case BinarySnapshotFormat.CONVERTED:
+        return readConverted();
+      case BinarySnapshotFormat.BEAN:
+        return readBean();
+      case BinarySnapshotFormat.BEAN_REFERENCE:
+        return beans.get(BinarySnapshotFormat.readVarInt(in));
+      default:
+        throw new IllegalArgumentException("Invalid binary snapshot, unknown tag: " + tag);
+    }
+  }
+
+  // reads a bean, registering it for later references
+  private Object readBean() throws IOException {
+    int typeIndex = readType();
+    Class<?> type = types.get(typeIndex);
+    List<MetaProperty<?>> schema = schemas.get(typeIndex);
+    if (schema == null) {
+      throw new IllegalArgumentException("Invalid binary snapshot, type is not a bean: " + type.getName());
+    }
+    BeanBuilder<?> builder = JodaBeanUtils.metaBean(type).builder();
+    for (MetaProperty<?> property : schema) {
+      Object value = readValue(in.readUnsignedByte());
+      if (property != null) {
+        builder.set(property, value);
+      }
+    }
+    Object bean = builder.build();
+    beans.add(bean);
+    return bean;
+  }
+
+  // reads a value converted to a string, checking the type is convertible before it is used
+  private Object readConverted() throws IOException {
+    Class<?> type = types.get(readType());
+    if (!StringConvert.INSTANCE.isConvertible(type)) {
+      throw new IllegalArgumentException("Invalid binary snapshot, type is not convertible: " + type.getName());
+    }
+    return StringConvert.INSTANCE.convertFromString(type, readString());
+  }
+
+  // reads a type, returning its index
+  private int readType() throws IOException {
+    int index = BinarySnapshotFormat.readVarInt(in);
+    if (index < types.size()) {
+      return index;
+    }
+    if (index > types.size()) {
+      throw new IllegalArgumentException("Invalid binary snapshot, unknown type index: " + index);
+    }
+    String name = readString();
+    Class<?> type = loadType(name);
+    types.add(type);
+    if (BinarySnapshotFormat.isBeanType(type)) {
+      // the bean class is initialized to register its meta-bean
+      MetaBean metaBean = JodaBeanUtils.metaBean(initialize(type));
+      int size = BinarySnapshotFormat.readVarInt(in);
+      List<MetaProperty<?>> schema = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        String propertyName = readString();
+        // a property removed since the values were written is ignored
+        schema.add(metaBean.metaPropertyExists(propertyName) ? metaBean.metaProperty(propertyName) : null);
+      }
+      schemas.add(schema);
+    } else {
+      schemas.add(null);
+    }
+    return index;
+  }
+
+  // loads a class without initializing it, the input must not be able to run arbitrary static initializers
+  private static Class<?> loadType(String name) {
+    ClassLoader loader = Thread.currentThread().getContextClassLoader();
+    try {
+      return Class.forName(name, false, loader != null ? loader : BinarySnapshotReader.class.getClassLoader());
+    } catch (ClassNotFoundException ex) {
+      throw new IllegalArgumentException("Unable to find class: " + name, ex);
+    }
+  }
+
+  // initializes a class known to be a bean
+  private static Class<?> initialize(Class<?> type) {
+    try {
+      return Class.forName(type.getName(), true, type.getClassLoader());
+    } catch (ClassNotFoundException ex) {
+      throw new IllegalArgumentException("Unable to find class: " + type.getName(), ex);
+    }
+  }
+
+  private List<Object> readElements() throws IOException {
+    int size = BinarySnapshotFormat.readVarInt(in);
+    List<Object> elements = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      elements.add(readValue(in.readUnsignedByte()));
+    }
+    return elements;
+  }
+
+  private ImmutableMap<Object, Object> readEntries(ImmutableMap.Builder<Object, Object> builder) throws IOException {
+    int size = BinarySnapshotFormat.readVarInt(in);
+    for (int i = 0; i < size; i++) {
+      Object key = readValue(in.readUnsignedByte());
+      Object value = readValue(in.readUnsignedByte());
+      builder.put(key, value);
+    }
+    return builder.build();
+  }
+
+  private Object readObjectArray() throws IOException {
+    Class<?> componentType = types.get(readType());
+    int size = BinarySnapshotFormat.readVarInt(in);
+    Object array = Array.newInstance(componentType, size);
+    for (int i = 0; i < size; i++) {
+      Array.set(array, i, readValue(in.readUnsignedByte()));
+    }
+    return array;
+  }
+
+  private String readString() throws IOException {
+    byte[] bytes = new byte[BinarySnapshotFormat.readVarInt(in)];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private double[] readDoubles() throws IOException {
+    double[] values = new double[BinarySnapshotFormat.readVarInt(in)];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = in.readDouble();
+    }
+    return values;
+  }
+
+  private double[][] readDoubleMatrix() throws IOException {
+    double[][] values = new double[BinarySnapshotFormat.readVarInt(in)][];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = readDoubles();
+    }
+    return values;
+  }
+
+  private int[] readInts() throws IOException {
+    int[] values = new int[BinarySnapshotFormat.readVarInt(in)];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = (int) BinarySnapshotFormat.readSignedVarLong(in);
+    }
+    return values;
+  }
+
+  private LocalDateDoubleTimeSeries readTimeSeries() throws IOException {
+    int size = BinarySnapshotFormat.readVarInt(in);
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+    long epochDay = 0;
+    for (int i = 0; i < size; i++) {
+      epochDay += BinarySnapshotFormat.readSignedVarLong(in);
+      builder.put(LocalDate.ofEpochDay(epochDay), in.readDouble());
+    }
+    return builder.build();
+  }
+
+  // the values of sorted collections are written in their natural order
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Comparator<Object> naturalOrder() {
+    return (Comparator) Comparator.naturalOrder();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * An input stream reading from a byte buffer.
+   */
+  private static final class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    private ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+      if (length == 0) {
+        return 0;
+      }
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int count = Math.min(length, buffer.remaining());
+      buffer.get(bytes, offset, count);
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
+
+}
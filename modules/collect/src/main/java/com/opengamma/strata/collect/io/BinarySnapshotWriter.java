@@ -0,0 +1,364 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect.io;
+
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.BEAN;
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.BEAN_REFERENCE;
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.CONVERTED;
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.DOUBLE;
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.DOUBLE_ARRAY;
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.DOUBLE_MATRIX;
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.DOUBLE_PRIMITIVE_ARRAY;
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.DOUBLE_PRIMITIVE_MATRIX;
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.FALSE;
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.INTEGER;
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.INT_ARRAY;
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.INT_PRIMITIVE_ARRAY;
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.LIST;
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.LOCAL_DATE;
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.LONG;
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.MAP;
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.NULL;
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.OBJECT_ARRAY;
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.SET;
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.SORTED_MAP;
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.SORTED_SET;
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.STRING;
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.TIME_SERIES;
+import static com.opengamma.strata.collect.io.BinarySnapshotFormat.TRUE;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+import org.joda.beans.Bean;
+import org.joda.beans.MetaProperty;
+import org.joda.convert.StringConvert;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.collect.array.IntArray;
+import com.opengamma.strata.collect.timeseries.LocalDateDoublePoint;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+
+/**
+ * Writes values, such as resolved trades and market data, in a compact binary format.
+ * <p>
+ * The values are written one after the other to the underlying stream, and are read
+ * back in the same order using {@link BinarySnapshotReader}.
+ * Joda-Beans are written using their meta-bean. The schema of each bean type, the names
+ * of its buildable properties, is written the first time the type occurs in the stream,
+ * thus each bean is written as the values of its properties without any names.
+ * <p>
+ * The supported values are:
+ * <ul>
+ * <li>null, {@code Boolean}, {@code Integer}, {@code Long}, {@code Double}, {@code String} and {@code LocalDate}
+ * <li>{@code double[]}, {@code double[][]}, {@code int[]} and arrays of other supported values
+ * <li>{@link DoubleArray}, {@link IntArray}, {@link DoubleMatrix} and {@link LocalDateDoubleTimeSeries},
+ *  which are written in a dedicated form
+ * <li>lists, sets and maps of supported values, which are read as immutable collections,
+ *  with sorted sets and maps using the natural order
+ * <li>values that can be converted to a string using Joda-Convert and are not beans, such as currencies
+ * <li>Joda-Beans whose buildable properties are supported values
+ * </ul>
+ * Within each value written by {@link #write(Object)}, the same bean instance occurring more than once
+ * is only written once, such as the index of each period of a swap.
+ * <p>
+ * This class is mutable and not thread-safe.
+ */
+public final class BinarySnapshotWriter implements AutoCloseable {
+
+  /**
+   * The output.
+   */
+  private final DataOutputStream out;
+  /**
+   * The index of each type written.
+   */
+  private final Map<Class<?>, Integer> types = new HashMap<>();
+  /**
+   * The schema of each bean type written.
+   */
+  private final Map<Class<?>, List<MetaProperty<?>>> schemas = new HashMap<>();
+  /**
+   * The index of each bean written in the current value.
+   */
+  private final Map<Object, Integer> beans = new IdentityHashMap<>();
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates a writer, writing the header to the output stream.
+   * <p>
+   * The output is buffered, and must be closed or flushed once the values have been written.
+   *
+   * @param output  the output stream
+   * @return the writer
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  public static BinarySnapshotWriter of(OutputStream output) {
+    ArgChecker.notNull(output, "output");
+    BinarySnapshotWriter writer = new BinarySnapshotWriter(output);
+    try {
+      writer.out.writeInt(BinarySnapshotFormat.MAGIC);
+      writer.out.writeByte(BinarySnapshotFormat.VERSION);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return writer;
+  }
+
+  // restricted constructor
+  private BinarySnapshotWriter(OutputStream output) {
+    this.out = new DataOutputStream(new BufferedOutputStream(output));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Writes a value.
+   * <p>
+   * If an exception is thrown, the stream can only be read up to the previous value.
+   *
+   * @param value  the value to write, may be null
+   * @return this writer
+   * @throws IllegalArgumentException if the value, or a value within it, is not supported
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  public BinarySnapshotWriter write(Object value) {
+    try {
+      writeValue(value);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    } finally {
+      beans.clear();
+    }
+    return this;
+  }
+
+  /**
+   * Writes each value of a collection, in the order of iteration.
+   *
+   * @param values  the values to write
+   * @return this writer
+   * @throws IllegalArgumentException if a value, or a value within it, is not supported
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  public BinarySnapshotWriter writeAll(Collection<?> values) {
+    ArgChecker.notNull(values, "values");
+    for (Object value : values) {
+      write(value);
+    }
+    return this;
+  }
+
+  /**
+   * Flushes the underlying stream.
+   *
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  public void flush() {
+    try {
+      out.flush();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Closes the underlying stream.
+   *
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  @Override
+  public void close() {
+    try {
+      out.close();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // writes a value with its tag
+  private void writeValue(Object value) throws IOException {
+    if (value == null) {
+      out.writeByte(NULL);
+    } else if (value instanceof Boolean) {
+      out.writeByte(((Boolean) value) ? TRUE : FALSE);
+    } else if (value instanceof Integer) {
+      out.writeByte(INTEGER);
+      BinarySnapshotFormat.writeSignedVarLong(out, (Integer) value);
+    } else if (value instanceof Long) {
+      out.writeByte(LONG);
+      BinarySnapshotFormat.writeSignedVarLong(out, (Long) value);
+    } else if (value instanceof Double) {
+      out.writeByte(DOUBLE);
+      out.writeDouble((Double) value);
+    } else if (value instanceof String) {
+      out.writeByte(STRING);
+      writeString((String) value);
+    } else if (value instanceof LocalDate) {
+      out.writeByte(LOCAL_DATE);
+      BinarySnapshotFormat.writeSignedVarLong(out, ((LocalDate) value).toEpochDay());
+    } else if (value instanceof double[]) {
+      out.writeByte(DOUBLE_PRIMITIVE_ARRAY);
+      writeDoubles((double[]) value);
+    } else if (value instanceof double[][]) {
+      out.writeByte(DOUBLE_PRIMITIVE_MATRIX);
+      writeDoubleMatrix((double[][]) value);
+    } else if (value instanceof int[]) {
+      out.writeByte(INT_PRIMITIVE_ARRAY);
+      writeInts((int[]) value);
+    } else if (value instanceof DoubleArray) {
+      out.writeByte(DOUBLE_ARRAY);
+      writeDoubles(((DoubleArray) value).toArrayUnsafe());
+    } else if (value instanceof IntArray) {
+      out.writeByte(INT_ARRAY);
+      writeInts(((IntArray) value).toArrayUnsafe());
+    } else if (value instanceof DoubleMatrix) {
+      out.writeByte(DOUBLE_MATRIX);
+      writeDoubleMatrix(((DoubleMatrix) value).toArrayUnsafe());
+    } else if (value instanceof LocalDateDoubleTimeSeries) {
+      out.writeByte(TIME_SERIES);
+      writeTimeSeries((LocalDateDoubleTimeSeries) value);
+    } else if (value instanceof List) {
+      out.writeByte(LIST);
+      writeElements((List<?>) value);
+    } else if (value instanceof Set) {
+      out.writeByte(value instanceof SortedSet ? SORTED_SET : SET);
+      writeElements((Set<?>) value);
+    } else if (value instanceof Map) {
+      out.writeByte(value instanceof SortedMap ? SORTED_MAP : MAP);
+      writeEntries((Map<?, ?>) value);
+    } else if (value instanceof Object[]) {
+      out.writeByte(OBJECT_ARRAY);
+      writeType(value.getClass().getComponentType());
+      Object[] array = (Object[]) value;
+      BinarySnapshotFormat.writeVarInt(out, array.length);
+      for (Object element : array) {
+        writeValue(element);
+      }
+    } else if (value instanceof Bean) {
+      writeBean((Bean) value);
+    } else {
+      Class<?> type = value instanceof Enum ? ((Enum<?>) value).getDeclaringClass() : value.getClass();
+      if (!StringConvert.INSTANCE.isConvertible(type)) {
+        throw new IllegalArgumentException("Unable to write value of type: " + type.getName());
+      }
+      out.writeByte(CONVERTED);
+      writeType(type);
+      writeString(StringConvert.INSTANCE.convertToString(type, value));
+    }
+  }
+
+  // writes a bean, or a reference to it if already written
+  private void writeBean(Bean bean) throws IOException {
+    Integer index = beans.get(bean);
+    if (index != null) {
+      out.writeByte(BEAN_REFERENCE);
+      BinarySnapshotFormat.writeVarInt(out, index);
+      return;
+    }
+    out.writeByte(BEAN);
+    Class<?> type = bean.getClass();
+    writeType(type);
+    for (MetaProperty<?> property : schemas.get(type)) {
+      writeValue(property.get(bean));
+    }
+    // the index is allocated once the bean is complete, matching the order in which the reader creates beans
+    beans.put(bean, beans.size());
+  }
+
+  // writes a type, in full the first time it is written
+  private void writeType(Class<?> type) throws IOException {
+    Integer index = types.get(type);
+    if (index != null) {
+      BinarySnapshotFormat.writeVarInt(out, index);
+      return;
+    }
+    BinarySnapshotFormat.writeVarInt(out, types.size());
+    types.put(type, types.size());
+    writeString(type.getName());
+    if (BinarySnapshotFormat.isBeanType(type)) {
+      List<MetaProperty<?>> schema = BinarySnapshotFormat.schema(type);
+      schemas.put(type, schema);
+      BinarySnapshotFormat.writeVarInt(out, schema.size());
+      for (MetaProperty<?> property : schema) {
+        writeString(property.name());
+      }
+    }
+  }
+
+  private void writeElements(Collection<?> values) throws IOException {
+    BinarySnapshotFormat.writeVarInt(out, values.size());
+    for (Object value : values) {
+      writeValue(value);
+    }
+  }
+
+  private void writeEntries(Map<?, ?> map) throws IOException {
+    BinarySnapshotFormat.writeVarInt(out, map.size());
+    for (Entry<?, ?> entry : map.entrySet()) {
+      writeValue(entry.getKey());
+      writeValue(entry.getValue());
+    }
+  }
+
+  private void writeString(String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    BinarySnapshotFormat.writeVarInt(out, bytes.length);
+    out.write(bytes);
+  }
+
+  private void writeDoubles(double[] values) throws IOException {
+    BinarySnapshotFormat.writeVarInt(out, values.length);
+    for (double value : values) {
+      out.writeDouble(value);
+    }
+  }
+
+  private void writeDoubleMatrix(double[][] values) throws IOException {
+    BinarySnapshotFormat.writeVarInt(out, values.length);
+    for (double[] row : values) {
+      writeDoubles(row);
+    }
+  }
+
+  private void writeInts(int[] values) throws IOException {
+    BinarySnapshotFormat.writeVarInt(out, values.length);
+    for (int value : values) {
+      BinarySnapshotFormat.writeSignedVarLong(out, value);
+    }
+  }
+
+  // the dates are written as the difference in days to the previous date, usually a single byte
+  private void writeTimeSeries(LocalDateDoubleTimeSeries series) throws IOException {
+    BinarySnapshotFormat.writeVarInt(out, series.size());
+    long previous = 0;
+    for (Iterator<LocalDateDoublePoint> it = series.stream().iterator(); it.hasNext();) {
+      LocalDateDoublePoint point = it.next();
+      long epochDay = point.getDate().toEpochDay();
+      BinarySnapshotFormat.writeSignedVarLong(out, epochDay - previous);
+      out.writeDouble(point.getValue());
+      previous = epochDay;
+    }
+  }
+
+}
@@ -32,6 +32,7 @@ import com.opengamma.strata.collect.Unchecked;
  * <p>
  * This class processes the CSV file row-by-row.
  * To load the entire CSV file into memory, use {@link CsvFile}.
+ * To process a very large CSV file without creating an object for each row, use {@link CsvScanner}.
  * <p>
  * This class must be used in a try-with-resources block to ensure that the underlying CSV file is closed:
  * <pre>
@@ -0,0 +1,792 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.OptionalInt;
+import java.util.function.Function;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.CharSource;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Unchecked;
+
+/**
+ * Scanner over the rows of a CSV file, providing typed access to the fields of the current row.
+ * <p>
+ * This class parses the same format as {@link CsvFile} and {@link CsvIterator}, but is designed
+ * for loading very large files where the cost of creating a {@link CsvRow} for each line matters.
+ * The file is read into a reusable character buffer and the fields of the current row are
+ * located within that buffer. No {@code String} is created for a field unless requested.
+ * <p>
+ * Fields are accessed by index, with the index of a header obtained once using {@link #getColumn(String)}.
+ * The typed accessors parse the field directly from the buffer:
+ * <ul>
+ * <li>{@link #fieldDouble(int)} parses a {@code double}
+ * <li>{@link #fieldDate(int)} parses a {@code LocalDate}, caching the last value in each column
+ * <li>{@link #fieldLookup(int, Function)} converts the field using a function, such as a lookup
+ *  of an enum or named value, caching the last value in each column
+ * </ul>
+ * The caching relies on the same value often being repeated in consecutive rows, as is typical
+ * for market data files sorted by date or identifier. When the field matches the previous row,
+ * the cached value is returned without creating a {@code String}.
+ * <p>
+ * This class must be used in a try-with-resources block to ensure that the underlying CSV file is closed:
+ * <pre>
+ *  try (CsvScanner csv = CsvScanner.of(source, true)) {
+ *    int dateColumn = csv.getColumn("Date");
+ *    int valueColumn = csv.getColumn("Value");
+ *    while (csv.nextRow()) {
+ *      LocalDate date = csv.fieldDate(dateColumn);
+ *      double value = csv.fieldDouble(valueColumn);
+ *    }
+ *  }
+ * </pre>
+ * This class is mutable and not thread-safe.
+ */
+public final class CsvScanner implements AutoCloseable {
+
+  /**
+   * The initial size of the buffer, which grows if a line is longer than the buffer.
+   */
+  private static final int INITIAL_BUFFER_SIZE = 8192;
+  /**
+   * The powers of ten that are exactly representable as a {@code double}.
+   */
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+  /**
+   * The maximum number of significant digits that can be held exactly in a {@code double} mantissa.
+   */
+  private static final int MAX_EXACT_DIGITS = 15;
+  /**
+   * An empty field.
+   */
+  private static final char[] EMPTY = new char[0];
+  /**
+   * The parser of dates, also used to identify cached dates.
+   */
+  private static final FieldParser<LocalDate> DATE_PARSER = CsvScanner::parseDate;
+
+  /**
+   * The reader.
+   */
+  private final Reader reader;
+  /**
+   * The separator.
+   */
+  private final char separator;
+  /**
+   * The header row, ordered as the headers appear in the file.
+   */
+  private final ImmutableList<String> headers;
+  /**
+   * The header map, transformed for case-insensitive searching.
+   */
+  private final ImmutableMap<String, Integer> searchHeaders;
+
+  /**
+   * The buffer of characters read from the reader.
+   */
+  private char[] buffer = new char[INITIAL_BUFFER_SIZE];
+  /**
+   * The start of the unprocessed characters in the buffer.
+   */
+  private int bufferStart;
+  /**
+   * The end of the valid characters in the buffer.
+   */
+  private int bufferEnd;
+  /**
+   * Whether the end of the input has been reached.
+   */
+  private boolean endOfInput;
+  /**
+   * Whether a line feed should be skipped, as the last line ended with a carriage return.
+   */
+  private boolean skipLineFeed;
+  /**
+   * The start of the current line in the buffer.
+   */
+  private int lineStart;
+  /**
+   * The end of the current line in the buffer, exclusive.
+   */
+  private int lineEnd;
+  /**
+   * The buffer used for fields that cannot be accessed directly in the main buffer, such as escaped quotes.
+   */
+  private char[] scratch = EMPTY;
+  /**
+   * The number of fields in the current row.
+   */
+  private int fieldCount;
+  /**
+   * The array holding each field of the current row, either the buffer or the scratch buffer.
+   */
+  private char[][] fieldArrays = new char[16][];
+  /**
+   * The start of each field of the current row.
+   */
+  private int[] fieldStarts = new int[16];
+  /**
+   * The length of each field of the current row.
+   */
+  private int[] fieldLengths = new int[16];
+  /**
+   * The parser used to create the cached value in each column.
+   */
+  private Object[] cacheParsers = new Object[0];
+  /**
+   * The characters of the field that created the cached value in each column.
+   */
+  private char[][] cacheChars = new char[0][];
+  /**
+   * The number of characters of the field that created the cached value in each column.
+   */
+  private int[] cacheLengths = new int[0];
+  /**
+   * The cached value in each column.
+   */
+  private Object[] cacheValues = new Object[0];
+
+  //------------------------------------------------------------------------
+  /**
+   * Parses the specified source as a CSV file.
+   * <p>
+   * This method opens the CSV file for reading.
+   * The caller is responsible for closing it by calling {@link #close()}.
+   *
+   * @param source  the CSV file resource
+   * @param headerRow  whether the source has a header row, an empty source must still contain the header
+   * @return the CSV scanner
+   * @throws UncheckedIOException if an IO exception occurs
+   * @throws IllegalArgumentException if the file cannot be parsed
+   */
+  public static CsvScanner of(CharSource source, boolean headerRow) {
+    return of(source, headerRow, ',');
+  }
+
+  /**
+   * Parses the specified source as a CSV file where the separator is specified and might not be a comma.
+   * <p>
+   * This overload allows the separator to be controlled.
+   * For example, a tab-separated file is very similar to a CSV file, the only difference is the separator.
+   * <p>
+   * This method opens the CSV file for reading.
+   * The caller is responsible for closing it by calling {@link #close()}.
+   *
+   * @param source  the file resource
+   * @param headerRow  whether the source has a header row, an empty source must still contain the header
+   * @param separator  the separator used to separate each field, typically a comma, but a tab is sometimes used
+   * @return the CSV scanner
+   * @throws UncheckedIOException if an IO exception occurs
+   * @throws IllegalArgumentException if the file cannot be parsed
+   */
+  public static CsvScanner of(CharSource source, boolean headerRow, char separator) {
+    ArgChecker.notNull(source, "source");
+    @SuppressWarnings("resource")
+    Reader reader = Unchecked.wrap(() -> source.openStream());
+    try {
+      CsvScanner scanner = new CsvScanner(reader, separator, ImmutableList.of());
+      if (!headerRow) {
+        return scanner;
+      }
+      if (!scanner.readLine()) {
+        throw new IllegalArgumentException("Could not read header row from empty CSV file");
+      }
+      ImmutableList<String> headers = CsvFile.parseLine(scanner.lineAsString(), separator);
+      return new CsvScanner(scanner, headers);
+
+    } catch (RuntimeException ex) {
+      try {
+        reader.close();
+      } catch (IOException ex2) {
+        ex.addSuppressed(ex2);
+      }
+      throw ex;
+    }
+  }
+
+  //------------------------------------------------------------------------
+  /**
+   * Restricted constructor.
+   *
+   * @param reader  the reader
+   * @param separator  the separator
+   * @param headers  the header row
+   */
+  private CsvScanner(Reader reader, char separator, ImmutableList<String> headers) {
+    this.reader = reader;
+    this.separator = separator;
+    this.headers = headers;
+    this.searchHeaders = CsvFile.buildSearchHeaders(headers);
+  }
+
+  /**
+   * Restricted constructor, continuing from the current position of another scanner.
+   *
+   * @param base  the scanner that has read the header row
+   * @param headers  the header row
+   */
+  private CsvScanner(CsvScanner base, ImmutableList<String> headers) {
+    this(base.reader, base.separator, headers);
+    this.buffer = base.buffer;
+    this.bufferStart = base.bufferStart;
+    this.bufferEnd = base.bufferEnd;
+    this.endOfInput = base.endOfInput;
+    this.skipLineFeed = base.skipLineFeed;
+  }
+
+  //------------------------------------------------------------------------
+  /**
+   * Gets the header row.
+   * <p>
+   * If there is no header row, an empty list is returned.
+   *
+   * @return the header row
+   */
+  public ImmutableList<String> headers() {
+    return headers;
+  }
+
+  /**
+   * Gets the index of the column with the specified header.
+   * <p>
+   * The header is matched case insensitively.
+   * If the header is present more than once, the first matching column is returned.
+   *
+   * @param header  the column header
+   * @return the column index
+   * @throws IllegalArgumentException if the header is not found
+   */
+  public int getColumn(String header) {
+    OptionalInt column = findColumn(header);
+    if (!column.isPresent()) {
+      throw new IllegalArgumentException("Header not found: " + header);
+    }
+    return column.getAsInt();
+  }
+
+  /**
+   * Finds the index of the column with the specified header.
+   * <p>
+   * The header is matched case insensitively.
+   * If the header is present more than once, the first matching column is returned.
+   *
+   * @param header  the column header
+   * @return the column index, empty if not found
+   */
+  public OptionalInt findColumn(String header) {
+    Integer column = searchHeaders.get(header.toLowerCase(Locale.ENGLISH));
+    return column != null ? OptionalInt.of(column) : OptionalInt.empty();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Moves to the next row in the CSV file.
+   * <p>
+   * This must be called before accessing the fields of the first row.
+   * Blank lines and comment lines are skipped, as per {@link CsvFile}.
+   *
+   * @return true if there is another row, false if the end of the file has been reached
+   * @throws UncheckedIOException if an IO exception occurs
+   * @throws IllegalArgumentException if the file cannot be parsed
+   */
+  public boolean nextRow() {
+    while (readLine()) {
+      if (parseFields()) {
+        return true;
+      }
+    }
+    fieldCount = 0;
+    return false;
+  }
+
+  /**
+   * Gets the number of fields in the current row.
+   * <p>
+   * This will return the number of fields in the row, or the number of headers if greater.
+   *
+   * @return the number of fields
+   */
+  public int fieldCount() {
+    return Math.max(fieldCount, headers.size());
+  }
+
+  /**
+   * Gets the specified field of the current row as a string.
+   * <p>
+   * This creates a new string, and should be avoided for fields that have a typed accessor.
+   *
+   * @param index  the field index
+   * @return the field
+   * @throws IndexOutOfBoundsException if the field index is invalid
+   */
+  public String field(int index) {
+    if (index >= fieldCount && index < headers.size()) {
+      return "";
+    }
+    checkIndex(index);
+    return new String(fieldArrays[index], fieldStarts[index], fieldLengths[index]);
+  }
+
+  /**
+   * Checks if the specified field of the current row is empty.
+   *
+   * @param index  the field index
+   * @return true if the field is empty
+   * @throws IndexOutOfBoundsException if the field index is invalid
+   */
+  public boolean isFieldEmpty(int index) {
+    if (index >= fieldCount && index < headers.size()) {
+      return true;
+    }
+    checkIndex(index);
+    return fieldLengths[index] == 0;
+  }
+
+  /**
+   * Gets the specified field of the current row as a {@code double}.
+   * <p>
+   * The field is parsed using the rules of {@link Double#parseDouble(String)}.
+   *
+   * @param index  the field index
+   * @return the parsed value
+   * @throws IndexOutOfBoundsException if the field index is invalid
+   * @throws NumberFormatException if the field cannot be parsed
+   */
+  public double fieldDouble(int index) {
+    if (index >= fieldCount && index < headers.size()) {
+      return Double.parseDouble("");
+    }
+    checkIndex(index);
+    return parseDouble(fieldArrays[index], fieldStarts[index], fieldLengths[index]);
+  }
+
+  /**
+   * Gets the specified field of the current row as a {@code LocalDate}.
+   * <p>
+   * The field is parsed using the rules of {@link LocalDate#parse(CharSequence)}.
+   * The last date in each column is cached.
+   *
+   * @param index  the field index
+   * @return the parsed date
+   * @throws IndexOutOfBoundsException if the field index is invalid
+   * @throws RuntimeException if the field cannot be parsed
+   */
+  public LocalDate fieldDate(int index) {
+    return cachedValue(index, DATE_PARSER, DATE_PARSER);
+  }
+
+  /**
+   * Gets the specified field of the current row, converted using the specified function.
+   * <p>
+   * The function is typically a lookup, such as {@code CurveName::of}, or the parsing of an enum.
+   * The last value in each column is cached, with the function only invoked when the field
+   * differs from the field in the same column of the row that created the cached value.
+   * As such, the function should always return an equal value for an equal input.
+   *
+   * @param <T>  the type of the converted value
+   * @param index  the field index
+   * @param lookup  the function to convert the field
+   * @return the converted value
+   * @throws IndexOutOfBoundsException if the field index is invalid
+   * @throws RuntimeException if thrown by the function
+   */
+  public <T> T fieldLookup(int index, Function<String, T> lookup) {
+    ArgChecker.notNull(lookup, "lookup");
+    return cachedValue(index, lookup, (chars, start, length) -> lookup.apply(new String(chars, start, length)));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Closes the underlying reader.
+   *
+   * @throws UncheckedIOException if an IO exception occurs
+   */
+  @Override
+  public void close() {
+    Unchecked.wrap(() -> reader.close());
+  }
+
+  //-------------------------------------------------------------------------
+  // checks the field index
+  private void checkIndex(int index) {
+    if (index < 0 || index >= fieldCount) {
+      throw new IndexOutOfBoundsException("Invalid field index " + index + ", row has " + fieldCount + " fields");
+    }
+  }
+
+  // returns the cached value in the column, parsing and caching a new value if the field has changed
+  @SuppressWarnings("unchecked")
+  private <T> T cachedValue(int index, Object parserKey, FieldParser<T> parser) {
+    char[] chars;
+    int start;
+    int length;
+    if (index >= fieldCount && index < headers.size()) {
+      chars = EMPTY;
+      start = 0;
+      length = 0;
+    } else {
+      checkIndex(index);
+      chars = fieldArrays[index];
+      start = fieldStarts[index];
+      length = fieldLengths[index];
+    }
+    if (index >= cacheValues.length) {
+      int size = Math.max(index + 1, headers.size());
+      cacheParsers = Arrays.copyOf(cacheParsers, size);
+      cacheChars = Arrays.copyOf(cacheChars, size);
+      cacheLengths = Arrays.copyOf(cacheLengths, size);
+      cacheValues = Arrays.copyOf(cacheValues, size);
+    }
+    char[] cached = cacheChars[index];
+    if (cacheParsers[index] == parserKey &&
+        cacheLengths[index] == length &&
+        regionMatches(cached, chars, start, length)) {
+      return (T) cacheValues[index];
+    }
+    T value = parser.parse(chars, start, length);
+    if (cached == null || cached.length < length) {
+      cached = new char[Math.max(length, 16)];
+      cacheChars[index] = cached;
+    }
+    System.arraycopy(chars, start, cached, 0, length);
+    cacheLengths[index] = length;
+    cacheParsers[index] = parserKey;
+    cacheValues[index] = value;
+    return value;
+  }
+
+  // compares the start of the cached characters with the region
+  private static boolean regionMatches(char[] cached, char[] chars, int start, int length) {
+    for (int i = 0; i < length; i++) {
+      if (cached[i] != chars[start + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  //-------------------------------------------------------------------------
+  // reads the next physical line into the buffer, returning false at the end of the input
+  // lines are separated by CR, LF or CRLF, matching BufferedReader
+  private boolean readLine() {
+    int scanned = 0;
+    while (true) {
+      if (skipLineFeed) {
+        if (bufferStart < bufferEnd) {
+          if (buffer[bufferStart] == '\n') {
+            bufferStart++;
+          }
+          skipLineFeed = false;
+        } else if (endOfInput) {
+          skipLineFeed = false;
+        } else {
+          fill();
+          continue;
+        }
+      }
+      for (int pos = bufferStart + scanned; pos < bufferEnd; pos++) {
+        char ch = buffer[pos];
+        if (ch == '\n' || ch == '\r') {
+          lineStart = bufferStart;
+          lineEnd = pos;
+          bufferStart = pos + 1;
+          skipLineFeed = (ch == '\r');
+          return true;
+        }
+      }
+      scanned = bufferEnd - bufferStart;
+      if (endOfInput) {
+        if (scanned == 0) {
+          return false;
+        }
+        lineStart = bufferStart;
+        lineEnd = bufferEnd;
+        bufferStart = bufferEnd;
+        return true;
+      }
+      fill();
+    }
+  }
+
+  // reads more characters into the buffer, compacting or growing the buffer as necessary
+  private void fill() {
+    if (bufferStart == 0 && bufferEnd == buffer.length) {
+      buffer = Arrays.copyOf(buffer, buffer.length * 2);
+    } else if (bufferStart > 0) {
+      System.arraycopy(buffer, bufferStart, buffer, 0, bufferEnd - bufferStart);
+      bufferEnd -= bufferStart;
+      bufferStart = 0;
+    }
+    try {
+      int read = reader.read(buffer, bufferEnd, buffer.length - bufferEnd);
+      if (read < 0) {
+        endOfInput = true;
+      } else {
+        bufferEnd += read;
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  // the current line
+  private String lineAsString() {
+    return new String(buffer, lineStart, lineEnd - lineStart);
+  }
+
+  //-------------------------------------------------------------------------
+  // locates the fields of the current line, returning false if the line has no content
+  // the rules match CsvFile.parseLine(), which is used directly for unusual quoting
+  private boolean parseFields() {
+    fieldCount = 0;
+    int end = lineEnd;
+    if (lineStart == end || buffer[lineStart] == '#' || buffer[lineStart] == ';') {
+      return false;
+    }
+    if (scratch.length < end - lineStart) {
+      scratch = new char[Math.max(end - lineStart, 64)];
+    }
+    int scratchEnd = 0;
+    boolean content = false;
+    int pos = lineStart;
+    while (true) {
+      int start = pos;
+      while (start < end && buffer[start] != separator && buffer[start] <= ' ') {
+        start++;
+      }
+      if (start < end && buffer[start] == '"') {
+        // quoted field, with doubled quotes as an escape
+        boolean escaped = false;
+        int quoteEnd = start + 1;
+        while (quoteEnd < end) {
+          if (buffer[quoteEnd] == '"') {
+            if (quoteEnd + 1 < end && buffer[quoteEnd + 1] == '"') {
+              escaped = true;
+              quoteEnd += 2;
+              continue;
+            }
+            break;
+          }
+          quoteEnd++;
+        }
+        pos = quoteEnd + 1;
+        while (pos < end && buffer[pos] != separator && buffer[pos] <= ' ') {
+          pos++;
+        }
+        if (quoteEnd >= end || (pos < end && buffer[pos] != separator)) {
+          return parseFieldsFallback();
+        }
+        if (escaped) {
+          int length = 0;
+          for (int i = start + 1; i < quoteEnd; i++) {
+            scratch[scratchEnd + length++] = buffer[i];
+            if (buffer[i] == '"') {
+              i++;
+            }
+          }
+          addField(scratch, scratchEnd, length);
+          scratchEnd += length;
+        } else {
+          addField(buffer, start + 1, quoteEnd - start - 1);
+        }
+        content |= hasContent(buffer, start + 1, quoteEnd);
+      } else {
+        int separatorPos = start;
+        while (separatorPos < end && buffer[separatorPos] != separator) {
+          separatorPos++;
+        }
+        int fieldEnd = separatorPos;
+        while (fieldEnd > start && buffer[fieldEnd - 1] <= ' ') {
+          fieldEnd--;
+        }
+        addField(buffer, start, fieldEnd - start);
+        content |= fieldEnd > start;
+        pos = separatorPos;
+      }
+      if (pos >= end) {
+        break;
+      }
+      pos++;
+    }
+    if (!content) {
+      fieldCount = 0;
+    }
+    return content;
+  }
+
+  // parses the current line using the standard parser, for quoted fields that the scanner does not handle
+  private boolean parseFieldsFallback() {
+    fieldCount = 0;
+    ImmutableList<String> fields = CsvFile.parseLine(lineAsString(), separator);
+    int scratchEnd = 0;
+    for (String field : fields) {
+      field.getChars(0, field.length(), scratch, scratchEnd);
+      addField(scratch, scratchEnd, field.length());
+      scratchEnd += field.length();
+    }
+    return !fields.isEmpty();
+  }
+
+  // adds a field of the current row
+  private void addField(char[] chars, int start, int length) {
+    if (fieldCount == fieldStarts.length) {
+      int size = fieldCount * 2;
+      fieldArrays = Arrays.copyOf(fieldArrays, size);
+      fieldStarts = Arrays.copyOf(fieldStarts, size);
+      fieldLengths = Arrays.copyOf(fieldLengths, size);
+    }
+    fieldArrays[fieldCount] = chars;
+    fieldStarts[fieldCount] = start;
+    fieldLengths[fieldCount] = length;
+    fieldCount++;
+  }
+
+  // checks if the region contains a character that is not whitespace
+  private static boolean hasContent(char[] chars, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (chars[i] > ' ') {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  //-------------------------------------------------------------------------
+  // parses a double, handling simple decimals directly and delegating anything else to the JDK
+  // a decimal of up to 15 significant digits scaled by a power of ten up to 22 is exact in both parts,
+  // thus a single multiplication or division produces the correctly rounded result
+  static double parseDouble(char[] chars, int start, int length) {
+    int end = start + length;
+    int pos = start;
+    boolean negative = false;
+    if (pos < end && (chars[pos] == '-' || chars[pos] == '+')) {
+      negative = chars[pos] == '-';
+      pos++;
+    }
+    long mantissa = 0;
+    int digits = 0;
+    int exponent = 0;
+    boolean anyDigits = false;
+    while (pos < end && chars[pos] >= '0' && chars[pos] <= '9') {
+      int digit = chars[pos++] - '0';
+      if ((mantissa != 0 || digit != 0) && ++digits > MAX_EXACT_DIGITS) {
+        return Double.parseDouble(new String(chars, start, length));
+      }
+      mantissa = mantissa * 10 + digit;
+      anyDigits = true;
+    }
+    if (pos < end && chars[pos] == '.') {
+      pos++;
+      while (pos < end && chars[pos] >= '0' && chars[pos] <= '9') {
+        int digit = chars[pos++] - '0';
+        if ((mantissa != 0 || digit != 0) && ++digits > MAX_EXACT_DIGITS) {
+          return Double.parseDouble(new String(chars, start, length));
+        }
+        mantissa = mantissa * 10 + digit;
+        exponent--;
+        anyDigits = true;
+      }
+    }
+    if (pos < end && (chars[pos] == 'e' || chars[pos] == 'E') && anyDigits) {
+      pos++;
+      boolean negativeExponent = false;
+      if (pos < end && (chars[pos] == '-' || chars[pos] == '+')) {
+        negativeExponent = chars[pos] == '-';
+        pos++;
+      }
+      int exponentValue = 0;
+      int exponentStart = pos;
+      while (pos < end && chars[pos] >= '0' && chars[pos] <= '9' && exponentValue < 1000) {
+        exponentValue = exponentValue * 10 + (chars[pos++] - '0');
+      }
+      if (pos == exponentStart) {
+        return Double.parseDouble(new String(chars, start, length));
+      }
+      exponent += negativeExponent ? -exponentValue : exponentValue;
+    }
+    if (!anyDigits || pos != end) {
+      // includes empty, NaN, Infinity, hex and type suffixes
+      return Double.parseDouble(new String(chars, start, length));
+    }
+    if (mantissa == 0) {
+      return negative ? -0d : 0d;
+    }
+    if (exponent < -22 || exponent > 22) {
+      return Double.parseDouble(new String(chars, start, length));
+    }
+    double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+    return negative ? -value : value;
+  }
+
+  // parses a date, handling the standard yyyy-MM-dd format directly
+  static LocalDate parseDate(char[] chars, int start, int length) {
+    if (length == 10 && chars[start + 4] == '-' && chars[start + 7] == '-') {
+      int year = digits(chars, start, 4);
+      int month = digits(chars, start + 5, 2);
+      int day = digits(chars, start + 8, 2);
+      if (year >= 0 && month >= 0 && day >= 0) {
+        return LocalDate.of(year, month, day);
+      }
+    }
+    return LocalDate.parse(new String(chars, start, length));
+  }
+
+  // parses a fixed number of digits, returning -1 if any character is not a digit
+  private static int digits(char[] chars, int start, int count) {
+    int value = 0;
+    for (int i = start; i < start + count; i++) {
+      char ch = chars[i];
+      if (ch < '0' || ch > '9') {
+        return -1;
+      }
+      value = value * 10 + (ch - '0');
+    }
+    return value;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns a string describing the CSV scanner.
+   *
+   * @return the descriptive string
+   */
+  @Override
+  public String toString() {
+    return "CsvScanner" + headers.toString();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Parser of a field from a region of characters.
+   *
+   * @param <T>  the type of the parsed value
+   */
+  @FunctionalInterface
+  private interface FieldParser<T> {
+
+    /**
+     * Parses the field.
+     *
+     * @param chars  the characters
+     * @param start  the start of the field
+     * @param length  the length of the field
+     * @return the parsed value
+     */
+    T parse(char[] chars, int start, int length);
+  }
+
+}
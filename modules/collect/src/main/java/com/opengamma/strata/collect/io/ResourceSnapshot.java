@@ -0,0 +1,260 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect.io;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Unchecked;
+
+/**
+ * Snapshots of the values loaded from configuration resources.
+ * <p>
+ * The standard indices and holiday calendars are parsed from CSV and INI resources when first used.
+ * This class allows the parsed values to be stored in a snapshot file on the first run, and to be
+ * read back on subsequent runs, memory-mapping the file rather than parsing the resources again.
+ * <p>
+ * Snapshots are only used if the system property 'com.opengamma.strata.config.snapshot.directory'
+ * is set to a writable directory. The snapshot file is identified by a hash of the content of the resources,
+ * together with the size and last modified time of the code that parses them and defines the values.
+ * The code is identified by the jar file or class directory holding the type of the values and the loader,
+ * thus a snapshot is not used once the resources, the parsing or the layout of the values have changed.
+ * When a snapshot is written, the snapshots of the same name with a different hash are deleted.
+ * Any error while reading or writing a snapshot is logged and the resources are parsed instead.
+ * <p>
+ * The values must be supported by {@link BinarySnapshotWriter}, which includes all immutable beans.
+ */
+public final class ResourceSnapshot {
+
+  /**
+   * The logger.
+   */
+  private static final Logger log = Logger.getLogger(ResourceSnapshot.class.getName());
+  /**
+   * The system property defining the directory of the snapshot files.
+   */
+  public static final String SNAPSHOT_DIR_PROPERTY = "com.opengamma.strata.config.snapshot.directory";
+  /**
+   * The suffix of snapshot files.
+   */
+  private static final String SUFFIX = ".snapshot";
+  /**
+   * The pattern of the hash in the name of a snapshot file.
+   */
+  private static final Pattern FINGERPRINT = Pattern.compile("[0-9a-f]{64}");
+  /**
+   * The hash of each jar file or class directory holding code, computed once as the code cannot change once loaded.
+   */
+  private static final ConcurrentMap<Path, HashCode> CODE_SOURCES = new ConcurrentHashMap<>();
+  /**
+   * The snapshot directory, null if snapshots are disabled.
+   */
+  private static final Path SNAPSHOT_DIR;
+  static {
+    Path dir = null;
+    try {
+      String property = System.getProperty(SNAPSHOT_DIR_PROPERTY);
+      if (property != null && !property.isEmpty()) {
+        dir = Paths.get(property);
+      }
+    } catch (Exception ex) {
+      log.warning("Unable to access system property: " + ex.toString());
+    }
+    log.config("Using snapshot directory: " + dir);
+    SNAPSHOT_DIR = dir;
+  }
+
+  /**
+   * Restricted constructor.
+   */
+  private ResourceSnapshot() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Loads the values parsed from the resources, using a snapshot if available.
+   * <p>
+   * If snapshots are enabled and a snapshot of the resources exists, the values are read from it.
+   * Otherwise the loader is invoked to parse the resources, and the result is stored in a new snapshot.
+   * An empty result is not stored, as it typically indicates an error in the resources.
+   *
+   * @param <T>  the type of the values
+   * @param name  the name of the snapshot, such as 'IborIndexData.csv'
+   * @param resources  the resources that the values are parsed from
+   * @param type  the type of the values
+   * @param loader  the loader parsing the values from the resources
+   * @return the values, keyed by name
+   */
+  public static <T> ImmutableMap<String, T> load(
+      String name,
+      List<ResourceLocator> resources,
+      Class<T> type,
+      Supplier<ImmutableMap<String, T>> loader) {
+
+    if (SNAPSHOT_DIR == null) {
+      return loader.get();
+    }
+    return load(SNAPSHOT_DIR, name, resources, type, loader);
+  }
+
+  // loads using the specified directory, accessible for testing
+  static <T> ImmutableMap<String, T> load(
+      Path dir,
+      String name,
+      List<ResourceLocator> resources,
+      Class<T> type,
+      Supplier<ImmutableMap<String, T>> loader) {
+
+    ArgChecker.notNull(dir, "dir");
+    ArgChecker.notEmpty(name, "name");
+    ArgChecker.noNulls(resources, "resources");
+    ArgChecker.notNull(type, "type");
+    ArgChecker.notNull(loader, "loader");
+    Path file;
+    try {
+      file = dir.resolve(name + "-" + fingerprint(resources, type, loader) + SUFFIX);
+    } catch (RuntimeException ex) {
+      log.log(Level.WARNING, "Unable to read resources for snapshot: " + name, ex);
+      return loader.get();
+    }
+    if (Files.isRegularFile(file)) {
+      try {
+        return read(file, type);
+      } catch (RuntimeException ex) {
+        log.log(Level.WARNING, "Unable to read snapshot, parsing resources instead: " + file, ex);
+      }
+    }
+    ImmutableMap<String, T> loaded = loader.get();
+    if (!loaded.isEmpty()) {
+      write(dir, name, file, loaded);
+    }
+    return loaded;
+  }
+
+  // hashes the content of each resource, together with the code that parses the resources and defines the values
+  // the resources are small, it is parsing them and creating the values that takes time
+  private static String fingerprint(List<ResourceLocator> resources, Class<?> type, Object loader) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putInt(BinarySnapshotFormat.VERSION);
+    for (ResourceLocator resource : resources) {
+      hasher.putString(resource.getLocator(), StandardCharsets.UTF_8);
+      hasher.putBytes(Unchecked.wrap(() -> resource.getByteSource().read()));
+    }
+    // the format, the type of the values and the parser, a lambda being defined by the class declaring it
+    for (Class<?> cls : ImmutableList.of(ResourceSnapshot.class, type, loader.getClass())) {
+      Path codeSource = codeSource(cls);
+      if (codeSource == null) {
+        throw new IllegalStateException("Unable to find the code source of " + cls.getName());
+      }
+      hasher.putBytes(CODE_SOURCES.computeIfAbsent(codeSource, path -> Unchecked.wrap(() -> hashCodeSource(path)))
+          .asBytes());
+    }
+    return hasher.hash().toString();
+  }
+
+  // finds the jar file or class directory holding the class, null if unknown
+  static Path codeSource(Class<?> cls) {
+    CodeSource source = cls.getProtectionDomain().getCodeSource();
+    if (source == null || source.getLocation() == null) {
+      return null;
+    }
+    try {
+      return Paths.get(source.getLocation().toURI());
+    } catch (URISyntaxException | RuntimeException ex) {
+      return null;
+    }
+  }
+
+  // hashes the size and last modified time of the jar file, or of each file in the class directory
+  // a class directory is typical when running in an IDE, where a changed class does not change the directory
+  static HashCode hashCodeSource(Path path) throws IOException {
+    Hasher hasher = Hashing.sha256().newHasher();
+    if (Files.isDirectory(path)) {
+      try (Stream<Path> files = Files.walk(path)) {
+        for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile).sorted()::iterator) {
+          hasher.putString(path.relativize(file).toString(), StandardCharsets.UTF_8);
+          hasher.putLong(Files.size(file));
+          hasher.putLong(Files.getLastModifiedTime(file).toMillis());
+        }
+      }
+    } else {
+      hasher.putLong(Files.size(path));
+      hasher.putLong(Files.getLastModifiedTime(path).toMillis());
+    }
+    return hasher.hash();
+  }
+
+  // reads the snapshot, checking the type of the values
+  private static <T> ImmutableMap<String, T> read(Path file, Class<T> type) {
+    try (BinarySnapshotReader reader = BinarySnapshotReader.ofMappedFile(file)) {
+      Map<?, ?> map = reader.read(Map.class);
+      ImmutableMap.Builder<String, T> builder = ImmutableMap.builder();
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        builder.put((String) entry.getKey(), type.cast(entry.getValue()));
+      }
+      return builder.build();
+    }
+  }
+
+  // writes the snapshot to a temporary file that is then moved, so that a partial file is never read
+  private static void write(Path dir, String name, Path file, ImmutableMap<String, ?> values) {
+    Path tempFile = null;
+    try {
+      Files.createDirectories(dir);
+      tempFile = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+      try (BinarySnapshotWriter writer = BinarySnapshotWriter.of(Files.newOutputStream(tempFile))) {
+        writer.write(values);
+      }
+      Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      deleteStale(dir, name, file);
+    } catch (IOException | RuntimeException ex) {
+      log.log(Level.WARNING, "Unable to write snapshot: " + file, ex);
+      if (tempFile != null) {
+        try {
+          Files.deleteIfExists(tempFile);
+        } catch (IOException ex2) {
+          // ignore
+        }
+      }
+    }
+  }
+
+  // deletes the snapshots of the same name with a different hash, which are no longer used
+  private static void deleteStale(Path dir, String name, Path file) throws IOException {
+    String prefix = name + "-";
+    try (Stream<Path> files = Files.list(dir)) {
+      for (Path stale : (Iterable<Path>) files::iterator) {
+        String fileName = stale.getFileName().toString();
+        if (!stale.equals(file) && fileName.startsWith(prefix) && fileName.endsWith(SUFFIX) &&
+            FINGERPRINT.matcher(fileName.substring(prefix.length(), fileName.length() - SUFFIX.length())).matches()) {
+          Files.deleteIfExists(stale);
+        }
+      }
+    }
+  }
+
+}
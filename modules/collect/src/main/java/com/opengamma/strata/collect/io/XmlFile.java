@@ -9,6 +9,8 @@ import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
@@ -101,6 +103,51 @@ public final class XmlFile {
     });
   }
 
+  /**
+   * Parses the specified source as XML, streaming selected elements to a consumer.
+   * <p>
+   * This parses the specified byte source expecting an XML file format, without
+   * creating an in-memory structure for the whole file. As each element starts, the selector
+   * is invoked with the depth of the element and its name. The root element has depth zero.
+   * If the selector returns true, the element and its children are parsed to an in-memory
+   * DOM-like structure and passed to the consumer, with the element as the root of the file.
+   * Otherwise, the children of the element are examined in turn.
+   * This approach is suitable for XML files that are too large to be held in memory,
+   * but consist of many independent elements that are.
+   * <p>
+   * The references map of each file passed to the consumer contains only the references
+   * found within the selected element.
+   * <p>
+   * The consumer is invoked in the order that the elements occur in the XML source.
+   * 
+   * @param source  the XML source data
+   * @param refAttrName  the attribute name that should be parsed as a reference
+   * @param selector  the selector, passed the depth and name of each element, returning true to select the element
+   * @param consumer  the consumer of the selected elements
+   * @throws UncheckedIOException if an IO exception occurs
+   * @throws IllegalArgumentException if the file cannot be parsed
+   */
+  public static void parseElements(
+      ByteSource source,
+      String refAttrName,
+      BiPredicate<Integer, String> selector,
+      Consumer<XmlFile> consumer) {
+
+    ArgChecker.notNull(source, "source");
+    ArgChecker.notNull(selector, "selector");
+    ArgChecker.notNull(consumer, "consumer");
+    Unchecked.wrap(() -> {
+      try (InputStream in = source.openBufferedStream()) {
+        XMLStreamReader xmlReader = xmlInputFactory().createXMLStreamReader(in);
+        try {
+          parseElements(xmlReader, refAttrName, selector, consumer);
+        } finally {
+          xmlReader.close();
+        }
+      }
+    });
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Parses the tree from the StAX stream reader, capturing references.
@@ -159,6 +206,35 @@ public final class XmlFile {
     }
   }
 
+  // streams the selected elements to the consumer
+  private static void parseElements(
+      XMLStreamReader reader,
+      String refAttr,
+      BiPredicate<Integer, String> selector,
+      Consumer<XmlFile> consumer) {
+
+    try {
+      int depth = 0;
+      while (reader.hasNext()) {
+        int event = reader.next();
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          if (selector.test(depth, reader.getLocalName())) {
+            // the whole element is consumed, leaving the reader at the matching end element
+            HashMap<String, XmlElement> refs = new HashMap<>();
+            XmlElement element = parse(reader, refAttr, refs);
+            consumer.accept(new XmlFile(element, refs));
+          } else {
+            depth++;
+          }
+        } else if (event == XMLStreamConstants.END_ELEMENT) {
+          depth--;
+        }
+      }
+    } catch (XMLStreamException ex) {
+      throw new IllegalArgumentException(ex);
+    }
+  }
+
   // find the start element and parses the name
   private static String parseElementName(XMLStreamReader reader) throws XMLStreamException {
     int event = reader.getEventType();
@@ -0,0 +1,200 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect.io;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.collect.array.IntArray;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.collect.tuple.DoublesPair;
+import com.opengamma.strata.collect.tuple.Pair;
+
+/**
+ * Test {@link BinarySnapshotReader} and {@link BinarySnapshotWriter}.
+ */
+@Test
+public class BinarySnapshotReaderTest {
+
+  private static final LocalDate DATE = date(2016, 6, 30);
+  private static final AtomicBoolean UNINITIALIZED_RUN = new AtomicBoolean();
+
+  //-------------------------------------------------------------------------
+  public void test_roundTrip_simple() {
+    List<Object> values = Arrays.asList(
+        null, true, false, 1, -123456, 1L << 40, 1.5d, Double.NaN, "Hello", DATE, DayOfWeek.MONDAY);
+    assertEquals(roundTrip(values), values);
+  }
+
+  public void test_roundTrip_arrays() {
+    double[] doubles = {1d, 2.5d, -3d};
+    int[] ints = {1, -2, 3};
+    double[][] matrix = {{1d, 2d}, {3d, 4d}};
+    List<Object> result = roundTrip(Arrays.asList(
+        doubles, ints, matrix, DoubleArray.copyOf(doubles), IntArray.copyOf(ints), DoubleMatrix.copyOf(matrix)));
+    assertTrue(Arrays.equals((double[]) result.get(0), doubles));
+    assertTrue(Arrays.equals((int[]) result.get(1), ints));
+    assertTrue(Arrays.deepEquals((double[][]) result.get(2), matrix));
+    assertEquals(result.get(3), DoubleArray.copyOf(doubles));
+    assertEquals(result.get(4), IntArray.copyOf(ints));
+    assertEquals(result.get(5), DoubleMatrix.copyOf(matrix));
+  }
+
+  public void test_roundTrip_timeSeries() {
+    LocalDateDoubleTimeSeries ts = LocalDateDoubleTimeSeries.builder()
+        .put(DATE, 1d)
+        .put(DATE.plusDays(1), 2d)
+        .put(DATE.plusDays(5), 3d)
+        .build();
+    assertEquals(roundTrip(ImmutableList.of(ts, LocalDateDoubleTimeSeries.empty())),
+        ImmutableList.of(ts, LocalDateDoubleTimeSeries.empty()));
+  }
+
+  public void test_roundTrip_collections() {
+    List<Object> values = ImmutableList.of(
+        ImmutableList.of("a", 1, DATE),
+        ImmutableSet.of("x", "y"),
+        ImmutableMap.of("b", 2, "a", 1),
+        ImmutableSortedMap.of("b", 2, "a", 1));
+    List<Object> result = roundTrip(values);
+    assertEquals(result, values);
+    assertThat(((ImmutableSortedMap<?, ?>) result.get(3)).firstKey()).isEqualTo("a");
+  }
+
+  public void test_roundTrip_beans() {
+    Pair<String, DoublesPair> pair1 = Pair.of("A", DoublesPair.of(1d, 2d));
+    Pair<String, DoublesPair> pair2 = Pair.of("B", DoublesPair.of(3d, 4d));
+    Pair<Object, Object> nested = Pair.of(pair1, ImmutableList.of(pair2, DATE));
+    assertEquals(roundTrip(ImmutableList.of(pair1, pair2, nested)), ImmutableList.of(pair1, pair2, nested));
+  }
+
+  public void test_roundTrip_sharedBean() {
+    DoublesPair shared = DoublesPair.of(1d, 2d);
+    Pair<DoublesPair, DoublesPair> pair = Pair.of(shared, shared);
+    Pair<?, ?> result = (Pair<?, ?>) roundTrip(ImmutableList.of(pair)).get(0);
+    assertEquals(result, pair);
+    assertSame(result.getFirst(), result.getSecond());
+  }
+
+  public void test_schemaWrittenOnce() {
+    ByteArrayOutputStream one = new ByteArrayOutputStream();
+    BinarySnapshotWriter.of(one).write(DoublesPair.of(1d, 2d)).flush();
+    ByteArrayOutputStream two = new ByteArrayOutputStream();
+    BinarySnapshotWriter.of(two).write(DoublesPair.of(1d, 2d)).write(DoublesPair.of(3d, 4d)).flush();
+    // the second bean of the same type is written as its values only
+    assertThat(two.size() - one.size()).isLessThan(20);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_ofMappedFile() throws IOException {
+    Path file = Files.createTempFile("snapshot", ".bin");
+    try {
+      List<Object> values = ImmutableList.of("A", DoubleArray.of(1d, 2d), Pair.of(DATE, 2d));
+      try (BinarySnapshotWriter writer = BinarySnapshotWriter.of(Files.newOutputStream(file))) {
+        writer.writeAll(values);
+      }
+      try (BinarySnapshotReader reader = BinarySnapshotReader.ofMappedFile(file)) {
+        assertEquals(reader.read(String.class), "A");
+        assertEquals(reader.readAll(), values.subList(1, 3));
+        assertFalse(reader.hasNext());
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_read_noMoreValues() {
+    BinarySnapshotReader reader = BinarySnapshotReader.of(new ByteArrayInputStream(write(ImmutableList.of())));
+    assertFalse(reader.hasNext());
+    assertThrows(() -> reader.read(), IllegalStateException.class);
+  }
+
+  public void test_read_wrongType() {
+    BinarySnapshotReader reader = BinarySnapshotReader.of(new ByteArrayInputStream(write(ImmutableList.of("A"))));
+    assertThrowsIllegalArg(() -> reader.read(Integer.class));
+  }
+
+  public void test_of_badHeader() {
+    byte[] bytes = {1, 2, 3, 4, 5, 6, 7, 8};
+    assertThrowsIllegalArg(() -> BinarySnapshotReader.of(new ByteArrayInputStream(bytes)));
+  }
+
+  public void test_write_unsupported() {
+    BinarySnapshotWriter writer = BinarySnapshotWriter.of(new ByteArrayOutputStream());
+    assertThrowsIllegalArg(() -> writer.write(new Object()));
+  }
+
+  public void test_read_notConvertible() throws IOException {
+    // a value claiming to be converted from a string, naming a class that is not convertible
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(BinarySnapshotFormat.MAGIC);
+    out.writeByte(BinarySnapshotFormat.VERSION);
+    out.writeByte(BinarySnapshotFormat.CONVERTED);
+    BinarySnapshotFormat.writeVarInt(out, 0);
+    byte[] name = Uninitialized.class.getName().getBytes(StandardCharsets.UTF_8);
+    BinarySnapshotFormat.writeVarInt(out, name.length);
+    out.write(name);
+    BinarySnapshotFormat.writeVarInt(out, 0);
+    out.flush();
+
+    BinarySnapshotReader reader = BinarySnapshotReader.of(new ByteArrayInputStream(bytes.toByteArray()));
+    assertThrowsIllegalArg(() -> reader.read(), ".*not convertible.*");
+    assertFalse(UNINITIALIZED_RUN.get());
+  }
+
+  //-------------------------------------------------------------------------
+  private static byte[] write(List<?> values) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (BinarySnapshotWriter writer = BinarySnapshotWriter.of(out)) {
+      writer.writeAll(values);
+    }
+    return out.toByteArray();
+  }
+
+  private static List<Object> roundTrip(List<?> values) {
+    try (BinarySnapshotReader reader = BinarySnapshotReader.of(new ByteArrayInputStream(write(values)))) {
+      return reader.readAll();
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // a class whose static initializer must not be run by the reader
+  static final class Uninitialized {
+    static {
+      UNINITIALIZED_RUN.set(true);
+    }
+  }
+
+}
@@ -0,0 +1,222 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect.io;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.function.Function;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.CharSource;
+import com.google.common.io.Files;
+
+/**
+ * Test {@link CsvScanner}.
+ */
+@Test
+public class CsvScannerTest {
+
+  private final String CSV1 = "" +
+      "h1,h2\n" +
+      "r11,r12\n" +
+      "r21,r22";
+
+  private final String CSV1T = "" +
+      "h1\th2\n" +
+      "r11\tr12\n" +
+      "r21\tr22";
+
+  private final String CSV2 = "" +
+      "h1,h2\n" +
+      "#r11,r12\n" +
+      ";r11,r12\n" +
+      "\n" +
+      ",\r\n" +
+      "r21,r22\r" +
+      "r31,r32\r\n";
+
+  private final String CSV3 = "" +
+      "a, \"b,c\" ,\"d\"\"e\" , \" f \"\n" +
+      "\"g\"h,\"i\"\n";
+
+  private final String CSV4 = "" +
+      "Date,Name,Value\n" +
+      "2016-06-30,Alpha,1.5\n" +
+      "2016-06-30,Alpha,-0.0025\n" +
+      "2016-07-01,Beta,1e-3\n" +
+      "20160701,,\n";
+
+  //-------------------------------------------------------------------------
+  public void test_of_ioException() {
+    assertThrows(
+        () -> CsvScanner.of(Files.asCharSource(new File("src/test/resources"), StandardCharsets.UTF_8), false),
+        UncheckedIOException.class);
+  }
+
+  public void test_of_empty_no_header() {
+    try (CsvScanner test = CsvScanner.of(CharSource.wrap(""), false)) {
+      assertEquals(test.headers().size(), 0);
+      assertEquals(test.nextRow(), false);
+      assertEquals(test.nextRow(), false);
+      assertThrows(() -> test.field(0), IndexOutOfBoundsException.class);
+    }
+  }
+
+  public void test_of_empty_with_header() {
+    assertThrowsIllegalArg(() -> CsvScanner.of(CharSource.wrap(""), true));
+  }
+
+  public void test_of_simple_no_header() {
+    try (CsvScanner test = CsvScanner.of(CharSource.wrap(CSV1), false)) {
+      assertEquals(test.headers().size(), 0);
+      assertEquals(rows(test), ImmutableList.of(
+          ImmutableList.of("h1", "h2"),
+          ImmutableList.of("r11", "r12"),
+          ImmutableList.of("r21", "r22")));
+    }
+  }
+
+  public void test_of_simple_with_header() {
+    try (CsvScanner test = CsvScanner.of(CharSource.wrap(CSV1), true)) {
+      assertEquals(test.headers(), ImmutableList.of("h1", "h2"));
+      assertEquals(test.getColumn("H2"), 1);
+      assertEquals(test.findColumn("h1"), OptionalInt.of(0));
+      assertEquals(test.findColumn("h3"), OptionalInt.empty());
+      assertThrowsIllegalArg(() -> test.getColumn("h3"), "Header not found: h3");
+      assertEquals(rows(test), ImmutableList.of(
+          ImmutableList.of("r11", "r12"),
+          ImmutableList.of("r21", "r22")));
+      assertEquals(test.toString(), "CsvScanner[h1, h2]");
+    }
+  }
+
+  public void test_of_simple_with_header_tabs() {
+    try (CsvScanner test = CsvScanner.of(CharSource.wrap(CSV1T), true, '\t')) {
+      assertEquals(test.headers(), ImmutableList.of("h1", "h2"));
+      assertEquals(rows(test), ImmutableList.of(
+          ImmutableList.of("r11", "r12"),
+          ImmutableList.of("r21", "r22")));
+    }
+  }
+
+  public void test_of_comment_blank_lineEndings() {
+    try (CsvScanner test = CsvScanner.of(CharSource.wrap(CSV2), true)) {
+      assertEquals(rows(test), ImmutableList.of(
+          ImmutableList.of("r21", "r22"),
+          ImmutableList.of("r31", "r32")));
+    }
+  }
+
+  public void test_of_quoting_matchesCsvFile() {
+    CsvFile csvFile = CsvFile.of(CharSource.wrap(CSV3), false);
+    List<List<String>> expected = new ArrayList<>();
+    for (CsvRow row : csvFile.rows()) {
+      expected.add(row.fields());
+    }
+    try (CsvScanner test = CsvScanner.of(CharSource.wrap(CSV3), false)) {
+      assertEquals(rows(test), expected);
+    }
+  }
+
+  public void test_of_longLine() {
+    String longField = String.join("", Collections.nCopies(20000, "x"));
+    try (CsvScanner test = CsvScanner.of(CharSource.wrap("h\n" + longField + "\n1.5"), true)) {
+      assertEquals(test.nextRow(), true);
+      assertEquals(test.field(0), longField);
+      assertEquals(test.nextRow(), true);
+      assertEquals(test.fieldDouble(0), 1.5d);
+      assertEquals(test.nextRow(), false);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_typedFields() {
+    try (CsvScanner test = CsvScanner.of(CharSource.wrap(CSV4), true)) {
+      int dateColumn = test.getColumn("Date");
+      int nameColumn = test.getColumn("Name");
+      int valueColumn = test.getColumn("Value");
+
+      assertEquals(test.nextRow(), true);
+      LocalDate date1 = test.fieldDate(dateColumn);
+      String name1 = test.fieldLookup(nameColumn, Function.identity());
+      assertEquals(date1, LocalDate.of(2016, 6, 30));
+      assertEquals(name1, "Alpha");
+      assertEquals(test.fieldDouble(valueColumn), 1.5d);
+      assertEquals(test.isFieldEmpty(valueColumn), false);
+
+      // unchanged fields return the cached value
+      assertEquals(test.nextRow(), true);
+      assertSame(test.fieldDate(dateColumn), date1);
+      assertSame(test.fieldLookup(nameColumn, Function.identity()), name1);
+      assertEquals(test.fieldDouble(valueColumn), -0.0025d);
+
+      assertEquals(test.nextRow(), true);
+      assertEquals(test.fieldDate(dateColumn), LocalDate.of(2016, 7, 1));
+      assertEquals(test.fieldLookup(nameColumn, Function.identity()), "Beta");
+      assertEquals(test.fieldDouble(valueColumn), 0.001d);
+
+      assertEquals(test.nextRow(), true);
+      assertThrows(() -> test.fieldDate(dateColumn), DateTimeParseException.class);
+      assertEquals(test.isFieldEmpty(nameColumn), true);
+      assertThrows(() -> test.fieldDouble(valueColumn), NumberFormatException.class);
+      assertThrows(() -> test.field(3), IndexOutOfBoundsException.class);
+      assertEquals(test.nextRow(), false);
+    }
+  }
+
+  public void test_parseDouble() {
+    String[] values = {
+        "0", "-0", "1", "+1", "1.", ".5", "0.1", "123.456", "-987654.321", "0.000000123456789",
+        "123456789012345", "1234567890123456789", "1e10", "1.5E-7", "2.5e+3", "1e-30", "1e300",
+        "0.1234567890123456789", "NaN", "Infinity", "-Infinity", "1d", "0x1p3"};
+    for (String value : values) {
+      char[] chars = ("xx" + value + "yy").toCharArray();
+      assertEquals(
+          Double.doubleToLongBits(CsvScanner.parseDouble(chars, 2, value.length())),
+          Double.doubleToLongBits(Double.parseDouble(value)),
+          value);
+    }
+    String[] invalid = {"", "-", ".", "e5", "1e", "1.2.3", "abc"};
+    for (String value : invalid) {
+      assertThrows(() -> CsvScanner.parseDouble(value.toCharArray(), 0, value.length()), NumberFormatException.class);
+    }
+  }
+
+  public void test_parseDate() {
+    assertEquals(CsvScanner.parseDate("2016-02-29".toCharArray(), 0, 10), LocalDate.of(2016, 2, 29));
+    assertEquals(CsvScanner.parseDate("+12016-02-29".toCharArray(), 0, 12), LocalDate.of(12016, 2, 29));
+    assertThrows(() -> CsvScanner.parseDate("2015-02-29".toCharArray(), 0, 10), RuntimeException.class);
+    assertThrows(() -> CsvScanner.parseDate("2015-0a-29".toCharArray(), 0, 10), DateTimeParseException.class);
+  }
+
+  //-------------------------------------------------------------------------
+  private static List<List<String>> rows(CsvScanner scanner) {
+    List<List<String>> rows = new ArrayList<>();
+    while (scanner.nextRow()) {
+      List<String> row = new ArrayList<>();
+      for (int i = 0; i < scanner.fieldCount(); i++) {
+        row.add(scanner.field(i));
+      }
+      rows.add(row);
+    }
+    return rows;
+  }
+
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.collect.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.HashCode;
+import com.opengamma.strata.collect.tuple.Pair;
+
+/**
+ * Test {@link ResourceSnapshot}.
+ */
+@Test
+public class ResourceSnapshotTest {
+
+  private static final ImmutableMap<String, Pair<String, LocalDate>> VALUES = ImmutableMap.of(
+      "A", Pair.of("First", LocalDate.of(2016, 6, 30)),
+      "B", Pair.of("Second", LocalDate.of(2017, 1, 3)));
+
+  //-------------------------------------------------------------------------
+  public void test_load() throws IOException {
+    Path dir = Files.createTempDirectory("snapshot");
+    Path resource = Files.createTempFile("resource", ".csv");
+    try {
+      Files.write(resource, "A,B".getBytes(StandardCharsets.UTF_8));
+      List<ResourceLocator> resources = ImmutableList.of(ResourceLocator.ofPath(resource));
+      AtomicInteger count = new AtomicInteger();
+      Supplier<ImmutableMap<String, Pair<String, LocalDate>>> loader = () -> {
+        count.incrementAndGet();
+        return VALUES;
+      };
+      // first run parses and writes the snapshot
+      assertThat(load(dir, resources, loader)).isEqualTo(VALUES);
+      assertThat(count.get()).isEqualTo(1);
+      assertThat(snapshotCount(dir)).isEqualTo(1);
+      // second run reads the snapshot
+      assertThat(load(dir, resources, loader)).isEqualTo(VALUES);
+      assertThat(count.get()).isEqualTo(1);
+      // changed resource of the same size parses again, replacing the old snapshot
+      Files.write(resource, "A,C".getBytes(StandardCharsets.UTF_8));
+      assertThat(load(dir, resources, loader)).isEqualTo(VALUES);
+      assertThat(count.get()).isEqualTo(2);
+      assertThat(snapshotCount(dir)).isEqualTo(1);
+    } finally {
+      delete(dir);
+      Files.delete(resource);
+    }
+  }
+
+  public void test_load_corruptSnapshot() throws IOException {
+    Path dir = Files.createTempDirectory("snapshot");
+    try {
+      List<ResourceLocator> resources = ImmutableList.of();
+      AtomicInteger count = new AtomicInteger();
+      Supplier<ImmutableMap<String, Pair<String, LocalDate>>> loader = () -> {
+        count.incrementAndGet();
+        return VALUES;
+      };
+      load(dir, resources, loader);
+      try (Stream<Path> files = Files.list(dir)) {
+        for (Path file : (Iterable<Path>) files::iterator) {
+          Files.write(file, new byte[] {1, 2, 3});
+        }
+      }
+      assertThat(load(dir, resources, loader)).isEqualTo(VALUES);
+      assertThat(count.get()).isEqualTo(2);
+      // rewritten by the second load
+      assertThat(load(dir, resources, loader)).isEqualTo(VALUES);
+      assertThat(count.get()).isEqualTo(2);
+    } finally {
+      delete(dir);
+    }
+  }
+
+  public void test_load_otherSnapshotsNotDeleted() throws IOException {
+    Path dir = Files.createTempDirectory("snapshot");
+    try {
+      String hash = Stream.generate(() -> "0").limit(64).collect(Collectors.joining());
+      Path stale = Files.write(dir.resolve("Test.csv-" + hash + ".snapshot"), new byte[] {1});
+      Path other = Files.write(dir.resolve("Other.csv-" + hash + ".snapshot"), new byte[] {1});
+      Path unrelated = Files.write(dir.resolve("Test.csv-notes.snapshot"), new byte[] {1});
+      load(dir, ImmutableList.of(), () -> VALUES);
+      assertThat(Files.exists(stale)).isFalse();
+      assertThat(Files.exists(other)).isTrue();
+      assertThat(Files.exists(unrelated)).isTrue();
+      assertThat(snapshotCount(dir)).isEqualTo(3);
+    } finally {
+      delete(dir);
+    }
+  }
+
+  public void test_load_emptyNotWritten() throws IOException {
+    Path dir = Files.createTempDirectory("snapshot");
+    try {
+      List<ResourceLocator> resources = ImmutableList.of();
+      assertThat(load(dir, resources, ImmutableMap::of)).isEmpty();
+      assertThat(snapshotCount(dir)).isEqualTo(0);
+    } finally {
+      delete(dir);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_codeSource() throws IOException {
+    Path codeSource = ResourceSnapshot.codeSource(ResourceSnapshotTest.class);
+    assertThat(codeSource).isNotNull();
+    assertThat(Files.exists(codeSource)).isTrue();
+    assertThat(ResourceSnapshot.hashCodeSource(codeSource)).isEqualTo(ResourceSnapshot.hashCodeSource(codeSource));
+    assertThat(ResourceSnapshot.codeSource(String.class)).isNull();
+  }
+
+  public void test_hashCodeSource_directory() throws IOException {
+    Path dir = Files.createTempDirectory("classes");
+    try {
+      Path file = Files.write(dir.resolve("Test.class"), new byte[] {1, 2, 3});
+      HashCode hash = ResourceSnapshot.hashCodeSource(dir);
+      Files.write(file, new byte[] {1, 2, 3, 4});
+      assertThat(ResourceSnapshot.hashCodeSource(dir)).isNotEqualTo(hash);
+    } finally {
+      delete(dir);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private static ImmutableMap<String, Pair<String, LocalDate>> load(
+      Path dir,
+      List<ResourceLocator> resources,
+      Supplier<ImmutableMap<String, Pair<String, LocalDate>>> loader) {
+
+    return (ImmutableMap) ResourceSnapshot.load(dir, "Test.csv", resources, Pair.class, (Supplier) loader);
+  }
+
+  private static long snapshotCount(Path dir) throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.filter(file -> file.toString().endsWith(".snapshot")).count();
+    }
+  }
+
+  private static void delete(Path dir) throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(dir);
+  }
+
+}
@@ -13,6 +13,7 @@ import static org.testng.Assert.assertFalse;
 import java.io.File;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -130,6 +131,45 @@ public class XmlFileTest {
     assertThrows(() -> XmlFile.of(source, "key"), UncheckedIOException.class);
   }
 
+  //-------------------------------------------------------------------------
+  public void test_parseElements() {
+    ByteSource source = ByteSource.wrap(SAMPLE.getBytes(StandardCharsets.UTF_8));
+    List<XmlFile> parsed = new ArrayList<>();
+    XmlFile.parseElements(source, "key", (depth, name) -> depth == 2 && name.equals("leaf2"), parsed::add);
+    assertEquals(parsed.size(), 2);
+    assertEquals(parsed.get(0).getRoot(), LEAF2A);
+    assertEquals(parsed.get(0).getReferences(), ImmutableMap.of());
+    assertEquals(parsed.get(1).getRoot(), LEAF2B);
+  }
+
+  public void test_parseElements_parsedReferences() {
+    ByteSource source = ByteSource.wrap(SAMPLE.getBytes(StandardCharsets.UTF_8));
+    List<XmlFile> parsed = new ArrayList<>();
+    XmlFile.parseElements(source, "key", (depth, name) -> name.equals("test"), parsed::add);
+    assertEquals(parsed.size(), 1);
+    XmlElement root = parsed.get(0).getRoot();
+    assertEquals(root, XmlElement.ofChildren("test", ATTR_MAP, CHILD_LIST_MULTI));
+    assertEquals(parsed.get(0).getReferences(), ImmutableMap.of("value", root));
+  }
+
+  public void test_parseElements_depth() {
+    ByteSource source = ByteSource.wrap(SAMPLE.getBytes(StandardCharsets.UTF_8));
+    List<XmlFile> parsed = new ArrayList<>();
+    XmlFile.parseElements(source, "", (depth, name) -> depth == 1 && name.equals("leaf1"), parsed::add);
+    assertEquals(parsed.size(), 0);
+  }
+
+  public void test_parseElements_mismatchedTags() {
+    ByteSource source = ByteSource.wrap(SAMPLE_MISMATCHED_TAGS.getBytes(StandardCharsets.UTF_8));
+    assertThrowsIllegalArg(() -> XmlFile.parseElements(source, "", (depth, name) -> false, file -> {}));
+  }
+
+  public void test_parseElements_ioException() {
+    ByteSource source = Files.asByteSource(new File("/oh-dear-no-such-file"));
+    assertThrows(
+        () -> XmlFile.parseElements(source, "", (depth, name) -> true, file -> {}), UncheckedIOException.class);
+  }
+
   //-------------------------------------------------------------------------
   public void test_equalsHashCodeToString() {
     ByteSource source = ByteSource.wrap(SAMPLE.getBytes(StandardCharsets.UTF_8));
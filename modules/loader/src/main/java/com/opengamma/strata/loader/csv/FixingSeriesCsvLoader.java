@@ -12,14 +12,13 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.io.CharSource;
-import com.opengamma.strata.basics.index.Index;
 import com.opengamma.strata.collect.MapStream;
 import com.opengamma.strata.collect.Messages;
-import com.opengamma.strata.collect.io.CsvFile;
-import com.opengamma.strata.collect.io.CsvRow;
+import com.opengamma.strata.collect.io.CsvScanner;
 import com.opengamma.strata.collect.io.ResourceLocator;
 import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
 import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeriesBuilder;
@@ -56,6 +55,8 @@ public final class FixingSeriesCsvLoader {
   private static final String REFERENCE_FIELD = "Reference";
   private static final String DATE_FIELD = "Date";
   private static final String VALUE_FIELD = "Value";
+  // the lookup of the identifier, which is usually the same in consecutive rows
+  private static final Function<String, ObservableId> ID_LOOKUP = str -> IndexQuoteId.of(LoaderUtils.findIndex(str));
 
   //-------------------------------------------------------------------------
   /**
@@ -108,17 +109,14 @@ public final class FixingSeriesCsvLoader {
   // loads a single fixing series CSV file
   private static ImmutableMap<ObservableId, LocalDateDoubleTimeSeries> parseSingle(CharSource resource) {
     Map<ObservableId, LocalDateDoubleTimeSeriesBuilder> builders = new HashMap<>();
-    try {
-      CsvFile csv = CsvFile.of(resource, true);
-      for (CsvRow row : csv.rows()) {
-        String referenceStr = row.getField(REFERENCE_FIELD);
-        String dateStr = row.getField(DATE_FIELD);
-        String valueStr = row.getField(VALUE_FIELD);
-
-        Index index = LoaderUtils.findIndex(referenceStr);
-        ObservableId id = IndexQuoteId.of(index);
-        LocalDate date = LocalDate.parse(dateStr);
-        double value = Double.parseDouble(valueStr);
+    try (CsvScanner csv = CsvScanner.of(resource, true)) {
+      int referenceColumn = csv.getColumn(REFERENCE_FIELD);
+      int dateColumn = csv.getColumn(DATE_FIELD);
+      int valueColumn = csv.getColumn(VALUE_FIELD);
+      while (csv.nextRow()) {
+        ObservableId id = csv.fieldLookup(referenceColumn, ID_LOOKUP);
+        LocalDate date = csv.fieldDate(dateColumn);
+        double value = csv.fieldDouble(valueColumn);
 
         LocalDateDoubleTimeSeriesBuilder builder = builders.computeIfAbsent(id, k -> LocalDateDoubleTimeSeries.builder());
         builder.put(date, value);
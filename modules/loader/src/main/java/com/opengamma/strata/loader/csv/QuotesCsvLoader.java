@@ -14,6 +14,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import com.google.common.collect.ImmutableMap;
@@ -21,8 +22,7 @@ import com.google.common.collect.ImmutableMap.Builder;
 import com.google.common.io.CharSource;
 import com.opengamma.strata.basics.StandardId;
 import com.opengamma.strata.collect.Messages;
-import com.opengamma.strata.collect.io.CsvFile;
-import com.opengamma.strata.collect.io.CsvRow;
+import com.opengamma.strata.collect.io.CsvScanner;
 import com.opengamma.strata.collect.io.ResourceLocator;
 import com.opengamma.strata.data.FieldName;
 import com.opengamma.strata.market.observable.QuoteId;
@@ -61,6 +61,9 @@ public final class QuotesCsvLoader {
   private static final String TICKER_FIELD = "Ticker";
   private static final String FIELD_NAME_FIELD = "Field Name";
   private static final String VALUE_FIELD = "Value";
+  // the lookup of the field name, which is usually the same in consecutive rows
+  private static final Function<String, FieldName> FIELD_NAME_LOOKUP =
+      str -> str.isEmpty() ? FieldName.MARKET_VALUE : FieldName.of(str);
 
   //-------------------------------------------------------------------------
   /**
@@ -206,20 +209,20 @@ public final class QuotesCsvLoader {
       CharSource resource,
       Map<LocalDate, ImmutableMap.Builder<QuoteId, Double>> mutableMap) {
 
-    try {
-      CsvFile csv = CsvFile.of(resource, true);
-      for (CsvRow row : csv.rows()) {
-        String dateText = row.getField(DATE_FIELD);
-        LocalDate date = LocalDate.parse(dateText);
+    try (CsvScanner csv = CsvScanner.of(resource, true)) {
+      int dateColumn = csv.getColumn(DATE_FIELD);
+      int symbologyColumn = csv.getColumn(SYMBOLOGY_FIELD);
+      int tickerColumn = csv.getColumn(TICKER_FIELD);
+      int fieldNameColumn = csv.getColumn(FIELD_NAME_FIELD);
+      int valueColumn = csv.getColumn(VALUE_FIELD);
+      while (csv.nextRow()) {
+        LocalDate date = csv.fieldDate(dateColumn);
         if (datePredicate.test(date)) {
-          String symbologyStr = row.getField(SYMBOLOGY_FIELD);
-          String tickerStr = row.getField(TICKER_FIELD);
-          String fieldNameStr = row.getField(FIELD_NAME_FIELD);
-          String valueStr = row.getField(VALUE_FIELD);
-
-          double value = Double.valueOf(valueStr);
+          String symbologyStr = csv.fieldLookup(symbologyColumn, Function.identity());
+          String tickerStr = csv.field(tickerColumn);
+          FieldName fieldName = csv.fieldLookup(fieldNameColumn, FIELD_NAME_LOOKUP);
+          double value = csv.fieldDouble(valueColumn);
           StandardId id = StandardId.of(symbologyStr, tickerStr);
-          FieldName fieldName = fieldNameStr.isEmpty() ? FieldName.MARKET_VALUE : FieldName.of(fieldNameStr);
 
           ImmutableMap.Builder<QuoteId, Double> builderForDate = mutableMap.computeIfAbsent(date, k -> ImmutableMap.builder());
           builderForDate.put(QuoteId.of(id, fieldName), value);
@@ -45,6 +45,7 @@ import com.opengamma.strata.collect.Messages;
 import com.opengamma.strata.collect.io.CsvFile;
 import com.opengamma.strata.collect.io.CsvOutput;
 import com.opengamma.strata.collect.io.CsvRow;
+import com.opengamma.strata.collect.io.CsvScanner;
 import com.opengamma.strata.collect.io.ResourceLocator;
 import com.opengamma.strata.market.ValueType;
 import com.opengamma.strata.market.curve.Curve;
@@ -285,23 +286,25 @@ public final class RatesCurvesCsvLoader {
       CharSource curvesResource,
       Map<CurveName, LoadedCurveSettings> settingsMap) {
 
-    CsvFile csv = CsvFile.of(curvesResource, true);
     Map<LoadedCurveKey, List<LoadedCurveNode>> allNodes = new HashMap<>();
-    for (CsvRow row : csv.rows()) {
-      String dateStr = row.getField(CURVE_DATE);
-      String curveNameStr = row.getField(CURVE_NAME);
-      String pointDateStr = row.getField(CURVE_POINT_DATE);
-      String pointValueStr = row.getField(CURVE_POINT_VALUE);
-      String pointLabel = row.getField(CURVE_POINT_LABEL);
-
-      LocalDate date = LocalDate.parse(dateStr);
-      if (datePredicate.test(date)) {
-        LocalDate pointDate = LocalDate.parse(pointDateStr);
-        double pointValue = Double.valueOf(pointValueStr);
-
-        LoadedCurveKey key = LoadedCurveKey.of(date, CurveName.of(curveNameStr));
-        List<LoadedCurveNode> curveNodes = allNodes.computeIfAbsent(key, k -> new ArrayList<>());
-        curveNodes.add(LoadedCurveNode.of(pointDate, pointValue, pointLabel));
+    try (CsvScanner csv = CsvScanner.of(curvesResource, true)) {
+      int dateColumn = csv.getColumn(CURVE_DATE);
+      int curveNameColumn = csv.getColumn(CURVE_NAME);
+      int pointDateColumn = csv.getColumn(CURVE_POINT_DATE);
+      int pointValueColumn = csv.getColumn(CURVE_POINT_VALUE);
+      int pointLabelColumn = csv.getColumn(CURVE_POINT_LABEL);
+      while (csv.nextRow()) {
+        LocalDate date = csv.fieldDate(dateColumn);
+        if (datePredicate.test(date)) {
+          CurveName curveName = csv.fieldLookup(curveNameColumn, CurveName::of);
+          LocalDate pointDate = csv.fieldDate(pointDateColumn);
+          double pointValue = csv.fieldDouble(pointValueColumn);
+          String pointLabel = csv.field(pointLabelColumn);
+
+          LoadedCurveKey key = LoadedCurveKey.of(date, curveName);
+          List<LoadedCurveNode> curveNodes = allNodes.computeIfAbsent(key, k -> new ArrayList<>());
+          curveNodes.add(LoadedCurveNode.of(pointDate, pointValue, pointLabel));
+        }
       }
     }
     return buildCurves(settingsMap, allNodes);
@@ -13,6 +13,7 @@ import java.time.Period;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -214,6 +215,34 @@ public final class FpmlDocument {
     this.refData = refData;
   }
 
+  // creates an instance sharing the parties of another document
+  private FpmlDocument(FpmlDocument base, Map<String, XmlElement> references) {
+    this.fpmlRoot = base.fpmlRoot;
+    this.references = ImmutableMap.copyOf(references);
+    this.parties = base.parties;
+    this.ourPartyHrefId = base.ourPartyHrefId;
+    this.tradeInfoParser = base.tradeInfoParser;
+    this.refData = base.refData;
+  }
+
+  /**
+   * Returns a copy of this document with additional references.
+   * <p>
+   * This is used when trades are streamed from the FpML document one at a time.
+   * The parties, and our party, are resolved once for the whole document, while the
+   * references found within each trade are only held while the trade is parsed.
+   * Where a reference is present in both this document and the additional references,
+   * the additional reference is used.
+   * 
+   * @param additionalReferences  the map of id/href to referenced element to add
+   * @return the document with the combined references
+   */
+  FpmlDocument withAdditionalReferences(Map<String, XmlElement> additionalReferences) {
+    Map<String, XmlElement> combined = new HashMap<>(references);
+    combined.putAll(additionalReferences);
+    return new FpmlDocument(this, combined);
+  }
+
   // parse all the root-level party elements
   private static ImmutableListMultimap<String, String> parseParties(XmlElement root) {
     ListMultimap<String, String> parties = ArrayListMultimap.create();
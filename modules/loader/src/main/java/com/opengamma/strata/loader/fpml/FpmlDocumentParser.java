@@ -5,20 +5,35 @@
  */
 package com.opengamma.strata.loader.fpml;
 
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
 import static com.opengamma.strata.collect.Guavate.toImmutableSet;
 
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
 import com.google.common.io.ByteSource;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.io.XmlElement;
 import com.opengamma.strata.collect.io.XmlFile;
 import com.opengamma.strata.collect.named.ExtendedEnum;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.product.Trade;
 
 /**
@@ -33,6 +48,7 @@ import com.opengamma.strata.product.Trade;
 public final class FpmlDocumentParser {
   // Notes: Streaming trades directly from the file is difficult due to the
   // need to parse the party element at the root, which is after the trades
+  // As such, the streaming methods read the source twice, once for the parties and once for the trades
 
   /**
    * The lookup of trade parsers.
@@ -247,6 +263,101 @@ public final class FpmlDocumentParser {
     return builder.build();
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Parses FpML from the specified source, streaming the trades to a consumer.
+   * <p>
+   * This parses the specified byte source which must be an XML document.
+   * Unlike {@link #parseTrades(ByteSource)}, the whole document is not held in memory.
+   * Instead, each {@code <trade>} element is parsed and converted to a trade in turn.
+   * The trades are parsed on the calling thread.
+   * <p>
+   * See {@link #streamTrades(ByteSource, Executor, int, Consumer)} for more details.
+   * 
+   * @param source  the source of the FpML XML document
+   * @param consumer  the consumer of the result of parsing each trade
+   * @throws RuntimeException if the document could not be parsed
+   */
+  public void streamTrades(ByteSource source, Consumer<Result<Trade>> consumer) {
+    streamTrades(source, MoreExecutors.directExecutor(), 1, consumer);
+  }
+
+  /**
+   * Parses FpML from the specified source, streaming the trades to a consumer,
+   * converting the trades in parallel using the specified executor.
+   * <p>
+   * This parses the specified byte source which must be an XML document.
+   * Unlike {@link #parseTrades(ByteSource)}, the whole document is not held in memory.
+   * The source is read twice. The first pass finds the {@code <party>} elements,
+   * which are typically located after the trades. The second pass parses each {@code <trade>}
+   * element in turn, passing it to the matching {@link FpmlParserPlugin} on the executor.
+   * At most {@code maxTradesInProgress} trades are held in memory at any one time.
+   * <p>
+   * The FpML document may be embedded in a non-FpML wrapper, as per {@link #parseTrades(ByteSource)}.
+   * Any href/id reference within a trade must refer to an element within the same trade or to a party.
+   * <p>
+   * The consumer is invoked on the calling thread, in the order that the trades occur in the document.
+   * It receives a success result for each trade that was parsed, and a failure result for each trade
+   * that could not be parsed. A failure to parse one trade does not prevent other trades being parsed.
+   * 
+   * @param source  the source of the FpML XML document
+   * @param executor  the executor used to convert the trade elements to trades
+   * @param maxTradesInProgress  the maximum number of trade elements that are parsed but not yet consumed
+   * @param consumer  the consumer of the result of parsing each trade
+   * @throws RuntimeException if the document could not be parsed
+   */
+  public void streamTrades(
+      ByteSource source,
+      Executor executor,
+      int maxTradesInProgress,
+      Consumer<Result<Trade>> consumer) {
+
+    ArgChecker.notNull(source, "source");
+    ArgChecker.notNull(executor, "executor");
+    ArgChecker.notNegativeOrZero(maxTradesInProgress, "maxTradesInProgress");
+    ArgChecker.notNull(consumer, "consumer");
+
+    // first pass, find the FpML root and its parties
+    StreamedRoot streamedRoot = StreamedRoot.of(source);
+    int rootId = streamedRoot.rootId();
+    FpmlDocument baseDocument = streamedRoot.document(rootId, ourPartySelector, tradeInfoParser, refData);
+
+    // second pass, parse each trade element of the FpML root, holding a limited number in memory
+    FpmlRootTracker tracker = new FpmlRootTracker();
+    Deque<CompletableFuture<Result<Trade>>> inProgress = new ArrayDeque<>();
+    int[] tradeCount = {0};
+    XmlFile.parseElements(
+        source,
+        FpmlDocument.ID,
+        (depth, name) -> tracker.track(depth, name) == rootId && name.equals("trade"),
+        tradeFile -> {
+          int tradeIndex = tradeCount[0]++;
+          FpmlDocument document = baseDocument.withAdditionalReferences(tradeFile.getReferences());
+          inProgress.add(CompletableFuture.supplyAsync(
+              () -> parseTradeResult(document, tradeFile.getRoot(), tradeIndex), executor));
+          if (inProgress.size() >= maxTradesInProgress) {
+            consumer.accept(inProgress.remove().join());
+          }
+        });
+    while (!inProgress.isEmpty()) {
+      consumer.accept(inProgress.remove().join());
+    }
+  }
+
+  // parses one trade element, capturing any failure
+  private Result<Trade> parseTradeResult(FpmlDocument document, XmlElement tradeEl, int tradeIndex) {
+    try {
+      return Result.success(parseTrade(document, tradeEl));
+    } catch (RuntimeException ex) {
+      return Result.failure(
+          FailureReason.PARSING,
+          ex,
+          "Unable to parse trade at index {} in FpML document: {}",
+          tradeIndex,
+          ex.getMessage());
+    }
+  }
+
   // parses one trade element
   private Trade parseTrade(FpmlDocument document, XmlElement tradeEl) {
     // find which trade type it is by comparing children to known parsers
@@ -261,4 +372,108 @@ public final class FpmlDocumentParser {
     throw new FpmlParseException("Unknown product type: " + childNames);
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Tracks the candidate FpML root elements while streaming the document.
+   * <p>
+   * As per {@link #findFpmlRoot(XmlElement)}, the FpML root is the element at the root,
+   * or within one or two levels of wrapper, that contains both {@code <trade>} and {@code <party>}.
+   * Each candidate element is allocated an identifier in document order, which is the same
+   * on each pass of the document.
+   */
+  private static final class FpmlRootTracker {
+    // the maximum depth of the FpML root
+    private static final int MAX_ROOT_DEPTH = 2;
+
+    /** The identifier of the current element at each depth. */
+    private final int[] elementIds = new int[MAX_ROOT_DEPTH + 1];
+    /** The next identifier to allocate. */
+    private int nextId;
+    /** The depth of the current party or trade, elements deeper than this are within it. */
+    private int partyOrTradeDepth = Integer.MAX_VALUE;
+
+    // tracks the element, returning the identifier of the parent if the element is a party or trade, -1 otherwise
+    private int track(int depth, String name) {
+      if (depth > partyOrTradeDepth) {
+        return -1;
+      }
+      partyOrTradeDepth = Integer.MAX_VALUE;
+      if (name.equals("party") || name.equals("trade")) {
+        partyOrTradeDepth = depth;
+        return depth > 0 && depth <= MAX_ROOT_DEPTH + 1 ? elementIds[depth - 1] : -1;
+      }
+      if (depth <= MAX_ROOT_DEPTH) {
+        elementIds[depth] = nextId++;
+      }
+      return -1;
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The parts of the FpML root that are needed to parse streamed trades.
+   */
+  private static final class StreamedRoot {
+
+    /** The tracker of candidate roots. */
+    private final FpmlRootTracker tracker = new FpmlRootTracker();
+    /** The depth of the candidate roots containing a trade, keyed by identifier. */
+    private final Map<Integer, Integer> rootsWithTrades = new HashMap<>();
+    /** The party elements, keyed by the identifier of the candidate root. */
+    private final ListMultimap<Integer, XmlFile> parties = ArrayListMultimap.create();
+    /** The identifier of the candidate root of the party currently being parsed. */
+    private int partyRootId;
+
+    // scans the source, recording the parties without retaining the trades
+    private static StreamedRoot of(ByteSource source) {
+      StreamedRoot root = new StreamedRoot();
+      XmlFile.parseElements(source, FpmlDocument.ID, root::select, partyFile -> {
+        // the consumer is invoked immediately after the selector returns true
+        root.parties.put(root.partyRootId, partyFile);
+      });
+      return root;
+    }
+
+    // selects the party elements, recording the roots that contain trades
+    private boolean select(int depth, String name) {
+      int rootId = tracker.track(depth, name);
+      if (rootId < 0) {
+        return false;
+      }
+      if (name.equals("trade")) {
+        rootsWithTrades.putIfAbsent(rootId, depth - 1);
+        return false;
+      }
+      partyRootId = rootId;
+      return true;
+    }
+
+    // finds the identifier of the FpML root, which is the shallowest candidate with both trades and parties
+    // identifiers are allocated in document order, thus the lowest identifier at the same depth is the first
+    private int rootId() {
+      return rootsWithTrades.entrySet().stream()
+          .filter(e -> parties.containsKey(e.getKey()))
+          .min(Comparator.comparing((Entry<Integer, Integer> e) -> e.getValue()).thenComparing(e -> e.getKey()))
+          .map(Entry::getKey)
+          .orElseThrow(() -> new FpmlParseException("Unable to find FpML root element"));
+    }
+
+    // creates the document for the parties of the FpML root
+    private FpmlDocument document(
+        int rootId,
+        FpmlPartySelector ourPartySelector,
+        FpmlTradeInfoParserPlugin tradeInfoParser,
+        ReferenceData refData) {
+
+      List<XmlFile> partyFiles = parties.get(rootId);
+      Map<String, XmlElement> references = new HashMap<>();
+      for (XmlFile partyFile : partyFiles) {
+        references.putAll(partyFile.getReferences());
+      }
+      List<XmlElement> partyEls = partyFiles.stream().map(XmlFile::getRoot).collect(toImmutableList());
+      XmlElement fpmlRootEl = XmlElement.ofChildren("dataDocument", ImmutableMap.of(), partyEls);
+      return new FpmlDocument(fpmlRootEl, references, ourPartySelector, tradeInfoParser, refData);
+    }
+  }
+
 }
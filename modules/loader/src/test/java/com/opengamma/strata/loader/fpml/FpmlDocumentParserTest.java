@@ -31,6 +31,7 @@ import static com.opengamma.strata.basics.index.IborIndices.GBP_LIBOR_6M;
 import static com.opengamma.strata.basics.index.IborIndices.USD_LIBOR_3M;
 import static com.opengamma.strata.basics.index.IborIndices.USD_LIBOR_6M;
 import static com.opengamma.strata.basics.index.OvernightIndices.EUR_EONIA;
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
 import static com.opengamma.strata.collect.TestHelper.assertEqualsBean;
 import static com.opengamma.strata.collect.TestHelper.assertThrows;
 import static com.opengamma.strata.collect.TestHelper.date;
@@ -41,13 +42,17 @@ import static com.opengamma.strata.product.common.PayReceive.RECEIVE;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.fail;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.Period;
 import java.time.ZoneId;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.joda.beans.Bean;
 import org.testng.annotations.Test;
@@ -81,6 +86,8 @@ import com.opengamma.strata.basics.value.ValueStep;
 import com.opengamma.strata.basics.value.ValueStepSequence;
 import com.opengamma.strata.collect.io.ResourceLocator;
 import com.opengamma.strata.collect.io.XmlElement;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.product.Trade;
 import com.opengamma.strata.product.common.LongShort;
 import com.opengamma.strata.product.common.PayReceive;
@@ -1260,6 +1267,54 @@ public class FpmlDocumentParserTest {
         "Unable to find FpML root element.*");
   }
 
+  //-------------------------------------------------------------------------
+  public void streamTrades_fraWrapper2() {
+    String location = "classpath:com/opengamma/strata/loader/fpml/ird-ex08-fra-wrapper2.xml";
+    ByteSource resource = ResourceLocator.of(location).getByteSource();
+    List<Result<Trade>> results = new ArrayList<>();
+    FpmlDocumentParser.of(FpmlPartySelector.matching("Party2")).streamTrades(resource, results::add);
+    assertEquals(results.size(), 1);
+    assertFra(ImmutableList.of(results.get(0).getValue()), false);
+  }
+
+  public void streamTrades_executorMatchesParse() {
+    String location = "classpath:com/opengamma/strata/loader/fpml/ird-ex01-vanilla-swap.xml";
+    ByteSource resource = ResourceLocator.of(location).getByteSource();
+    FpmlDocumentParser parser = FpmlDocumentParser.of(FpmlPartySelector.matching("Party1"));
+    List<Result<Trade>> results = new ArrayList<>();
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      parser.streamTrades(resource, executor, 1, results::add);
+    } finally {
+      executor.shutdown();
+    }
+    List<Trade> trades = results.stream().map(Result::getValue).collect(toImmutableList());
+    assertEquals(trades, parser.parseTrades(resource));
+  }
+
+  public void streamTrades_failure() {
+    String xml = "<dataDocument>" +
+        "<trade><tradeHeader><tradeDate>2000-06-30</tradeDate></tradeHeader><unknown/></trade>" +
+        "<party id=\"Party1\"><partyId>Party1</partyId></party>" +
+        "</dataDocument>";
+    ByteSource resource = ByteSource.wrap(xml.getBytes(StandardCharsets.UTF_8));
+    List<Result<Trade>> results = new ArrayList<>();
+    FpmlDocumentParser.of(FpmlPartySelector.any()).streamTrades(resource, results::add);
+    assertEquals(results.size(), 1);
+    assertEquals(results.get(0).isFailure(), true);
+    assertEquals(results.get(0).getFailure().getReason(), FailureReason.PARSING);
+  }
+
+  public void streamTrades_notFpml() {
+    String location = "classpath:com/opengamma/strata/loader/fpml/not-fpml.xml";
+    ByteSource resource = ResourceLocator.of(location).getByteSource();
+    FpmlDocumentParser parser = FpmlDocumentParser.of(FpmlPartySelector.any());
+    assertThrows(
+        () -> parser.streamTrades(resource, result -> fail()),
+        FpmlParseException.class,
+        "Unable to find FpML root element.*");
+  }
+
   //-------------------------------------------------------------------------
   public void document() {
     XmlElement tradeDateEl = XmlElement.ofContent("tradeDate", "2000-06-30");
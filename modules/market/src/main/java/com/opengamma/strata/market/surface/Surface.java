@@ -98,6 +98,20 @@ public interface Surface extends ParameterizedData {
     return zValue(xyPair.getFirst(), xyPair.getSecond());
   }
 
+  /**
+   * Computes the z-values for the specified x-values and a single y-value.
+   * <p>
+   * This is equivalent to calling {@link #zValue(double, double)} for each x-value.
+   * Implementations may override this to share the work that only depends on the y-value.
+   * 
+   * @param xValues  the x-values to find the z-values for
+   * @param y  the y-value to find the z-values for
+   * @return the values at the x/y points
+   */
+  public default DoubleArray zValues(DoubleArray xValues, double y) {
+    return xValues.map(x -> zValue(x, y));
+  }
+
   /**
    * Computes the sensitivity of the z-value with respect to the surface parameters.
    * <p>
@@ -26,6 +26,21 @@ public interface BoundSurfaceInterpolator {
    */
   public abstract double interpolate(double x, double y);
 
+  /**
+   * Computes the z-values for the specified x-values and a single y-value by interpolation.
+   * <p>
+   * This is equivalent to calling {@link #interpolate(double, double)} for each x-value,
+   * but allows implementations to share the work that only depends on the y-value.
+   * 
+   * @param xValues  the x-values to find the z-values for
+   * @param y  the y-value to find the z-values for
+   * @return the values at the x-values and the y-value
+   * @throws RuntimeException if a z-value cannot be calculated
+   */
+  public default DoubleArray interpolate(DoubleArray xValues, double y) {
+    return xValues.map(x -> interpolate(x, y));
+  }
+
   /**
    * Computes the sensitivity of the x-y-value with respect to the surface parameters.
    * <p>
@@ -191,6 +191,11 @@ public final class GridSurfaceInterpolator
   //-------------------------------------------------------------------------
   /**
    * Bound interpolator.
+   * <p>
+   * The y-interpolators of each unique x-value are bound once, when the surface is bound.
+   * The x-interpolator depends on the y-value being queried, thus it is bound for each y-value.
+   * The most recently bound x-interpolator is cached, so that repeated queries with the same
+   * y-value, such as a smile at a fixed tenor, do not bind it again.
    */
   static class Bound implements BoundSurfaceInterpolator {
     private final CurveInterpolator xInterpolator;
@@ -199,6 +204,8 @@ public final class GridSurfaceInterpolator
     private final DoubleArray xValuesUnique;
     private final int paramSize;
     private final BoundCurveInterpolator[] yInterpolators;
+    // the x-interpolator bound for the last y-value, replaced as a whole for thread-safety
+    private volatile Slice slice;
 
     Bound(
         CurveInterpolator xInterpolator,
@@ -219,28 +226,36 @@ public final class GridSurfaceInterpolator
     //-------------------------------------------------------------------------
     @Override
     public double interpolate(double x, double y) {
-      // use each y-interpolator to find the z-value for each unique x
-      DoubleArray zValuesEffective = DoubleArray.of(yInterpolators.length, i -> yInterpolators[i].interpolate(y));
-      // interpolate unique x-values against derived z-values
-      return xInterpolator.bind(xValuesUnique, zValuesEffective, xExtrapolatorLeft, xExtrapolatorRight).interpolate(x);
+      return slice(y).xInterpolator.interpolate(x);
+    }
+
+    @Override
+    public DoubleArray interpolate(DoubleArray xValues, double y) {
+      BoundCurveInterpolator boundX = slice(y).xInterpolator;
+      return xValues.map(boundX::interpolate);
     }
 
     @Override
     public DoubleArray parameterSensitivity(double x, double y) {
-      int uniqueX = yInterpolators.length;
-      final DoubleArray[] ySens = new DoubleArray[uniqueX];
-      // use each y-interpolator to find the z-value sensitivity for each unique x
-      for (int i = 0; i < uniqueX; i++) {
-        ySens[i] = yInterpolators[i].parameterSensitivity(y);
-      }
-      // use each y-interpolator to find the z-value for each unique x
-      DoubleArray zValuesEffective = DoubleArray.of(uniqueX, i -> yInterpolators[i].interpolate(y));
+      Slice currentSlice = slice(y);
       // find the sensitivity of the unique x-values against derived z-values
-      DoubleArray xSens = xInterpolator
-          .bind(xValuesUnique, zValuesEffective, xExtrapolatorLeft, xExtrapolatorRight)
-          .parameterSensitivity(x);
-
-      return project(xSens, ySens);
+      DoubleArray xSens = currentSlice.xInterpolator.parameterSensitivity(x);
+      return project(xSens, currentSlice.ySensitivities());
+    }
+
+    // finds the slice for the y-value, binding the x-interpolator if the y-value differs from the last query
+    private Slice slice(double y) {
+      Slice currentSlice = slice;
+      if (currentSlice == null || Double.doubleToLongBits(currentSlice.y) != Double.doubleToLongBits(y)) {
+        // use each y-interpolator to find the z-value for each unique x
+        DoubleArray zValuesEffective = DoubleArray.of(yInterpolators.length, i -> yInterpolators[i].interpolate(y));
+        // interpolate unique x-values against derived z-values
+        BoundCurveInterpolator boundX =
+            xInterpolator.bind(xValuesUnique, zValuesEffective, xExtrapolatorLeft, xExtrapolatorRight);
+        currentSlice = new Slice(y, boundX, yInterpolators);
+        slice = currentSlice;
+      }
+      return currentSlice;
     }
 
     // project sensitivities back to parameters
@@ -258,6 +273,37 @@ public final class GridSurfaceInterpolator
     }
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * The x-interpolator bound for a single y-value.
+   */
+  static final class Slice {
+    private final double y;
+    private final BoundCurveInterpolator xInterpolator;
+    private final BoundCurveInterpolator[] yInterpolators;
+    // derived lazily, as it is only needed for sensitivities
+    private volatile DoubleArray[] ySensitivities;
+
+    Slice(double y, BoundCurveInterpolator xInterpolator, BoundCurveInterpolator[] yInterpolators) {
+      this.y = y;
+      this.xInterpolator = xInterpolator;
+      this.yInterpolators = yInterpolators;
+    }
+
+    // the z-value sensitivity of each y-interpolator at the y-value
+    DoubleArray[] ySensitivities() {
+      DoubleArray[] result = ySensitivities;
+      if (result == null) {
+        result = new DoubleArray[yInterpolators.length];
+        for (int i = 0; i < yInterpolators.length; i++) {
+          result[i] = yInterpolators[i].parameterSensitivity(y);
+        }
+        ySensitivities = result;
+      }
+      return result;
+    }
+  }
+
   //-------------------------------------------------------------------------
   /**
    * An interpolator that returns the single known value.
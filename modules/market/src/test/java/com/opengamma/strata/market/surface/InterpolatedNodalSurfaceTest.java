@@ -108,6 +108,16 @@ public class InterpolatedNodalSurfaceTest {
     assertTrue(sensiValues.equalWithTolerance(sensiValuesInterp, 1e-8));
   }
 
+  public void test_lookup_zValues() {
+    InterpolatedNodalSurface test = InterpolatedNodalSurface.of(METADATA, XVALUES, YVALUES, ZVALUES, INTERPOLATOR);
+    DoubleArray xValues = DoubleArray.of(0d, 0.5d, 1.5d);
+    DoubleArray computed = test.zValues(xValues, 3.7d);
+    assertThat(computed.size()).isEqualTo(3);
+    for (int i = 0; i < xValues.size(); i++) {
+      assertThat(computed.get(i)).isEqualTo(test.zValue(xValues.get(i), 3.7d));
+    }
+  }
+
   //-------------------------------------------------------------------------
   public void test_withMetadata() {
     InterpolatedNodalSurface base = InterpolatedNodalSurface.of(METADATA, XVALUES, YVALUES, ZVALUES, INTERPOLATOR);
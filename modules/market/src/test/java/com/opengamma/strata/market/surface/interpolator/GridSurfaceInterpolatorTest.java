@@ -14,7 +14,9 @@ import static com.opengamma.strata.market.curve.interpolator.CurveExtrapolators.
 import static com.opengamma.strata.market.curve.interpolator.CurveExtrapolators.LOG_LINEAR;
 import static com.opengamma.strata.market.curve.interpolator.CurveInterpolators.DOUBLE_QUADRATIC;
 import static com.opengamma.strata.market.curve.interpolator.CurveInterpolators.LINEAR;
+import static com.opengamma.strata.market.curve.interpolator.CurveInterpolators.NATURAL_SPLINE;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 import org.testng.annotations.Test;
 
@@ -105,6 +107,37 @@ public class GridSurfaceInterpolatorTest {
     }
   }
 
+  public void test_interpolation_batch() {
+    GridSurfaceInterpolator test = GridSurfaceInterpolator.of(NATURAL_SPLINE, LINEAR);
+    BoundSurfaceInterpolator bci = test.bind(X_DATA, Y_DATA, Z_DATA);
+    DoubleArray xValues = DoubleArray.of(-0.5, 0.2, 1.3, 2.5, 3.5);
+    for (int i = 0; i < Y_TEST.size(); i++) {
+      double y = Y_TEST.get(i);
+      DoubleArray computed = bci.interpolate(xValues, y);
+      for (int j = 0; j < xValues.size(); j++) {
+        assertEquals(computed.get(j), bci.interpolate(xValues.get(j), y), TOL);
+      }
+    }
+  }
+
+  public void test_interpolation_cachedSlice() {
+    // alternate between y-values, comparing to a newly bound interpolator each time
+    GridSurfaceInterpolator test = GridSurfaceInterpolator.of(NATURAL_SPLINE, LINEAR);
+    BoundSurfaceInterpolator bci = test.bind(X_DATA, Y_DATA, Z_DATA);
+    for (int k = 0; k < 2; k++) {
+      for (int i = 0; i < X_TEST.size(); i++) {
+        for (int j = 0; j < Y_TEST.size(); j++) {
+          double x = X_TEST.get(i);
+          double y = Y_TEST.get(j);
+          BoundSurfaceInterpolator fresh = test.bind(X_DATA, Y_DATA, Z_DATA);
+          assertEquals(bci.interpolate(x, y), fresh.interpolate(x, y), TOL);
+          assertEquals(bci.interpolate(x, y), fresh.interpolate(x, y), TOL);
+          assertTrue(bci.parameterSensitivity(x, y).equalWithTolerance(fresh.parameterSensitivity(x, y), TOL));
+        }
+      }
+    }
+  }
+
   //-------------------------------------------------------------------------
   public void coverage() {
     GridSurfaceInterpolator test = GridSurfaceInterpolator.of(
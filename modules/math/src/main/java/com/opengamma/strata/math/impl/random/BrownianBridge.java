@@ -0,0 +1,160 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * Brownian bridge construction of Brownian motion paths.
+ * <p>
+ * The path is built from independent standard normal samples, one for each time.
+ * The first sample determines the value at the last time, the second the value at the middle time,
+ * conditional on the last, and so on, bisecting the remaining intervals.
+ * The first samples thus determine most of the variance of the path.
+ * This is important when the samples are the coordinates of a low-discrepancy sequence,
+ * such as {@link SobolSequenceGenerator}, as the first coordinates are the most uniform.
+ * <p>
+ * The times are strictly increasing and positive, the path starting from zero at time zero.
+ * For a Gaussian process whose variance is a deterministic increasing function of time,
+ * the bridge can be built using the variance in place of the time.
+ * <p>
+ * Reference: Jackel, P., "Monte Carlo methods in finance", Wiley (2002), section 10.8.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class BrownianBridge {
+
+  /**
+   * The times.
+   */
+  private final DoubleArray times;
+  /**
+   * The index of the time set by each sample.
+   */
+  private final int[] bridgeIndex;
+  /**
+   * The index of the first time in the interval bisected by each sample.
+   * The interval starts at the previous time, or at time zero if this is zero.
+   */
+  private final int[] leftIndex;
+  /**
+   * The index of the time after the interval of each sample.
+   */
+  private final int[] rightIndex;
+  /**
+   * The weight of the value at the start of the interval.
+   */
+  private final double[] leftWeight;
+  /**
+   * The weight of the value at the end of the interval.
+   */
+  private final double[] rightWeight;
+  /**
+   * The standard deviation of the value conditional on the values at the ends of the interval.
+   */
+  private final double[] stdDev;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance for the specified times.
+   *
+   * @param times  the times, strictly increasing and positive
+   * @return the Brownian bridge
+   */
+  public static BrownianBridge of(DoubleArray times) {
+    ArgChecker.notNull(times, "times");
+    ArgChecker.isTrue(times.size() > 0, "Times must not be empty");
+    ArgChecker.isTrue(times.get(0) > 0d, "Times must be positive");
+    for (int i = 1; i < times.size(); i++) {
+      ArgChecker.isTrue(times.get(i) > times.get(i - 1), "Times must be strictly increasing");
+    }
+    return new BrownianBridge(times);
+  }
+
+  // restricted constructor
+  private BrownianBridge(DoubleArray times) {
+    int size = times.size();
+    this.times = times;
+    this.bridgeIndex = new int[size];
+    this.leftIndex = new int[size];
+    this.rightIndex = new int[size];
+    this.leftWeight = new double[size];
+    this.rightWeight = new double[size];
+    this.stdDev = new double[size];
+    // the time set by each sample is recorded, plus one so that zero indicates not yet set
+    int[] map = new int[size];
+    map[size - 1] = 1;
+    bridgeIndex[0] = size - 1;
+    stdDev[0] = Math.sqrt(times.get(size - 1));
+    int j = 0;
+    for (int i = 1; i < size; i++) {
+      // find the next interval with unset times, j to k - 1, and bisect it
+      while (map[j] != 0) {
+        j++;
+      }
+      int k = j;
+      while (map[k] == 0) {
+        k++;
+      }
+      int l = j + ((k - 1 - j) >> 1);
+      map[l] = i + 1;
+      bridgeIndex[i] = l;
+      leftIndex[i] = j;
+      rightIndex[i] = k;
+      double tLeft = j == 0 ? 0d : times.get(j - 1);
+      double tMid = times.get(l);
+      double tRight = times.get(k);
+      leftWeight[i] = (tRight - tMid) / (tRight - tLeft);
+      rightWeight[i] = (tMid - tLeft) / (tRight - tLeft);
+      stdDev[i] = Math.sqrt((tMid - tLeft) * (tRight - tMid) / (tRight - tLeft));
+      j = k + 1;
+      if (j >= size) {
+        j = 0;
+      }
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the times.
+   *
+   * @return the times
+   */
+  public DoubleArray getTimes() {
+    return times;
+  }
+
+  /**
+   * Builds a path from independent standard normal samples.
+   * <p>
+   * The number of samples used and values set is the number of times.
+   * The arrays may be the same, provided the regions used do not overlap.
+   *
+   * @param normals  the array of standard normal samples
+   * @param normalsOffset  the index of the first sample
+   * @param output  the array to populate with the value of the path at each time
+   * @param outputOffset  the index of the value at the first time
+   */
+  public void path(double[] normals, int normalsOffset, double[] output, int outputOffset) {
+    int size = bridgeIndex.length;
+    output[outputOffset + size - 1] = stdDev[0] * normals[normalsOffset];
+    for (int i = 1; i < size; i++) {
+      int j = leftIndex[i];
+      double left = j == 0 ? 0d : output[outputOffset + j - 1];
+      double right = output[outputOffset + rightIndex[i]];
+      output[outputOffset + bridgeIndex[i]] =
+          leftWeight[i] * left + rightWeight[i] * right + stdDev[i] * normals[normalsOffset + i];
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "BrownianBridge[" + times + "]";
+  }
+
+}
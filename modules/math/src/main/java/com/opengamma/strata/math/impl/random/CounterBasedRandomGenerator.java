@@ -0,0 +1,173 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.math.impl.statistics.distribution.NormalDistributionFunctions;
+
+/**
+ * Counter-based pseudo-random number generator.
+ * <p>
+ * The value for each counter is obtained by applying the SplitMix64 finalizer to a Weyl sequence
+ * derived from the key, as in {@link java.util.SplittableRandom}. As the value depends only on the key
+ * and the counter, any part of the sequence can be generated directly, without generating what comes before it.
+ * <p>
+ * Independent streams are obtained using {@link #stream(long)}, which derives a new key by hashing
+ * the key with the stream number. This allows, for example, a stream per trade or per scenario,
+ * each reproducible regardless of how the work is split between threads.
+ * <p>
+ * Normal samples are obtained from uniform samples using the inverse of the normal cumulative
+ * distribution function, so the normal sample for a counter uses the uniform sample for the same counter.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class CounterBasedRandomGenerator implements NormalPointGenerator {
+
+  /**
+   * The increment of the Weyl sequence, the odd integer closest to 2^64 divided by the golden ratio.
+   */
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+  /**
+   * The scale converting 53 random bits to a double.
+   */
+  private static final double DOUBLE_UNIT = 1d / (1L << 53);
+
+  /**
+   * The key identifying the stream.
+   */
+  private final long key;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from a seed.
+   *
+   * @param seed  the seed
+   * @return the generator
+   */
+  public static CounterBasedRandomGenerator of(long seed) {
+    return new CounterBasedRandomGenerator(mix64(seed));
+  }
+
+  // restricted constructor
+  private CounterBasedRandomGenerator(long key) {
+    this.key = key;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns a generator for an independent stream.
+   * <p>
+   * The same stream number always results in the same generator.
+   * The streams of different numbers are statistically independent of each other and of this generator.
+   *
+   * @param stream  the stream number
+   * @return the generator of the stream
+   */
+  public CounterBasedRandomGenerator stream(long stream) {
+    return new CounterBasedRandomGenerator(mix64(key ^ mix64(stream + GOLDEN_GAMMA)));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the 64 random bits for a counter.
+   *
+   * @param counter  the counter
+   * @return the random bits
+   */
+  public long bits(long counter) {
+    return mix64(key + (counter + 1) * GOLDEN_GAMMA);
+  }
+
+  /**
+   * Returns the uniform sample for a counter.
+   * <p>
+   * The sample is strictly between zero and one.
+   *
+   * @param counter  the counter
+   * @return the uniform sample
+   */
+  public double uniform(long counter) {
+    return ((bits(counter) >>> 11) + 0.5d) * DOUBLE_UNIT;
+  }
+
+  /**
+   * Returns the standard normal sample for a counter.
+   *
+   * @param counter  the counter
+   * @return the normal sample
+   */
+  public double normal(long counter) {
+    return NormalDistributionFunctions.inverseCdf(uniform(counter));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Generates the uniform samples of consecutive counters into an array.
+   *
+   * @param startCounter  the counter of the first sample
+   * @param output  the array to populate
+   * @param offset  the index in the array of the first sample
+   * @param length  the number of samples
+   */
+  public void uniform(long startCounter, double[] output, int offset, int length) {
+    checkRange(output, offset, length);
+    for (int i = 0; i < length; i++) {
+      output[offset + i] = uniform(startCounter + i);
+    }
+  }
+
+  /**
+   * Generates the standard normal samples of consecutive counters into an array.
+   *
+   * @param startCounter  the counter of the first sample
+   * @param output  the array to populate
+   * @param offset  the index in the array of the first sample
+   * @param length  the number of samples
+   */
+  public void normal(long startCounter, double[] output, int offset, int length) {
+    checkRange(output, offset, length);
+    for (int i = 0; i < length; i++) {
+      output[offset + i] = normal(startCounter + i);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Coordinate {@code j} of point {@code i} is the normal sample of counter {@code i * dimension + j}.
+   */
+  @Override
+  public void normalPoints(long startIndex, int count, int dimension, double[] output) {
+    ArgChecker.notNegative(startIndex, "startIndex");
+    ArgChecker.notNegative(count, "count");
+    ArgChecker.notNegativeOrZero(dimension, "dimension");
+    normal(startIndex * dimension, output, 0, count * dimension);
+  }
+
+  //-------------------------------------------------------------------------
+  // the SplitMix64 finalizer, a bijective mixing function
+  private static long mix64(long value) {
+    long z = value;
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  // checks the array is large enough
+  private static void checkRange(double[] output, int offset, int length) {
+    ArgChecker.notNull(output, "output");
+    ArgChecker.notNegative(offset, "offset");
+    ArgChecker.notNegative(length, "length");
+    ArgChecker.isTrue(offset + length <= output.length, "Output array must have at least {} elements", offset + length);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "CounterBasedRandomGenerator[" + Long.toHexString(key) + "]";
+  }
+
+}
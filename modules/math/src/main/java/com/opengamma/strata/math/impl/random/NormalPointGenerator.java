@@ -0,0 +1,33 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+/**
+ * Generator of points whose coordinates are standard normal samples.
+ * <p>
+ * Each point is identified by its index, thus a point can be generated without generating those before it.
+ * The same index and dimension always produce the same point, whichever thread generates it,
+ * allowing Monte Carlo paths to be simulated in parallel and reproducibly.
+ * <p>
+ * Implementations must be immutable and thread-safe.
+ */
+public interface NormalPointGenerator {
+
+  /**
+   * Generates a block of consecutive points into an array.
+   * <p>
+   * The points are stored one after the other, with coordinate {@code j} of point {@code startIndex + i}
+   * stored at {@code output[i * dimension + j]}. The array can be reused for each block.
+   *
+   * @param startIndex  the index of the first point, zero or greater
+   * @param count  the number of points
+   * @param dimension  the number of coordinates of each point
+   * @param output  the array to populate, at least {@code count * dimension} long
+   * @throws IllegalArgumentException if the dimension is not supported or the array is too small
+   */
+  void normalPoints(long startIndex, int count, int dimension, double[] output);
+
+}
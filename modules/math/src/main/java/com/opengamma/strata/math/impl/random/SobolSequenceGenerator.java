@@ -0,0 +1,299 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.math.impl.statistics.distribution.NormalDistributionFunctions;
+
+/**
+ * Generator of the Sobol low-discrepancy sequence.
+ * <p>
+ * The sequence is generated with 52 bits of precision, allowing up to 2^52 points.
+ * The first point of the sequence, which is zero in every dimension, is skipped.
+ * Point {@code i} of this generator is therefore point {@code i + 1} of the Sobol sequence,
+ * and each coordinate is strictly between zero and one.
+ * <p>
+ * The primitive polynomials are those of Joe and Kuo, in order of increasing degree.
+ * The initial direction numbers of the first 40 dimensions are those of Joe and Kuo, chosen to
+ * optimize the two-dimensional projections. The initial direction numbers of the other dimensions
+ * are chosen pseudo-randomly, so the sequence remains a valid Sobol sequence, but the projections
+ * involving these dimensions are not optimized. When simulating paths, a {@link BrownianBridge}
+ * should be used to place the most important variables in the first dimensions.
+ * <p>
+ * Reference: Joe, S. and Kuo, F. Y., "Constructing Sobol sequences with better two-dimensional projections",
+ * SIAM J. Sci. Comput. 30, 2635-2654 (2008).
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class SobolSequenceGenerator implements NormalPointGenerator {
+
+  /**
+   * The maximum number of dimensions.
+   */
+  public static final int MAX_DIMENSION = 1000;
+  /**
+   * The number of bits in each coordinate.
+   */
+  private static final int BITS = 52;
+  /**
+   * The scale converting the bits to a double.
+   */
+  private static final double SCALE = 1d / (1L << BITS);
+  /**
+   * The seed used to choose the initial direction numbers not in the table.
+   */
+  private static final CounterBasedRandomGenerator DIRECTION_RANDOM = CounterBasedRandomGenerator.of(2008);
+  /**
+   * The initial direction numbers of Joe and Kuo, for dimensions 2 to 40.
+   * Each row contains the degree of the primitive polynomial, its coefficients and then the initial numbers.
+   */
+  private static final int[][] JOE_KUO = {
+      {1, 0, 1},
+      {2, 1, 1, 3},
+      {3, 1, 1, 3, 1},
+      {3, 2, 1, 1, 1},
+      {4, 1, 1, 1, 3, 3},
+      {4, 4, 1, 3, 5, 13},
+      {5, 2, 1, 1, 5, 5, 17},
+      {5, 4, 1, 1, 5, 5, 5},
+      {5, 7, 1, 1, 7, 11, 19},
+      {5, 11, 1, 1, 5, 1, 1},
+      {5, 13, 1, 1, 1, 3, 11},
+      {5, 14, 1, 3, 5, 5, 31},
+      {6, 1, 1, 3, 3, 9, 7, 49},
+      {6, 13, 1, 1, 1, 15, 21, 21},
+      {6, 16, 1, 3, 1, 13, 27, 49},
+      {6, 19, 1, 1, 1, 15, 7, 5},
+      {6, 22, 1, 3, 1, 15, 13, 25},
+      {6, 25, 1, 1, 5, 5, 19, 61},
+      {7, 1, 1, 3, 7, 11, 23, 15, 103},
+      {7, 4, 1, 3, 7, 13, 13, 15, 69},
+      {7, 7, 1, 1, 3, 13, 7, 35, 63},
+      {7, 8, 1, 3, 5, 9, 1, 25, 53},
+      {7, 14, 1, 3, 1, 13, 9, 35, 107},
+      {7, 19, 1, 3, 1, 5, 27, 61, 31},
+      {7, 21, 1, 1, 5, 11, 19, 41, 61},
+      {7, 28, 1, 3, 5, 3, 3, 13, 69},
+      {7, 31, 1, 1, 7, 13, 1, 19, 1},
+      {7, 32, 1, 3, 7, 5, 13, 19, 59},
+      {7, 37, 1, 1, 3, 9, 25, 29, 41},
+      {7, 41, 1, 3, 5, 13, 23, 1, 55},
+      {7, 42, 1, 3, 7, 3, 13, 59, 17},
+      {7, 50, 1, 3, 1, 3, 5, 53, 69},
+      {7, 55, 1, 1, 5, 5, 23, 33, 13},
+      {7, 56, 1, 1, 7, 7, 1, 61, 123},
+      {7, 59, 1, 1, 7, 9, 13, 61, 49},
+      {7, 62, 1, 3, 3, 5, 3, 55, 33},
+      {8, 14, 1, 3, 1, 15, 31, 13, 49, 245},
+      {8, 21, 1, 3, 5, 15, 31, 59, 63, 97},
+      {8, 22, 1, 3, 1, 11, 11, 11, 77, 249},
+  };
+
+  /**
+   * The direction numbers, indexed by bit and then dimension.
+   */
+  private final long[][] directions;
+  /**
+   * The number of dimensions.
+   */
+  private final int dimension;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance generating points of the specified dimension.
+   *
+   * @param dimension  the number of dimensions, from 1 to {@link #MAX_DIMENSION}
+   * @return the generator
+   */
+  public static SobolSequenceGenerator of(int dimension) {
+    ArgChecker.inRangeInclusive(dimension, 1, MAX_DIMENSION, "dimension");
+    return new SobolSequenceGenerator(dimension);
+  }
+
+  // restricted constructor
+  private SobolSequenceGenerator(int dimension) {
+    this.dimension = dimension;
+    this.directions = new long[BITS][dimension];
+    // the first dimension is the van der Corput sequence
+    for (int k = 0; k < BITS; k++) {
+      directions[k][0] = 1L << (BITS - 1 - k);
+    }
+    int degree = 1;
+    int coefficients = -1;
+    for (int d = 1; d < dimension; d++) {
+      // the next primitive polynomial, in order of degree and then coefficients
+      do {
+        coefficients++;
+        if (coefficients == 1 << (degree - 1)) {
+          degree++;
+          coefficients = 0;
+        }
+      } while (!isPrimitive(degree, coefficients));
+      int[] initial = new int[degree];
+      for (int k = 0; k < degree; k++) {
+        initial[k] = d <= JOE_KUO.length ? JOE_KUO[d - 1][k + 2] : randomInitial(d, k);
+      }
+      initializeDirections(d, degree, coefficients, initial);
+    }
+  }
+
+  // the pseudo-random initial direction number, odd and less than 2^(k+1)
+  private static int randomInitial(int dimension, int k) {
+    long bits = DIRECTION_RANDOM.stream(dimension).bits(k);
+    return (int) (bits >>> (63 - k)) | 1;
+  }
+
+  // fills the direction numbers of a dimension using the recurrence of the primitive polynomial
+  private void initializeDirections(int d, int degree, int coefficients, int[] initial) {
+    for (int k = 0; k < Math.min(degree, BITS); k++) {
+      directions[k][d] = ((long) initial[k]) << (BITS - 1 - k);
+    }
+    for (int k = degree; k < BITS; k++) {
+      long value = directions[k - degree][d] ^ (directions[k - degree][d] >>> degree);
+      for (int i = 1; i < degree; i++) {
+        if (((coefficients >>> (degree - 1 - i)) & 1) != 0) {
+          value ^= directions[k - i][d];
+        }
+      }
+      directions[k][d] = value;
+    }
+  }
+
+  // checks if the polynomial is primitive, x^degree + a_1 x^(degree-1) + ... + a_(degree-1) x + 1
+  // it is primitive if the order of x modulo the polynomial is 2^degree - 1
+  private static boolean isPrimitive(int degree, int coefficients) {
+    long polynomial = (1L << degree) | ((long) coefficients << 1) | 1L;
+    long order = (1L << degree) - 1;
+    if (powerOfX(order, polynomial, degree) != 1) {
+      return false;
+    }
+    long remaining = order;
+    for (long factor = 2; factor * factor <= remaining; factor++) {
+      if (remaining % factor == 0) {
+        if (powerOfX(order / factor, polynomial, degree) == 1) {
+          return false;
+        }
+        while (remaining % factor == 0) {
+          remaining /= factor;
+        }
+      }
+    }
+    return remaining == 1 || powerOfX(order / remaining, polynomial, degree) != 1;
+  }
+
+  // x^power modulo the polynomial over GF(2)
+  private static long powerOfX(long power, long polynomial, int degree) {
+    long result = 1;
+    long base = degree == 1 ? 2 ^ polynomial : 2;
+    for (long p = power; p > 0; p >>>= 1) {
+      if ((p & 1) != 0) {
+        result = multiply(result, base, polynomial, degree);
+      }
+      base = multiply(base, base, polynomial, degree);
+    }
+    return result;
+  }
+
+  // multiplication modulo the polynomial over GF(2)
+  private static long multiply(long a, long b, long polynomial, int degree) {
+    long result = 0;
+    long shifted = a;
+    for (long bits = b; bits != 0; bits >>>= 1) {
+      if ((bits & 1) != 0) {
+        result ^= shifted;
+      }
+      shifted <<= 1;
+      if ((shifted >>> degree) != 0) {
+        shifted ^= polynomial;
+      }
+    }
+    return result;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of dimensions.
+   *
+   * @return the number of dimensions
+   */
+  public int getDimension() {
+    return dimension;
+  }
+
+  /**
+   * Generates a block of consecutive points with coordinates uniform between zero and one.
+   * <p>
+   * The points are stored one after the other, with coordinate {@code j} of point {@code startIndex + i}
+   * stored at {@code output[i * dimension + j]}. The first point of the block is computed directly
+   * from its index, and the others by the Gray code update, one exclusive or per coordinate.
+   *
+   * @param startIndex  the index of the first point, zero or greater
+   * @param count  the number of points
+   * @param dimension  the number of coordinates of each point, at most the dimension of this generator
+   * @param output  the array to populate, at least {@code count * dimension} long
+   */
+  public void uniformPoints(long startIndex, int count, int dimension, double[] output) {
+    ArgChecker.notNegative(startIndex, "startIndex");
+    ArgChecker.notNegative(count, "count");
+    ArgChecker.inRangeInclusive(dimension, 1, this.dimension, "dimension");
+    ArgChecker.notNull(output, "output");
+    ArgChecker.isTrue((long) count * dimension <= output.length,
+        "Output array must have at least {} elements", (long) count * dimension);
+    ArgChecker.isTrue(startIndex + count < (1L << BITS), "Sobol sequence is limited to 2^52 points");
+    if (count == 0) {
+      return;
+    }
+    // the point of the sequence for index n is the exclusive or of the directions of the bits of the Gray code of n
+    long[] point = new long[dimension];
+    long sequenceIndex = startIndex + 1;
+    long gray = sequenceIndex ^ (sequenceIndex >>> 1);
+    for (int k = 0; gray != 0; k++, gray >>>= 1) {
+      if ((gray & 1) != 0) {
+        long[] direction = directions[k];
+        for (int j = 0; j < dimension; j++) {
+          point[j] ^= direction[j];
+        }
+      }
+    }
+    for (int i = 0; ; i++) {
+      int offset = i * dimension;
+      for (int j = 0; j < dimension; j++) {
+        output[offset + j] = point[j] * SCALE;
+      }
+      if (i == count - 1) {
+        return;
+      }
+      // consecutive Gray codes differ in the bit of the lowest zero bit of the index
+      long[] direction = directions[Long.numberOfTrailingZeros(~sequenceIndex)];
+      for (int j = 0; j < dimension; j++) {
+        point[j] ^= direction[j];
+      }
+      sequenceIndex++;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The normal samples are obtained by applying the inverse of the normal cumulative distribution function
+   * to the coordinates of {@link #uniformPoints(long, int, int, double[])}.
+   */
+  @Override
+  public void normalPoints(long startIndex, int count, int dimension, double[] output) {
+    uniformPoints(startIndex, count, dimension, output);
+    int size = count * dimension;
+    for (int i = 0; i < size; i++) {
+      output[i] = NormalDistributionFunctions.inverseCdf(output[i]);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "SobolSequenceGenerator[" + dimension + "]";
+  }
+
+}
@@ -201,4 +201,22 @@ class DERFC {
     return ret;
   }
 
+  /**
+   * Gets the scaled complimentary error function at position 'x', exp(x^2) * erfc(x).
+   * <p>
+   * This avoids the underflow of the complimentary error function for large positive 'x'.
+   * @param x the position at which to evaluate the scaled complimentary error function
+   * @return the scaled complimentary error function value at position 'x'
+   */
+  static double getErfcx(double x) {
+    if (x <= 1d) {
+      return Math.exp(x * x) * getErfc(x);
+    }
+    double y = x * x;
+    if (y <= 4d) {
+      return (0.5d + DCSEVL.getDCSEVL((8.d / y - 5.d) / 3.d, s_erc2cs, s_nterc2)) / x;
+    }
+    return (0.5d + DCSEVL.getDCSEVL((8.d / y - 1.d), s_erfccs, s_nterfc)) / x;
+  }
+
 }
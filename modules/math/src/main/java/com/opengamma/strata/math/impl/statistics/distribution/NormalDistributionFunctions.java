@@ -0,0 +1,223 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.statistics.distribution;
+
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * Primitive functions of the standard normal distribution.
+ * <p>
+ * These functions are equivalent to those of {@link NormalDistribution} with a mean of zero
+ * and a standard deviation of one, but take and return primitive {@code double} values.
+ * They are intended for use in the inner loops of option pricing formulas, where the
+ * boxing imposed by {@link ProbabilityDistribution} is a significant cost.
+ * <p>
+ * The accuracy of the functions is as follows:
+ * <ul>
+ * <li>{@link #cdf(double)} uses the SLATEC Chebyshev approximations of the complementary error function,
+ *  accurate to a relative error of about 1e-16, and returns exactly the same values as {@link NormalDistribution}
+ * <li>{@link #pdf(double)} evaluates the density in closed form
+ * <li>{@link #millsRatio(double)} uses the same SLATEC approximations, scaled to avoid underflow
+ * <li>{@link #inverseCdf(double)} uses algorithm AS241 of Wichura, accurate to a relative error of about 1e-16
+ * </ul>
+ * The batch methods write the result for each input into a caller-provided array,
+ * allowing the array to be reused across calls.
+ */
+public final class NormalDistributionFunctions {
+
+  /**
+   * The square root of two.
+   */
+  private static final double ROOT2 = Math.sqrt(2d);
+  /**
+   * The normalization factor of the density, one over the square root of two pi.
+   */
+  private static final double INV_ROOT_2PI = 1d / Math.sqrt(2d * Math.PI);
+  /**
+   * The square root of pi over two.
+   */
+  private static final double ROOT_PI_OVER_2 = Math.sqrt(Math.PI / 2d);
+
+  // coefficients of AS241 for |p - 0.5| <= 0.425
+  private static final double A0 = 3.3871328727963666080e0;
+  private static final double A1 = 1.3314166789178437745e+2;
+  private static final double A2 = 1.9715909503065514427e+3;
+  private static final double A3 = 1.3731693765509461125e+4;
+  private static final double A4 = 4.5921953931549871457e+4;
+  private static final double A5 = 6.7265770927008700853e+4;
+  private static final double A6 = 3.3430575583588128105e+4;
+  private static final double A7 = 2.5090809287301226727e+3;
+  private static final double B1 = 4.2313330701600911252e+1;
+  private static final double B2 = 6.8718700749205790830e+2;
+  private static final double B3 = 5.3941960214247511077e+3;
+  private static final double B4 = 2.1213794301586595867e+4;
+  private static final double B5 = 3.9307895800092710610e+4;
+  private static final double B6 = 2.8729085735721942674e+4;
+  private static final double B7 = 5.2264952788528545610e+3;
+  // coefficients of AS241 for the intermediate tail
+  private static final double C0 = 1.42343711074968357734e0;
+  private static final double C1 = 4.63033784615654529590e0;
+  private static final double C2 = 5.76949722146069140550e0;
+  private static final double C3 = 3.64784832476320460504e0;
+  private static final double C4 = 1.27045825245236838258e0;
+  private static final double C5 = 2.41780725177450611770e-1;
+  private static final double C6 = 2.27238449892691845833e-2;
+  private static final double C7 = 7.74545014278341407640e-4;
+  private static final double D1 = 2.05319162663775882187e0;
+  private static final double D2 = 1.67638483018380384940e0;
+  private static final double D3 = 6.89767334985100004550e-1;
+  private static final double D4 = 1.48103976427480074590e-1;
+  private static final double D5 = 1.51986665636164571966e-2;
+  private static final double D6 = 5.47593808499534494600e-4;
+  private static final double D7 = 1.05075007164441684324e-9;
+  // coefficients of AS241 for the far tail
+  private static final double E0 = 6.65790464350110377720e0;
+  private static final double E1 = 5.46378491116411436990e0;
+  private static final double E2 = 1.78482653991729133580e0;
+  private static final double E3 = 2.96560571828504891230e-1;
+  private static final double E4 = 2.65321895265761230930e-2;
+  private static final double E5 = 1.24266094738807843860e-3;
+  private static final double E6 = 2.71155556874348757815e-5;
+  private static final double E7 = 2.01033439929228813265e-7;
+  private static final double F1 = 5.99832206555887937690e-1;
+  private static final double F2 = 1.36929880922735805310e-1;
+  private static final double F3 = 1.48753612908506148525e-2;
+  private static final double F4 = 7.86869131145613259100e-4;
+  private static final double F5 = 1.84631831751005468180e-5;
+  private static final double F6 = 1.42151175831644588870e-7;
+  private static final double F7 = 2.04426310338993978564e-15;
+
+  // restricted constructor
+  private NormalDistributionFunctions() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the cumulative distribution function of the standard normal distribution.
+   *
+   * @param x  the value
+   * @return the probability that a standard normal variable is less than or equal to the value
+   */
+  public static double cdf(double x) {
+    return DERFC.getErfc(-x / ROOT2) / 2;
+  }
+
+  /**
+   * Computes the probability density function of the standard normal distribution.
+   *
+   * @param x  the value
+   * @return the density at the value
+   */
+  public static double pdf(double x) {
+    return INV_ROOT_2PI * Math.exp(-(x * x) / 2);
+  }
+
+  /**
+   * Computes the Mills ratio of the standard normal distribution.
+   * <p>
+   * The Mills ratio is {@code (1 - cdf(x)) / pdf(x)}. It is computed without forming the
+   * numerator and denominator, so remains accurate for large positive values where both underflow.
+   * Large negative values overflow to positive infinity.
+   *
+   * @param x  the value
+   * @return the Mills ratio at the value
+   */
+  public static double millsRatio(double x) {
+    return ROOT_PI_OVER_2 * DERFC.getErfcx(x / ROOT2);
+  }
+
+  /**
+   * Computes the inverse of the cumulative distribution function of the standard normal distribution.
+   * <p>
+   * The inverse of zero is negative infinity and the inverse of one is positive infinity.
+   *
+   * @param p  the probability, from zero to one inclusive
+   * @return the value at which the cumulative distribution function equals the probability
+   * @throws IllegalArgumentException if the probability is outside the range zero to one
+   */
+  public static double inverseCdf(double p) {
+    ArgChecker.isTrue(p >= 0 && p <= 1, "Probability must be >= 0 and <= 1");
+    double q = p - 0.5;
+    if (Math.abs(q) <= 0.425) {
+      double r = 0.180625 - q * q;
+      return q * (((((((A7 * r + A6) * r + A5) * r + A4) * r + A3) * r + A2) * r + A1) * r + A0) /
+          (((((((B7 * r + B6) * r + B5) * r + B4) * r + B3) * r + B2) * r + B1) * r + 1d);
+    }
+    if (p == 0d) {
+      return Double.NEGATIVE_INFINITY;
+    }
+    if (p == 1d) {
+      return Double.POSITIVE_INFINITY;
+    }
+    double r = Math.sqrt(-Math.log(q < 0 ? p : 1d - p));
+    double value;
+    if (r <= 5d) {
+      r -= 1.6;
+      value = (((((((C7 * r + C6) * r + C5) * r + C4) * r + C3) * r + C2) * r + C1) * r + C0) /
+          (((((((D7 * r + D6) * r + D5) * r + D4) * r + D3) * r + D2) * r + D1) * r + 1d);
+    } else {
+      r -= 5d;
+      value = (((((((E7 * r + E6) * r + E5) * r + E4) * r + E3) * r + E2) * r + E1) * r + E0) /
+          (((((((F7 * r + F6) * r + F5) * r + F4) * r + F3) * r + F2) * r + F1) * r + 1d);
+    }
+    return q < 0 ? -value : value;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the cumulative distribution function for an array of values.
+   * <p>
+   * The output array may be the same as the input array.
+   *
+   * @param x  the values
+   * @param output  the array to populate with the probabilities, at least as long as the values
+   */
+  public static void cdf(double[] x, double[] output) {
+    checkOutput(x, output);
+    for (int i = 0; i < x.length; i++) {
+      output[i] = cdf(x[i]);
+    }
+  }
+
+  /**
+   * Computes the probability density function for an array of values.
+   * <p>
+   * The output array may be the same as the input array.
+   *
+   * @param x  the values
+   * @param output  the array to populate with the densities, at least as long as the values
+   */
+  public static void pdf(double[] x, double[] output) {
+    checkOutput(x, output);
+    for (int i = 0; i < x.length; i++) {
+      output[i] = pdf(x[i]);
+    }
+  }
+
+  /**
+   * Computes the inverse of the cumulative distribution function for an array of probabilities.
+   * <p>
+   * The output array may be the same as the input array.
+   *
+   * @param p  the probabilities, each from zero to one inclusive
+   * @param output  the array to populate with the values, at least as long as the probabilities
+   * @throws IllegalArgumentException if a probability is outside the range zero to one
+   */
+  public static void inverseCdf(double[] p, double[] output) {
+    checkOutput(p, output);
+    for (int i = 0; i < p.length; i++) {
+      output[i] = inverseCdf(p[i]);
+    }
+  }
+
+  // checks the output array is large enough
+  private static void checkOutput(double[] input, double[] output) {
+    ArgChecker.notNull(input, "input");
+    ArgChecker.notNull(output, "output");
+    ArgChecker.isTrue(output.length >= input.length, "Output array must be at least as long as the input array");
+  }
+
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * Test {@link BrownianBridge}.
+ */
+@Test
+public class BrownianBridgeTest {
+
+  private static final DoubleArray TIMES = DoubleArray.of(0.25, 0.5, 1d, 2d, 3d, 5d, 7d);
+  private static final BrownianBridge BRIDGE = BrownianBridge.of(TIMES);
+
+  public void test_of() {
+    assertEquals(BRIDGE.getTimes(), TIMES);
+    assertThrowsIllegalArg(() -> BrownianBridge.of(DoubleArray.EMPTY));
+    assertThrowsIllegalArg(() -> BrownianBridge.of(DoubleArray.of(0d, 1d)));
+    assertThrowsIllegalArg(() -> BrownianBridge.of(DoubleArray.of(1d, 1d)));
+  }
+
+  public void test_singleTime() {
+    BrownianBridge bridge = BrownianBridge.of(DoubleArray.of(4d));
+    double[] output = new double[1];
+    bridge.path(new double[] {0.5}, 0, output, 0);
+    assertEquals(output[0], 1d, 1e-15);
+  }
+
+  public void test_firstSampleSetsLastTime() {
+    int size = TIMES.size();
+    double[] normals = new double[size];
+    normals[0] = 1d;
+    double[] output = new double[size];
+    BRIDGE.path(normals, 0, output, 0);
+    // with the other samples zero, the path is linear in time
+    for (int i = 0; i < size; i++) {
+      assertEquals(output[i], Math.sqrt(7d) * TIMES.get(i) / 7d, 1e-14);
+    }
+  }
+
+  public void test_covariance() {
+    int size = TIMES.size();
+    int pathCount = 200000;
+    CounterBasedRandomGenerator generator = CounterBasedRandomGenerator.of(1);
+    double[] normals = new double[pathCount * size];
+    generator.normalPoints(0, pathCount, size, normals);
+    double[] path = new double[size + 2];
+    double[][] covariance = new double[size][size];
+    for (int p = 0; p < pathCount; p++) {
+      BRIDGE.path(normals, p * size, path, 2);
+      for (int i = 0; i < size; i++) {
+        for (int j = 0; j < size; j++) {
+          covariance[i][j] += path[i + 2] * path[j + 2] / pathCount;
+        }
+      }
+    }
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        double expected = Math.min(TIMES.get(i), TIMES.get(j));
+        assertEquals(covariance[i][j], expected, 0.02d * Math.max(expected, 1d));
+      }
+    }
+  }
+
+}
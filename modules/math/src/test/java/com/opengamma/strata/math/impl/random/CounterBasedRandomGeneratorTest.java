@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link CounterBasedRandomGenerator}.
+ */
+@Test
+public class CounterBasedRandomGeneratorTest {
+
+  private static final CounterBasedRandomGenerator GENERATOR = CounterBasedRandomGenerator.of(123456789L);
+  private static final int SAMPLE_SIZE = 100000;
+
+  public void test_reproducible() {
+    CounterBasedRandomGenerator other = CounterBasedRandomGenerator.of(123456789L);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(other.bits(i), GENERATOR.bits(i));
+      assertEquals(other.normal(i), GENERATOR.normal(i));
+    }
+    assertEquals(GENERATOR.stream(3).bits(7), other.stream(3).bits(7));
+    assertNotEquals(GENERATOR.stream(3).bits(7), GENERATOR.stream(4).bits(7));
+    assertNotEquals(GENERATOR.stream(3).bits(7), GENERATOR.bits(7));
+    assertNotEquals(CounterBasedRandomGenerator.of(1).bits(0), CounterBasedRandomGenerator.of(2).bits(0));
+  }
+
+  public void test_uniform() {
+    double[] samples = new double[SAMPLE_SIZE];
+    GENERATOR.uniform(0, samples, 0, SAMPLE_SIZE);
+    double sum = 0d;
+    for (int i = 0; i < SAMPLE_SIZE; i++) {
+      assertEquals(samples[i], GENERATOR.uniform(i));
+      assertTrue(samples[i] > 0d && samples[i] < 1d);
+      sum += samples[i];
+    }
+    assertEquals(sum / SAMPLE_SIZE, 0.5d, 0.005d);
+  }
+
+  public void test_normal() {
+    double[] samples = new double[SAMPLE_SIZE + 5];
+    GENERATOR.normal(1000, samples, 5, SAMPLE_SIZE);
+    double sum = 0d;
+    double sum2 = 0d;
+    for (int i = 0; i < SAMPLE_SIZE; i++) {
+      double sample = samples[i + 5];
+      assertEquals(sample, GENERATOR.normal(1000 + i));
+      sum += sample;
+      sum2 += sample * sample;
+    }
+    assertEquals(sum / SAMPLE_SIZE, 0d, 0.01d);
+    assertEquals(sum2 / SAMPLE_SIZE, 1d, 0.02d);
+  }
+
+  public void test_normalPoints() {
+    double[] points = new double[30];
+    GENERATOR.normalPoints(4, 10, 3, points);
+    for (int i = 0; i < 10; i++) {
+      for (int j = 0; j < 3; j++) {
+        assertEquals(points[i * 3 + j], GENERATOR.normal((4 + i) * 3 + j));
+      }
+    }
+  }
+
+  public void test_invalid() {
+    assertThrowsIllegalArg(() -> GENERATOR.normal(0, new double[5], 2, 4));
+    assertThrowsIllegalArg(() -> GENERATOR.uniform(0, new double[5], -1, 2));
+    assertThrowsIllegalArg(() -> GENERATOR.normalPoints(0, 3, 2, new double[5]));
+    assertThrowsIllegalArg(() -> GENERATOR.normalPoints(-1, 1, 2, new double[5]));
+    assertThrowsIllegalArg(() -> GENERATOR.normalPoints(0, 1, 0, new double[5]));
+  }
+
+}
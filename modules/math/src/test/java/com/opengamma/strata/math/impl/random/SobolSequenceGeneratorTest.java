@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.math.impl.statistics.distribution.NormalDistributionFunctions;
+
+/**
+ * Test {@link SobolSequenceGenerator}.
+ */
+@Test
+public class SobolSequenceGeneratorTest {
+
+  private static final double TOLERANCE = 1e-15;
+
+  public void test_of() {
+    assertEquals(SobolSequenceGenerator.of(5).getDimension(), 5);
+    assertThrowsIllegalArg(() -> SobolSequenceGenerator.of(0));
+    assertThrowsIllegalArg(() -> SobolSequenceGenerator.of(SobolSequenceGenerator.MAX_DIMENSION + 1));
+  }
+
+  public void test_firstPoints() {
+    SobolSequenceGenerator generator = SobolSequenceGenerator.of(3);
+    double[] points = new double[12];
+    generator.uniformPoints(0, 4, 3, points);
+    double[] expected = {
+        0.5, 0.5, 0.5,
+        0.75, 0.25, 0.25,
+        0.25, 0.75, 0.75,
+        0.375, 0.375, 0.625};
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(points[i], expected[i], TOLERANCE);
+    }
+  }
+
+  public void test_blocks() {
+    SobolSequenceGenerator generator = SobolSequenceGenerator.of(50);
+    double[] all = new double[1000 * 50];
+    generator.uniformPoints(0, 1000, 50, all);
+    double[] block = new double[123 * 20];
+    generator.uniformPoints(517, 123, 20, block);
+    for (int i = 0; i < 123; i++) {
+      for (int j = 0; j < 20; j++) {
+        assertEquals(block[i * 20 + j], all[(517 + i) * 50 + j]);
+      }
+    }
+  }
+
+  public void test_stratification() {
+    // the first 2^k - 1 points with the zero point are stratified in each dimension
+    int dimension = SobolSequenceGenerator.MAX_DIMENSION;
+    SobolSequenceGenerator generator = SobolSequenceGenerator.of(dimension);
+    int count = 1023;
+    double[] points = new double[count * dimension];
+    generator.uniformPoints(0, count, dimension, points);
+    for (int j = 0; j < dimension; j++) {
+      boolean[] filled = new boolean[count + 1];
+      filled[0] = true;
+      for (int i = 0; i < count; i++) {
+        double value = points[i * dimension + j];
+        assertTrue(value > 0d && value < 1d);
+        filled[(int) (value * (count + 1))] = true;
+      }
+      for (boolean cell : filled) {
+        assertTrue(cell);
+      }
+    }
+  }
+
+  public void test_normalPoints() {
+    SobolSequenceGenerator generator = SobolSequenceGenerator.of(4);
+    double[] uniform = new double[40];
+    double[] normal = new double[40];
+    generator.uniformPoints(10, 10, 4, uniform);
+    generator.normalPoints(10, 10, 4, normal);
+    for (int i = 0; i < 40; i++) {
+      assertEquals(normal[i], NormalDistributionFunctions.inverseCdf(uniform[i]));
+    }
+  }
+
+  public void test_invalid() {
+    SobolSequenceGenerator generator = SobolSequenceGenerator.of(4);
+    assertThrowsIllegalArg(() -> generator.uniformPoints(-1, 1, 4, new double[4]));
+    assertThrowsIllegalArg(() -> generator.uniformPoints(0, 2, 4, new double[7]));
+    assertThrowsIllegalArg(() -> generator.uniformPoints(0, 1, 5, new double[10]));
+    assertThrowsIllegalArg(() -> generator.normalPoints(0, 1, 0, new double[10]));
+  }
+
+}
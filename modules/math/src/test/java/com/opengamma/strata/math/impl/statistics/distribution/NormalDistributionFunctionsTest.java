@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.statistics.distribution;
+
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link NormalDistributionFunctions}.
+ */
+@Test
+public class NormalDistributionFunctionsTest {
+
+  private static final ProbabilityDistribution<Double> NORMAL = new NormalDistribution(0, 1);
+  private static final double[] X = new double[] {
+      -30, -8, -5, -2.36, -1, -0.4, -0.1, 0, 0.1, 0.4, 0.8, 1, 1.32, 1.78, 2, 2.36, 2.88, 3, 3.5, 4, 4.5, 5, 8, 30};
+
+  public void test_cdf_matchesNormalDistribution() {
+    for (double x : X) {
+      assertEquals(NormalDistributionFunctions.cdf(x), NORMAL.getCDF(x), 0d);
+    }
+  }
+
+  public void test_pdf_matchesNormalDistribution() {
+    for (double x : X) {
+      assertEquals(NormalDistributionFunctions.pdf(x), NORMAL.getPDF(x), 1e-16 * NORMAL.getPDF(x));
+    }
+  }
+
+  public void test_millsRatio() {
+    for (double x : X) {
+      if (Math.abs(x) < 8) {
+        double expected = NormalDistributionFunctions.cdf(-x) / NormalDistributionFunctions.pdf(x);
+        assertEquals(NormalDistributionFunctions.millsRatio(x), expected, 1e-14 * expected);
+      }
+    }
+    // asymptotic expansion where the tail probability underflows
+    double x = 1e3;
+    double expected = (1d - 1d / (x * x) + 3d / (x * x * x * x)) / x;
+    assertEquals(NormalDistributionFunctions.millsRatio(x), expected, 1e-15 * expected);
+  }
+
+  public void test_inverseCdf() {
+    assertEquals(NormalDistributionFunctions.inverseCdf(0.5), 0d, 0d);
+    assertEquals(NormalDistributionFunctions.inverseCdf(0.975), 1.959963984540054, 1e-15);
+    assertEquals(NormalDistributionFunctions.inverseCdf(0d), Double.NEGATIVE_INFINITY);
+    assertEquals(NormalDistributionFunctions.inverseCdf(1d), Double.POSITIVE_INFINITY);
+    for (double x : X) {
+      // the lower tail is used as the upper tail loses precision in the probability
+      double lower = -Math.abs(x);
+      double p = NormalDistributionFunctions.cdf(lower);
+      assertEquals(NormalDistributionFunctions.inverseCdf(p), lower, 1e-14 * Math.max(1d, Math.abs(x)));
+      assertEquals(NormalDistributionFunctions.inverseCdf(p), NORMAL.getInverseCDF(p), 1e-12 * Math.max(1d, Math.abs(x)));
+    }
+  }
+
+  public void test_inverseCdf_tail() {
+    for (int i = 1; i < 300; i++) {
+      double p = Math.pow(10, -i);
+      double x = NormalDistributionFunctions.inverseCdf(p);
+      double tol = 1e-14 * Math.max(1d, x * x);
+      assertEquals(NormalDistributionFunctions.cdf(x) / p, 1d, tol);
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void test_inverseCdf_negative() {
+    NormalDistributionFunctions.inverseCdf(-1e-10);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void test_inverseCdf_aboveOne() {
+    NormalDistributionFunctions.inverseCdf(1.1);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_batch() {
+    double[] cdf = new double[X.length];
+    double[] pdf = new double[X.length + 1];
+    NormalDistributionFunctions.cdf(X, cdf);
+    NormalDistributionFunctions.pdf(X, pdf);
+    double[] inverse = cdf.clone();
+    NormalDistributionFunctions.inverseCdf(inverse, inverse);
+    for (int i = 0; i < X.length; i++) {
+      assertEquals(cdf[i], NormalDistributionFunctions.cdf(X[i]), 0d);
+      assertEquals(pdf[i], NormalDistributionFunctions.pdf(X[i]), 0d);
+      assertEquals(inverse[i], NormalDistributionFunctions.inverseCdf(cdf[i]), 0d);
+    }
+    assertEquals(pdf[X.length], 0d);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void test_batch_outputTooSmall() {
+    NormalDistributionFunctions.cdf(X, new double[X.length - 1]);
+  }
+
+}
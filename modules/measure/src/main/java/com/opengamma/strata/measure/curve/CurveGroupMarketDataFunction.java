@@ -8,9 +8,12 @@ package com.opengamma.strata.measure.curve;
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.ReferenceData;
@@ -42,6 +45,10 @@ import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
  * Market data function that builds a curve group.
  * <p>
  * This function calibrates curves, turning a {@link CurveGroupDefinition} into a {@link CurveGroup}.
+ * <p>
+ * When the market data contains multiple scenarios, the first scenario is calibrated from the
+ * initial guesses of the curve nodes. The remaining scenarios are calibrated in parallel,
+ * each starting from the curves and Jacobians of the first scenario.
  */
 public class CurveGroupMarketDataFunction implements MarketDataFunction<CurveGroup, CurveGroupId> {
 
@@ -168,14 +175,35 @@ public class CurveGroupMarketDataFunction implements MarketDataFunction<CurveGro
       ReferenceData refData) {
 
     int scenarioCount = scenarioCount(valuationDateBox, inputBoxes);
-    ImmutableList.Builder<CurveGroup> builder = ImmutableList.builder();
-
+    List<CurveGroupDefinition> filteredGroups = new ArrayList<>(scenarioCount);
+    List<MarketData> scenarioInputs = new ArrayList<>(scenarioCount);
     for (int i = 0; i < scenarioCount; i++) {
-      LocalDate valuationDate = valuationDateBox.getValue(scenarioCount);
-      CurveGroupDefinition filteredGroup = configuredGroup.filtered(valuationDate, refData);
+      LocalDate valuationDate = valuationDateBox.getValue(i);
+      filteredGroups.add(configuredGroup.filtered(valuationDate, refData));
       List<CurveInputs> curveInputsList = inputsForScenario(inputBoxes, i);
-      MarketData inputs = inputsByKey(valuationDate, curveInputsList, fixings);
-      builder.add(buildGroup(filteredGroup, calibrator, inputs, refData));
+      scenarioInputs.add(inputsByKey(valuationDate, curveInputsList, fixings));
+    }
+
+    // the first scenario is calibrated from the node guesses, the others start from the first
+    ImmutableRatesProvider firstProvider = calibrator.calibrate(filteredGroups.get(0), scenarioInputs.get(0), refData);
+    List<CompletableFuture<ImmutableRatesProvider>> futures = new ArrayList<>(scenarioCount - 1);
+    for (int i = 1; i < scenarioCount; i++) {
+      CurveGroupDefinition filteredGroup = filteredGroups.get(i);
+      MarketData inputs = scenarioInputs.get(i);
+      futures.add(CompletableFuture.supplyAsync(
+          () -> calibrator.calibrate(filteredGroup, inputs, refData, firstProvider)));
+    }
+    ImmutableList.Builder<CurveGroup> builder = ImmutableList.builder();
+    builder.add(curveGroup(filteredGroups.get(0), firstProvider));
+    for (int i = 1; i < scenarioCount; i++) {
+      try {
+        builder.add(curveGroup(filteredGroups.get(i), futures.get(i - 1).join()));
+      } catch (CompletionException ex) {
+        if (ex.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) ex.getCause();
+        }
+        throw ex;
+      }
     }
     ImmutableList<CurveGroup> curveGroups = builder.build();
     return MarketDataBox.ofScenarioValues(curveGroups);
@@ -252,6 +280,11 @@ public class CurveGroupMarketDataFunction implements MarketDataFunction<CurveGro
         marketData,
         refData);
 
+    return curveGroup(groupDefn, calibratedProvider);
+  }
+
+  // creates the curve group from the calibrated provider
+  private static CurveGroup curveGroup(CurveGroupDefinition groupDefn, ImmutableRatesProvider calibratedProvider) {
     return CurveGroup.of(
         groupDefn.getName(),
         calibratedProvider.getDiscountCurves(),
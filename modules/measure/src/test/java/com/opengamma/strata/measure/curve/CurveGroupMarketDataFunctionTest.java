@@ -14,6 +14,8 @@ import static org.assertj.core.api.Assertions.offset;
 
 import java.time.LocalDate;
 import java.time.Period;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -183,6 +185,55 @@ public class CurveGroupMarketDataFunctionTest {
     checkSwapPvIsZero((FixedIborSwapCurveNode) nodes.get(4), ratesProvider, marketData);
   }
 
+  /**
+   * Tests calibrating multiple scenarios matches calibrating each scenario separately.
+   */
+  public void multipleScenarios() {
+    CurveGroupName groupName = CurveGroupName.of("Curve Group");
+    InterpolatedNodalCurveDefinition curveDefn = CurveTestUtils.fraSwapCurveDefinition();
+    CurveName curveName = curveDefn.getName();
+    List<CurveNode> nodes = curveDefn.getNodes();
+
+    CurveGroupDefinition groupDefn = CurveGroupDefinition.builder()
+        .name(groupName)
+        .addCurve(curveDefn, Currency.USD, IborIndices.USD_LIBOR_3M)
+        .build();
+
+    CurveGroupMarketDataFunction function = new CurveGroupMarketDataFunction();
+    LocalDate valuationDate = date(2011, 3, 8);
+    double[] quotes = {0.0037, 0.0054, 0.005, 0.0087, 0.012};
+    double[] shifts = {0d, 0.0001, -0.0005, 0.002};
+
+    List<CurveInputs> scenarioInputs = new ArrayList<>();
+    for (double shift : shifts) {
+      Map<MarketDataId<?>, Double> inputData = new HashMap<>();
+      for (int i = 0; i < quotes.length; i++) {
+        inputData.put(CurveTestUtils.key(nodes.get(i)), quotes[i] + shift);
+      }
+      scenarioInputs.add(CurveInputs.of(inputData, DefaultCurveMetadata.of(curveName)));
+    }
+    CurveInputsId inputsId = CurveInputsId.of(groupName, curveName, ObservableSource.NONE);
+    ScenarioMarketData inputMarketData = ImmutableScenarioMarketData.builder(valuationDate)
+        .addScenarioValue(inputsId, scenarioInputs)
+        .build();
+    MarketDataBox<CurveGroup> curveGroups =
+        function.buildCurveGroup(groupDefn, CALIBRATOR, inputMarketData, REF_DATA, ObservableSource.NONE);
+    assertThat(curveGroups.getScenarioCount()).isEqualTo(shifts.length);
+
+    for (int i = 0; i < shifts.length; i++) {
+      ScenarioMarketData scenarioMarketData = ImmutableScenarioMarketData.builder(valuationDate)
+          .addValue(inputsId, scenarioInputs.get(i))
+          .build();
+      Curve expected = function
+          .buildCurveGroup(groupDefn, CALIBRATOR, scenarioMarketData, REF_DATA, ObservableSource.NONE)
+          .getSingleValue().findDiscountCurve(Currency.USD).get();
+      Curve computed = curveGroups.getValue(i).findDiscountCurve(Currency.USD).get();
+      for (int j = 0; j < expected.getParameterCount(); j++) {
+        assertThat(computed.getParameter(j)).isEqualTo(expected.getParameter(j), offset(1e-8));
+      }
+    }
+  }
+
   /**
    * Tests that par rates are required for curves.
    */
@@ -0,0 +1,248 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.bond;
+
+import java.util.function.Function;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.math.impl.rootfinding.BracketRoot;
+import com.opengamma.strata.math.impl.rootfinding.BrentSingleRootFinder;
+import com.opengamma.strata.math.impl.rootfinding.RealSingleRootFinder;
+
+/**
+ * The dirty price of a bond as a function of its yield, compiled for a settlement date.
+ * <p>
+ * The bond pricers compute the dirty price from the yield by walking through the payment periods,
+ * checking the ex-coupon dates and computing year fractions for each yield.
+ * This class instead holds the cash flows remaining at the settlement date as amounts and exponents,
+ * such that the dirty price is
+ * <pre>
+ *  price(y) = sum_i amount_i * (1 + y / m)^(-exponent_i) / (1 + s * y) + c
+ * </pre>
+ * where {@code m} is the number of periods per year, {@code s} the simple discounting factor,
+ * zero for most yield conventions, and {@code c} a constant, such as the accrued interest
+ * when the yield is defined on the clean price.
+ * <p>
+ * The first and second derivatives with respect to the yield are computed analytically.
+ * The yield is computed from the dirty price by Newton iterations, starting from an initial yield,
+ * typically the yield computed previously for the same bond.
+ * <p>
+ * Instances are created by {@link DiscountingFixedCouponBondProductPricer#yieldFunction}
+ * and {@link DiscountingCapitalIndexedBondProductPricer#realYieldFunction}.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class BondYieldFunction {
+
+  /**
+   * The maximum number of Newton iterations.
+   */
+  private static final int MAX_ITERATIONS = 50;
+  /**
+   * The tolerance on the yield for the Newton iterations.
+   */
+  private static final double TOLERANCE = 1e-13;
+  /**
+   * The root finder, used if the Newton iterations fail.
+   */
+  private static final RealSingleRootFinder ROOT_FINDER = new BrentSingleRootFinder();
+  /**
+   * Brackets a root, used if the Newton iterations fail.
+   */
+  private static final BracketRoot ROOT_BRACKETER = new BracketRoot();
+
+  /**
+   * The number of periods per year.
+   */
+  private final double periodsPerYear;
+  /**
+   * The amounts.
+   */
+  private final double[] amounts;
+  /**
+   * The exponents, one per amount.
+   */
+  private final double[] exponents;
+  /**
+   * The simple discounting factor.
+   */
+  private final double simpleFactor;
+  /**
+   * The constant added to the price.
+   */
+  private final double constant;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from the amounts and exponents.
+   *
+   * @param periodsPerYear  the number of periods per year
+   * @param amounts  the amounts
+   * @param exponents  the exponents, one per amount
+   * @param simpleFactor  the simple discounting factor
+   * @param constant  the constant added to the price
+   * @return the function
+   */
+  static BondYieldFunction of(
+      double periodsPerYear,
+      double[] amounts,
+      double[] exponents,
+      double simpleFactor,
+      double constant) {
+
+    ArgChecker.isTrue(periodsPerYear > 0d, "periodsPerYear must be positive");
+    ArgChecker.isTrue(amounts.length == exponents.length, "amounts and exponents must have the same length");
+    return new BondYieldFunction(periodsPerYear, amounts.clone(), exponents.clone(), simpleFactor, constant);
+  }
+
+  // restricted constructor
+  private BondYieldFunction(
+      double periodsPerYear,
+      double[] amounts,
+      double[] exponents,
+      double simpleFactor,
+      double constant) {
+
+    this.periodsPerYear = periodsPerYear;
+    this.amounts = amounts;
+    this.exponents = exponents;
+    this.simpleFactor = simpleFactor;
+    this.constant = constant;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the dirty price from the yield.
+   *
+   * @param yield  the yield
+   * @return the dirty price
+   */
+  public double dirtyPrice(double yield) {
+    double factor = 1d + yield / periodsPerYear;
+    double sum = 0d;
+    for (int i = 0; i < amounts.length; i++) {
+      sum += amounts[i] * Math.pow(factor, -exponents[i]);
+    }
+    return sum / (1d + simpleFactor * yield) + constant;
+  }
+
+  /**
+   * Calculates the first derivative of the dirty price with respect to the yield.
+   *
+   * @param yield  the yield
+   * @return the first derivative of the dirty price
+   */
+  public double dirtyPriceFirstDerivative(double yield) {
+    double factor = 1d + yield / periodsPerYear;
+    double sum = 0d;
+    double sum1 = 0d;
+    for (int i = 0; i < amounts.length; i++) {
+      double term = amounts[i] * Math.pow(factor, -exponents[i]);
+      sum += term;
+      sum1 -= exponents[i] * term;
+    }
+    sum1 /= factor * periodsPerYear;
+    double simple = 1d + simpleFactor * yield;
+    return sum1 / simple - sum * simpleFactor / (simple * simple);
+  }
+
+  /**
+   * Calculates the second derivative of the dirty price with respect to the yield.
+   *
+   * @param yield  the yield
+   * @return the second derivative of the dirty price
+   */
+  public double dirtyPriceSecondDerivative(double yield) {
+    double factor = 1d + yield / periodsPerYear;
+    double sum = 0d;
+    double sum1 = 0d;
+    double sum2 = 0d;
+    for (int i = 0; i < amounts.length; i++) {
+      double term = amounts[i] * Math.pow(factor, -exponents[i]);
+      sum += term;
+      sum1 -= exponents[i] * term;
+      sum2 += exponents[i] * (exponents[i] + 1d) * term;
+    }
+    sum1 /= factor * periodsPerYear;
+    sum2 /= factor * factor * periodsPerYear * periodsPerYear;
+    double simple = 1d + simpleFactor * yield;
+    return sum2 / simple - 2d * sum1 * simpleFactor / (simple * simple) +
+        2d * sum * simpleFactor * simpleFactor / (simple * simple * simple);
+  }
+
+  /**
+   * Calculates the modified duration from the yield.
+   * <p>
+   * The modified duration is defined as the minus of the first derivative of dirty price
+   * with respect to yield, divided by the dirty price.
+   *
+   * @param yield  the yield
+   * @return the modified duration
+   */
+  public double modifiedDuration(double yield) {
+    return -dirtyPriceFirstDerivative(yield) / dirtyPrice(yield);
+  }
+
+  /**
+   * Calculates the convexity from the yield.
+   * <p>
+   * The convexity is defined as the second derivative of dirty price with respect
+   * to yield, divided by the dirty price.
+   *
+   * @param yield  the yield
+   * @return the convexity
+   */
+  public double convexity(double yield) {
+    return dirtyPriceSecondDerivative(yield) / dirtyPrice(yield);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the yield from the dirty price.
+   * <p>
+   * The yield is found by Newton iterations starting from the initial yield.
+   * If the iterations do not converge, the yield is found by bracketing and root finding instead.
+   *
+   * @param dirtyPrice  the dirty price
+   * @param initialYield  the initial yield, typically the previous yield of the bond
+   * @return the yield
+   */
+  public double yieldFromDirtyPrice(double dirtyPrice, double initialYield) {
+    double yield = initialYield;
+    for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+      double factor = 1d + yield / periodsPerYear;
+      double sum = 0d;
+      double sum1 = 0d;
+      for (int i = 0; i < amounts.length; i++) {
+        double term = amounts[i] * Math.pow(factor, -exponents[i]);
+        sum += term;
+        sum1 -= exponents[i] * term;
+      }
+      sum1 /= factor * periodsPerYear;
+      double simple = 1d + simpleFactor * yield;
+      double price = sum / simple + constant;
+      double derivative = sum1 / simple - sum * simpleFactor / (simple * simple);
+      double step = (price - dirtyPrice) / derivative;
+      yield -= step;
+      if (!Double.isFinite(yield) || 1d + yield / periodsPerYear <= 0d) {
+        break;
+      }
+      if (Math.abs(step) < TOLERANCE) {
+        return yield;
+      }
+    }
+    Function<Double, Double> priceResidual = y -> dirtyPrice(y) - dirtyPrice;
+    double[] range = ROOT_BRACKETER.getBracketedPoints(priceResidual, -0.05, 0.20);
+    return ROOT_FINDER.getRoot(priceResidual, range[0], range[1]);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "BondYieldFunction[cashFlows=" + amounts.length + ", periodsPerYear=" + periodsPerYear + "]";
+  }
+
+}
@@ -0,0 +1,197 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.bond;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.product.bond.ResolvedCapitalIndexedBond;
+import com.opengamma.strata.product.bond.ResolvedFixedCouponBond;
+
+/**
+ * Price and yield conversion for many bonds at once.
+ * <p>
+ * This holds a {@link BondYieldFunction} for each bond, compiled once for the settlement date.
+ * The prices, yields, modified durations and convexities of all the bonds are then computed
+ * in a single call, without walking through the payment periods of each bond.
+ * <p>
+ * The yields can be computed from the dirty prices starting from the yields previously computed,
+ * such that few Newton iterations are needed when the prices have moved little.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class BondYieldFunctions {
+
+  /**
+   * The initial yield if none is specified.
+   */
+  private static final double DEFAULT_INITIAL_YIELD = 0.02;
+
+  /**
+   * The functions, one per bond.
+   */
+  private final ImmutableList<BondYieldFunction> functions;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from the functions of each bond.
+   *
+   * @param functions  the functions, one per bond
+   * @return the functions
+   */
+  public static BondYieldFunctions of(List<BondYieldFunction> functions) {
+    return new BondYieldFunctions(ImmutableList.copyOf(functions));
+  }
+
+  /**
+   * Obtains an instance for fixed coupon bonds, using the standard pricer.
+   *
+   * @param bonds  the bonds
+   * @param settlementDate  the settlement date
+   * @return the functions
+   */
+  public static BondYieldFunctions ofFixedCouponBonds(List<ResolvedFixedCouponBond> bonds, LocalDate settlementDate) {
+    ArgChecker.notNull(settlementDate, "settlementDate");
+    DiscountingFixedCouponBondProductPricer pricer = DiscountingFixedCouponBondProductPricer.DEFAULT;
+    return new BondYieldFunctions(bonds.stream()
+        .map(bond -> pricer.yieldFunction(bond, settlementDate))
+        .collect(toImmutableList()));
+  }
+
+  /**
+   * Obtains an instance for capital indexed bonds, using the standard pricer.
+   * <p>
+   * The yields are the conventional real yields of the bonds.
+   *
+   * @param bonds  the bonds
+   * @param ratesProvider  the rates provider, used to determine price index values
+   * @param settlementDate  the settlement date
+   * @return the functions
+   */
+  public static BondYieldFunctions ofCapitalIndexedBonds(
+      List<ResolvedCapitalIndexedBond> bonds,
+      RatesProvider ratesProvider,
+      LocalDate settlementDate) {
+
+    ArgChecker.notNull(ratesProvider, "ratesProvider");
+    ArgChecker.notNull(settlementDate, "settlementDate");
+    DiscountingCapitalIndexedBondProductPricer pricer = DiscountingCapitalIndexedBondProductPricer.DEFAULT;
+    return new BondYieldFunctions(bonds.stream()
+        .map(bond -> pricer.realYieldFunction(bond, ratesProvider, settlementDate))
+        .collect(toImmutableList()));
+  }
+
+  // restricted constructor
+  private BondYieldFunctions(ImmutableList<BondYieldFunction> functions) {
+    this.functions = functions;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the functions, one per bond.
+   *
+   * @return the functions
+   */
+  public ImmutableList<BondYieldFunction> getFunctions() {
+    return functions;
+  }
+
+  /**
+   * Gets the number of bonds.
+   *
+   * @return the number of bonds
+   */
+  public int size() {
+    return functions.size();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the dirty prices from the yields.
+   *
+   * @param yields  the yields, one per bond
+   * @return the dirty prices
+   */
+  public DoubleArray dirtyPricesFromYields(DoubleArray yields) {
+    checkSize(yields);
+    return DoubleArray.of(size(), i -> functions.get(i).dirtyPrice(yields.get(i)));
+  }
+
+  /**
+   * Calculates the yields from the dirty prices.
+   * <p>
+   * The Newton iterations start from a yield of 2% for each bond.
+   *
+   * @param dirtyPrices  the dirty prices, one per bond
+   * @return the yields
+   */
+  public DoubleArray yieldsFromDirtyPrices(DoubleArray dirtyPrices) {
+    return yieldsFromDirtyPrices(dirtyPrices, DoubleArray.filled(size(), DEFAULT_INITIAL_YIELD));
+  }
+
+  /**
+   * Calculates the yields from the dirty prices, starting from the specified yields.
+   * <p>
+   * The initial yields are typically the yields computed for the previous prices.
+   *
+   * @param dirtyPrices  the dirty prices, one per bond
+   * @param initialYields  the yields to start the Newton iterations from, one per bond
+   * @return the yields
+   */
+  public DoubleArray yieldsFromDirtyPrices(DoubleArray dirtyPrices, DoubleArray initialYields) {
+    checkSize(dirtyPrices);
+    checkSize(initialYields);
+    return DoubleArray.of(
+        size(), i -> functions.get(i).yieldFromDirtyPrice(dirtyPrices.get(i), initialYields.get(i)));
+  }
+
+  /**
+   * Calculates the modified durations from the yields.
+   * <p>
+   * The modified duration is defined as the minus of the first derivative of dirty price
+   * with respect to yield, divided by the dirty price.
+   *
+   * @param yields  the yields, one per bond
+   * @return the modified durations
+   */
+  public DoubleArray modifiedDurationsFromYields(DoubleArray yields) {
+    checkSize(yields);
+    return DoubleArray.of(size(), i -> functions.get(i).modifiedDuration(yields.get(i)));
+  }
+
+  /**
+   * Calculates the convexities from the yields.
+   * <p>
+   * The convexity is defined as the second derivative of dirty price with respect
+   * to yield, divided by the dirty price.
+   *
+   * @param yields  the yields, one per bond
+   * @return the convexities
+   */
+  public DoubleArray convexitiesFromYields(DoubleArray yields) {
+    checkSize(yields);
+    return DoubleArray.of(size(), i -> functions.get(i).convexity(yields.get(i)));
+  }
+
+  // checks the values match the bonds
+  private void checkSize(DoubleArray values) {
+    ArgChecker.isTrue(values.size() == functions.size(),
+        "Expected {} values, one per bond, but found {}", functions.size(), values.size());
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "BondYieldFunctions[size=" + functions.size() + "]";
+  }
+
+}
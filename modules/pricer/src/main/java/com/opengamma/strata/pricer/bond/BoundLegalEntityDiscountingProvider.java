@@ -0,0 +1,176 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.bond;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.tuple.Pair;
+import com.opengamma.strata.collect.tuple.Triple;
+import com.opengamma.strata.product.SecurityId;
+import com.opengamma.strata.product.bond.ResolvedFixedCouponBond;
+
+/**
+ * A legal entity discounting provider with the discount factors of a set of bonds bound up front.
+ * <p>
+ * {@link LegalEntityDiscountingProvider} finds the repo and issuer curves of a bond by looking up
+ * the bond group and legal entity group, then wraps the curve in {@link RepoCurveDiscountFactors}
+ * or {@link IssuerCurveDiscountFactors}, each time the discount factors are requested.
+ * This view performs the lookups once for each bond when it is created, keeping the resulting
+ * discount factors keyed by security, issuer and currency.
+ * <p>
+ * The view is created once for a portfolio of bonds or bond futures, and passed to the pricers in
+ * place of the provider, see {@link DiscountingFixedCouponBondTradePricer} and
+ * {@link DiscountingBondFutureProductPricer}. Discount factors that have not been bound are obtained
+ * from the underlying provider.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class BoundLegalEntityDiscountingProvider {
+
+  /**
+   * The underlying provider.
+   */
+  private final LegalEntityDiscountingProvider provider;
+  /**
+   * The repo curve discount factors, keyed by security, issuer and currency.
+   */
+  private final ImmutableMap<Triple<SecurityId, StandardId, Currency>, RepoCurveDiscountFactors> repoCurves;
+  /**
+   * The issuer curve discount factors, keyed by issuer and currency.
+   */
+  private final ImmutableMap<Pair<StandardId, Currency>, IssuerCurveDiscountFactors> issuerCurves;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance binding the discount factors of the specified bonds.
+   * <p>
+   * The repo and issuer discount factors of each bond are looked up in the provider.
+   * For a bond future, the bonds are those of the delivery basket.
+   *
+   * @param provider  the underlying provider
+   * @param bonds  the bonds to bind
+   * @return the provider with the bonds bound
+   * @throws IllegalArgumentException if the discount factors of a bond are not available
+   */
+  public static BoundLegalEntityDiscountingProvider of(
+      LegalEntityDiscountingProvider provider,
+      Iterable<ResolvedFixedCouponBond> bonds) {
+
+    ArgChecker.notNull(provider, "provider");
+    ArgChecker.noNulls(bonds, "bonds");
+    Map<Triple<SecurityId, StandardId, Currency>, RepoCurveDiscountFactors> repoCurves = new HashMap<>();
+    Map<Pair<StandardId, Currency>, IssuerCurveDiscountFactors> issuerCurves = new HashMap<>();
+    for (ResolvedFixedCouponBond bond : bonds) {
+      SecurityId securityId = bond.getSecurityId();
+      StandardId issuerId = bond.getLegalEntityId();
+      Currency currency = bond.getCurrency();
+      repoCurves.computeIfAbsent(
+          Triple.of(securityId, issuerId, currency),
+          key -> provider.repoCurveDiscountFactors(securityId, issuerId, currency));
+      issuerCurves.computeIfAbsent(
+          Pair.of(issuerId, currency),
+          key -> provider.issuerCurveDiscountFactors(issuerId, currency));
+    }
+    return new BoundLegalEntityDiscountingProvider(
+        provider, ImmutableMap.copyOf(repoCurves), ImmutableMap.copyOf(issuerCurves));
+  }
+
+  // obtains an instance binding no bonds, used when pricing with the provider directly
+  static BoundLegalEntityDiscountingProvider unbound(LegalEntityDiscountingProvider provider) {
+    ArgChecker.notNull(provider, "provider");
+    return new BoundLegalEntityDiscountingProvider(provider, ImmutableMap.of(), ImmutableMap.of());
+  }
+
+  // restricted constructor
+  private BoundLegalEntityDiscountingProvider(
+      LegalEntityDiscountingProvider provider,
+      ImmutableMap<Triple<SecurityId, StandardId, Currency>, RepoCurveDiscountFactors> repoCurves,
+      ImmutableMap<Pair<StandardId, Currency>, IssuerCurveDiscountFactors> issuerCurves) {
+
+    this.provider = provider;
+    this.repoCurves = repoCurves;
+    this.issuerCurves = issuerCurves;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the underlying provider.
+   *
+   * @return the provider
+   */
+  public LegalEntityDiscountingProvider getProvider() {
+    return provider;
+  }
+
+  /**
+   * Gets the valuation date.
+   *
+   * @return the valuation date
+   */
+  public LocalDate getValuationDate() {
+    return provider.getValuationDate();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the discount factors of the repo curve of a security.
+   * <p>
+   * If the security has been bound with the same issuer and currency, the bound discount factors are returned.
+   * Otherwise they are obtained using
+   * {@link LegalEntityDiscountingProvider#repoCurveDiscountFactors(SecurityId, StandardId, Currency)}.
+   *
+   * @param securityId  the standard ID of security to get the discount factors for
+   * @param issuerId  the standard ID of the issuer of the security
+   * @param currency  the currency to get the discount factors for
+   * @return the discount factors
+   * @throws IllegalArgumentException if the discount factors are not available
+   */
+  public RepoCurveDiscountFactors repoCurveDiscountFactors(
+      SecurityId securityId,
+      StandardId issuerId,
+      Currency currency) {
+
+    RepoCurveDiscountFactors bound = repoCurves.get(Triple.of(securityId, issuerId, currency));
+    if (bound != null) {
+      return bound;
+    }
+    return provider.repoCurveDiscountFactors(securityId, issuerId, currency);
+  }
+
+  /**
+   * Gets the discount factors of the issuer curve of a legal entity.
+   * <p>
+   * If a security of the issuer has been bound with the same currency, the bound discount factors are returned.
+   * Otherwise they are obtained using
+   * {@link LegalEntityDiscountingProvider#issuerCurveDiscountFactors(StandardId, Currency)}.
+   *
+   * @param issuerId  the standard ID of the issuer to get the discount factors for
+   * @param currency  the currency to get the discount factors for
+   * @return the discount factors
+   * @throws IllegalArgumentException if the discount factors are not available
+   */
+  public IssuerCurveDiscountFactors issuerCurveDiscountFactors(StandardId issuerId, Currency currency) {
+    IssuerCurveDiscountFactors bound = issuerCurves.get(Pair.of(issuerId, currency));
+    if (bound != null) {
+      return bound;
+    }
+    return provider.issuerCurveDiscountFactors(issuerId, currency);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "BoundLegalEntityDiscountingProvider[valuationDate=" + getValuationDate() +
+        ", securities=" + repoCurves.size() + "]";
+  }
+
+}
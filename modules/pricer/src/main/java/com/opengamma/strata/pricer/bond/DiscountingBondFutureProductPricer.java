@@ -24,6 +24,11 @@ import com.opengamma.strata.product.bond.ResolvedFixedCouponBond;
  * Strata uses <i>decimal prices</i> for bond futures in the trade model, pricers and market data.
  * This is coherent with the pricing of {@link FixedCouponBond}. The bond futures delivery is a bond
  * for an amount computed from the bond future price, a conversion factor and the accrued interest.
+ * 
+ * <h4>Discount factors</h4>
+ * The discount factors of the bonds in the delivery basket are looked up once for each calculation.
+ * When several calculations are performed on the same futures, a {@link BoundLegalEntityDiscountingProvider}
+ * can be created once with the bonds of the delivery baskets and passed in place of the provider.
  */
 public final class DiscountingBondFutureProductPricer {
 
@@ -91,6 +96,22 @@ public final class DiscountingBondFutureProductPricer {
    * @return the price of the product, in decimal form
    */
   public double price(ResolvedBondFuture future, LegalEntityDiscountingProvider provider) {
+    return price(future, BoundLegalEntityDiscountingProvider.of(provider, future.getDeliveryBasket()));
+  }
+
+  /**
+   * Calculates the price of the bond future product.
+   * <p>
+   * The price of the product is the price on the valuation date.
+   * <p>
+   * Strata uses <i>decimal prices</i> for bond futures. This is coherent with the pricing of {@link FixedCouponBond}.
+   * For example, a price of 99.32% is represented in Strata by 0.9932.
+   * 
+   * @param future  the future
+   * @param provider  the provider, with the discount factors of the delivery basket bound
+   * @return the price of the product, in decimal form
+   */
+  public double price(ResolvedBondFuture future, BoundLegalEntityDiscountingProvider provider) {
     ImmutableList<ResolvedFixedCouponBond> basket = future.getDeliveryBasket();
     int size = basket.size();
     double[] priceBonds = new double[size];
@@ -128,6 +149,39 @@ public final class DiscountingBondFutureProductPricer {
       CompoundedRateType compoundedRateType,
       int periodPerYear) {
 
+    return priceWithZSpread(
+        future,
+        BoundLegalEntityDiscountingProvider.of(provider, future.getDeliveryBasket()),
+        zSpread,
+        compoundedRateType,
+        periodPerYear);
+  }
+
+  /**
+   * Calculates the price of the bond future product with z-spread.
+   * <p>
+   * The price of the product is the price on the valuation date.
+   * <p>
+   * The z-spread is a parallel shift applied to continuously compounded rates or periodic compounded rates 
+   * of the issuer discounting curve.
+   * <p>
+   * Strata uses <i>decimal prices</i> for bond futures. This is coherent with the pricing of {@link FixedCouponBond}.
+   * For example, a price of 99.32% is represented in Strata by 0.9932.
+   * 
+   * @param future  the future
+   * @param provider  the provider, with the discount factors of the delivery basket bound
+   * @param zSpread  the z-spread
+   * @param compoundedRateType  the compounded rate type
+   * @param periodPerYear  the number of periods per year
+   * @return the price of the product, in decimal form
+   */
+  public double priceWithZSpread(
+      ResolvedBondFuture future,
+      BoundLegalEntityDiscountingProvider provider,
+      double zSpread,
+      CompoundedRateType compoundedRateType,
+      int periodPerYear) {
+
     ImmutableList<ResolvedFixedCouponBond> basket = future.getDeliveryBasket();
     int size = basket.size();
     double[] priceBonds = new double[size];
@@ -154,6 +208,21 @@ public final class DiscountingBondFutureProductPricer {
    * @return the price curve sensitivity of the product
    */
   public PointSensitivities priceSensitivity(ResolvedBondFuture future, LegalEntityDiscountingProvider provider) {
+    return priceSensitivity(future, BoundLegalEntityDiscountingProvider.of(provider, future.getDeliveryBasket()));
+  }
+
+  /**
+   * Calculates the price sensitivity of the bond future product.
+   * <p>
+   * The price sensitivity of the product is the sensitivity of the price to the underlying curves.
+   * <p>
+   * Note that the price sensitivity should be no currency.
+   * 
+   * @param future  the future
+   * @param provider  the provider, with the discount factors of the delivery basket bound
+   * @return the price curve sensitivity of the product
+   */
+  public PointSensitivities priceSensitivity(ResolvedBondFuture future, BoundLegalEntityDiscountingProvider provider) {
     ImmutableList<ResolvedFixedCouponBond> basket = future.getDeliveryBasket();
     int size = basket.size();
     double[] priceBonds = new double[size];
@@ -199,6 +268,38 @@ public final class DiscountingBondFutureProductPricer {
       CompoundedRateType compoundedRateType,
       int periodPerYear) {
 
+    return priceSensitivityWithZSpread(
+        future,
+        BoundLegalEntityDiscountingProvider.of(provider, future.getDeliveryBasket()),
+        zSpread,
+        compoundedRateType,
+        periodPerYear);
+  }
+
+  /**
+   * Calculates the price sensitivity of the bond future product with z-spread.
+   * <p>
+   * The price sensitivity of the product is the sensitivity of the price to the underlying curves.
+   * <p>
+   * The z-spread is a parallel shift applied to continuously compounded rates or periodic compounded rates 
+   * of the issuer discounting curve.
+   * <p>
+   * Note that the price sensitivity should be no currency.
+   * 
+   * @param future  the future
+   * @param provider  the provider, with the discount factors of the delivery basket bound
+   * @param zSpread  the z-spread
+   * @param compoundedRateType  the compounded rate type
+   * @param periodPerYear  the number of periods per year
+   * @return the price curve sensitivity of the product
+   */
+  public PointSensitivities priceSensitivityWithZSpread(
+      ResolvedBondFuture future,
+      BoundLegalEntityDiscountingProvider provider,
+      double zSpread,
+      CompoundedRateType compoundedRateType,
+      int periodPerYear) {
+
     ImmutableList<ResolvedFixedCouponBond> basket = future.getDeliveryBasket();
     int size = basket.size();
     double[] priceBonds = new double[size];
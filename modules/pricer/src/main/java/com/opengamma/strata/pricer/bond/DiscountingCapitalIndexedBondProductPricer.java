@@ -1158,6 +1158,130 @@ public class DiscountingCapitalIndexedBondProductPricer {
     return ROOT_FINDER.getRoot(residual, range[0], range[1]);
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Compiles the dirty price from the conventional real yield as a function of the yield.
+   * <p>
+   * The function gives the same dirty price as
+   * {@link #dirtyPriceFromRealYield(ResolvedCapitalIndexedBond, RatesProvider, LocalDate, double)}
+   * at the settlement date, with analytic derivatives with respect to the yield.
+   * The price index values are obtained from the rates provider when the function is compiled.
+   * This is intended for converting prices and yields of the same bond many times, see {@link BondYieldFunctions}.
+   * 
+   * @param bond  the product
+   * @param ratesProvider  the rates provider, used to determine price index values
+   * @param settlementDate  the settlement date
+   * @return the dirty price as a function of the real yield
+   */
+  public BondYieldFunction realYieldFunction(
+      ResolvedCapitalIndexedBond bond,
+      RatesProvider ratesProvider,
+      LocalDate settlementDate) {
+
+    ArgChecker.isTrue(settlementDate.isBefore(bond.getUnadjustedEndDate()),
+        "settlement date must be before end date");
+    int periodIndex = bond.findPeriodIndex(settlementDate)
+        .orElseThrow(() -> new IllegalArgumentException("Date outside range of bond"));
+    CapitalIndexedBondPaymentPeriod period = bond.getPeriodicPayments().get(periodIndex);
+    int nbCoupon = bond.getPeriodicPayments().size() - periodIndex;
+    double couponPerYear = bond.getFrequency().eventsPerYear();
+    CapitalIndexedBondYieldConvention yieldConvention = bond.getYieldConvention();
+    if (yieldConvention.equals(CapitalIndexedBondYieldConvention.US_IL_REAL)) {
+      double cpnRate = bond.getPeriodicPayments().get(0).getRealCoupon();
+      double[] amounts = new double[nbCoupon + 1];
+      double[] exponents = new double[nbCoupon + 1];
+      for (int loopcpn = 0; loopcpn < nbCoupon; loopcpn++) {
+        amounts[loopcpn] = cpnRate;
+        exponents[loopcpn] = loopcpn;
+      }
+      amounts[nbCoupon] = 1d;
+      exponents[nbCoupon] = nbCoupon - 1;
+      double simpleFactor = factorToNextCoupon(bond, settlementDate) / couponPerYear;
+      return BondYieldFunction.of(couponPerYear, amounts, exponents, simpleFactor, 0d);
+    }
+
+    double realRate = period.getRealCoupon();
+    double firstYearFraction = bond.yearFraction(period.getUnadjustedStartDate(), period.getUnadjustedEndDate());
+    double rs = ratioPeriodToNextCoupon(period, settlementDate);
+    if (yieldConvention.equals(CapitalIndexedBondYieldConvention.GB_IL_FLOAT) ||
+        yieldConvention.equals(CapitalIndexedBondYieldConvention.GB_IL_BOND)) {
+      // the price is the sum of the cash flows discounted by powers of v = 1 / (1 + y / m), times v^rs
+      // a and u are the projected growth of the index after the last known value for the float convention
+      double indexRatio;
+      double a;
+      double u;
+      if (yieldConvention.equals(CapitalIndexedBondYieldConvention.GB_IL_FLOAT)) {
+        RateComputation obs = period.getRateComputation();
+        LocalDateDoubleTimeSeries ts =
+            ratesProvider.priceIndexValues(bond.getRateCalculation().getIndex()).getFixings();
+        YearMonth lastKnownFixingMonth = YearMonth.from(ts.getLatestDate());
+        indexRatio = ts.getLatestValue() / bond.getFirstIndexValue();
+        YearMonth endFixingMonth = null;
+        if (obs instanceof InflationEndInterpolatedRateComputation) {
+          endFixingMonth = ((InflationEndInterpolatedRateComputation) obs).getEndSecondObservation().getFixingMonth();
+        } else if (obs instanceof InflationEndMonthRateComputation) {
+          endFixingMonth = ((InflationEndMonthRateComputation) obs).getEndObservation().getFixingMonth();
+        } else {
+          throw new IllegalArgumentException("The rate observation " + obs.toString() + " is not supported.");
+        }
+        double nbMonth = Math.abs(MONTHS.between(endFixingMonth, lastKnownFixingMonth));
+        u = Math.sqrt(1d / 1.03);
+        a = indexRatio * Math.pow(u, nbMonth / 6d);
+      } else {
+        indexRatio = indexRatio(bond, ratesProvider, settlementDate);
+        u = 1d;
+        a = 1d;
+      }
+      double scale = Math.pow(u, rs);
+      double firstCashFlow = realRate * indexRatio * firstYearFraction * couponPerYear;
+      if (nbCoupon == 1) {
+        double amount = yieldConvention.equals(CapitalIndexedBondYieldConvention.GB_IL_FLOAT) ?
+            (realRate + 1d) * a / u :
+            firstCashFlow + 1d;
+        return BondYieldFunction.of(couponPerYear, new double[] {amount * scale}, new double[] {rs}, 0d, 0d);
+      }
+      CapitalIndexedBondPaymentPeriod secondPeriod = bond.getPeriodicPayments().get(periodIndex + 1);
+      double secondYearFraction =
+          bond.yearFraction(secondPeriod.getUnadjustedStartDate(), secondPeriod.getUnadjustedEndDate());
+      double secondCashFlow = realRate * indexRatio * secondYearFraction * couponPerYear;
+      double[] amounts = new double[nbCoupon + 1];
+      double[] exponents = new double[nbCoupon + 1];
+      amounts[0] = firstCashFlow * scale;
+      exponents[0] = rs;
+      amounts[1] = secondCashFlow * u * scale;
+      exponents[1] = 1d + rs;
+      for (int loopcpn = 2; loopcpn < nbCoupon; loopcpn++) {
+        amounts[loopcpn] = a * realRate * scale;
+        exponents[loopcpn] = loopcpn + rs;
+      }
+      amounts[nbCoupon] = a * scale;
+      exponents[nbCoupon] = nbCoupon - 1 + rs;
+      return BondYieldFunction.of(couponPerYear, amounts, exponents, 0d, 0d);
+    }
+    if (yieldConvention.equals(CapitalIndexedBondYieldConvention.JP_IL_SIMPLE)) {
+      LocalDate maturityDate = bond.getEndDate();
+      double maturity = bond.yearFraction(settlementDate, maturityDate);
+      double amount = 1d + realRate * couponPerYear * maturity;
+      double accrued = dirtyRealPriceFromCleanRealPrice(bond, settlementDate, 0d);
+      return BondYieldFunction.of(couponPerYear, new double[] {amount}, new double[] {0d}, maturity, accrued);
+    }
+    if (yieldConvention.equals(CapitalIndexedBondYieldConvention.JP_IL_COMPOUND)) {
+      double factorToNext = factorToNextCoupon(bond, settlementDate);
+      double[] amounts = new double[nbCoupon + 1];
+      double[] exponents = new double[nbCoupon + 1];
+      for (int loopcpn = 0; loopcpn < nbCoupon; loopcpn++) {
+        CapitalIndexedBondPaymentPeriod paymentPeriod = bond.getPeriodicPayments().get(loopcpn + periodIndex);
+        amounts[loopcpn] = paymentPeriod.getRealCoupon();
+        exponents[loopcpn] = loopcpn + factorToNext;
+      }
+      amounts[nbCoupon] = 1d;
+      exponents[nbCoupon] = nbCoupon - 1 + factorToNext;
+      return BondYieldFunction.of(couponPerYear, amounts, exponents, 0d, 0d);
+    }
+    throw new IllegalArgumentException(
+        "The convention " + bond.getYieldConvention().toString() + " is not supported.");
+  }
+
   //-------------------------------------------------------------------------
   private double ratioPeriodToNextCoupon(CapitalIndexedBondPaymentPeriod bond, LocalDate settlementDate) {
     double nbDayToSpot = DAYS.between(settlementDate, bond.getUnadjustedEndDate());
@@ -11,11 +11,11 @@ import static com.opengamma.strata.product.bond.FixedCouponBondYieldConvention.G
 import static com.opengamma.strata.product.bond.FixedCouponBondYieldConvention.US_STREET;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.function.Function;
 
 import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.ReferenceData;
-import com.opengamma.strata.basics.StandardId;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
 import com.opengamma.strata.basics.currency.Payment;
 import com.opengamma.strata.collect.ArgChecker;
@@ -104,8 +104,16 @@ public class DiscountingFixedCouponBondProductPricer {
       LegalEntityDiscountingProvider provider,
       LocalDate referenceDate) {
 
-    IssuerCurveDiscountFactors discountFactors = provider.issuerCurveDiscountFactors(
-        bond.getLegalEntityId(), bond.getCurrency());
+    return presentValue(bond, BoundLegalEntityDiscountingProvider.unbound(provider), referenceDate);
+  }
+
+  // calculate the present value
+  CurrencyAmount presentValue(
+      ResolvedFixedCouponBond bond,
+      BoundLegalEntityDiscountingProvider provider,
+      LocalDate referenceDate) {
+
+    IssuerCurveDiscountFactors discountFactors = issuerCurveDiscountFactors(bond, provider);
     CurrencyAmount pvNominal =
         nominalPricer.presentValue(bond.getNominalPayment(), discountFactors.getDiscountFactors());
     CurrencyAmount pvCoupon = presentValueCoupon(bond, discountFactors, referenceDate);
@@ -147,8 +155,25 @@ public class DiscountingFixedCouponBondProductPricer {
       int periodsPerYear,
       LocalDate referenceDate) {
 
-    IssuerCurveDiscountFactors discountFactors = provider.issuerCurveDiscountFactors(
-        bond.getLegalEntityId(), bond.getCurrency());
+    return presentValueWithZSpread(
+        bond,
+        BoundLegalEntityDiscountingProvider.unbound(provider),
+        zSpread,
+        compoundedRateType,
+        periodsPerYear,
+        referenceDate);
+  }
+
+  // calculate the present value
+  CurrencyAmount presentValueWithZSpread(
+      ResolvedFixedCouponBond bond,
+      BoundLegalEntityDiscountingProvider provider,
+      double zSpread,
+      CompoundedRateType compoundedRateType,
+      int periodsPerYear,
+      LocalDate referenceDate) {
+
+    IssuerCurveDiscountFactors discountFactors = issuerCurveDiscountFactors(bond, provider);
     CurrencyAmount pvNominal = nominalPricer.presentValueWithSpread(
         bond.getNominalPayment(), discountFactors.getDiscountFactors(), zSpread, compoundedRateType, periodsPerYear);
     CurrencyAmount pvCoupon = presentValueCouponFromZSpread(
@@ -193,10 +218,17 @@ public class DiscountingFixedCouponBondProductPricer {
       LegalEntityDiscountingProvider provider,
       LocalDate settlementDate) {
 
+    return dirtyPriceFromCurves(bond, BoundLegalEntityDiscountingProvider.unbound(provider), settlementDate);
+  }
+
+  // calculate the dirty price
+  double dirtyPriceFromCurves(
+      ResolvedFixedCouponBond bond,
+      BoundLegalEntityDiscountingProvider provider,
+      LocalDate settlementDate) {
+
     CurrencyAmount pv = presentValue(bond, provider, settlementDate);
-    StandardId legalEntityId = bond.getLegalEntityId();
-    double df = provider.repoCurveDiscountFactors(
-        bond.getSecurityId(), legalEntityId, bond.getCurrency()).discountFactor(settlementDate);
+    double df = repoCurveDiscountFactors(bond, provider).discountFactor(settlementDate);
     double notional = bond.getNotional();
     return pv.getAmount() / df / notional;
   }
@@ -253,10 +285,26 @@ public class DiscountingFixedCouponBondProductPricer {
       int periodsPerYear,
       LocalDate settlementDate) {
 
+    return dirtyPriceFromCurvesWithZSpread(
+        bond,
+        BoundLegalEntityDiscountingProvider.unbound(provider),
+        zSpread,
+        compoundedRateType,
+        periodsPerYear,
+        settlementDate);
+  }
+
+  // calculate the dirty price
+  double dirtyPriceFromCurvesWithZSpread(
+      ResolvedFixedCouponBond bond,
+      BoundLegalEntityDiscountingProvider provider,
+      double zSpread,
+      CompoundedRateType compoundedRateType,
+      int periodsPerYear,
+      LocalDate settlementDate) {
+
     CurrencyAmount pv = presentValueWithZSpread(bond, provider, zSpread, compoundedRateType, periodsPerYear, settlementDate);
-    StandardId legalEntityId = bond.getLegalEntityId();
-    double df = provider.repoCurveDiscountFactors(
-        bond.getSecurityId(), legalEntityId, bond.getCurrency()).discountFactor(settlementDate);
+    double df = repoCurveDiscountFactors(bond, provider).discountFactor(settlementDate);
     double notional = bond.getNotional();
     return pv.getAmount() / df / notional;
   }
@@ -351,8 +399,16 @@ public class DiscountingFixedCouponBondProductPricer {
       LegalEntityDiscountingProvider provider,
       LocalDate referenceDate) {
 
-    IssuerCurveDiscountFactors discountFactors = provider.issuerCurveDiscountFactors(
-        bond.getLegalEntityId(), bond.getCurrency());
+    return presentValueSensitivity(bond, BoundLegalEntityDiscountingProvider.unbound(provider), referenceDate);
+  }
+
+  // calculate the present value sensitivity
+  PointSensitivityBuilder presentValueSensitivity(
+      ResolvedFixedCouponBond bond,
+      BoundLegalEntityDiscountingProvider provider,
+      LocalDate referenceDate) {
+
+    IssuerCurveDiscountFactors discountFactors = issuerCurveDiscountFactors(bond, provider);
     PointSensitivityBuilder pvNominal = presentValueSensitivityNominal(bond, discountFactors);
     PointSensitivityBuilder pvCoupon = presentValueSensitivityCoupon(bond, discountFactors, referenceDate);
     return pvNominal.combinedWith(pvCoupon);
@@ -394,8 +450,25 @@ public class DiscountingFixedCouponBondProductPricer {
       int periodsPerYear,
       LocalDate referenceDate) {
 
-    IssuerCurveDiscountFactors discountFactors = provider.issuerCurveDiscountFactors(
-        bond.getLegalEntityId(), bond.getCurrency());
+    return presentValueSensitivityWithZSpread(
+        bond,
+        BoundLegalEntityDiscountingProvider.unbound(provider),
+        zSpread,
+        compoundedRateType,
+        periodsPerYear,
+        referenceDate);
+  }
+
+  // calculate the present value sensitivity
+  PointSensitivityBuilder presentValueSensitivityWithZSpread(
+      ResolvedFixedCouponBond bond,
+      BoundLegalEntityDiscountingProvider provider,
+      double zSpread,
+      CompoundedRateType compoundedRateType,
+      int periodsPerYear,
+      LocalDate referenceDate) {
+
+    IssuerCurveDiscountFactors discountFactors = issuerCurveDiscountFactors(bond, provider);
     PointSensitivityBuilder pvNominal = presentValueSensitivityNominalFromZSpread(
         bond, discountFactors, zSpread, compoundedRateType, periodsPerYear);
     PointSensitivityBuilder pvCoupon = presentValueSensitivityCouponFromZSpread(
@@ -430,13 +503,21 @@ public class DiscountingFixedCouponBondProductPricer {
       LegalEntityDiscountingProvider provider,
       LocalDate referenceDate) {
 
-    StandardId legalEntityId = bond.getLegalEntityId();
-    RepoCurveDiscountFactors discountFactors =
-        provider.repoCurveDiscountFactors(bond.getSecurityId(), legalEntityId, bond.getCurrency());
+    return dirtyPriceSensitivity(bond, BoundLegalEntityDiscountingProvider.unbound(provider), referenceDate);
+  }
+
+  // calculate the dirty price sensitivity
+  PointSensitivityBuilder dirtyPriceSensitivity(
+      ResolvedFixedCouponBond bond,
+      BoundLegalEntityDiscountingProvider provider,
+      LocalDate referenceDate) {
+
+    RepoCurveDiscountFactors discountFactors = repoCurveDiscountFactors(bond, provider);
     double df = discountFactors.discountFactor(referenceDate);
-    CurrencyAmount pv = presentValue(bond, provider);
+    CurrencyAmount pv = presentValue(bond, provider, provider.getValuationDate());
     double notional = bond.getNotional();
-    PointSensitivityBuilder pvSensi = presentValueSensitivity(bond, provider).multipliedBy(1d / df / notional);
+    PointSensitivityBuilder pvSensi = presentValueSensitivity(bond, provider, provider.getValuationDate())
+        .multipliedBy(1d / df / notional);
     RepoCurveZeroRateSensitivity dfSensi = discountFactors.zeroRatePointSensitivity(referenceDate)
         .multipliedBy(-pv.getAmount() / df / df / notional);
     return pvSensi.combinedWith(dfSensi);
@@ -480,14 +561,32 @@ public class DiscountingFixedCouponBondProductPricer {
       int periodsPerYear,
       LocalDate referenceDate) {
 
-    StandardId legalEntityId = bond.getLegalEntityId();
-    RepoCurveDiscountFactors discountFactors =
-        provider.repoCurveDiscountFactors(bond.getSecurityId(), legalEntityId, bond.getCurrency());
+    return dirtyPriceSensitivityWithZspread(
+        bond,
+        BoundLegalEntityDiscountingProvider.unbound(provider),
+        zSpread,
+        compoundedRateType,
+        periodsPerYear,
+        referenceDate);
+  }
+
+  // calculate the dirty price sensitivity
+  PointSensitivityBuilder dirtyPriceSensitivityWithZspread(
+      ResolvedFixedCouponBond bond,
+      BoundLegalEntityDiscountingProvider provider,
+      double zSpread,
+      CompoundedRateType compoundedRateType,
+      int periodsPerYear,
+      LocalDate referenceDate) {
+
+    RepoCurveDiscountFactors discountFactors = repoCurveDiscountFactors(bond, provider);
     double df = discountFactors.discountFactor(referenceDate);
-    CurrencyAmount pv = presentValueWithZSpread(bond, provider, zSpread, compoundedRateType, periodsPerYear);
+    CurrencyAmount pv = presentValueWithZSpread(
+        bond, provider, zSpread, compoundedRateType, periodsPerYear, provider.getValuationDate());
     double notional = bond.getNotional();
     PointSensitivityBuilder pvSensi = presentValueSensitivityWithZSpread(
-        bond, provider, zSpread, compoundedRateType, periodsPerYear).multipliedBy(1d / df / notional);
+        bond, provider, zSpread, compoundedRateType, periodsPerYear, provider.getValuationDate())
+        .multipliedBy(1d / df / notional);
     RepoCurveZeroRateSensitivity dfSensi = discountFactors.zeroRatePointSensitivity(referenceDate)
         .multipliedBy(-pv.getAmount() / df / df / notional);
     return pvSensi.combinedWith(dfSensi);
@@ -806,6 +905,65 @@ public class DiscountingFixedCouponBondProductPricer {
     return cv;
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Compiles the dirty price of the fixed coupon bond as a function of the yield.
+   * <p>
+   * The function gives the same dirty price as {@link #dirtyPriceFromYield(ResolvedFixedCouponBond, LocalDate, double)}
+   * at the settlement date, with analytic derivatives with respect to the yield.
+   * This is intended for converting prices and yields of the same bond many times, see {@link BondYieldFunctions}.
+   * 
+   * @param bond  the product
+   * @param settlementDate  the settlement date
+   * @return the dirty price as a function of the yield
+   */
+  public BondYieldFunction yieldFunction(ResolvedFixedCouponBond bond, LocalDate settlementDate) {
+    ImmutableList<FixedCouponBondPaymentPeriod> payments = bond.getPeriodicPayments();
+    int nCoupon = payments.size() - couponIndex(payments, settlementDate);
+    FixedCouponBondYieldConvention yieldConv = bond.getYieldConvention();
+    double couponPerYear = bond.getFrequency().eventsPerYear();
+    if (nCoupon == 1) {
+      if (yieldConv.equals(US_STREET) || yieldConv.equals(DE_BONDS)) {
+        FixedCouponBondPaymentPeriod payment = payments.get(payments.size() - 1);
+        double amount = 1d + payment.getFixedRate() * payment.getYearFraction();
+        double simpleFactor = factorToNextCoupon(bond, settlementDate) / couponPerYear;
+        return BondYieldFunction.of(couponPerYear, new double[] {amount}, new double[] {0d}, simpleFactor, 0d);
+      }
+    }
+    if ((yieldConv.equals(US_STREET)) || (yieldConv.equals(GB_BUMP_DMO)) || (yieldConv.equals(DE_BONDS))) {
+      int nbCoupon = payments.size();
+      double factorToNextCoupon = factorToNextCoupon(bond, settlementDate);
+      double fixedRate = bond.getFixedRate();
+      double[] amounts = new double[nbCoupon + 1];
+      double[] exponents = new double[nbCoupon + 1];
+      int pow = 0;
+      for (int loopcpn = 0; loopcpn < nbCoupon; loopcpn++) {
+        FixedCouponBondPaymentPeriod period = payments.get(loopcpn);
+        if ((period.hasExCouponPeriod() && !settlementDate.isAfter(period.getDetachmentDate())) ||
+            (!period.hasExCouponPeriod() && period.getPaymentDate().isAfter(settlementDate))) {
+          amounts[pow] = fixedRate * period.getYearFraction();
+          exponents[pow] = pow + factorToNextCoupon;
+          ++pow;
+        }
+      }
+      amounts[pow] = 1d;
+      exponents[pow] = pow - 1 + factorToNextCoupon;
+      return BondYieldFunction.of(
+          couponPerYear, Arrays.copyOf(amounts, pow + 1), Arrays.copyOf(exponents, pow + 1), 0d, 0d);
+    }
+    if (yieldConv.equals(JP_SIMPLE)) {
+      LocalDate maturityDate = bond.getUnadjustedEndDate();
+      if (settlementDate.isAfter(maturityDate)) {
+        return BondYieldFunction.of(couponPerYear, new double[0], new double[0], 0d, 0d);
+      }
+      double maturity = bond.getDayCount().relativeYearFraction(settlementDate, maturityDate);
+      double amount = 1d + bond.getFixedRate() * maturity;
+      double accrued = accruedInterest(bond, settlementDate) / bond.getNotional();
+      return BondYieldFunction.of(couponPerYear, new double[] {amount}, new double[] {0d}, maturity, accrued);
+    }
+    throw new UnsupportedOperationException("The convention " + yieldConv.name() + " is not supported.");
+  }
+
   //-------------------------------------------------------------------------
   private double factorToNextCoupon(ResolvedFixedCouponBond bond, LocalDate settlementDate) {
     if (bond.getPeriodicPayments().get(0).getStartDate().isAfter(settlementDate)) {
@@ -829,6 +987,22 @@ public class DiscountingFixedCouponBondProductPricer {
     return couponIndex;
   }
 
+  // the issuer curve discount factors of the bond
+  private IssuerCurveDiscountFactors issuerCurveDiscountFactors(
+      ResolvedFixedCouponBond bond,
+      BoundLegalEntityDiscountingProvider provider) {
+
+    return provider.issuerCurveDiscountFactors(bond.getLegalEntityId(), bond.getCurrency());
+  }
+
+  // the repo curve discount factors of the bond
+  private RepoCurveDiscountFactors repoCurveDiscountFactors(
+      ResolvedFixedCouponBond bond,
+      BoundLegalEntityDiscountingProvider provider) {
+
+    return provider.repoCurveDiscountFactors(bond.getSecurityId(), bond.getLegalEntityId(), bond.getCurrency());
+  }
+
   //-------------------------------------------------------------------------
   private CurrencyAmount presentValueCoupon(
       ResolvedFixedCouponBond bond,
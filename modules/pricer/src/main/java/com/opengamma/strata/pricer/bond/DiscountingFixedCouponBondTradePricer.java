@@ -31,6 +31,10 @@ import com.opengamma.strata.product.bond.ResolvedFixedCouponBondTrade;
  * <h4>Price</h4>
  * Strata uses <i>decimal prices</i> for bonds in the trade model, pricers and market data.
  * For example, a price of 99.32% is represented in Strata by 0.9932.
+ * 
+ * <h4>Discount factors</h4>
+ * When many trades are priced against the same provider, a {@link BoundLegalEntityDiscountingProvider}
+ * can be created once with the bonds of the trades and passed in place of the provider.
  */
 public class DiscountingFixedCouponBondTradePricer {
 
@@ -78,6 +82,22 @@ public class DiscountingFixedCouponBondTradePricer {
    * @return the present value of the fixed coupon bond trade
    */
   public CurrencyAmount presentValue(ResolvedFixedCouponBondTrade trade, LegalEntityDiscountingProvider provider) {
+    return presentValue(trade, BoundLegalEntityDiscountingProvider.unbound(provider));
+  }
+
+  /**
+   * Calculates the present value of the fixed coupon bond trade.
+   * <p>
+   * The present value of the trade is the value on the valuation date.
+   * The result is expressed using the payment currency of the bond.
+   * <p>
+   * Coupon payments of the underlying product are considered based on the settlement date of the trade.
+   * 
+   * @param trade  the trade
+   * @param provider  the provider, with the discount factors of the bond bound
+   * @return the present value of the fixed coupon bond trade
+   */
+  public CurrencyAmount presentValue(ResolvedFixedCouponBondTrade trade, BoundLegalEntityDiscountingProvider provider) {
     LocalDate settlementDate = trade.getSettlementDate();
     CurrencyAmount pvProduct = productPricer.presentValue(trade.getProduct(), provider, settlementDate);
     return presentValueFromProductPresentValue(trade, provider, pvProduct);
@@ -108,6 +128,39 @@ public class DiscountingFixedCouponBondTradePricer {
       CompoundedRateType compoundedRateType,
       int periodsPerYear) {
 
+    return presentValueWithZSpread(
+        trade,
+        BoundLegalEntityDiscountingProvider.unbound(provider),
+        zSpread,
+        compoundedRateType,
+        periodsPerYear);
+  }
+
+  /**
+   * Calculates the present value of the fixed coupon bond trade with z-spread.
+   * <p>
+   * The present value of the trade is the value on the valuation date.
+   * The result is expressed using the payment currency of the bond.
+   * <p>
+   * The z-spread is a parallel shift applied to continuously compounded rates or periodic
+   * compounded rates of the discounting curve.
+   * <p>
+   * Coupon payments of the underlying product are considered based on the settlement date of the trade.
+   * 
+   * @param trade  the trade
+   * @param provider  the provider, with the discount factors of the bond bound
+   * @param zSpread  the z-spread
+   * @param compoundedRateType  the compounded rate type
+   * @param periodsPerYear  the number of periods per year
+   * @return the present value of the fixed coupon bond trade
+   */
+  public CurrencyAmount presentValueWithZSpread(
+      ResolvedFixedCouponBondTrade trade,
+      BoundLegalEntityDiscountingProvider provider,
+      double zSpread,
+      CompoundedRateType compoundedRateType,
+      int periodsPerYear) {
+
     LocalDate settlementDate = trade.getSettlementDate();
     CurrencyAmount pvProduct = productPricer.presentValueWithZSpread(
         trade.getProduct(), provider, zSpread, compoundedRateType, periodsPerYear, settlementDate);
@@ -116,7 +169,7 @@ public class DiscountingFixedCouponBondTradePricer {
 
   private CurrencyAmount presentValueFromProductPresentValue(
       ResolvedFixedCouponBondTrade trade,
-      LegalEntityDiscountingProvider provider,
+      BoundLegalEntityDiscountingProvider provider,
       CurrencyAmount productPresentValue) {
     CurrencyAmount pvProduct = productPresentValue.multipliedBy(trade.getQuantity());
     CurrencyAmount pvPayment = presentValuePayment(trade, provider);
@@ -144,6 +197,33 @@ public class DiscountingFixedCouponBondTradePricer {
       ReferenceData refData,
       double cleanPrice) {
 
+    return presentValueFromCleanPrice(
+        trade,
+        BoundLegalEntityDiscountingProvider.unbound(provider),
+        refData,
+        cleanPrice);
+  }
+
+  /**
+   * Calculates the present value of the fixed coupon bond trade from the clean price of the underlying product.
+   * <p>
+   * The present value of the trade is the value on the valuation date.
+   * The result is expressed using the payment currency of the bond.
+   * <p>
+   * Coupon payments of the underlying product are considered based on the settlement date of the trade.
+   * 
+   * @param trade  the trade
+   * @param provider  the provider, with the discount factors of the bond bound
+   * @param refData  the reference data used to calculate the settlement date
+   * @param cleanPrice  the clean price
+   * @return the present value of the fixed coupon bond trade
+   */
+  public CurrencyAmount presentValueFromCleanPrice(
+      ResolvedFixedCouponBondTrade trade,
+      BoundLegalEntityDiscountingProvider provider,
+      ReferenceData refData,
+      double cleanPrice) {
+
     ResolvedFixedCouponBond product = trade.getProduct();
     LocalDate standardSettlementDate = product.getSettlementDateOffset().adjust(provider.getValuationDate(), refData);
     LocalDate tradeSettlementDate = trade.getSettlementDate();
@@ -197,6 +277,46 @@ public class DiscountingFixedCouponBondTradePricer {
       CompoundedRateType compoundedRateType,
       int periodsPerYear) {
 
+    return presentValueFromCleanPriceWithZSpread(
+        trade,
+        BoundLegalEntityDiscountingProvider.unbound(provider),
+        refData,
+        cleanPrice,
+        zSpread,
+        compoundedRateType,
+        periodsPerYear);
+  }
+
+  /**
+   * Calculates the present value of the fixed coupon bond trade with z-spread from the
+   * clean price of the underlying product.
+   * <p>
+   * The present value of the trade is the value on the valuation date.
+   * The result is expressed using the payment currency of the bond.
+   * <p>
+   * The z-spread is a parallel shift applied to continuously compounded rates or periodic
+   * compounded rates of the discounting curve.
+   * <p>
+   * Coupon payments of the underlying product are considered based on the settlement date of the trade.
+   * 
+   * @param trade  the trade
+   * @param provider  the provider, with the discount factors of the bond bound
+   * @param refData  the reference data used to calculate the settlement date
+   * @param cleanPrice  the clean price
+   * @param zSpread  the z-spread
+   * @param compoundedRateType  the compounded rate type
+   * @param periodsPerYear  the number of periods per year
+   * @return the present value of the fixed coupon bond trade
+   */
+  public CurrencyAmount presentValueFromCleanPriceWithZSpread(
+      ResolvedFixedCouponBondTrade trade,
+      BoundLegalEntityDiscountingProvider provider,
+      ReferenceData refData,
+      double cleanPrice,
+      double zSpread,
+      CompoundedRateType compoundedRateType,
+      int periodsPerYear) {
+
     ResolvedFixedCouponBond product = trade.getProduct();
     LocalDate standardSettlementDate = product.getSettlementDateOffset().adjust(provider.getValuationDate(), refData);
     LocalDate tradeSettlementDate = trade.getSettlementDate();
@@ -251,6 +371,25 @@ public class DiscountingFixedCouponBondTradePricer {
       ResolvedFixedCouponBondTrade trade,
       LegalEntityDiscountingProvider provider) {
 
+    return presentValueSensitivity(trade, BoundLegalEntityDiscountingProvider.unbound(provider));
+  }
+
+  /**
+   * Calculates the present value sensitivity of the fixed coupon bond trade.
+   * <p>
+   * The present value sensitivity of the trade is the sensitivity of the present value to
+   * the underlying curves.
+   * <p>
+   * Coupon payments of the underlying product are considered based on the settlement date of the trade.
+   * 
+   * @param trade  the trade
+   * @param provider  the provider, with the discount factors of the bond bound
+   * @return the present value curve sensitivity of the trade
+   */
+  public PointSensitivities presentValueSensitivity(
+      ResolvedFixedCouponBondTrade trade,
+      BoundLegalEntityDiscountingProvider provider) {
+
     LocalDate settlementDate = trade.getSettlementDate();
     PointSensitivityBuilder sensiProduct = productPricer.presentValueSensitivity(
         trade.getProduct(), provider, settlementDate);
@@ -282,6 +421,39 @@ public class DiscountingFixedCouponBondTradePricer {
       CompoundedRateType compoundedRateType,
       int periodsPerYear) {
 
+    return presentValueSensitivityWithZSpread(
+        trade,
+        BoundLegalEntityDiscountingProvider.unbound(provider),
+        zSpread,
+        compoundedRateType,
+        periodsPerYear);
+  }
+
+  /**
+   * Calculates the present value sensitivity of the fixed coupon bond trade with z-spread.
+   * <p>
+   * The present value sensitivity of the trade is the sensitivity of the present value to
+   * the underlying curves.
+   * <p>
+   * The z-spread is a parallel shift applied to continuously compounded rates or periodic
+   * compounded rates of the discounting curve.
+   * <p>
+   * Coupon payments of the underlying product are considered based on the settlement date of the trade.
+   * 
+   * @param trade  the trade
+   * @param provider  the provider, with the discount factors of the bond bound
+   * @param zSpread  the z-spread
+   * @param compoundedRateType  the compounded rate type
+   * @param periodsPerYear  the number of periods per year
+   * @return the present value curve sensitivity of the trade
+   */
+  public PointSensitivities presentValueSensitivityWithZSpread(
+      ResolvedFixedCouponBondTrade trade,
+      BoundLegalEntityDiscountingProvider provider,
+      double zSpread,
+      CompoundedRateType compoundedRateType,
+      int periodsPerYear) {
+
     LocalDate settlementDate = trade.getSettlementDate();
     PointSensitivityBuilder sensiProduct = productPricer.presentValueSensitivityWithZSpread(
         trade.getProduct(), provider, zSpread, compoundedRateType, periodsPerYear, settlementDate);
@@ -290,7 +462,7 @@ public class DiscountingFixedCouponBondTradePricer {
 
   private PointSensitivityBuilder presentValueSensitivityFromProductPresentValueSensitivity(
       ResolvedFixedCouponBondTrade trade,
-      LegalEntityDiscountingProvider provider,
+      BoundLegalEntityDiscountingProvider provider,
       PointSensitivityBuilder productPresnetValueSensitivity) {
 
     PointSensitivityBuilder sensiProduct = productPresnetValueSensitivity.multipliedBy(trade.getQuantity());
@@ -367,7 +539,10 @@ public class DiscountingFixedCouponBondTradePricer {
   }
 
   //-------------------------------------------------------------------------
-  private CurrencyAmount presentValuePayment(ResolvedFixedCouponBondTrade trade, LegalEntityDiscountingProvider provider) {
+  private CurrencyAmount presentValuePayment(
+      ResolvedFixedCouponBondTrade trade,
+      BoundLegalEntityDiscountingProvider provider) {
+
     ResolvedFixedCouponBond product = trade.getProduct();
     RepoCurveDiscountFactors discountFactors = provider.repoCurveDiscountFactors(
         product.getSecurityId(), product.getLegalEntityId(), product.getCurrency());
@@ -377,7 +552,7 @@ public class DiscountingFixedCouponBondTradePricer {
 
   private PointSensitivityBuilder presentValueSensitivityPayment(
       ResolvedFixedCouponBondTrade trade,
-      LegalEntityDiscountingProvider provider) {
+      BoundLegalEntityDiscountingProvider provider) {
 
     ResolvedFixedCouponBond product = trade.getProduct();
     RepoCurveDiscountFactors discountFactors = provider.repoCurveDiscountFactors(
@@ -23,12 +23,15 @@ import com.opengamma.strata.collect.array.DoubleMatrix;
 import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.MarketDataFxRateProvider;
+import com.opengamma.strata.market.curve.Curve;
 import com.opengamma.strata.market.curve.CurveGroupDefinition;
+import com.opengamma.strata.market.curve.CurveInfoType;
 import com.opengamma.strata.market.curve.CurveName;
 import com.opengamma.strata.market.curve.CurveNode;
 import com.opengamma.strata.market.curve.CurveParameterSize;
 import com.opengamma.strata.market.curve.JacobianCalibrationMatrix;
 import com.opengamma.strata.market.observable.IndexQuoteId;
+import com.opengamma.strata.math.MathException;
 import com.opengamma.strata.math.impl.linearalgebra.DecompositionFactory;
 import com.opengamma.strata.math.impl.matrix.CommonsMatrixAlgebra;
 import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
@@ -197,15 +200,56 @@ public final class CurveCalibrator {
       MarketData marketData,
       ReferenceData refData) {
 
+    ImmutableRatesProvider knownData = knownData(marketData);
+    return calibrate(ImmutableList.of(curveGroupDefn), knownData, marketData, refData);
+  }
+
+  /**
+   * Calibrates a single curve group, starting from the curves of a previous calibration.
+   * <p>
+   * This is intended for scenarios where the market data differs slightly from that used
+   * to calibrate the starting curves, such as a shift in the market quotes.
+   * The parameters of each starting curve are used as the initial guesses in place of those of the nodes.
+   * If the starting curves contain the Jacobian of their calibration to the same curves,
+   * it is used as the initial Jacobian of the root finder instead of being recalculated.
+   * The first step of the calibration is then the first-order estimate of the change in the parameters.
+   * <p>
+   * A curve that is not found in the starting provider, or that has a different number of parameters,
+   * starts from the initial guesses of its nodes. If the calibration fails from the starting curves,
+   * it is repeated from the initial guesses of the nodes.
+   * <p>
+   * The Jacobian matrices are computed and stored in curve metadata.
+   *
+   * @param curveGroupDefn  the curve group definition
+   * @param marketData  the market data required to build a trade for the instrument, including time-series
+   * @param refData  the reference data, used to resolve the trades
+   * @param startingProvider  the rates provider containing the curves to start from
+   * @return the rates provider resulting from the calibration
+   */
+  public ImmutableRatesProvider calibrate(
+      CurveGroupDefinition curveGroupDefn,
+      MarketData marketData,
+      ReferenceData refData,
+      ImmutableRatesProvider startingProvider) {
+
+    ImmutableRatesProvider knownData = knownData(marketData);
+    try {
+      return calibrate(ImmutableList.of(curveGroupDefn), knownData, marketData, refData, startingProvider);
+    } catch (MathException ex) {
+      return calibrate(ImmutableList.of(curveGroupDefn), knownData, marketData, refData);
+    }
+  }
+
+  // creates the provider of the known data, the FX rates and time-series
+  private static ImmutableRatesProvider knownData(MarketData marketData) {
     Map<Index, LocalDateDoubleTimeSeries> timeSeries = marketData.getTimeSeriesIds().stream()
         .filter(IndexQuoteId.class::isInstance)
         .map(IndexQuoteId.class::cast)
         .collect(toImmutableMap(id -> id.getIndex(), id -> marketData.getTimeSeries(id)));
-    ImmutableRatesProvider knownData = ImmutableRatesProvider.builder(marketData.getValuationDate())
+    return ImmutableRatesProvider.builder(marketData.getValuationDate())
         .fxRateProvider(MarketDataFxRateProvider.of(marketData))
         .timeSeries(timeSeries)
         .build();
-    return calibrate(ImmutableList.of(curveGroupDefn), knownData, marketData, refData);
   }
 
   /**
@@ -227,6 +271,17 @@ public final class CurveCalibrator {
       ImmutableRatesProvider knownData,
       MarketData marketData,
       ReferenceData refData) {
+
+    return calibrate(allGroupsDefn, knownData, marketData, refData, null);
+  }
+
+  // calibrates the groups, starting from the curves in the starting provider if not null
+  private ImmutableRatesProvider calibrate(
+      List<CurveGroupDefinition> allGroupsDefn,
+      ImmutableRatesProvider knownData,
+      MarketData marketData,
+      ReferenceData refData,
+      ImmutableRatesProvider startingProvider) {
     // this method effectively takes one CurveGroupDefinition
     // the list is a split of the definition, not multiple independent definitions
 
@@ -241,8 +296,13 @@ public final class CurveCalibrator {
     for (CurveGroupDefinition groupDefn : allGroupsDefn) {
       // combine all data in the group into flat lists
       ImmutableList<ResolvedTrade> trades = groupDefn.resolvedTrades(marketData, refData);
-      ImmutableList<Double> initialGuesses = groupDefn.initialGuesses(marketData);
+      DoubleArray initialGuesses = DoubleArray.copyOf(groupDefn.initialGuesses(marketData));
       ImmutableList<CurveParameterSize> orderGroup = toOrder(groupDefn);
+      DoubleMatrix initialJacobian = null;
+      if (startingProvider != null) {
+        initialGuesses = startingGuesses(startingProvider, orderGroup, initialGuesses);
+        initialJacobian = startingJacobian(startingProvider, orderGroup);
+      }
       ImmutableList<CurveParameterSize> orderPrevAndGroup = ImmutableList.<CurveParameterSize>builder()
           .addAll(orderPrev)
           .addAll(orderGroup)
@@ -250,7 +310,8 @@ public final class CurveCalibrator {
 
       // calibrate
       RatesProviderGenerator providerGenerator = ImmutableRatesProviderGenerator.of(providerCombined, groupDefn, refData);
-      DoubleArray calibratedGroupParams = calibrateGroup(providerGenerator, trades, initialGuesses, orderGroup);
+      DoubleArray calibratedGroupParams =
+          calibrateGroup(providerGenerator, trades, initialGuesses, initialJacobian, orderGroup);
       ImmutableRatesProvider calibratedProvider = providerGenerator.generate(calibratedGroupParams);
 
       // use calibration to build Jacobian matrices
@@ -277,22 +338,71 @@ public final class CurveCalibrator {
     return groupDefn.getCurveDefinitions().stream().map(def -> def.toCurveParameterSize()).collect(toImmutableList());
   }
 
+  // the parameters of the starting curves, replacing the guesses of the nodes where the curve matches
+  private static DoubleArray startingGuesses(
+      ImmutableRatesProvider startingProvider,
+      ImmutableList<CurveParameterSize> orderGroup,
+      DoubleArray initialGuesses) {
+
+    double[] guesses = initialGuesses.toArray();
+    int startIndex = 0;
+    for (CurveParameterSize order : orderGroup) {
+      int paramCount = order.getParameterCount();
+      Curve curve = startingProvider.findData(order.getName()).orElse(null);
+      if (curve != null && curve.getParameterCount() == paramCount) {
+        for (int i = 0; i < paramCount; i++) {
+          guesses[startIndex + i] = curve.getParameter(i);
+        }
+      }
+      startIndex += paramCount;
+    }
+    return DoubleArray.ofUnsafe(guesses);
+  }
+
+  // the Jacobian of the calibration measures to the parameters, from the starting curves, null if not available
+  // each curve stores the inverse of this Jacobian, the curves of the group must each have been calibrated to
+  // exactly the same curves for the rows of the stored matrices to combine into the inverse
+  private static DoubleMatrix startingJacobian(
+      ImmutableRatesProvider startingProvider,
+      ImmutableList<CurveParameterSize> orderGroup) {
+
+    int totalParamsGroup = orderGroup.stream().mapToInt(e -> e.getParameterCount()).sum();
+    double[][] inverse = new double[totalParamsGroup][];
+    int startIndex = 0;
+    for (CurveParameterSize order : orderGroup) {
+      JacobianCalibrationMatrix jacobian = startingProvider.findData(order.getName())
+          .flatMap(curve -> curve.getMetadata().findInfo(CurveInfoType.JACOBIAN))
+          .orElse(null);
+      if (jacobian == null || !jacobian.getOrder().equals(orderGroup)) {
+        return null;
+      }
+      for (int p = 0; p < order.getParameterCount(); p++) {
+        inverse[startIndex + p] = jacobian.getJacobianMatrix().rowArray(p);
+      }
+      startIndex += order.getParameterCount();
+    }
+    return MATRIX_ALGEBRA.getInverse(DoubleMatrix.ofUnsafe(inverse));
+  }
+
   //-------------------------------------------------------------------------
   // calibrates a single group
   private DoubleArray calibrateGroup(
       RatesProviderGenerator providerGenerator,
       ImmutableList<ResolvedTrade> trades,
-      ImmutableList<Double> initialGuesses,
+      DoubleArray initialGuesses,
+      DoubleMatrix initialJacobian,
       ImmutableList<CurveParameterSize> curveOrder) {
 
     // setup for calibration
     Function<DoubleArray, DoubleArray> valueCalculator = new CalibrationValue(trades, measures, providerGenerator);
     Function<DoubleArray, DoubleMatrix> derivativeCalculator =
         new CalibrationDerivative(trades, measures, providerGenerator, curveOrder);
+    if (initialJacobian != null) {
+      derivativeCalculator = new StartingDerivative(derivativeCalculator, initialJacobian);
+    }
 
     // calibrate
-    DoubleArray initGuessMatrix = DoubleArray.copyOf(initialGuesses);
-    return rootFinder.getRoot(valueCalculator, derivativeCalculator, initGuessMatrix);
+    return rootFinder.getRoot(valueCalculator, derivativeCalculator, initialGuesses);
   }
 
   //-------------------------------------------------------------------------
@@ -448,4 +558,30 @@ public final class CurveCalibrator {
     return Messages.format("CurveCalibrator[{}]", measures);
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * The derivative calculator that returns a known Jacobian for the first calculation,
+   * which is made by the root finder at the initial guesses.
+   * Later calculations, including any recalculation at the initial guesses, are delegated.
+   */
+  private static final class StartingDerivative implements Function<DoubleArray, DoubleMatrix> {
+    private final Function<DoubleArray, DoubleMatrix> underlying;
+    private DoubleMatrix startingJacobian;
+
+    private StartingDerivative(Function<DoubleArray, DoubleMatrix> underlying, DoubleMatrix startingJacobian) {
+      this.underlying = underlying;
+      this.startingJacobian = startingJacobian;
+    }
+
+    @Override
+    public DoubleMatrix apply(DoubleArray x) {
+      DoubleMatrix jacobian = startingJacobian;
+      if (jacobian != null) {
+        startingJacobian = null;
+        return jacobian;
+      }
+      return underlying.apply(x);
+    }
+  }
+
 }
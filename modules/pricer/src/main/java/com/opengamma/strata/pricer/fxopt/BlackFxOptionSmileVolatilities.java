@@ -142,6 +142,14 @@ public final class BlackFxOptionSmileVolatilities
     return smile.volatility(expiryTime, strike, forward);
   }
 
+  @Override
+  public DoubleArray volatilities(CurrencyPair currencyPair, double expiryTime, DoubleArray strikes, double forward) {
+    if (currencyPair.isInverse(this.currencyPair)) {
+      return smile.volatilities(expiryTime, strikes.map(strike -> 1d / strike), 1d / forward);
+    }
+    return smile.volatilities(expiryTime, strikes, forward);
+  }
+
   @Override
   public CurrencyParameterSensitivities parameterSensitivity(PointSensitivities pointSensitivities) {
     CurrencyParameterSensitivities sens = CurrencyParameterSensitivities.empty();
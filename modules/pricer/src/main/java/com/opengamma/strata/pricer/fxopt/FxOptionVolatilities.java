@@ -9,6 +9,7 @@ import java.time.LocalDate;
 import java.time.ZonedDateTime;
 
 import com.opengamma.strata.basics.currency.CurrencyPair;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.market.MarketDataView;
 import com.opengamma.strata.market.ValueType;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
@@ -110,6 +111,28 @@ public interface FxOptionVolatilities
       double strike,
       double forward);
 
+  /**
+   * Calculates the volatilities at the specified expiry for many strikes.
+   * <p>
+   * This is equivalent to calling {@link #volatility(CurrencyPair, double, double, double)} for each strike,
+   * but allows implementations to share the work that only depends on the expiry and forward.
+   * This relies on expiry supplied by {@link #relativeTime(ZonedDateTime)}.
+   * 
+   * @param currencyPair  the currency pair
+   * @param expiry  the time to expiry as a year fraction
+   * @param strikes  the option strike rates
+   * @param forward  the forward rate
+   * @return the volatilities, one for each strike
+   */
+  public default DoubleArray volatilities(
+      CurrencyPair currencyPair,
+      double expiry,
+      DoubleArray strikes,
+      double forward) {
+
+    return strikes.map(strike -> volatility(currencyPair, expiry, strike, forward));
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Calculates the parameter sensitivity.
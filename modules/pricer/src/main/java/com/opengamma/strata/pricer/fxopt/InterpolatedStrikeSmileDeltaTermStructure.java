@@ -30,11 +30,14 @@ import org.joda.beans.impl.direct.DirectMetaBean;
 import org.joda.beans.impl.direct.DirectMetaProperty;
 import org.joda.beans.impl.direct.DirectMetaPropertyMap;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.date.DayCount;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.collect.tuple.DoublesPair;
 import com.opengamma.strata.market.curve.interpolator.BoundCurveInterpolator;
 import com.opengamma.strata.market.curve.interpolator.CurveExtrapolator;
 import com.opengamma.strata.market.curve.interpolator.CurveInterpolator;
@@ -61,6 +64,11 @@ import com.opengamma.strata.market.param.ParameterizedDataCombiner;
 public final class InterpolatedStrikeSmileDeltaTermStructure
     implements SmileDeltaTermStructure, ParameterizedData, ImmutableBean, Serializable {
 
+  /**
+   * The maximum number of smiles, by expiry time and forward, that are cached.
+   */
+  private static final int SMILE_CACHE_SIZE = 1000;
+
   /**
    * The smile description at the different time to expiry. All item should have the same deltas.
    */
@@ -112,6 +120,16 @@ public final class InterpolatedStrikeSmileDeltaTermStructure
    * The parameter combiner.
    */
   private transient final ParameterizedDataCombiner paramCombiner;  // not a property
+  /**
+   * The time interpolators, one for each delta column, bound on first use.
+   */
+  private transient volatile BoundCurveInterpolator[] timeInterpolatorsBound;  // derived and cached, not a property
+  /**
+   * The strike interpolators, keyed by expiry time and forward.
+   * <p>
+   * Each entry holds the smile at the expiry time, converted to strikes using the forward.
+   */
+  private transient final Cache<DoublesPair, BoundCurveInterpolator> smileCache;  // derived and cached, not a property
 
   //-------------------------------------------------------------------------
   /**
@@ -542,6 +560,7 @@ public final class InterpolatedStrikeSmileDeltaTermStructure
     this.strikeExtrapolatorRight = strikeExtrapolatorRight;
     this.expiries = expiries;
     this.paramCombiner = ParameterizedDataCombiner.of(volatilityTerm);
+    this.smileCache = CacheBuilder.newBuilder().maximumSize(SMILE_CACHE_SIZE).build();
   }
 
   private Object readResolve() {
@@ -610,41 +629,51 @@ public final class InterpolatedStrikeSmileDeltaTermStructure
   @Override
   public double volatility(double time, double strike, double forward) {
     ArgChecker.isTrue(time >= 0, "Positive time");
-    SmileDeltaParameters smile = smileForExpiry(time);
-    DoubleArray strikes = smile.strike(forward);
-    BoundCurveInterpolator bound = strikeInterpolator.bind(
-        strikes, smile.getVolatility(), strikeExtrapolatorLeft, strikeExtrapolatorRight);
-    return bound.interpolate(strike);
+    return strikeInterpolator(time, forward).interpolate(strike);
+  }
+
+  @Override
+  public DoubleArray volatilities(double time, DoubleArray strikes, double forward) {
+    ArgChecker.isTrue(time >= 0, "Positive time");
+    BoundCurveInterpolator bound = strikeInterpolator(time, forward);
+    return strikes.map(bound::interpolate);
   }
 
   @Override
   public VolatilityAndBucketedSensitivities volatilityAndSensitivities(double time, double strike, double forward) {
     ArgChecker.isTrue(time >= 0, "Positive time");
-    SmileDeltaParameters smile = smileForExpiry(time);
-    DoubleArray strikes = smile.strike(forward);
-    BoundCurveInterpolator bound = strikeInterpolator.bind(
-        strikes, smile.getVolatility(), strikeExtrapolatorLeft, strikeExtrapolatorRight);
+    BoundCurveInterpolator bound = strikeInterpolator(time, forward);
     double volatility = bound.interpolate(strike);
     DoubleArray smileVolatilityBar = bound.parameterSensitivity(strike);
     SmileAndBucketedSensitivities smileAndSensitivities = smileAndSensitivitiesForExpiry(time, smileVolatilityBar);
     return VolatilityAndBucketedSensitivities.of(volatility, smileAndSensitivities.getSensitivities());
   }
 
+  // finds the strike interpolator of the smile at the time, using the cache
+  private BoundCurveInterpolator strikeInterpolator(double time, double forward) {
+    DoublesPair key = DoublesPair.of(time, forward);
+    BoundCurveInterpolator cached = smileCache.getIfPresent(key);
+    if (cached != null) {
+      return cached;
+    }
+    SmileDeltaParameters smile = smileForExpiry(time);
+    DoubleArray strikes = smile.strike(forward);
+    BoundCurveInterpolator bound = strikeInterpolator.bind(
+        strikes, smile.getVolatility(), strikeExtrapolatorLeft, strikeExtrapolatorRight);
+    smileCache.put(key, bound);
+    return bound;
+  }
+
   //-------------------------------------------------------------------------
   @Override
   public SmileDeltaParameters smileForExpiry(double expiry) {
     int nbVol = getStrikeCount();
     int nbTime = getSmileCount();
     ArgChecker.isTrue(nbTime > 1, "Need more than one time value to perform interpolation");
+    BoundCurveInterpolator[] bounds = timeInterpolators();
     double[] volatilityT = new double[nbVol];
     for (int loopvol = 0; loopvol < nbVol; loopvol++) {
-      double[] volDelta = new double[nbTime];
-      for (int looptime = 0; looptime < nbTime; looptime++) {
-        volDelta[looptime] = volatilityTerm.get(looptime).getVolatility().get(loopvol);
-      }
-      BoundCurveInterpolator bound = timeInterpolator.bind(
-          getExpiries(), DoubleArray.ofUnsafe(volDelta), timeExtrapolatorLeft, timeExtrapolatorRight);
-      volatilityT[loopvol] = bound.interpolate(expiry);
+      volatilityT[loopvol] = bounds[loopvol].interpolate(expiry);
     }
     return SmileDeltaParameters.of(expiry, getDelta(), DoubleArray.ofUnsafe(volatilityT));
   }
@@ -659,15 +688,11 @@ public final class InterpolatedStrikeSmileDeltaTermStructure
     ArgChecker.isTrue(nbVol > 1, "Need more than one volatility value to perform interpolation");
     int nbTime = getSmileCount();
     ArgChecker.isTrue(nbTime > 1, "Need more than one time value to perform interpolation");
+    BoundCurveInterpolator[] bounds = timeInterpolators();
     double[] volatilityT = new double[nbVol];
     double[][] volatilitySensitivity = new double[nbTime][nbVol];
     for (int loopvol = 0; loopvol < nbVol; loopvol++) {
-      double[] volDelta = new double[nbTime];
-      for (int looptime = 0; looptime < nbTime; looptime++) {
-        volDelta[looptime] = volatilityTerm.get(looptime).getVolatility().get(loopvol);
-      }
-      BoundCurveInterpolator bound = timeInterpolator.bind(
-          getExpiries(), DoubleArray.ofUnsafe(volDelta), timeExtrapolatorLeft, timeExtrapolatorRight);
+      BoundCurveInterpolator bound = bounds[loopvol];
       DoubleArray volatilitySensitivityVol = bound.parameterSensitivity(expiry);
       for (int looptime = 0; looptime < nbTime; looptime++) {
         volatilitySensitivity[looptime][loopvol] =
@@ -679,6 +704,26 @@ public final class InterpolatedStrikeSmileDeltaTermStructure
     return SmileAndBucketedSensitivities.of(smile, DoubleMatrix.ofUnsafe(volatilitySensitivity));
   }
 
+  // finds the time interpolators, one for each delta column, binding them on first use
+  private BoundCurveInterpolator[] timeInterpolators() {
+    BoundCurveInterpolator[] bounds = timeInterpolatorsBound;
+    if (bounds == null) {
+      int nbVol = getStrikeCount();
+      int nbTime = getSmileCount();
+      bounds = new BoundCurveInterpolator[nbVol];
+      for (int loopvol = 0; loopvol < nbVol; loopvol++) {
+        double[] volDelta = new double[nbTime];
+        for (int looptime = 0; looptime < nbTime; looptime++) {
+          volDelta[looptime] = volatilityTerm.get(looptime).getVolatility().get(loopvol);
+        }
+        bounds[loopvol] = timeInterpolator.bind(
+            getExpiries(), DoubleArray.ofUnsafe(volDelta), timeExtrapolatorLeft, timeExtrapolatorRight);
+      }
+      timeInterpolatorsBound = bounds;
+    }
+    return bounds;
+  }
+
   //------------------------- AUTOGENERATED START -------------------------
   ///CLOVER:OFF
   /**
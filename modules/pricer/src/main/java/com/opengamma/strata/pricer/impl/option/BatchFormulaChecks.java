@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.option;
+
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * Argument checks shared by the batch methods of the option formulas.
+ * <p>
+ * The batch methods take one array per input, where the element at index {@code i}
+ * of each array describes option {@code i}, and write into a caller-provided output array.
+ */
+final class BatchFormulaChecks {
+
+  // restricted constructor
+  private BatchFormulaChecks() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Checks the inputs of a batch have the same size and the output is large enough.
+   * <p>
+   * The values are the option specific input, such as the volatilities or the prices.
+   *
+   * @param forwards  the forwards
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param values  the values, such as the volatilities or the prices
+   * @param valuesName  the name of the values, used in the error message
+   * @param output  the output array
+   * @param outputPerOption  the number of output elements for each option
+   * @return the number of options in the batch
+   * @throws IllegalArgumentException if the sizes do not match
+   */
+  static int checkBatch(
+      double[] forwards,
+      double[] strikes,
+      double[] timesToExpiry,
+      double[] values,
+      String valuesName,
+      double[] output,
+      int outputPerOption) {
+
+    int size = forwards.length;
+    ArgChecker.isTrue(strikes.length == size, "Expected {} strikes, but found {}", size, strikes.length);
+    ArgChecker.isTrue(
+        timesToExpiry.length == size, "Expected {} times to expiry, but found {}", size, timesToExpiry.length);
+    ArgChecker.isTrue(values.length == size, "Expected {} {}, but found {}", size, valuesName, values.length);
+    ArgChecker.isTrue(
+        output.length >= size * outputPerOption,
+        "Output array too small, expected at least {}, but found {}",
+        size * outputPerOption,
+        output.length);
+    return size;
+  }
+
+}
@@ -5,7 +5,10 @@
  */
 package com.opengamma.strata.pricer.impl.option;
 
-import java.util.function.Function;
+import static com.opengamma.strata.math.impl.statistics.distribution.NormalDistributionFunctions.cdf;
+import static com.opengamma.strata.math.impl.statistics.distribution.NormalDistributionFunctions.inverseCdf;
+import static com.opengamma.strata.math.impl.statistics.distribution.NormalDistributionFunctions.pdf;
+import static com.opengamma.strata.pricer.impl.option.BatchFormulaChecks.checkBatch;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,9 +17,7 @@ import com.opengamma.strata.basics.value.ValueDerivatives;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.tuple.Pair;
-import com.opengamma.strata.math.impl.rootfinding.NewtonRaphsonSingleRootFinder;
-import com.opengamma.strata.math.impl.statistics.distribution.NormalDistribution;
-import com.opengamma.strata.math.impl.statistics.distribution.ProbabilityDistribution;
+import com.opengamma.strata.math.MathException;
 
 /**
  * The primary repository for Black formulas, including the price, common greeks and implied volatility.
@@ -30,7 +31,6 @@ public final class BlackFormulaRepository {
 
   private static final Logger log = LoggerFactory.getLogger(BlackFormulaRepository.class);
 
-  private static final ProbabilityDistribution<Double> NORMAL = new NormalDistribution(0, 1);
   private static final double LARGE = 1e13;
   private static final double SMALL = 1e-13;
   /** The comparison value used to determine near-zero. */
@@ -38,7 +38,8 @@ public final class BlackFormulaRepository {
   /** Limit defining "close of ATM forward" to avoid the formula singularity. **/
   private static final double ATM_LIMIT = 1.0E-3;
   private static final double ROOT_ACCURACY = 1.0E-7;
-  private static final NewtonRaphsonSingleRootFinder ROOT_FINDER = new NewtonRaphsonSingleRootFinder(ROOT_ACCURACY);
+  /** The maximum number of Newton iterations when converting from a normal volatility. */
+  private static final int ROOT_MAX_ITERATIONS = 50;
 
   // restricted constructor
   private BlackFormulaRepository() {
@@ -94,8 +95,8 @@ public final class BlackFormulaRepository {
       d2 = d1 - sigmaRootT;
     }
 
-    double nF = NORMAL.getCDF(sign * d1);
-    double nS = NORMAL.getCDF(sign * d2);
+    double nF = cdf(sign * d1);
+    double nS = cdf(sign * d2);
     double first = nF == 0d ? 0d : forward * nF;
     double second = nS == 0d ? 0d : strike * nS;
 
@@ -129,6 +130,21 @@ public final class BlackFormulaRepository {
       double lognormalVol,
       boolean isCall) {
 
+    double[] derivatives = new double[4];
+    double price = priceAdjoint(forward, strike, timeToExpiry, lognormalVol, isCall, derivatives, 0);
+    return ValueDerivatives.of(price, DoubleArray.ofUnsafe(derivatives));
+  }
+
+  // computes the price, writing the four derivatives into the array at the offset
+  private static double priceAdjoint(
+      double forward,
+      double strike,
+      double timeToExpiry,
+      double lognormalVol,
+      boolean isCall,
+      double[] derivatives,
+      int offset) {
+
     ArgChecker.isTrue(forward >= 0d, "negative/NaN forward; have {}", forward);
     ArgChecker.isTrue(strike >= 0d, "negative/NaN strike; have {}", strike);
     ArgChecker.isTrue(timeToExpiry >= 0d, "negative/NaN timeToExpiry; have {}", timeToExpiry);
@@ -148,13 +164,19 @@ public final class BlackFormulaRepository {
 
     if (bFwd && bStr) {
       log.info("(large value)/(large value) ambiguous");
-      double price = isCall ? (forward >= strike ? forward : 0d) : (strike >= forward ? strike : 0d); // ???
-      return ValueDerivatives.of(price, DoubleArray.filled(4)); // ??
+      derivatives[offset] = 0d;
+      derivatives[offset + 1] = 0d;
+      derivatives[offset + 2] = 0d;
+      derivatives[offset + 3] = 0d;
+      return isCall ? (forward >= strike ? forward : 0d) : (strike >= forward ? strike : 0d); // ???
     }
     if (sigmaRootT < SMALL) {
       boolean isItm = (sign * (forward - strike)) > 0;
-      double price = isItm ? sign * (forward - strike) : 0d;
-      return ValueDerivatives.of(price, DoubleArray.of(isItm ? sign : 0d, isItm ? -sign : 0d, 0d, 0d));
+      derivatives[offset] = isItm ? sign : 0d;
+      derivatives[offset + 1] = isItm ? -sign : 0d;
+      derivatives[offset + 2] = 0d;
+      derivatives[offset + 3] = 0d;
+      return isItm ? sign * (forward - strike) : 0d;
     }
     if (Math.abs(forward - strike) < SMALL || bSigRt) {
       d1 = 0.5 * sigmaRootT;
@@ -164,8 +186,8 @@ public final class BlackFormulaRepository {
       d1 = d2 + sigmaRootT;
     }
 
-    double nF = NORMAL.getCDF(sign * d1);
-    double nS = NORMAL.getCDF(sign * d2);
+    double nF = cdf(sign * d1);
+    double nS = cdf(sign * d2);
     double first = nF == 0d ? 0d : forward * nF;
     double second = nS == 0d ? 0d : strike * nS;
     double res = sign * (first - second);
@@ -178,13 +200,17 @@ public final class BlackFormulaRepository {
     double forwardBar = nF * firstBar;
     double strikeBar = nS * secondBar;
     double nFBar = forward * firstBar;
-    double d1Bar = sign * NORMAL.getPDF(sign * d1) * nFBar;
+    double d1Bar = sign * pdf(sign * d1) * nFBar;
     // Implementation Note: d2Bar = 0; no need to implement it.
     // Methodology Note: d2Bar is optimal exercise boundary. The derivative at the optimal point is 0.
     double sigmaRootTBar = d1Bar;
     double lognormalVolBar = Math.sqrt(timeToExpiry) * sigmaRootTBar;
     double timeToExpiryBar = 0.5 / Math.sqrt(timeToExpiry) * lognormalVol * sigmaRootTBar;
-    return ValueDerivatives.of(price, DoubleArray.of(forwardBar, strikeBar, timeToExpiryBar, lognormalVolBar));
+    derivatives[offset] = forwardBar;
+    derivatives[offset + 1] = strikeBar;
+    derivatives[offset + 2] = timeToExpiryBar;
+    derivatives[offset + 3] = lognormalVolBar;
+    return price;
   }
 
   /**
@@ -235,8 +261,8 @@ public final class BlackFormulaRepository {
     } else {
       volPeriod = lognormalVol * sqrttheta;
       kappa = Math.log(forward / strike) / volPeriod - 0.5 * volPeriod;
-      d1 = NORMAL.getCDF(omega * (kappa + volPeriod));
-      d2 = NORMAL.getCDF(omega * kappa);
+      d1 = cdf(omega * (kappa + volPeriod));
+      d2 = cdf(omega * kappa);
       p = discountFactor * omega * (forward * d1 - strike * d2);
     }
     // Implementation Note: Backward sweep.
@@ -250,7 +276,7 @@ public final class BlackFormulaRepository {
       strikeBar = (x > 0 ? -discountFactor * omega : 0.0);
     } else {
       d1Bar = discountFactor * omega * forward * pBar;
-      density1 = NORMAL.getPDF(omega * (kappa + volPeriod));
+      density1 = pdf(omega * (kappa + volPeriod));
       // Implementation Note: kappa_bar = 0; no need to implement it.
       // Methodology Note: kappa_bar is optimal exercise boundary. The
       // derivative at the optimal point is 0.
@@ -267,7 +293,7 @@ public final class BlackFormulaRepository {
     }
     // Backward sweep: second derivative
     double d2Bar = -discountFactor * omega * strike;
-    double density2 = NORMAL.getPDF(omega * kappa);
+    double density2 = pdf(omega * kappa);
     double d1Kappa = omega * density1;
     double d1KappaKappa = -(kappa + volPeriod) * d1Kappa;
     double d2Kappa = omega * density2;
@@ -356,7 +382,7 @@ public final class BlackFormulaRepository {
       d1 = Math.log(forward / strike) / sigmaRootT + 0.5 * sigmaRootT;
     }
 
-    return sign * NORMAL.getCDF(sign * d1);
+    return sign * cdf(sign * d1);
   }
 
   //-------------------------------------------------------------------------
@@ -384,7 +410,7 @@ public final class BlackFormulaRepository {
     ArgChecker.isTrue(lognormalVol >= 0d, "negative/NaN lognormalVol; have {}", lognormalVol);
 
     int sign = isCall ? 1 : -1;
-    double d1 = sign * NORMAL.getInverseCDF(sign * forwardDelta);
+    double d1 = sign * inverseCdf(sign * forwardDelta);
 
     double sigmaSqT = lognormalVol * lognormalVol * timeToExpiry;
     if (Double.isNaN(sigmaSqT)) {
@@ -448,7 +474,7 @@ public final class BlackFormulaRepository {
       d2 = Math.log(forward / strike) / sigmaRootT - 0.5 * sigmaRootT;
     }
 
-    return -sign * NORMAL.getCDF(sign * d2);
+    return -sign * cdf(sign * d2);
   }
 
   //-------------------------------------------------------------------------
@@ -505,7 +531,7 @@ public final class BlackFormulaRepository {
       d = Math.log(forward / strike) / sigmaRootT;
     }
 
-    return sign * NORMAL.getCDF(sign * d);
+    return sign * cdf(sign * d);
   }
 
   //-------------------------------------------------------------------------
@@ -546,7 +572,7 @@ public final class BlackFormulaRepository {
         return 0d;
       }
       log.info("(log 1d)/0d ambiguous");
-      return bFwd ? NORMAL.getPDF(0d) : NORMAL.getPDF(0d) / forward / sigmaRootT;
+      return bFwd ? pdf(0d) : pdf(0d) / forward / sigmaRootT;
     }
     if (Math.abs(forward - strike) < SMALL | (bFwd && bStr)) {
       d1 = 0.5 * sigmaRootT;
@@ -554,7 +580,7 @@ public final class BlackFormulaRepository {
       d1 = Math.log(forward / strike) / sigmaRootT + 0.5 * sigmaRootT;
     }
 
-    double nVal = NORMAL.getPDF(d1);
+    double nVal = pdf(d1);
     return nVal == 0d ? 0d : nVal / forward / sigmaRootT;
   }
 
@@ -592,7 +618,7 @@ public final class BlackFormulaRepository {
         return 0d;
       }
       log.info("(log 1d)/0d ambiguous");
-      return bStr ? NORMAL.getPDF(0d) : NORMAL.getPDF(0d) / strike / sigmaRootT;
+      return bStr ? pdf(0d) : pdf(0d) / strike / sigmaRootT;
     }
     if (Math.abs(forward - strike) < SMALL | (bFwd && bStr)) {
       d2 = -0.5 * sigmaRootT;
@@ -600,7 +626,7 @@ public final class BlackFormulaRepository {
       d2 = Math.log(forward / strike) / sigmaRootT - 0.5 * sigmaRootT;
     }
 
-    double nVal = NORMAL.getPDF(d2);
+    double nVal = pdf(d2);
     return nVal == 0d ? 0d : nVal / strike / sigmaRootT;
   }
 
@@ -642,7 +668,7 @@ public final class BlackFormulaRepository {
         return 0d;
       }
       log.info("(log 1d)/0d ambiguous");
-      return bFwd ? -NORMAL.getPDF(0d) : -NORMAL.getPDF(0d) / forward / sigmaRootT;
+      return bFwd ? -pdf(0d) : -pdf(0d) / forward / sigmaRootT;
     }
     if (Math.abs(forward - strike) < SMALL | (bFwd && bStr)) {
       d2 = -0.5 * sigmaRootT;
@@ -650,7 +676,7 @@ public final class BlackFormulaRepository {
       d2 = Math.log(forward / strike) / sigmaRootT - 0.5 * sigmaRootT;
     }
 
-    double nVal = NORMAL.getPDF(d2);
+    double nVal = pdf(d2);
     return nVal == 0d ? 0d : -nVal / forward / sigmaRootT;
   }
 
@@ -728,8 +754,8 @@ public final class BlackFormulaRepository {
           d1 = Math.log(forward / strike) / sigmaRootT + 0.5 * sigmaRootT;
           d2 = d1 - sigmaRootT;
         }
-        double nF = NORMAL.getCDF(sign * d1);
-        double nS = NORMAL.getCDF(sign * d2);
+        double nF = cdf(sign * d1);
+        double nS = cdf(sign * d2);
         double first = nF == 0d ? 0d : forward * nF;
         double second = ((nS == 0d) | (Math.exp(-interestRate * timeToExpiry) == 0d)) ? 0d : strike *
             Math.exp(-interestRate * timeToExpiry) * nS;
@@ -813,7 +839,7 @@ public final class BlackFormulaRepository {
         } else {
           d2 = Math.log(forward / strike) / sigmaRootT - 0.5 * sigmaRootT;
         }
-        double nS = NORMAL.getCDF(sign * d2);
+        double nS = cdf(sign * d2);
         priceLike = (nS == 0d) ? 0d : -sign * strike * nS;
       }
     }
@@ -859,11 +885,11 @@ public final class BlackFormulaRepository {
       }
       log.info("log(1)/0 ambiguous");
       if (rootT < SMALL) {
-        return forward < SMALL ? -NORMAL.getPDF(0d) * lognormalVol / 2. : (lognormalVol < SMALL ? -forward *
-            NORMAL.getPDF(0d) / 2. : -forward * NORMAL.getPDF(0d) * lognormalVol / 2. / rootT);
+        return forward < SMALL ? -pdf(0d) * lognormalVol / 2. : (lognormalVol < SMALL ? -forward *
+            pdf(0d) / 2. : -forward * pdf(0d) * lognormalVol / 2. / rootT);
       }
       if (lognormalVol < SMALL) {
-        return bFwd ? -NORMAL.getPDF(0d) / 2. / rootT : -forward * NORMAL.getPDF(0d) * lognormalVol / 2. / rootT;
+        return bFwd ? -pdf(0d) / 2. / rootT : -forward * pdf(0d) * lognormalVol / 2. / rootT;
       }
     }
     if (Math.abs(forward - strike) < SMALL | (bFwd && bStr)) {
@@ -872,7 +898,7 @@ public final class BlackFormulaRepository {
       d1 = Math.log(forward / strike) / sigmaRootT + 0.5 * sigmaRootT;
     }
 
-    double nVal = NORMAL.getPDF(d1);
+    double nVal = pdf(d1);
     return nVal == 0d ? 0d : -forward * nVal * lognormalVol / 2. / rootT;
   }
 
@@ -914,7 +940,7 @@ public final class BlackFormulaRepository {
         return 0d;
       }
       log.info("log(1)/0 ambiguous");
-      return (rootT < SMALL && forward > LARGE) ? NORMAL.getPDF(0d) : forward * rootT * NORMAL.getPDF(0d);
+      return (rootT < SMALL && forward > LARGE) ? pdf(0d) : forward * rootT * pdf(0d);
     }
     if (Math.abs(forward - strike) < SMALL | (bFwd && bStr)) {
       d1 = 0.5 * sigmaRootT;
@@ -922,7 +948,7 @@ public final class BlackFormulaRepository {
       d1 = Math.log(forward / strike) / sigmaRootT + 0.5 * sigmaRootT;
     }
 
-    double nVal = NORMAL.getPDF(d1);
+    double nVal = pdf(d1);
     return nVal == 0d ? 0d : forward * rootT * nVal;
   }
 
@@ -968,7 +994,7 @@ public final class BlackFormulaRepository {
         return 0d;
       }
       log.info("log(1)/0 ambiguous");
-      return lognormalVol < SMALL ? -NORMAL.getPDF(0d) / lognormalVol : NORMAL.getPDF(0d) * rootT;
+      return lognormalVol < SMALL ? -pdf(0d) / lognormalVol : pdf(0d) * rootT;
     }
     if (Math.abs(forward - strike) < SMALL | (bFwd && bStr)) {
       d1 = 0.5 * sigmaRootT;
@@ -978,7 +1004,7 @@ public final class BlackFormulaRepository {
       d2 = d1 - sigmaRootT;
     }
 
-    double nVal = NORMAL.getPDF(d1);
+    double nVal = pdf(d1);
     return nVal == 0d ? 0d : -nVal * d2 / lognormalVol;
   }
 
@@ -1022,7 +1048,7 @@ public final class BlackFormulaRepository {
         return 0d;
       }
       log.info("log(1)/0 ambiguous");
-      return lognormalVol < SMALL ? -NORMAL.getPDF(0d) / lognormalVol : -NORMAL.getPDF(0d) * rootT;
+      return lognormalVol < SMALL ? -pdf(0d) / lognormalVol : -pdf(0d) * rootT;
     }
     if (Math.abs(forward - strike) < SMALL | (bFwd && bStr)) {
       d1 = 0.5 * sigmaRootT;
@@ -1032,7 +1058,7 @@ public final class BlackFormulaRepository {
       d2 = d1 - sigmaRootT;
     }
 
-    double nVal = NORMAL.getPDF(d2);
+    double nVal = pdf(d2);
     return nVal == 0d ? 0d : nVal * d1 / lognormalVol;
   }
 
@@ -1077,9 +1103,9 @@ public final class BlackFormulaRepository {
       }
       log.info("log(1)/0 ambiguous");
       if (bFwd) {
-        return rootT < SMALL ? NORMAL.getPDF(0d) / lognormalVol : forward * NORMAL.getPDF(0d) * rootT / lognormalVol;
+        return rootT < SMALL ? pdf(0d) / lognormalVol : forward * pdf(0d) * rootT / lognormalVol;
       }
-      return lognormalVol < SMALL ? forward * NORMAL.getPDF(0d) * rootT / lognormalVol : -forward * NORMAL.getPDF(0d) *
+      return lognormalVol < SMALL ? forward * pdf(0d) * rootT / lognormalVol : -forward * pdf(0d) *
           timeToExpiry * lognormalVol / 4.;
     }
     if (Math.abs(forward - strike) < SMALL | (bFwd && bStr)) {
@@ -1090,7 +1116,7 @@ public final class BlackFormulaRepository {
       d2 = d1 - sigmaRootT;
     }
 
-    double nVal = NORMAL.getPDF(d1);
+    double nVal = pdf(d1);
     double res = nVal == 0d ? 0d : forward * nVal * rootT * d1 * d2 / lognormalVol;
     return res;
   }
@@ -1112,6 +1138,150 @@ public final class BlackFormulaRepository {
     return vomma(forward, strike, timeToExpiry, lognormalVol);
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the forward price of an array of options.
+   * <p>
+   * The element at index {@code i} of each input array describes option {@code i}.
+   * The price of each option, as returned by {@link #price(double, double, double, double, boolean)},
+   * is written into the caller-provided array, which may be reused across calls.
+   * 
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param lognormalVols  the log-normal volatilities
+   * @param isCall  true for call, false for put
+   * @param prices  the array to populate with the forward prices
+   */
+  public static void price(
+      double[] forwards,
+      double[] strikes,
+      double[] timesToExpiry,
+      double[] lognormalVols,
+      boolean isCall,
+      double[] prices) {
+
+    int size = checkBatch(forwards, strikes, timesToExpiry, lognormalVols, "volatilities", prices, 1);
+    for (int i = 0; i < size; i++) {
+      prices[i] = price(forwards[i], strikes[i], timesToExpiry[i], lognormalVols[i], isCall);
+    }
+  }
+
+  /**
+   * Computes the forward price and its derivatives for an array of options.
+   * <p>
+   * The element at index {@code i} of each input array describes option {@code i}.
+   * The price and derivatives of each option, as returned by
+   * {@link #priceAdjoint(double, double, double, double, boolean)}, are written into the
+   * caller-provided arrays, which may be reused across calls.
+   * The four derivatives of option {@code i} are written to the derivatives array
+   * from index {@code 4 * i}, in the same order as the single option method.
+   * 
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param lognormalVols  the log-normal volatilities
+   * @param isCall  true for call, false for put
+   * @param prices  the array to populate with the forward prices
+   * @param derivatives  the array to populate with the derivatives, four times the number of options
+   */
+  public static void priceAdjoint(
+      double[] forwards,
+      double[] strikes,
+      double[] timesToExpiry,
+      double[] lognormalVols,
+      boolean isCall,
+      double[] prices,
+      double[] derivatives) {
+
+    int size = checkBatch(forwards, strikes, timesToExpiry, lognormalVols, "volatilities", prices, 1);
+    checkBatch(forwards, strikes, timesToExpiry, lognormalVols, "volatilities", derivatives, 4);
+    for (int i = 0; i < size; i++) {
+      prices[i] = priceAdjoint(
+          forwards[i], strikes[i], timesToExpiry[i], lognormalVols[i], isCall, derivatives, 4 * i);
+    }
+  }
+
+  /**
+   * Computes the forward driftless delta of an array of options.
+   * <p>
+   * The element at index {@code i} of each input array describes option {@code i}.
+   * The delta of each option, as returned by {@link #delta(double, double, double, double, boolean)},
+   * is written into the caller-provided array, which may be reused across calls.
+   * 
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param lognormalVols  the log-normal volatilities
+   * @param isCall  true for call, false for put
+   * @param deltas  the array to populate with the forward driftless deltas
+   */
+  public static void delta(
+      double[] forwards,
+      double[] strikes,
+      double[] timesToExpiry,
+      double[] lognormalVols,
+      boolean isCall,
+      double[] deltas) {
+
+    int size = checkBatch(forwards, strikes, timesToExpiry, lognormalVols, "volatilities", deltas, 1);
+    for (int i = 0; i < size; i++) {
+      deltas[i] = delta(forwards[i], strikes[i], timesToExpiry[i], lognormalVols[i], isCall);
+    }
+  }
+
+  /**
+   * Computes the forward driftless gamma of an array of options.
+   * <p>
+   * The element at index {@code i} of each input array describes option {@code i}.
+   * The gamma of each option, as returned by {@link #gamma(double, double, double, double)},
+   * is written into the caller-provided array, which may be reused across calls.
+   * 
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param lognormalVols  the log-normal volatilities
+   * @param gammas  the array to populate with the forward driftless gammas
+   */
+  public static void gamma(
+      double[] forwards,
+      double[] strikes,
+      double[] timesToExpiry,
+      double[] lognormalVols,
+      double[] gammas) {
+
+    int size = checkBatch(forwards, strikes, timesToExpiry, lognormalVols, "volatilities", gammas, 1);
+    for (int i = 0; i < size; i++) {
+      gammas[i] = gamma(forwards[i], strikes[i], timesToExpiry[i], lognormalVols[i]);
+    }
+  }
+
+  /**
+   * Computes the forward vega of an array of options.
+   * <p>
+   * The element at index {@code i} of each input array describes option {@code i}.
+   * The vega of each option, as returned by {@link #vega(double, double, double, double)},
+   * is written into the caller-provided array, which may be reused across calls.
+   * 
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param lognormalVols  the log-normal volatilities
+   * @param vegas  the array to populate with the forward vegas
+   */
+  public static void vega(
+      double[] forwards,
+      double[] strikes,
+      double[] timesToExpiry,
+      double[] lognormalVols,
+      double[] vegas) {
+
+    int size = checkBatch(forwards, strikes, timesToExpiry, lognormalVols, "volatilities", vegas, 1);
+    for (int i = 0; i < size; i++) {
+      vegas[i] = vega(forwards[i], strikes[i], timesToExpiry[i], lognormalVols[i]);
+    }
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Computes the log-normal implied volatility.
@@ -1144,8 +1314,7 @@ public final class BlackFormulaRepository {
 
     double targetPrice = price - intrinsicPrice;
     // Math.max(0., price - intrinsicPrice) should not used for least chi square
-    double sigmaGuess = 0.3;
-    return impliedVolatility(targetPrice, forward, strike, timeToExpiry, sigmaGuess);
+    return impliedVolatility(targetPrice, forward, strike, timeToExpiry);
   }
 
   /**
@@ -1179,14 +1348,15 @@ public final class BlackFormulaRepository {
 
     double targetPrice = price - intrinsicPrice;
     // Math.max(0., price - intrinsicPrice) should not used for least chi square
-    double sigmaGuess = 0.3;
-    return impliedVolatilityAdjoint(targetPrice, forward, strike, timeToExpiry, sigmaGuess);
+    return impliedVolatilityAdjoint(targetPrice, forward, strike, timeToExpiry);
   }
 
   //-------------------------------------------------------------------------
   /**
-   * Computes the log-normal (Black) implied volatility of an out-the-money
-   * European option starting from an initial guess.
+   * Computes the log-normal (Black) implied volatility of an out-the-money European option.
+   * <p>
+   * The volatility is computed by {@link ImpliedVolatilityFormula}, which derives its own starting point
+   * from the price.
    * 
    * @param otmPrice The forward price, which is the market price divided by the numeraire,
    *  for example the zero bond p(0,T) for the T-forward measure
@@ -1195,27 +1365,23 @@ public final class BlackFormulaRepository {
    * @param forward  the forward value of the underlying
    * @param strike  the strike
    * @param timeToExpiry  the time to expiry
-   * @param volGuess  a guess of the implied volatility
    * @return log-normal (Black) implied volatility
    */
   public static double impliedVolatility(
       double otmPrice,
       double forward,
       double strike,
-      double timeToExpiry,
-      double volGuess) {
+      double timeToExpiry) {
 
     ArgChecker.isTrue(otmPrice >= 0d, "negative/NaN otmPrice; have {}", otmPrice);
     ArgChecker.isTrue(forward >= 0d, "negative/NaN forward; have {}", forward);
     ArgChecker.isTrue(strike >= 0d, "negative/NaN strike; have {}", strike);
     ArgChecker.isTrue(timeToExpiry >= 0d, "negative/NaN timeToExpiry; have {}", timeToExpiry);
-    ArgChecker.isTrue(volGuess >= 0d, "negative/NaN volGuess; have {}", volGuess);
 
     ArgChecker.isFalse(Double.isInfinite(otmPrice), "otmPrice is Infinity");
     ArgChecker.isFalse(Double.isInfinite(forward), "forward is Infinity");
     ArgChecker.isFalse(Double.isInfinite(strike), "strike is Infinity");
     ArgChecker.isFalse(Double.isInfinite(timeToExpiry), "timeToExpiry is Infinity");
-    ArgChecker.isFalse(Double.isInfinite(volGuess), "volGuess is Infinity");
 
     if (otmPrice == 0) {
       return 0;
@@ -1224,32 +1390,45 @@ public final class BlackFormulaRepository {
         Math.min(forward, strike));
 
     if (forward == strike) {
-      return NORMAL.getInverseCDF(0.5 * (otmPrice / forward + 1)) * 2 / Math.sqrt(timeToExpiry);
+      return inverseCdf(0.5 * (otmPrice / forward + 1)) * 2 / Math.sqrt(timeToExpiry);
     }
 
     boolean isCall = strike >= forward;
+    return ImpliedVolatilityFormula.blackImpliedVolatility(otmPrice, forward, strike, timeToExpiry, isCall);
+  }
 
-    Function<Double, Double> priceFunc = new Function<Double, Double>() {
-      @Override
-      public Double apply(Double x) {
-        return price(forward, strike, timeToExpiry, x, isCall);
-      }
-    };
-
-    Function<Double, Double> vegaFunc = new Function<Double, Double>() {
-      @Override
-      public Double apply(Double x) {
-        return vega(forward, strike, timeToExpiry, x);
-      }
-    };
+  /**
+   * Computes the log-normal (Black) implied volatility of an out-the-money
+   * European option starting from an initial guess.
+   * <p>
+   * The volatility is computed by {@link ImpliedVolatilityFormula}, which derives its own starting point
+   * from the price, so the initial guess is not used.
+   * 
+   * @param otmPrice The forward price, which is the market price divided by the numeraire,
+   *  for example the zero bond p(0,T) for the T-forward measure
+   *  This MUST be an OTM price, i.e. a call price for strike >= forward and a put price otherwise.
+   * 
+   * @param forward  the forward value of the underlying
+   * @param strike  the strike
+   * @param timeToExpiry  the time to expiry
+   * @param volGuess  a guess of the implied volatility, not used
+   * @return log-normal (Black) implied volatility
+   * @deprecated Use {@link #impliedVolatility(double, double, double, double)}, as the guess is not used
+   */
+  @Deprecated
+  public static double impliedVolatility(
+      double otmPrice,
+      double forward,
+      double strike,
+      double timeToExpiry,
+      double volGuess) {
 
-    GenericImpliedVolatiltySolver solver = new GenericImpliedVolatiltySolver(priceFunc, vegaFunc);
-    return solver.impliedVolatility(otmPrice, volGuess);
+    return impliedVolatility(otmPrice, forward, strike, timeToExpiry);
   }
 
   /**
-   * Computes the log-normal (Black) implied volatility of an out-the-money European option starting 
-   * from an initial guess and the derivative of the volatility w.r.t. the price.
+   * Computes the log-normal (Black) implied volatility of an out-the-money European option
+   * and the derivative of the volatility w.r.t. the price.
    * 
    * @param otmPrice The forward price, which is the market price divided by the numeraire,
    *  for example the zero bond p(0,T) for the T-forward measure
@@ -1258,16 +1437,15 @@ public final class BlackFormulaRepository {
    * @param forward  the forward value of the underlying
    * @param strike  the strike
    * @param timeToExpiry  the time to expiry
-   * @param volGuess  a guess of the implied volatility
    * @return log-normal (Black) implied volatility and derivative with respect to the price
    */
   public static ValueDerivatives impliedVolatilityAdjoint(
       double otmPrice,
       double forward,
       double strike,
-      double timeToExpiry,
-      double volGuess) {
-    double impliedVolatility = impliedVolatility(otmPrice, forward, strike, timeToExpiry, volGuess);
+      double timeToExpiry) {
+
+    double impliedVolatility = impliedVolatility(otmPrice, forward, strike, timeToExpiry);
     boolean isCall = strike >= forward;
     ValueDerivatives price = priceAdjoint(forward, strike, timeToExpiry, impliedVolatility, isCall);
     double dpricedvol = price.getDerivative(3);
@@ -1275,6 +1453,34 @@ public final class BlackFormulaRepository {
     return ValueDerivatives.of(impliedVolatility, DoubleArray.of(dvoldprice));
   }
 
+  /**
+   * Computes the log-normal (Black) implied volatility of an out-the-money European option starting 
+   * from an initial guess and the derivative of the volatility w.r.t. the price.
+   * <p>
+   * The initial guess is not used, see {@link #impliedVolatility(double, double, double, double)}.
+   * 
+   * @param otmPrice The forward price, which is the market price divided by the numeraire,
+   *  for example the zero bond p(0,T) for the T-forward measure
+   *  This MUST be an OTM price, i.e. a call price for strike >= forward and a put price otherwise.
+   * 
+   * @param forward  the forward value of the underlying
+   * @param strike  the strike
+   * @param timeToExpiry  the time to expiry
+   * @param volGuess  a guess of the implied volatility, not used
+   * @return log-normal (Black) implied volatility and derivative with respect to the price
+   * @deprecated Use {@link #impliedVolatilityAdjoint(double, double, double, double)}, as the guess is not used
+   */
+  @Deprecated
+  public static ValueDerivatives impliedVolatilityAdjoint(
+      double otmPrice,
+      double forward,
+      double strike,
+      double timeToExpiry,
+      double volGuess) {
+
+    return impliedVolatilityAdjoint(otmPrice, forward, strike, timeToExpiry);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Computes the implied strike from delta and volatility in the Black formula.
@@ -1292,7 +1498,7 @@ public final class BlackFormulaRepository {
     ArgChecker.isTrue(forward > 0, "Forward negative");
     double omega = (isCall ? 1d : -1d);
     double strike = forward *
-        Math.exp(-volatility * Math.sqrt(time) * omega * NORMAL.getInverseCDF(omega * delta) + volatility * volatility *
+        Math.exp(-volatility * Math.sqrt(time) * omega * inverseCdf(omega * delta) + volatility * volatility *
             time / 2);
     return strike;
   }
@@ -1323,14 +1529,14 @@ public final class BlackFormulaRepository {
     ArgChecker.isTrue(forward > 0, "Forward negative");
     double omega = (isCall ? 1d : -1d);
     double sqrtt = Math.sqrt(time);
-    double n = NORMAL.getInverseCDF(omega * delta);
+    double n = inverseCdf(omega * delta);
     double part1 = Math.exp(-volatility * sqrtt * omega * n + volatility * volatility * time / 2);
     double strike = forward * part1;
     // Backward sweep
     double strikeBar = 1d;
     double part1Bar = forward * strikeBar;
     double nBar = part1 * -volatility * Math.sqrt(time) * omega * part1Bar;
-    derivatives[0] = omega / NORMAL.getPDF(n) * nBar;
+    derivatives[0] = omega / pdf(n) * nBar;
     derivatives[1] = part1 * strikeBar;
     derivatives[2] = part1 * (-volatility * omega * n * 0.5 / sqrtt + volatility * volatility / 2) * part1Bar;
     derivatives[3] = part1 * (-sqrtt * omega * n + volatility * time) * part1Bar;
@@ -1357,17 +1563,7 @@ public final class BlackFormulaRepository {
       final double normalVolatility) {
     ArgChecker.isTrue(strike > 0, "strike must be strictly positive");
     ArgChecker.isTrue(forward > 0, "strike must be strictly positive");
-    // initial guess
-    double guess = impliedVolatilityFromNormalApproximated2(forward, strike, timeToExpiry, normalVolatility);
-    // Newton-Raphson method
-    final Function<Double, Double> func = new Function<Double, Double>() {
-      @Override
-      public Double apply(Double volatility) {
-        return NormalFormulaRepository
-            .impliedVolatilityFromBlackApproximated(forward, strike, timeToExpiry, volatility) - normalVolatility;
-      }
-    };
-    return ROOT_FINDER.getRoot(func, guess);
+    return blackVolatilityFromNormalApproximated(forward, strike, timeToExpiry, normalVolatility);
   }
 
   /**
@@ -1391,23 +1587,34 @@ public final class BlackFormulaRepository {
       final double normalVolatility) {
     ArgChecker.isTrue(strike > 0, "strike must be strictly positive");
     ArgChecker.isTrue(forward > 0, "strike must be strictly positive");
-    // initial guess
-    double guess = impliedVolatilityFromNormalApproximated2(forward, strike, timeToExpiry, normalVolatility);
-    // Newton-Raphson method
-    final Function<Double, Double> func = new Function<Double, Double>() {
-      @Override
-      public Double apply(Double volatility) {
-        return NormalFormulaRepository
-            .impliedVolatilityFromBlackApproximated(forward, strike, timeToExpiry, volatility) - normalVolatility;
-      }
-    };
-    double impliedVolatilityBlack = ROOT_FINDER.getRoot(func, guess);
+    double impliedVolatilityBlack =
+        blackVolatilityFromNormalApproximated(forward, strike, timeToExpiry, normalVolatility);
     double derivativeInverse = NormalFormulaRepository
         .impliedVolatilityFromBlackApproximatedAdjoint(forward, strike, timeToExpiry, impliedVolatilityBlack).getDerivative(0);
     double derivative = 1.0 / derivativeInverse;
     return ValueDerivatives.of(impliedVolatilityBlack, DoubleArray.of(derivative));
   }
 
+  // inverts the approximation of the normal volatility by Newton-Raphson, starting from the explicit approximation
+  private static double blackVolatilityFromNormalApproximated(
+      double forward,
+      double strike,
+      double timeToExpiry,
+      double normalVolatility) {
+
+    double volatility = impliedVolatilityFromNormalApproximated2(forward, strike, timeToExpiry, normalVolatility);
+    for (int i = 0; i < ROOT_MAX_ITERATIONS; i++) {
+      ValueDerivatives normal = NormalFormulaRepository
+          .impliedVolatilityFromBlackApproximatedAdjoint(forward, strike, timeToExpiry, volatility);
+      double step = (normal.getValue() - normalVolatility) / normal.getDerivative(0);
+      volatility -= step;
+      if (Math.abs(step) <= ROOT_ACCURACY) {
+        return volatility;
+      }
+    }
+    throw new MathException("Could not find root in " + ROOT_MAX_ITERATIONS + " attempts");
+  }
+
   /**
    * Compute the normal implied volatility from a normal volatility using an approximate explicit formula.
    * <p>
@@ -0,0 +1,444 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.option;
+
+import static com.opengamma.strata.math.impl.statistics.distribution.NormalDistributionFunctions.cdf;
+import static com.opengamma.strata.math.impl.statistics.distribution.NormalDistributionFunctions.inverseCdf;
+import static com.opengamma.strata.math.impl.statistics.distribution.NormalDistributionFunctions.millsRatio;
+import static com.opengamma.strata.math.impl.statistics.distribution.NormalDistributionFunctions.pdf;
+import static com.opengamma.strata.pricer.impl.option.BatchFormulaChecks.checkBatch;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.product.common.PutCall;
+
+/**
+ * Implied volatility formulas for the Black and normal (Bachelier) models.
+ * <p>
+ * The implied volatility is found to close to machine precision, using an analytic initial guess
+ * followed by third order Householder iterations on a transformed objective function.
+ * The approach follows the structure of Jaeckel, "Let's be rational", Wilmott, 2015.
+ * <p>
+ * For the Black model, the price is normalized by the geometric mean of the forward and strike,
+ * and reduced to the out-of-the-money call with the same log-moneyness.
+ * The normalized price is computed without cancellation in the tails using the Mills ratio,
+ * and by a Taylor expansion when the volatility is very small.
+ * Below the inflection point of the normalized price, the log of the price is matched.
+ * Above it, the log of the distance to the upper price bound is matched.
+ * <p>
+ * For the normal model, the out-of-the-money price is normalized by the distance between the forward
+ * and strike, and the log of the normalized price is matched as a function of the moneyness.
+ * <p>
+ * The initial guess is exact in the asymptotic limits, so the iterations typically converge in two to four steps.
+ * The number of iterations is bounded at ten, and each iteration is safeguarded
+ * by a bracket on the solution, so the iterations cannot diverge.
+ * <p>
+ * All prices are <b>forward</b> prices, i.e. the market price divided by the numeraire.
+ */
+public final class ImpliedVolatilityFormula {
+
+  /**
+   * The maximum number of iterations.
+   */
+  private static final int MAX_ITERATIONS = 10;
+  /**
+   * The relative tolerance at which the iterations stop.
+   */
+  private static final double TOLERANCE = 4 * Math.ulp(1d);
+  /**
+   * The square root of three.
+   */
+  private static final double ROOT3 = Math.sqrt(3d);
+  /**
+   * The threshold on half the total standard deviation below which the Taylor expansion is used.
+   */
+  private static final double SMALL_T = 0.21;
+  /**
+   * The threshold on the moneyness ratio above which the Taylor expansion is used.
+   */
+  private static final double SMALL_T_MIN_H = -10d;
+  /**
+   * The order of the Taylor expansion.
+   */
+  private static final int TAYLOR_ORDER = 13;
+  /**
+   * The coefficients of the polynomials P and Q such that the n-th derivative of the
+   * ratio Y(h) = cdf(h) / pdf(h) is P(h) + Q(h) * Y(h).
+   */
+  private static final double[][] TAYLOR_P = new double[TAYLOR_ORDER + 1][];
+  private static final double[][] TAYLOR_Q = new double[TAYLOR_ORDER + 1][];
+  static {
+    // Y' = 1 + h * Y, so the derivative of P + Q * Y is (P' + Q) + (Q' + h * Q) * Y
+    TAYLOR_P[0] = new double[] {0d};
+    TAYLOR_Q[0] = new double[] {1d};
+    for (int n = 0; n < TAYLOR_ORDER; n++) {
+      double[] p = TAYLOR_P[n];
+      double[] q = TAYLOR_Q[n];
+      double[] nextP = new double[q.length];
+      double[] nextQ = new double[q.length + 1];
+      for (int i = 0; i < q.length; i++) {
+        nextP[i] += q[i];
+        nextQ[i + 1] += q[i];
+        if (i > 0) {
+          nextQ[i - 1] += i * q[i];
+        }
+      }
+      for (int i = 1; i < p.length; i++) {
+        nextP[i - 1] += i * p[i];
+      }
+      TAYLOR_P[n + 1] = nextP;
+      TAYLOR_Q[n + 1] = nextQ;
+    }
+  }
+
+  // restricted constructor
+  private ImpliedVolatilityFormula() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the implied volatility of the Black model.
+   * <p>
+   * The price must be at least the intrinsic value and less than the forward for a call,
+   * or the strike for a put. A price equal to the intrinsic value has an implied volatility of zero.
+   *
+   * @param price  the forward price of the option
+   * @param forward  the forward value of the underlying, positive
+   * @param strike  the strike, positive
+   * @param timeToExpiry  the time to expiry, positive
+   * @param isCall  true for call, false for put
+   * @return the log-normal implied volatility
+   * @throws IllegalArgumentException if the price is outside the no-arbitrage bounds
+   */
+  public static double blackImpliedVolatility(
+      double price,
+      double forward,
+      double strike,
+      double timeToExpiry,
+      boolean isCall) {
+
+    ArgChecker.isTrue(forward > 0d && forward < Double.POSITIVE_INFINITY, "forward must be positive; have {}", forward);
+    ArgChecker.isTrue(strike > 0d && strike < Double.POSITIVE_INFINITY, "strike must be positive; have {}", strike);
+    ArgChecker.isTrue(
+        timeToExpiry > 0d && timeToExpiry < Double.POSITIVE_INFINITY,
+        "timeToExpiry must be positive; have {}",
+        timeToExpiry);
+    double intrinsic = Math.max(0d, (isCall ? 1d : -1d) * (forward - strike));
+    double otmPrice = price - intrinsic;
+    ArgChecker.isTrue(otmPrice >= 0d, "price {} is below the intrinsic value {}", price, intrinsic);
+    ArgChecker.isTrue(
+        otmPrice < Math.min(forward, strike),
+        "price {} exceeds the upper bound {}",
+        price,
+        intrinsic + Math.min(forward, strike));
+    if (otmPrice == 0d) {
+      return 0d;
+    }
+    double x = -Math.abs(Math.log(forward / strike));
+    double beta = otmPrice / Math.sqrt(forward * strike);
+    return normalizedBlackImpliedVolatility(beta, x) / Math.sqrt(timeToExpiry);
+  }
+
+  /**
+   * Computes the implied volatility of the Black model for an array of options.
+   * <p>
+   * The element at index {@code i} of each input array describes option {@code i}.
+   * The implied volatility of each option, as returned by
+   * {@link #blackImpliedVolatility(double, double, double, double, boolean)}, is written into the
+   * caller-provided array, which may be reused across calls.
+   *
+   * @param prices  the forward prices of the options
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param isCall  true for call, false for put
+   * @param impliedVols  the array to populate with the log-normal implied volatilities
+   * @throws IllegalArgumentException if a price is outside the no-arbitrage bounds
+   */
+  public static void blackImpliedVolatility(
+      double[] prices,
+      double[] forwards,
+      double[] strikes,
+      double[] timesToExpiry,
+      boolean isCall,
+      double[] impliedVols) {
+
+    int size = checkBatch(forwards, strikes, timesToExpiry, prices, "prices", impliedVols, 1);
+    for (int i = 0; i < size; i++) {
+      impliedVols[i] = blackImpliedVolatility(prices[i], forwards[i], strikes[i], timesToExpiry[i], isCall);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the implied volatility of the normal model.
+   * <p>
+   * The price must be at least the intrinsic value.
+   * A price equal to the intrinsic value has an implied volatility of zero.
+   *
+   * @param price  the forward price of the option
+   * @param forward  the forward value of the underlying
+   * @param strike  the strike
+   * @param timeToExpiry  the time to expiry, positive
+   * @param putCall  whether it is put or call
+   * @return the normal implied volatility
+   * @throws IllegalArgumentException if the price is below the intrinsic value
+   */
+  public static double normalImpliedVolatility(
+      double price,
+      double forward,
+      double strike,
+      double timeToExpiry,
+      PutCall putCall) {
+
+    ArgChecker.isTrue(
+        timeToExpiry > 0d && timeToExpiry < Double.POSITIVE_INFINITY,
+        "timeToExpiry must be positive; have {}",
+        timeToExpiry);
+    double intrinsic = Math.max(0d, (putCall.isCall() ? 1d : -1d) * (forward - strike));
+    double otmPrice = price - intrinsic;
+    ArgChecker.isTrue(otmPrice >= 0d, "price {} is below the intrinsic value {}", price, intrinsic);
+    if (otmPrice == 0d) {
+      return 0d;
+    }
+    double moneyness = Math.abs(forward - strike);
+    if (moneyness == 0d) {
+      return otmPrice / pdf(0d) / Math.sqrt(timeToExpiry);
+    }
+    double eta = normalizedNormalImpliedMoneyness(otmPrice / moneyness);
+    return moneyness / eta / Math.sqrt(timeToExpiry);
+  }
+
+  /**
+   * Computes the implied volatility of the normal model for an array of options.
+   * <p>
+   * The element at index {@code i} of each input array describes option {@code i}.
+   * The implied volatility of each option, as returned by
+   * {@link #normalImpliedVolatility(double, double, double, double, PutCall)}, is written into the
+   * caller-provided array, which may be reused across calls.
+   *
+   * @param prices  the forward prices of the options
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param putCall  whether the options are puts or calls
+   * @param impliedVols  the array to populate with the normal implied volatilities
+   * @throws IllegalArgumentException if a price is below the intrinsic value
+   */
+  public static void normalImpliedVolatility(
+      double[] prices,
+      double[] forwards,
+      double[] strikes,
+      double[] timesToExpiry,
+      PutCall putCall,
+      double[] impliedVols) {
+
+    int size = checkBatch(forwards, strikes, timesToExpiry, prices, "prices", impliedVols, 1);
+    for (int i = 0; i < size; i++) {
+      impliedVols[i] = normalImpliedVolatility(prices[i], forwards[i], strikes[i], timesToExpiry[i], putCall);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // finds the total standard deviation s of the normalized out-of-the-money call with price beta and log-moneyness x
+  // x is not positive, beta is in the range (0, exp(x / 2))
+  static double normalizedBlackImpliedVolatility(double beta, double x) {
+    double bMax = Math.exp(x / 2d);
+    double sc = Math.sqrt(-2d * x);
+    double bc = normalizedBlackPrice(x, sc);
+    boolean lower = beta < bc;
+    double lowerBound = lower ? 0d : sc;
+    double upperBound = lower ? sc : Double.POSITIVE_INFINITY;
+    double s = lower ? lowerGuess(beta, x, sc, bc) : upperGuess(beta, x, bMax, sc);
+    // the price itself is the objective unless it is closer to its upper bound than to zero
+    boolean usePrice = beta <= bMax / 2d;
+    double target = usePrice ? Math.log(beta) : Math.log(bMax - beta);
+    for (int i = 0; i < MAX_ITERATIONS; i++) {
+      double h = x / s;
+      double t = s / 2d;
+      // derivatives of the price with respect to s, relative to the first derivative
+      double b1 = pdf(h) * Math.exp(-t * t / 2d);
+      double b2 = h * h / s - s / 4d;
+      double b3 = b2 * b2 - 3d * h * h / (s * s) - 0.25;
+      double value;
+      double f1;
+      double f2;
+      double f3;
+      if (usePrice) {
+        // objective ln(b)
+        double b = normalizedBlackPrice(x, s);
+        value = Math.log(b) - target;
+        double nu = b1 / b;
+        f1 = nu;
+        f2 = nu * b2 - nu * nu;
+        f3 = nu * b3 - 3d * nu * nu * b2 + 2d * nu * nu * nu;
+      } else {
+        // objective ln(bMax - b), with bMax - b computed directly to avoid cancellation
+        double c = complementNormalizedBlackPrice(x, s);
+        value = Math.log(c) - target;
+        double nu = -b1 / c;
+        f1 = nu;
+        f2 = nu * b2 - nu * nu;
+        f3 = nu * b3 - 3d * nu * nu * b2 + 2d * nu * nu * nu;
+      }
+      // ln(b) is increasing in s and ln(bMax - b) is decreasing
+      if ((value > 0d) == usePrice) {
+        upperBound = Math.min(upperBound, s);
+      } else {
+        lowerBound = Math.max(lowerBound, s);
+      }
+      if (value == 0d) {
+        return s;
+      }
+      double next = s + householderStep(value, f1, f2, f3);
+      if (Math.abs(next - s) <= TOLERANCE * s) {
+        return next;
+      }
+      if (upperBound - lowerBound <= TOLERANCE * s) {
+        // the bracket has collapsed, the remaining step is rounding noise in the price
+        return s;
+      }
+      if (!(next > lowerBound && next < upperBound)) {
+        next = upperBound == Double.POSITIVE_INFINITY ? 2d * lowerBound : (lowerBound + upperBound) / 2d;
+      }
+      s = next;
+    }
+    return s;
+  }
+
+  // the normalized price of the out-of-the-money call, exp(x/2) N(h+t) - exp(-x/2) N(h-t), with h = x/s and t = s/2
+  static double normalizedBlackPrice(double x, double s) {
+    double h = x / s;
+    double t = s / 2d;
+    if (t < SMALL_T && h > SMALL_T_MIN_H) {
+      // Taylor expansion in t of Y(h+t) - Y(h-t), where Y = cdf / pdf
+      double y = millsRatio(-h);
+      double t2 = t * t;
+      double term = t;
+      double sum = 0d;
+      for (int n = 1; n <= TAYLOR_ORDER; n += 2) {
+        sum += term * (polynomial(TAYLOR_P[n], h) + polynomial(TAYLOR_Q[n], h) * y);
+        term *= t2 / ((n + 1) * (n + 2));
+      }
+      return 2d * pdf(h) * Math.exp(-t2 / 2d) * sum;
+    }
+    if (h + t > 0d) {
+      return Math.exp(x / 2d) * cdf(h + t) - Math.exp(-x / 2d) * cdf(h - t);
+    }
+    // both terms are small, so use the Mills ratio to avoid cancellation and underflow
+    return pdf(h) * Math.exp(-t * t / 2d) * (millsRatio(-h - t) - millsRatio(t - h));
+  }
+
+  // the distance of the normalized price from its upper bound, exp(x/2) N(-h-t) + exp(-x/2) N(h-t)
+  private static double complementNormalizedBlackPrice(double x, double s) {
+    double h = x / s;
+    double t = s / 2d;
+    return Math.exp(x / 2d) * cdf(-h - t) + Math.exp(-x / 2d) * cdf(h - t);
+  }
+
+  // initial guess below the inflection point, exact in the limit of small s
+  // otherwise the price is close to linear in s, which is exact in the limit of small x
+  private static double lowerGuess(double beta, double x, double sc, double bc) {
+    double ax = -x;
+    double linear = sc * beta / bc;
+    double w = Math.cbrt(3d * ROOT3 * beta / (2d * Math.PI * ax));
+    if (!(w < 0.5)) {
+      return linear;
+    }
+    double s = ax / (ROOT3 * -inverseCdf(w));
+    return s > 0d && s < sc ? Math.max(s, linear) : linear;
+  }
+
+  // initial guess above the inflection point, exact when x is zero and in the limit of large s
+  private static double upperGuess(double beta, double x, double bMax, double sc) {
+    double ratio = (bMax - beta) / (Math.exp(x / 2d) + Math.exp(-x / 2d));
+    double s = -2d * inverseCdf(ratio);
+    return s > sc ? s : (x == 0d ? s : 2d * sc);
+  }
+
+  //-------------------------------------------------------------------------
+  // finds the moneyness eta = |F - K| / (sigma sqrt(T)) at which the normalized normal price,
+  // pdf(eta) / eta - cdf(-eta), equals the target, which is the out-of-the-money price over |F - K|
+  static double normalizedNormalImpliedMoneyness(double target) {
+    double lnTarget = Math.log(target);
+    double eta = normalGuess(target, lnTarget);
+    double lowerBound = 0d;
+    double upperBound = Double.POSITIVE_INFINITY;
+    for (int i = 0; i < MAX_ITERATIONS; i++) {
+      double pdf = pdf(eta);
+      double q = normalizedNormalPrice(eta);
+      double eta2 = eta * eta;
+      double value = Math.log(q) - lnTarget;
+      // the normalized price is decreasing in eta
+      if (value > 0d) {
+        lowerBound = Math.max(lowerBound, eta);
+      } else {
+        upperBound = Math.min(upperBound, eta);
+      }
+      // derivatives of q with respect to eta
+      double q1 = -pdf / eta2;
+      double q2 = pdf * (eta2 + 2d) / (eta2 * eta);
+      double q3 = -pdf * (1d + 3d / eta2 + 6d / (eta2 * eta2));
+      double nu = q1 / q;
+      double f2 = q2 / q - nu * nu;
+      double f3 = q3 / q - 3d * nu * q2 / q + 2d * nu * nu * nu;
+      if (value == 0d) {
+        return eta;
+      }
+      double next = eta + householderStep(value, nu, f2, f3);
+      if (Math.abs(next - eta) <= TOLERANCE * eta) {
+        return next;
+      }
+      if (upperBound - lowerBound <= TOLERANCE * eta) {
+        // the bracket has collapsed, the remaining step is rounding noise in the price
+        return eta;
+      }
+      if (!(next > lowerBound && next < upperBound)) {
+        next = upperBound == Double.POSITIVE_INFINITY ? 2d * eta : (lowerBound + upperBound) / 2d;
+      }
+      eta = next;
+    }
+    return eta;
+  }
+
+  // the normalized normal price, pdf(eta) / eta - cdf(-eta), using the Mills ratio to avoid underflow
+  static double normalizedNormalPrice(double eta) {
+    return pdf(eta) * (1d / eta - millsRatio(eta));
+  }
+
+  // initial guess, exact in the limits of small and large eta
+  private static double normalGuess(double target, double lnTarget) {
+    if (target > 0.08) {
+      // small eta, the price is pdf(0) / eta - 1/2 + O(eta)
+      return pdf(0d) / (target + 0.5);
+    }
+    // large eta, the price is pdf(eta) / eta^3 (1 + O(1 / eta^2))
+    double base = -2d * (lnTarget + Math.log(Math.sqrt(2d * Math.PI)));
+    double eta = Math.sqrt(base);
+    for (int i = 0; i < 3; i++) {
+      eta = Math.sqrt(Math.max(base - 6d * Math.log(eta), 1d));
+    }
+    return eta;
+  }
+
+  //-------------------------------------------------------------------------
+  // the third order Householder step for the objective value and its first three derivatives
+  private static double householderStep(double value, double f1, double f2, double f3) {
+    double newton = -value / f1;
+    double halley = f2 / f1;
+    double hh3 = f3 / f1;
+    return newton * (1d + 0.5 * halley * newton) / (1d + newton * (halley + hh3 * newton / 6d));
+  }
+
+  // evaluates the polynomial with the specified coefficients
+  private static double polynomial(double[] coefficients, double h) {
+    double result = 0d;
+    for (int i = coefficients.length - 1; i >= 0; i--) {
+      result = result * h + coefficients[i];
+    }
+    return result;
+  }
+
+}
@@ -5,16 +5,14 @@
  */
 package com.opengamma.strata.pricer.impl.option;
 
-import java.util.function.Function;
+import static com.opengamma.strata.math.impl.statistics.distribution.NormalDistributionFunctions.cdf;
+import static com.opengamma.strata.math.impl.statistics.distribution.NormalDistributionFunctions.pdf;
+import static com.opengamma.strata.pricer.impl.option.BatchFormulaChecks.checkBatch;
 
 import com.google.common.math.DoubleMath;
 import com.opengamma.strata.basics.value.ValueDerivatives;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
-import com.opengamma.strata.math.impl.rootfinding.BisectionSingleRootFinder;
-import com.opengamma.strata.math.impl.rootfinding.BracketRoot;
-import com.opengamma.strata.math.impl.statistics.distribution.NormalDistribution;
-import com.opengamma.strata.math.impl.statistics.distribution.ProbabilityDistribution;
 import com.opengamma.strata.product.common.PutCall;
 
 /**
@@ -22,22 +20,10 @@ import com.opengamma.strata.product.common.PutCall;
  */
 public final class NormalFormulaRepository {
 
-  /**
-   * The normal distribution implementation.
-   */
-  private static final ProbabilityDistribution<Double> DISTRIBUTION = new NormalDistribution(0, 1);
   /**
    * The comparison value used to determine near-zero.
    */
   private static final double NEAR_ZERO = 1e-16;
-  /**
-   * The maximal number of iterations in the root solving algorithm.
-   */
-  private static final int MAX_ITERATIONS = 100;
-  /**
-   * The solution precision.
-   */
-  private static final double EPS = 1e-15;
 
   /** Limit defining "close to ATM forward" to avoid the formula singularity in the impliedVolatilityFromBlackVolatility. **/
   private static final double ATM_LIMIT = 1.0E-3;
@@ -67,8 +53,8 @@ public final class NormalFormulaRepository {
       return (x > 0 ? x : 0d);
     }
     double arg = sign * (forward - strike) / sigmaRootT;
-    double cdf = DISTRIBUTION.getCDF(arg);
-    double pdf = DISTRIBUTION.getPDF(arg);
+    double cdf = cdf(arg);
+    double pdf = pdf(arg);
     return sign * (forward - strike) * cdf + sigmaRootT * pdf;
   }
 
@@ -99,6 +85,22 @@ public final class NormalFormulaRepository {
       double numeraire,
       PutCall putCall) {
 
+    double[] derivatives = new double[3];
+    double price = priceAdjoint(forward, strike, timeToExpiry, normalVol, numeraire, putCall, derivatives, 0);
+    return ValueDerivatives.of(price, DoubleArray.ofUnsafe(derivatives));
+  }
+
+  // computes the price, writing the three derivatives into the array at the offset
+  private static double priceAdjoint(
+      double forward,
+      double strike,
+      double timeToExpiry,
+      double normalVol,
+      double numeraire,
+      PutCall putCall,
+      double[] derivatives,
+      int offset) {
+
     int sign = putCall.isCall() ? 1 : -1;
     double price;
     double cdf = 0d;
@@ -112,8 +114,8 @@ public final class NormalFormulaRepository {
       price = (x > 0 ? numeraire * x : 0d);
     } else {
       arg = sign * (forward - strike) / sigmaRootT;
-      cdf = NormalFormulaRepository.DISTRIBUTION.getCDF(arg);
-      pdf = NormalFormulaRepository.DISTRIBUTION.getPDF(arg);
+      cdf = cdf(arg);
+      pdf = pdf(arg);
       price = numeraire * (sign * (forward - strike) * cdf + sigmaRootT * pdf);
     }
     // Implementation Note: Backward sweep.
@@ -135,7 +137,10 @@ public final class NormalFormulaRepository {
       double sigmaRootTBar = -arg / sigmaRootT * argBar + numeraire * pdf * priceBar;
       volatilityDerivative = Math.sqrt(timeToExpiry) * sigmaRootTBar;
     }
-    return ValueDerivatives.of(price, DoubleArray.of(forwardDerivative, volatilityDerivative, strikeDerivative));
+    derivatives[offset] = forwardDerivative;
+    derivatives[offset + 1] = volatilityDerivative;
+    derivatives[offset + 2] = strikeDerivative;
+    return price;
   }
 
   //-------------------------------------------------------------------------
@@ -163,7 +168,7 @@ public final class NormalFormulaRepository {
       return x > 0 ? sign : 0d;
     }
     double arg = sign * (forward - strike) / sigmaRootT;
-    double cdf = DISTRIBUTION.getCDF(arg);
+    double cdf = cdf(arg);
     return sign * cdf;
   }
 
@@ -189,7 +194,7 @@ public final class NormalFormulaRepository {
       return Math.abs(x) > NEAR_ZERO ? 0d : 1d / Math.sqrt(2d * Math.PI) / sigmaRootT;
     }
     double arg = (forward - strike) / sigmaRootT;
-    double pdf = DISTRIBUTION.getPDF(arg);
+    double pdf = pdf(arg);
     return pdf / sigmaRootT;
   }
 
@@ -216,7 +221,7 @@ public final class NormalFormulaRepository {
       return Math.abs(x) > NEAR_ZERO ? 0d : -0.5 * normalVol / rootT / Math.sqrt(2d * Math.PI);
     }
     double arg = (forward - strike) / sigmaRootT;
-    double pdf = DISTRIBUTION.getPDF(arg);
+    double pdf = pdf(arg);
     return -0.5 * pdf * normalVol / rootT;
   }
 
@@ -243,15 +248,166 @@ public final class NormalFormulaRepository {
       return Math.abs(x) > NEAR_ZERO ? 0d : rootT / Math.sqrt(2d * Math.PI);
     }
     double arg = (forward - strike) / sigmaRootT;
-    double pdf = DISTRIBUTION.getPDF(arg);
+    double pdf = pdf(arg);
     return pdf * rootT;
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the forward price of an array of options.
+   * <p>
+   * The element at index {@code i} of each input array describes option {@code i}.
+   * The price of each option, as returned by {@link #price(double, double, double, double, PutCall)},
+   * is written into the caller-provided array, which may be reused across calls.
+   * 
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param normalVols  the normal volatilities
+   * @param putCall  whether the options are puts or calls
+   * @param prices  the array to populate with the forward prices
+   */
+  public static void price(
+      double[] forwards,
+      double[] strikes,
+      double[] timesToExpiry,
+      double[] normalVols,
+      PutCall putCall,
+      double[] prices) {
+
+    int size = checkBatch(forwards, strikes, timesToExpiry, normalVols, "volatilities", prices, 1);
+    for (int i = 0; i < size; i++) {
+      prices[i] = price(forwards[i], strikes[i], timesToExpiry[i], normalVols[i], putCall);
+    }
+  }
+
+  /**
+   * Computes the price and first order derivatives for an array of options.
+   * <p>
+   * The element at index {@code i} of each input array describes option {@code i}.
+   * The price and derivatives of each option, as returned by
+   * {@link #priceAdjoint(double, double, double, double, double, PutCall)}, are written into the
+   * caller-provided arrays, which may be reused across calls.
+   * The three derivatives of option {@code i} are written to the derivatives array
+   * from index {@code 3 * i}, in the same order as the single option method.
+   * 
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param normalVols  the normal volatilities
+   * @param numeraire  the numeraire
+   * @param putCall  whether the options are puts or calls
+   * @param prices  the array to populate with the prices
+   * @param derivatives  the array to populate with the derivatives, three times the number of options
+   */
+  public static void priceAdjoint(
+      double[] forwards,
+      double[] strikes,
+      double[] timesToExpiry,
+      double[] normalVols,
+      double numeraire,
+      PutCall putCall,
+      double[] prices,
+      double[] derivatives) {
+
+    int size = checkBatch(forwards, strikes, timesToExpiry, normalVols, "volatilities", prices, 1);
+    checkBatch(forwards, strikes, timesToExpiry, normalVols, "volatilities", derivatives, 3);
+    for (int i = 0; i < size; i++) {
+      prices[i] = priceAdjoint(
+          forwards[i], strikes[i], timesToExpiry[i], normalVols[i], numeraire, putCall, derivatives, 3 * i);
+    }
+  }
+
+  /**
+   * Computes the delta of an array of options.
+   * <p>
+   * The element at index {@code i} of each input array describes option {@code i}.
+   * The delta of each option, as returned by {@link #delta(double, double, double, double, PutCall)},
+   * is written into the caller-provided array, which may be reused across calls.
+   * 
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param normalVols  the normal volatilities
+   * @param putCall  whether the options are puts or calls
+   * @param deltas  the array to populate with the deltas
+   */
+  public static void delta(
+      double[] forwards,
+      double[] strikes,
+      double[] timesToExpiry,
+      double[] normalVols,
+      PutCall putCall,
+      double[] deltas) {
+
+    int size = checkBatch(forwards, strikes, timesToExpiry, normalVols, "volatilities", deltas, 1);
+    for (int i = 0; i < size; i++) {
+      deltas[i] = delta(forwards[i], strikes[i], timesToExpiry[i], normalVols[i], putCall);
+    }
+  }
+
+  /**
+   * Computes the gamma of an array of options.
+   * <p>
+   * The element at index {@code i} of each input array describes option {@code i}.
+   * The gamma of each option, as returned by {@link #gamma(double, double, double, double, PutCall)},
+   * is written into the caller-provided array, which may be reused across calls.
+   * 
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param normalVols  the normal volatilities
+   * @param putCall  whether the options are puts or calls
+   * @param gammas  the array to populate with the gammas
+   */
+  public static void gamma(
+      double[] forwards,
+      double[] strikes,
+      double[] timesToExpiry,
+      double[] normalVols,
+      PutCall putCall,
+      double[] gammas) {
+
+    int size = checkBatch(forwards, strikes, timesToExpiry, normalVols, "volatilities", gammas, 1);
+    for (int i = 0; i < size; i++) {
+      gammas[i] = gamma(forwards[i], strikes[i], timesToExpiry[i], normalVols[i], putCall);
+    }
+  }
+
+  /**
+   * Computes the vega of an array of options.
+   * <p>
+   * The element at index {@code i} of each input array describes option {@code i}.
+   * The vega of each option, as returned by {@link #vega(double, double, double, double, PutCall)},
+   * is written into the caller-provided array, which may be reused across calls.
+   * 
+   * @param forwards  the forward values of the underlying
+   * @param strikes  the strikes
+   * @param timesToExpiry  the times to expiry
+   * @param normalVols  the normal volatilities
+   * @param putCall  whether the options are puts or calls
+   * @param vegas  the array to populate with the vegas
+   */
+  public static void vega(
+      double[] forwards,
+      double[] strikes,
+      double[] timesToExpiry,
+      double[] normalVols,
+      PutCall putCall,
+      double[] vegas) {
+
+    int size = checkBatch(forwards, strikes, timesToExpiry, normalVols, "volatilities", vegas, 1);
+    for (int i = 0; i < size; i++) {
+      vegas[i] = vega(forwards[i], strikes[i], timesToExpiry[i], normalVols[i], putCall);
+    }
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Computes the implied volatility.
    * <p>
-   * If the volatility data is not zero, it is used as a starting point for the volatility search.
+   * The volatility is computed by {@link ImpliedVolatilityFormula}, which derives its own starting point
+   * from the price, so the initial volatility is not used.
    * <p>
    * Note that the 'numeraire' is a simple multiplier and is the responsibility of the caller.
    * 
@@ -259,7 +415,7 @@ public final class NormalFormulaRepository {
    * @param forward  the forward value of the underlying
    * @param strike  the strike
    * @param timeToExpiry  the time to expiry
-   * @param initialNormalVol  the normal volatility used to start the search
+   * @param initialNormalVol  the normal volatility, not used
    * @param numeraire  the numeraire
    * @param putCall  whether it is put or call
    * @return the implied volatility
@@ -279,41 +435,12 @@ public final class NormalFormulaRepository {
     if (Double.doubleToLongBits(optionPrice) == Double.doubleToLongBits(intrinsicPrice)) {
       return 0d;
     }
-    double sigma = (Math.abs(initialNormalVol) < 1e-10 ? 0.3 * forward : initialNormalVol);
-    double maxChange = 0.5 * forward;
-    ValueDerivatives price = priceAdjoint(forward, strike, timeToExpiry, sigma, numeraire, putCall);
-    double vega = price.getDerivative(1);
-    double change = (price.getValue() - optionPrice) / vega;
-    double sign = Math.signum(change);
-    change = sign * Math.min(maxChange, Math.abs(change));
-    if (change > 0 && change > sigma) {
-      change = sigma;
-    }
-    int count = 0;
-    while (Math.abs(change) > EPS) {
-      sigma -= change;
-      price = priceAdjoint(forward, strike, timeToExpiry, sigma, numeraire, putCall);
-      vega = price.getDerivative(1);
-      change = (price.getValue() - optionPrice) / vega;
-      sign = Math.signum(change);
-      change = sign * Math.min(maxChange, Math.abs(change));
-      if (change > 0 && change > sigma) {
-        change = sigma;
-      }
-      if (count++ > MAX_ITERATIONS) {
-        BracketRoot bracketer = new BracketRoot();
-        BisectionSingleRootFinder rootFinder = new BisectionSingleRootFinder(EPS);
-        Function<Double, Double> func = new Function<Double, Double>() {
-          @Override
-          public Double apply(Double volatility) {
-            return numeraire * price(forward, strike, timeToExpiry, volatility, putCall) - optionPrice;
-          }
-        };
-        double[] range = bracketer.getBracketedPoints(func, 0d, 10d);
-        return rootFinder.getRoot(func, range[0], range[1]);
-      }
+    if (optionPrice <= intrinsicPrice) {
+      // below the intrinsic value within tolerance
+      return 0d;
     }
-    return sigma;
+    return ImpliedVolatilityFormula.normalImpliedVolatility(
+        optionPrice / numeraire, forward, strike, timeToExpiry, putCall);
   }
 
   /**
@@ -0,0 +1,241 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.OptionalDouble;
+
+import com.opengamma.strata.basics.date.HolidayCalendar;
+import com.opengamma.strata.basics.index.OvernightIndex;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+
+/**
+ * The cumulative compounded growth of the fixings of an overnight index.
+ * <p>
+ * For each business day of the fixing calendar, from the earliest to the latest fixing of the time series,
+ * this holds the product of {@code (1 + accrualFactor * fixing)} for all the previous business days.
+ * The compounding factor of the fixings between two dates is then obtained by a division,
+ * rather than by walking through each business day.
+ * The accrual factor of each fixing is computed in the same way as
+ * {@link com.opengamma.strata.product.rate.OvernightCompoundedRateComputation}.
+ * <p>
+ * A business day with no fixing in the time series is recorded as missing.
+ * No compounding factor is available for a range of dates including a missing fixing.
+ * <p>
+ * New fixings are added using {@link #withFixings(LocalDateDoubleTimeSeries)},
+ * which only computes the growth of the business days after the latest date already held.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class CompoundedOvernightFixings {
+
+  /**
+   * The overnight index.
+   */
+  private final OvernightIndex index;
+  /**
+   * The resolved calendar that the index uses.
+   */
+  private final HolidayCalendar fixingCalendar;
+  /**
+   * The business days of the fixing calendar, in ascending order.
+   */
+  private final LocalDate[] dates;
+  /**
+   * The cumulative growth, where the element at {@code i} is the product for the business days before {@code i}.
+   * The size is one more than the number of dates.
+   */
+  private final double[] growth;
+  /**
+   * The cumulative number of missing fixings, where the element at {@code i} is the count
+   * for the business days before {@code i}. The size is one more than the number of dates.
+   */
+  private final int[] missing;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from the fixings of an overnight index.
+   *
+   * @param index  the overnight index
+   * @param fixingCalendar  the resolved calendar that the index uses
+   * @param fixings  the fixings, keyed by fixing date
+   * @return the compounded fixings
+   */
+  public static CompoundedOvernightFixings of(
+      OvernightIndex index,
+      HolidayCalendar fixingCalendar,
+      LocalDateDoubleTimeSeries fixings) {
+
+    ArgChecker.notNull(index, "index");
+    ArgChecker.notNull(fixingCalendar, "fixingCalendar");
+    ArgChecker.notNull(fixings, "fixings");
+    CompoundedOvernightFixings empty =
+        new CompoundedOvernightFixings(index, fixingCalendar, new LocalDate[0], new double[] {1d}, new int[1]);
+    if (fixings.isEmpty()) {
+      return empty;
+    }
+    return empty.append(fixingCalendar.nextOrSame(fixings.getEarliestDate()), fixings);
+  }
+
+  // restricted constructor
+  private CompoundedOvernightFixings(
+      OvernightIndex index,
+      HolidayCalendar fixingCalendar,
+      LocalDate[] dates,
+      double[] growth,
+      int[] missing) {
+
+    this.index = index;
+    this.fixingCalendar = fixingCalendar;
+    this.dates = dates;
+    this.growth = growth;
+    this.missing = missing;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns a copy of this instance with additional fixings.
+   * <p>
+   * The business days after the latest date already held, up to the latest date of the specified fixings,
+   * are added. Fixings on or before the latest date already held are ignored.
+   *
+   * @param fixings  the fixings, keyed by fixing date
+   * @return the compounded fixings, including the additional fixings
+   */
+  public CompoundedOvernightFixings withFixings(LocalDateDoubleTimeSeries fixings) {
+    ArgChecker.notNull(fixings, "fixings");
+    if (fixings.isEmpty()) {
+      return this;
+    }
+    if (dates.length == 0) {
+      return append(fixingCalendar.nextOrSame(fixings.getEarliestDate()), fixings);
+    }
+    return append(fixingCalendar.next(dates[dates.length - 1]), fixings);
+  }
+
+  // appends the business days from the first date to the latest date of the fixings
+  private CompoundedOvernightFixings append(LocalDate firstDate, LocalDateDoubleTimeSeries fixings) {
+    LocalDate lastDate = fixings.getLatestDate();
+    if (firstDate.isAfter(lastDate)) {
+      return this;
+    }
+    int size = dates.length;
+    int capacity = size + (int) (lastDate.toEpochDay() - firstDate.toEpochDay()) + 1;
+    LocalDate[] newDates = Arrays.copyOf(dates, capacity);
+    double[] newGrowth = Arrays.copyOf(growth, capacity + 1);
+    int[] newMissing = Arrays.copyOf(missing, capacity + 1);
+    int effectiveOffset = index.getEffectiveDateOffset();
+    LocalDate currentFixing = firstDate;
+    while (!currentFixing.isAfter(lastDate)) {
+      OptionalDouble fixing = fixings.get(currentFixing);
+      newDates[size] = currentFixing;
+      if (fixing.isPresent()) {
+        LocalDate effectiveDate = fixingCalendar.shift(currentFixing, effectiveOffset);
+        LocalDate maturityDate = fixingCalendar.shift(fixingCalendar.nextOrSame(effectiveDate), 1);
+        double accrualFactor = index.getDayCount().yearFraction(effectiveDate, maturityDate);
+        newGrowth[size + 1] = newGrowth[size] * (1d + accrualFactor * fixing.getAsDouble());
+        newMissing[size + 1] = newMissing[size];
+      } else {
+        newGrowth[size + 1] = newGrowth[size];
+        newMissing[size + 1] = newMissing[size] + 1;
+      }
+      size++;
+      currentFixing = fixingCalendar.next(currentFixing);
+    }
+    return new CompoundedOvernightFixings(
+        index,
+        fixingCalendar,
+        Arrays.copyOf(newDates, size),
+        Arrays.copyOf(newGrowth, size + 1),
+        Arrays.copyOf(newMissing, size + 1));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the overnight index.
+   *
+   * @return the index
+   */
+  public OvernightIndex getIndex() {
+    return index;
+  }
+
+  /**
+   * Gets the resolved calendar that the index uses.
+   *
+   * @return the fixing calendar
+   */
+  public HolidayCalendar getFixingCalendar() {
+    return fixingCalendar;
+  }
+
+  /**
+   * Gets the number of business days held.
+   *
+   * @return the number of business days
+   */
+  public int size() {
+    return dates.length;
+  }
+
+  /**
+   * Checks if this instance matches the specified index and calendar.
+   *
+   * @param index  the overnight index
+   * @param fixingCalendar  the resolved calendar that the index uses
+   * @return true if this instance was created for the index and calendar
+   */
+  public boolean matches(OvernightIndex index, HolidayCalendar fixingCalendar) {
+    return this.index.equals(index) && this.fixingCalendar.equals(fixingCalendar);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the compounding factor of the fixings from the start date inclusive to the end date exclusive.
+   * <p>
+   * This is the product of {@code (1 + accrualFactor * fixing)} for each business day in the range.
+   * Both dates must be business days of the fixing calendar.
+   * The end date may be the business day after the latest date held.
+   * <p>
+   * The result is empty if the range is not fully held or if a fixing is missing in the range.
+   *
+   * @param startFixingInclusive  the first fixing date, inclusive
+   * @param endFixingExclusive  the last fixing date, exclusive
+   * @return the compounding factor, empty if not available
+   */
+  public OptionalDouble compoundedFactor(LocalDate startFixingInclusive, LocalDate endFixingExclusive) {
+    if (!startFixingInclusive.isBefore(endFixingExclusive)) {
+      return OptionalDouble.of(1d);
+    }
+    int start = indexOf(startFixingInclusive);
+    int end = indexOf(endFixingExclusive);
+    if (start < 0 || end < 0 || missing[end] != missing[start]) {
+      return OptionalDouble.empty();
+    }
+    return OptionalDouble.of(growth[end] / growth[start]);
+  }
+
+  // finds the position of the date, allowing the business day after the latest date, negative if not found
+  private int indexOf(LocalDate date) {
+    int found = Arrays.binarySearch(dates, date);
+    if (found >= 0) {
+      return found;
+    }
+    if (dates.length > 0 && date.equals(fixingCalendar.next(dates[dates.length - 1]))) {
+      return dates.length;
+    }
+    return -1;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "CompoundedOvernightFixings[index=" + index + ", size=" + dates.length + "]";
+  }
+
+}
@@ -8,7 +8,10 @@ package com.opengamma.strata.pricer.impl.rate;
 import java.time.LocalDate;
 import java.util.OptionalDouble;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.opengamma.strata.basics.date.DayCount;
+import com.opengamma.strata.basics.date.HolidayCalendar;
 import com.opengamma.strata.basics.index.OvernightIndex;
 import com.opengamma.strata.basics.index.OvernightIndexObservation;
 import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
@@ -28,6 +31,9 @@ import com.opengamma.strata.product.rate.OvernightCompoundedRateComputation;
 * Rates that are already fixed are retrieved from the time series of the {@link RatesProvider}.
 * Rates that are in the future and not in the cut-off period are computed as unique forward rate in the full future period.
 * Rates that are in the cut-off period (already fixed or forward) are compounded.
+* <p>
+* The fixings already known are compounded using {@link CompoundedOvernightFixings}, which is
+* built once for each time series of fixings and then held for as long as the time series is in use.
 */
 public class ForwardOvernightCompoundedRateComputationFn
     implements RateComputationFn<OvernightCompoundedRateComputation> {
@@ -38,6 +44,12 @@ public class ForwardOvernightCompoundedRateComputationFn
   public static final ForwardOvernightCompoundedRateComputationFn DEFAULT =
       new ForwardOvernightCompoundedRateComputationFn();
 
+  /**
+   * The compounded fixings, keyed by the identity of the time series of fixings.
+   */
+  private final Cache<LocalDateDoubleTimeSeries, CompoundedOvernightFixings> compoundedFixings =
+      CacheBuilder.newBuilder().weakKeys().build();
+
   /**
    * Creates an instance.
    */
@@ -53,7 +65,7 @@ public class ForwardOvernightCompoundedRateComputationFn
       RatesProvider provider) {
 
     OvernightIndexRates rates = provider.overnightIndexRates(computation.getIndex());
-    ObservationDetails details = new ObservationDetails(computation, rates);
+    ObservationDetails details = new ObservationDetails(computation, rates, compoundedFixings(computation, rates));
     return details.calculateRate();
   }
 
@@ -65,7 +77,7 @@ public class ForwardOvernightCompoundedRateComputationFn
       RatesProvider provider) {
 
     OvernightIndexRates rates = provider.overnightIndexRates(computation.getIndex());
-    ObservationDetails details = new ObservationDetails(computation, rates);
+    ObservationDetails details = new ObservationDetails(computation, rates, compoundedFixings(computation, rates));
     return details.calculateRateSensitivity();
   }
 
@@ -82,6 +94,25 @@ public class ForwardOvernightCompoundedRateComputationFn
     return rate;
   }
 
+  // finds the compounded fixings, building them on first use of the time series, null if there are no fixings
+  private CompoundedOvernightFixings compoundedFixings(
+      OvernightCompoundedRateComputation computation,
+      OvernightIndexRates rates) {
+
+    LocalDateDoubleTimeSeries fixings = rates.getFixings();
+    if (fixings == null || fixings.isEmpty()) {
+      return null;
+    }
+    CompoundedOvernightFixings cached = compoundedFixings.getIfPresent(fixings);
+    if (cached != null && cached.matches(computation.getIndex(), computation.getFixingCalendar())) {
+      return cached;
+    }
+    CompoundedOvernightFixings created =
+        CompoundedOvernightFixings.of(computation.getIndex(), computation.getFixingCalendar(), fixings);
+    compoundedFixings.put(fixings, created);
+    return created;
+  }
+
   //-------------------------------------------------------------------------
   // Internal class. Observation details stored in a separate class to clarify the construction.
   private static class ObservationDetails {
@@ -89,6 +120,7 @@ public class ForwardOvernightCompoundedRateComputationFn
     private final OvernightCompoundedRateComputation computation;
     private final OvernightIndexRates rates;
     private final LocalDateDoubleTimeSeries indexFixingDateSeries;
+    private final CompoundedOvernightFixings compoundedFixings; // The compounded fixings, null if none
     private final DayCount dayCount;
     private final int cutoffOffset;
     private final LocalDate firstFixing; // The date of the first fixing
@@ -99,10 +131,15 @@ public class ForwardOvernightCompoundedRateComputationFn
     private final double[] accrualFactorCutoff; // Accrual factors for the sub-periods using the cutoff rate.
     private LocalDate nextFixing; // Running variable through the different methods: next fixing date to be analyzed
 
-    private ObservationDetails(OvernightCompoundedRateComputation computation, OvernightIndexRates rates) {
+    private ObservationDetails(
+        OvernightCompoundedRateComputation computation,
+        OvernightIndexRates rates,
+        CompoundedOvernightFixings compoundedFixings) {
+
       this.computation = computation;
       this.rates = rates;
       this.indexFixingDateSeries = rates.getFixings();
+      this.compoundedFixings = compoundedFixings;
       this.dayCount = computation.getIndex().getDayCount();
       // Details of the cutoff period
       this.firstFixing = computation.getStartDate();
@@ -127,6 +164,16 @@ public class ForwardOvernightCompoundedRateComputationFn
     private double pastCompositionFactor() {
       double compositionFactor = 1.0d;
       LocalDate currentFixing = firstFixing;
+      // fixings in the non-cutoff period and published before valuation, using the compounded fixings if available
+      if (compoundedFixings != null) {
+        LocalDate endFixing = pastEndFixing();
+        OptionalDouble compounded = compoundedFixings.compoundedFactor(currentFixing, endFixing);
+        if (compounded.isPresent() && currentFixing.isBefore(endFixing)) {
+          compositionFactor = compounded.getAsDouble();
+          currentFixing = endFixing;
+        }
+      }
+      // otherwise, or if a fixing is missing, compound each day in turn
       LocalDate currentPublication = computation.calculatePublicationFromFixing(currentFixing);
       while ((currentFixing.isBefore(lastFixingNonCutoff)) && // fixing in the non-cutoff period
           rates.getValuationDate().isAfter(currentPublication)) { // publication before valuation
@@ -153,6 +200,14 @@ public class ForwardOvernightCompoundedRateComputationFn
       return compositionFactor;
     }
 
+    // The first fixing date that is in the cutoff period or is not published before the valuation date
+    private LocalDate pastEndFixing() {
+      HolidayCalendar calendar = computation.getFixingCalendar();
+      LocalDate firstUnpublished = calendar.shift(
+          calendar.nextOrSame(rates.getValuationDate()), -computation.getIndex().getPublicationDateOffset());
+      return firstUnpublished.isBefore(lastFixingNonCutoff) ? firstUnpublished : lastFixingNonCutoff;
+    }
+
     // Composition - publication on valuation date: Check if a fixing is available on current date
     private double valuationCompositionFactor() {
       LocalDate currentFixing = nextFixing;
@@ -0,0 +1,302 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.math.impl.random.BrownianBridge;
+import com.opengamma.strata.math.impl.random.NormalPointGenerator;
+import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParameters;
+
+/**
+ * Monte Carlo path simulation in the Hull-White one factor model with piecewise constant volatility.
+ * <p>
+ * The simulation is in the forward measure of the numeraire time, the numeraire being the zero-coupon
+ * bond paying at that time. In this measure, the ratio of zero-coupon bonds at time {@code t} is
+ * <pre>
+ *  P(t,u) / P(t,v) = P(0,u) / P(0,v) exp(-H(u) Z(t) - H(u)^2 V(t) / 2)
+ * </pre>
+ * where {@code v} is the numeraire time, {@code H(u) = (exp(-a v) - exp(-a u)) / a} is the loading
+ * and {@code Z} is the state, a Gaussian martingale with variance {@code V(t)}, the integral of
+ * {@code sigma(s)^2 exp(2 a s)} from zero to {@code t}.
+ * As the state is a Brownian motion in the time {@code V(t)}, it is simulated exactly,
+ * without discretization error, using a {@link BrownianBridge} in that time.
+ * <p>
+ * The value at time zero of a payoff at a simulation time is the discount factor to the numeraire time
+ * multiplied by the expectation of the payoff divided by the numeraire, {@code P(t,v)}.
+ * <p>
+ * Paths are simulated in blocks, each block using consecutive points of the normal point generator,
+ * one point per path. The blocks are processed in parallel on the common fork-join pool.
+ * The states of a path depend only on its index, thus the results are reproducible
+ * whatever the block size and the number of threads.
+ * <p>
+ * Reference: Henrard, M., "Interest rate modelling in the multi-curve framework", Palgrave Macmillan (2014).
+ */
+public final class HullWhiteOneFactorPiecewiseConstantPathSimulator {
+
+  /**
+   * The model parameters.
+   */
+  private final HullWhiteOneFactorPiecewiseConstantParameters parameters;
+  /**
+   * The simulation times.
+   */
+  private final DoubleArray simulationTimes;
+  /**
+   * The numeraire time.
+   */
+  private final double numeraireTime;
+  /**
+   * The variance of the state at each simulation time.
+   */
+  private final DoubleArray variances;
+  /**
+   * The Brownian bridge in the variance time.
+   */
+  private final BrownianBridge bridge;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance.
+   * <p>
+   * The volatility must be positive over the simulation period, so that the variance of the state increases.
+   *
+   * @param parameters  the model parameters
+   * @param simulationTimes  the simulation times, strictly increasing and positive
+   * @param numeraireTime  the numeraire time, not before the last simulation time
+   * @return the simulator
+   */
+  public static HullWhiteOneFactorPiecewiseConstantPathSimulator of(
+      HullWhiteOneFactorPiecewiseConstantParameters parameters,
+      DoubleArray simulationTimes,
+      double numeraireTime) {
+
+    ArgChecker.notNull(parameters, "parameters");
+    ArgChecker.notNull(simulationTimes, "simulationTimes");
+    ArgChecker.isTrue(simulationTimes.size() > 0, "Simulation times must not be empty");
+    ArgChecker.isTrue(simulationTimes.get(simulationTimes.size() - 1) <= numeraireTime,
+        "Numeraire time must not be before the last simulation time");
+    return new HullWhiteOneFactorPiecewiseConstantPathSimulator(parameters, simulationTimes, numeraireTime);
+  }
+
+  // restricted constructor
+  private HullWhiteOneFactorPiecewiseConstantPathSimulator(
+      HullWhiteOneFactorPiecewiseConstantParameters parameters,
+      DoubleArray simulationTimes,
+      double numeraireTime) {
+
+    this.parameters = parameters;
+    this.simulationTimes = simulationTimes;
+    this.numeraireTime = numeraireTime;
+    this.variances = simulationTimes.map(t -> variance(parameters, t));
+    this.bridge = BrownianBridge.of(variances);
+  }
+
+  // the integral of sigma(s)^2 exp(2 a s) from zero to the time
+  private static double variance(HullWhiteOneFactorPiecewiseConstantParameters parameters, double time) {
+    double a = parameters.getMeanReversion();
+    DoubleArray volatility = parameters.getVolatility();
+    DoubleArray volatilityTime = parameters.getVolatilityTime();
+    double variance = 0d;
+    for (int i = 0; i < volatility.size() && volatilityTime.get(i) < time; i++) {
+      double end = Math.min(time, volatilityTime.get(i + 1));
+      double sigma = volatility.get(i);
+      variance += sigma * sigma * (Math.exp(2d * a * end) - Math.exp(2d * a * volatilityTime.get(i))) / (2d * a);
+    }
+    return variance;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the model parameters.
+   *
+   * @return the parameters
+   */
+  public HullWhiteOneFactorPiecewiseConstantParameters getParameters() {
+    return parameters;
+  }
+
+  /**
+   * Gets the simulation times.
+   *
+   * @return the simulation times
+   */
+  public DoubleArray getSimulationTimes() {
+    return simulationTimes;
+  }
+
+  /**
+   * Gets the numeraire time.
+   *
+   * @return the numeraire time
+   */
+  public double getNumeraireTime() {
+    return numeraireTime;
+  }
+
+  /**
+   * Gets the variance of the state at each simulation time.
+   *
+   * @return the variances
+   */
+  public DoubleArray getVariances() {
+    return variances;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the loading of a zero-coupon bond.
+   * <p>
+   * This is {@code H(u)}, the sensitivity of the logarithm of the ratio of the bond to the numeraire to the state.
+   * It is zero for the numeraire time.
+   *
+   * @param maturity  the maturity time of the bond
+   * @return the loading
+   */
+  public double loading(double maturity) {
+    double a = parameters.getMeanReversion();
+    return (Math.exp(-a * numeraireTime) - Math.exp(-a * maturity)) / a;
+  }
+
+  /**
+   * Calculates the random factor of the ratio of a zero-coupon bond to the numeraire.
+   * <p>
+   * This is {@code exp(-H(u) Z(t) - H(u)^2 V(t) / 2)}, which multiplied by {@code P(0,u) / P(0,v)}
+   * is the ratio {@code P(t,u) / P(t,v)} at the simulation time. Its expectation is one.
+   *
+   * @param timeIndex  the index of the simulation time
+   * @param state  the state at the simulation time
+   * @param loading  the loading of the bond, see {@link #loading(double)}
+   * @return the factor
+   */
+  public double bondFactor(int timeIndex, double state, double loading) {
+    return Math.exp(-loading * (state + 0.5d * loading * variances.get(timeIndex)));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Simulates the states of a block of paths into an array.
+   * <p>
+   * The state of path {@code startPath + i} at simulation time {@code j} is stored at
+   * {@code output[i * n + j]}, where {@code n} is the number of simulation times.
+   * The arrays can be reused for each block.
+   *
+   * @param generator  the generator of the normal samples, one point per path
+   * @param startPath  the index of the first path
+   * @param pathCount  the number of paths
+   * @param normals  the array used for the normal samples, at least as long as the output
+   * @param output  the array to populate with the states, at least {@code pathCount * n} long
+   */
+  public void simulateStates(
+      NormalPointGenerator generator,
+      long startPath,
+      int pathCount,
+      double[] normals,
+      double[] output) {
+
+    int timeCount = simulationTimes.size();
+    ArgChecker.isTrue((long) pathCount * timeCount <= output.length,
+        "Output array must have at least {} elements", (long) pathCount * timeCount);
+    generator.normalPoints(startPath, pathCount, timeCount, normals);
+    for (int i = 0; i < pathCount; i++) {
+      bridge.path(normals, i * timeCount, output, i * timeCount);
+    }
+  }
+
+  /**
+   * Simulates paths in parallel, applying a function to each block of paths.
+   * <p>
+   * The paths are split into blocks of the specified size, the last block possibly being smaller.
+   * The states of each block are simulated as by {@link #simulateStates}, then passed to the function.
+   * The blocks are processed in parallel, thus the function must be thread-safe.
+   * <p>
+   * The buffers used for the normal samples and the states are allocated once per thread,
+   * and reused for each block processed by the thread. The function must not retain the states.
+   *
+   * @param <R>  the type of the result of each block
+   * @param generator  the generator of the normal samples, one point per path
+   * @param pathCount  the number of paths
+   * @param blockSize  the maximum number of paths in a block
+   * @param function  the function applied to each block
+   * @return the results of the blocks, in the order of the paths
+   */
+  public <R> List<R> simulate(
+      NormalPointGenerator generator,
+      long pathCount,
+      int blockSize,
+      PathBlockFunction<R> function) {
+
+    ArgChecker.notNull(generator, "generator");
+    ArgChecker.notNegative(pathCount, "pathCount");
+    ArgChecker.notNegativeOrZero(blockSize, "blockSize");
+    ArgChecker.notNull(function, "function");
+    int timeCount = simulationTimes.size();
+    // the normals and states of a full block, reused by each thread
+    ThreadLocal<double[][]> buffers = ThreadLocal.withInitial(
+        () -> new double[][] {new double[blockSize * timeCount], new double[blockSize * timeCount]});
+    List<CompletableFuture<R>> futures = new ArrayList<>();
+    for (long startPath = 0; startPath < pathCount; startPath += blockSize) {
+      long blockStart = startPath;
+      int blockCount = (int) Math.min(blockSize, pathCount - startPath);
+      futures.add(CompletableFuture.supplyAsync(() -> {
+        // the last block may be smaller, its buffers are sized to match
+        double[][] blockBuffers = blockCount == blockSize ?
+            buffers.get() :
+            new double[][] {new double[blockCount * timeCount], new double[blockCount * timeCount]};
+        simulateStates(generator, blockStart, blockCount, blockBuffers[0], blockBuffers[1]);
+        return function.apply(blockStart, blockCount, blockBuffers[1]);
+      }));
+    }
+    List<R> results = new ArrayList<>(futures.size());
+    for (CompletableFuture<R> future : futures) {
+      try {
+        results.add(future.join());
+      } catch (CompletionException ex) {
+        if (ex.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) ex.getCause();
+        }
+        throw ex;
+      }
+    }
+    return results;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "HullWhiteOneFactorPiecewiseConstantPathSimulator[" + simulationTimes + ", " + numeraireTime + "]";
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * A function applied to the states of a block of paths.
+   *
+   * @param <R>  the type of the result
+   */
+  @FunctionalInterface
+  public interface PathBlockFunction<R> {
+
+    /**
+     * Applies the function to a block of paths.
+     * <p>
+     * The state of path {@code startPath + i} at simulation time {@code j} is at {@code states[i * n + j]},
+     * where {@code n} is the number of simulation times.
+     * The array of states is reused for other blocks once the function returns, thus it must not be retained.
+     *
+     * @param startPath  the index of the first path of the block
+     * @param pathCount  the number of paths in the block
+     * @param states  the states of the paths
+     * @return the result for the block
+     */
+    R apply(long startPath, int pathCount, double[] states);
+  }
+
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.sensitivity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.market.sensitivity.PointSensitivities;
+import com.opengamma.strata.market.sensitivity.PointSensitivity;
+
+/**
+ * Mutable accumulator of point sensitivities across many trades, grouped by key.
+ * <p>
+ * Summing the parameter sensitivities of each trade requires each set of point sensitivities
+ * to be projected onto the curve parameters, and the resulting {@link CurrencyParameterSensitivities}
+ * to be combined one by one.
+ * Since the projection is linear, this class instead sums the point sensitivities themselves.
+ * Each distinct point, as defined by {@link PointSensitivity#compareKey(PointSensitivity)},
+ * is assigned an index, and each group holds the sum of the sensitivities to each point in a primitive array.
+ * The summed point sensitivities of each group are then projected onto the curve parameters once,
+ * when {@link #toParameterSensitivities(Function)} is called.
+ * <p>
+ * A set of point sensitivities can be added to several groups at once, allowing aggregation
+ * at multiple levels, such as book, desk and counterparty, in a single pass over the trades.
+ * <p>
+ * This is a mutable class that is not intended for use in multiple threads.
+ *
+ * @param <K>  the type of the group key
+ */
+public final class SensitivityAccumulator<K> {
+
+  /**
+   * The index of each distinct point, the sensitivity value being ignored.
+   */
+  private final Map<PointSensitivity, Integer> pointIndex = new TreeMap<>(PointSensitivity::compareKey);
+  /**
+   * The distinct points, in index order.
+   */
+  private final List<PointSensitivity> points = new ArrayList<>();
+  /**
+   * The sum of the sensitivities to each point, by group, in index order.
+   */
+  private final Map<K, double[]> groups = new LinkedHashMap<>();
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates an empty accumulator.
+   */
+  public SensitivityAccumulator() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Adds point sensitivities to a group.
+   *
+   * @param group  the group key
+   * @param sensitivities  the point sensitivities to add
+   * @return {@code this}, for method chaining
+   */
+  public SensitivityAccumulator<K> add(K group, PointSensitivities sensitivities) {
+    ArgChecker.notNull(group, "group");
+    ArgChecker.notNull(sensitivities, "sensitivities");
+    for (PointSensitivity point : sensitivities.getSensitivities()) {
+      int index = indexOf(point);
+      double[] values = values(group, index);
+      values[index] += point.getSensitivity();
+    }
+    return this;
+  }
+
+  /**
+   * Adds point sensitivities to several groups.
+   * <p>
+   * This is typically used to aggregate at multiple levels at the same time.
+   * For example, the sensitivities of a trade can be added to the groups of its book, its desk and its counterparty.
+   *
+   * @param groups  the group keys
+   * @param sensitivities  the point sensitivities to add
+   * @return {@code this}, for method chaining
+   */
+  public SensitivityAccumulator<K> add(Iterable<? extends K> groups, PointSensitivities sensitivities) {
+    ArgChecker.noNulls(groups, "groups");
+    ArgChecker.notNull(sensitivities, "sensitivities");
+    for (PointSensitivity point : sensitivities.getSensitivities()) {
+      int index = indexOf(point);
+      for (K group : groups) {
+        double[] values = values(group, index);
+        values[index] += point.getSensitivity();
+      }
+    }
+    return this;
+  }
+
+  // finds or assigns the index of the point
+  private int indexOf(PointSensitivity point) {
+    Integer index = pointIndex.get(point);
+    if (index != null) {
+      return index;
+    }
+    int newIndex = points.size();
+    pointIndex.put(point, newIndex);
+    points.add(point);
+    return newIndex;
+  }
+
+  // finds the values of the group, ensuring they can hold the index
+  private double[] values(K group, int index) {
+    double[] values = groups.get(group);
+    if (values == null) {
+      values = new double[Math.max(points.size(), 16)];
+      groups.put(group, values);
+    } else if (index >= values.length) {
+      values = Arrays.copyOf(values, Math.max(points.size(), values.length * 2));
+      groups.put(group, values);
+    }
+    return values;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of distinct points that have been added.
+   *
+   * @return the number of distinct points
+   */
+  public int getPointCount() {
+    return points.size();
+  }
+
+  /**
+   * Gets the summed point sensitivities of each group.
+   * <p>
+   * The point sensitivities of each group are normalized, containing at most one entry per point.
+   *
+   * @return the point sensitivities, keyed by group
+   */
+  public ImmutableMap<K, PointSensitivities> toPointSensitivities() {
+    ImmutableMap.Builder<K, PointSensitivities> builder = ImmutableMap.builder();
+    for (Map.Entry<K, double[]> entry : groups.entrySet()) {
+      double[] values = entry.getValue();
+      List<PointSensitivity> groupPoints = new ArrayList<>();
+      for (Map.Entry<PointSensitivity, Integer> pointEntry : pointIndex.entrySet()) {
+        int index = pointEntry.getValue();
+        if (index < values.length && values[index] != 0d) {
+          groupPoints.add(pointEntry.getKey().withSensitivity(values[index]));
+        }
+      }
+      builder.put(entry.getKey(), PointSensitivities.of(groupPoints));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Projects the summed point sensitivities of each group onto the curve parameters.
+   * <p>
+   * The projection is typically the {@code parameterSensitivity} method of a provider,
+   * such as {@code ratesProvider::parameterSensitivity}.
+   * It is invoked once for each group, with the normalized point sensitivities of the group,
+   * rather than once for each trade added to the group.
+   *
+   * @param projection  the function converting point sensitivities to parameter sensitivities
+   * @return the parameter sensitivities, keyed by group
+   */
+  public ImmutableMap<K, CurrencyParameterSensitivities> toParameterSensitivities(
+      Function<PointSensitivities, CurrencyParameterSensitivities> projection) {
+
+    ArgChecker.notNull(projection, "projection");
+    ImmutableMap.Builder<K, CurrencyParameterSensitivities> builder = ImmutableMap.builder();
+    for (Map.Entry<K, PointSensitivities> entry : toPointSensitivities().entrySet()) {
+      builder.put(entry.getKey(), projection.apply(entry.getValue()));
+    }
+    return builder.build();
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "SensitivityAccumulator[groups=" + groups.size() + ", points=" + points.size() + "]";
+  }
+
+}
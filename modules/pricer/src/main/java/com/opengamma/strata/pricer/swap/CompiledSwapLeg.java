@@ -0,0 +1,242 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swap;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.index.IborIndex;
+import com.opengamma.strata.basics.index.IborIndexObservation;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.product.rate.FixedRateComputation;
+import com.opengamma.strata.product.rate.IborRateComputation;
+import com.opengamma.strata.product.rate.OvernightCompoundedRateComputation;
+import com.opengamma.strata.product.rate.RateComputation;
+import com.opengamma.strata.product.swap.NegativeRateMethod;
+import com.opengamma.strata.product.swap.NotionalExchange;
+import com.opengamma.strata.product.swap.RateAccrualPeriod;
+import com.opengamma.strata.product.swap.RatePaymentPeriod;
+import com.opengamma.strata.product.swap.ResolvedSwapLeg;
+import com.opengamma.strata.product.swap.SwapLegType;
+import com.opengamma.strata.product.swap.SwapPaymentEvent;
+import com.opengamma.strata.product.swap.SwapPaymentPeriod;
+
+/**
+ * A vanilla swap leg compiled to arrays, for fast pricing.
+ * <p>
+ * A {@link ResolvedSwapLeg} is priced by dispatching on the type of each payment period
+ * and rate computation. This class instead holds the terms of each period in arrays,
+ * so that {@link VanillaSwapLegPricer} can price the leg in a single loop.
+ * <p>
+ * Only vanilla legs are supported, see {@link #isSupported(ResolvedSwapLeg)}.
+ * Each payment period must be a {@link RatePaymentPeriod} with a single accrual period and no FX reset.
+ * The rate must be fixed, Ibor or compounded overnight.
+ * The payment events must be of type {@link NotionalExchange}.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class CompiledSwapLeg {
+
+  /** The type of a period with a fixed rate. */
+  static final int FIXED = 0;
+  /** The type of a period with an Ibor rate. */
+  static final int IBOR = 1;
+  /** The type of a period with a compounded overnight rate. */
+  static final int OVERNIGHT_COMPOUNDED = 2;
+
+  /**
+   * The type of the leg.
+   */
+  private final SwapLegType type;
+  /**
+   * The currency of the leg.
+   */
+  private final Currency currency;
+  /**
+   * The Ibor indices, in the order of their identifiers.
+   */
+  private final ImmutableList<IborIndex> iborIndices;
+  // the periods, one array element per period
+  final LocalDate[] paymentDates;
+  final LocalDate[] startDates;
+  final LocalDate[] endDates;
+  final double[] notionals;
+  final double[] yearFractions;
+  final double[] gearings;
+  final double[] spreads;
+  final boolean[] notNegative;
+  final int[] rateTypes;
+  final double[] fixedRates;
+  final int[] indexIds;
+  final IborIndexObservation[] iborObservations;
+  final OvernightCompoundedRateComputation[] overnightComputations;
+  // the events, one array element per event
+  final LocalDate[] eventDates;
+  final double[] eventAmounts;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Checks if the swap leg can be compiled.
+   *
+   * @param leg  the swap leg
+   * @return true if the leg is vanilla and can be compiled
+   */
+  public static boolean isSupported(ResolvedSwapLeg leg) {
+    for (SwapPaymentPeriod period : leg.getPaymentPeriods()) {
+      if (!(period instanceof RatePaymentPeriod)) {
+        return false;
+      }
+      RatePaymentPeriod ratePeriod = (RatePaymentPeriod) period;
+      if (ratePeriod.getFxReset().isPresent() || ratePeriod.getAccrualPeriods().size() != 1) {
+        return false;
+      }
+      RateComputation computation = ratePeriod.getAccrualPeriods().get(0).getRateComputation();
+      if (!(computation instanceof FixedRateComputation ||
+          computation instanceof IborRateComputation ||
+          computation instanceof OvernightCompoundedRateComputation)) {
+        return false;
+      }
+    }
+    for (SwapPaymentEvent event : leg.getPaymentEvents()) {
+      if (!(event instanceof NotionalExchange)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Compiles the swap leg.
+   *
+   * @param leg  the swap leg
+   * @return the compiled swap leg
+   * @throws IllegalArgumentException if the leg is not supported
+   */
+  public static CompiledSwapLeg of(ResolvedSwapLeg leg) {
+    ArgChecker.notNull(leg, "leg");
+    ArgChecker.isTrue(isSupported(leg), "Swap leg is not vanilla and cannot be compiled");
+    return new CompiledSwapLeg(leg);
+  }
+
+  // restricted constructor
+  private CompiledSwapLeg(ResolvedSwapLeg leg) {
+    this.type = leg.getType();
+    this.currency = leg.getCurrency();
+    ImmutableList<SwapPaymentPeriod> periods = leg.getPaymentPeriods();
+    int size = periods.size();
+    this.paymentDates = new LocalDate[size];
+    this.startDates = new LocalDate[size];
+    this.endDates = new LocalDate[size];
+    this.notionals = new double[size];
+    this.yearFractions = new double[size];
+    this.gearings = new double[size];
+    this.spreads = new double[size];
+    this.notNegative = new boolean[size];
+    this.rateTypes = new int[size];
+    this.fixedRates = new double[size];
+    this.indexIds = new int[size];
+    this.iborObservations = new IborIndexObservation[size];
+    this.overnightComputations = new OvernightCompoundedRateComputation[size];
+    List<IborIndex> indices = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      RatePaymentPeriod period = (RatePaymentPeriod) periods.get(i);
+      RateAccrualPeriod accrualPeriod = period.getAccrualPeriods().get(0);
+      paymentDates[i] = period.getPaymentDate();
+      startDates[i] = accrualPeriod.getStartDate();
+      endDates[i] = accrualPeriod.getEndDate();
+      notionals[i] = period.getNotional();
+      yearFractions[i] = accrualPeriod.getYearFraction();
+      gearings[i] = accrualPeriod.getGearing();
+      spreads[i] = accrualPeriod.getSpread();
+      notNegative[i] = accrualPeriod.getNegativeRateMethod() == NegativeRateMethod.NOT_NEGATIVE;
+      indexIds[i] = -1;
+      RateComputation computation = accrualPeriod.getRateComputation();
+      if (computation instanceof FixedRateComputation) {
+        rateTypes[i] = FIXED;
+        fixedRates[i] = ((FixedRateComputation) computation).getRate();
+      } else if (computation instanceof IborRateComputation) {
+        IborRateComputation ibor = (IborRateComputation) computation;
+        rateTypes[i] = IBOR;
+        iborObservations[i] = ibor.getObservation();
+        int indexId = indices.indexOf(ibor.getIndex());
+        if (indexId < 0) {
+          indexId = indices.size();
+          indices.add(ibor.getIndex());
+        }
+        indexIds[i] = indexId;
+      } else {
+        rateTypes[i] = OVERNIGHT_COMPOUNDED;
+        overnightComputations[i] = (OvernightCompoundedRateComputation) computation;
+      }
+    }
+    this.iborIndices = ImmutableList.copyOf(indices);
+    ImmutableList<SwapPaymentEvent> events = leg.getPaymentEvents();
+    this.eventDates = new LocalDate[events.size()];
+    this.eventAmounts = new double[events.size()];
+    for (int i = 0; i < events.size(); i++) {
+      NotionalExchange event = (NotionalExchange) events.get(i);
+      eventDates[i] = event.getPaymentDate();
+      eventAmounts[i] = event.getPaymentAmount().getAmount();
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the type of the leg.
+   *
+   * @return the leg type
+   */
+  public SwapLegType getType() {
+    return type;
+  }
+
+  /**
+   * Gets the currency of the leg.
+   *
+   * @return the currency
+   */
+  public Currency getCurrency() {
+    return currency;
+  }
+
+  /**
+   * Gets the Ibor indices referred to by the leg.
+   *
+   * @return the Ibor indices
+   */
+  public ImmutableList<IborIndex> getIborIndices() {
+    return iborIndices;
+  }
+
+  /**
+   * Gets the number of payment periods.
+   *
+   * @return the number of periods
+   */
+  public int getPeriodCount() {
+    return paymentDates.length;
+  }
+
+  /**
+   * Gets the number of payment events.
+   *
+   * @return the number of events
+   */
+  public int getEventCount() {
+    return eventDates.length;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "CompiledSwapLeg[type=" + type + ", currency=" + currency +
+        ", periods=" + paymentDates.length + ", events=" + eventDates.length + "]";
+  }
+
+}
@@ -0,0 +1,346 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swap;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import org.joda.beans.BeanDefinition;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.ImmutableValidator;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.Property;
+import org.joda.beans.PropertyDefinition;
+import org.joda.beans.impl.light.LightMetaBean;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * The exposure profile of a portfolio of trades.
+ * <p>
+ * The exposure at a date is the value of the trades at that date, cash flows paid on or before
+ * the date being excluded. It is a random variable, described at each exposure date by its
+ * expected positive part, its expected negative part and a quantile.
+ * <p>
+ * The expectations and the quantile are in the forward measure associated with each exposure date.
+ * The expected exposure multiplied by the discount factor is thus the present value of the positive part
+ * of the value at the date, as used for credit valuation adjustments.
+ */
+@BeanDefinition(style = "light")
+public final class ExposureProfile
+    implements ImmutableBean, Serializable {
+
+  /**
+   * The currency of the exposure.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final Currency currency;
+  /**
+   * The exposure dates.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final ImmutableList<LocalDate> dates;
+  /**
+   * The discount factors at the exposure dates.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final DoubleArray discountFactors;
+  /**
+   * The expected exposure at each date, the expectation of the positive part of the value.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final DoubleArray expectedExposure;
+  /**
+   * The expected negative exposure at each date, the expectation of the negative part of the value.
+   * <p>
+   * This is negative or zero.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final DoubleArray expectedNegativeExposure;
+  /**
+   * The potential future exposure at each date, the quantile of the value at the confidence level.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final DoubleArray potentialFutureExposure;
+  /**
+   * The confidence level of the potential future exposure, such as 0.95.
+   */
+  @PropertyDefinition
+  private final double confidenceLevel;
+  /**
+   * The number of simulated paths.
+   */
+  @PropertyDefinition
+  private final int pathCount;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance.
+   *
+   * @param currency  the currency of the exposure
+   * @param dates  the exposure dates
+   * @param discountFactors  the discount factors at the exposure dates
+   * @param expectedExposure  the expected exposure at each date
+   * @param expectedNegativeExposure  the expected negative exposure at each date
+   * @param potentialFutureExposure  the potential future exposure at each date
+   * @param confidenceLevel  the confidence level of the potential future exposure
+   * @param pathCount  the number of simulated paths
+   * @return the exposure profile
+   */
+  public static ExposureProfile of(
+      Currency currency,
+      List<LocalDate> dates,
+      DoubleArray discountFactors,
+      DoubleArray expectedExposure,
+      DoubleArray expectedNegativeExposure,
+      DoubleArray potentialFutureExposure,
+      double confidenceLevel,
+      int pathCount) {
+
+    return new ExposureProfile(
+        currency,
+        dates,
+        discountFactors,
+        expectedExposure,
+        expectedNegativeExposure,
+        potentialFutureExposure,
+        confidenceLevel,
+        pathCount);
+  }
+
+  //-------------------------------------------------------------------------
+  @ImmutableValidator
+  private void validate() {
+    int size = dates.size();
+    ArgChecker.isTrue(discountFactors.size() == size, "size mismatch between dates and discountFactors");
+    ArgChecker.isTrue(expectedExposure.size() == size, "size mismatch between dates and expectedExposure");
+    ArgChecker.isTrue(
+        expectedNegativeExposure.size() == size, "size mismatch between dates and expectedNegativeExposure");
+    ArgChecker.isTrue(
+        potentialFutureExposure.size() == size, "size mismatch between dates and potentialFutureExposure");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the discounted expected exposure at each date.
+   * <p>
+   * This is the expected exposure multiplied by the discount factor.
+   *
+   * @return the discounted expected exposure
+   */
+  public DoubleArray getDiscountedExpectedExposure() {
+    return expectedExposure.multipliedBy(discountFactors);
+  }
+
+  /**
+   * Gets the discounted expected negative exposure at each date.
+   * <p>
+   * This is the expected negative exposure multiplied by the discount factor.
+   *
+   * @return the discounted expected negative exposure
+   */
+  public DoubleArray getDiscountedExpectedNegativeExposure() {
+    return expectedNegativeExposure.multipliedBy(discountFactors);
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  ///CLOVER:OFF
+  /**
+   * The meta-bean for {@code ExposureProfile}.
+   */
+  private static MetaBean META_BEAN = LightMetaBean.of(ExposureProfile.class);
+
+  /**
+   * The meta-bean for {@code ExposureProfile}.
+   * @return the meta-bean, not null
+   */
+  public static MetaBean meta() {
+    return META_BEAN;
+  }
+
+  static {
+    JodaBeanUtils.registerMetaBean(META_BEAN);
+  }
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  private ExposureProfile(
+      Currency currency,
+      List<LocalDate> dates,
+      DoubleArray discountFactors,
+      DoubleArray expectedExposure,
+      DoubleArray expectedNegativeExposure,
+      DoubleArray potentialFutureExposure,
+      double confidenceLevel,
+      int pathCount) {
+    JodaBeanUtils.notNull(currency, "currency");
+    JodaBeanUtils.notNull(dates, "dates");
+    JodaBeanUtils.notNull(discountFactors, "discountFactors");
+    JodaBeanUtils.notNull(expectedExposure, "expectedExposure");
+    JodaBeanUtils.notNull(expectedNegativeExposure, "expectedNegativeExposure");
+    JodaBeanUtils.notNull(potentialFutureExposure, "potentialFutureExposure");
+    this.currency = currency;
+    this.dates = ImmutableList.copyOf(dates);
+    this.discountFactors = discountFactors;
+    this.expectedExposure = expectedExposure;
+    this.expectedNegativeExposure = expectedNegativeExposure;
+    this.potentialFutureExposure = potentialFutureExposure;
+    this.confidenceLevel = confidenceLevel;
+    this.pathCount = pathCount;
+    validate();
+  }
+
+  @Override
+  public MetaBean metaBean() {
+    return META_BEAN;
+  }
+
+  @Override
+  public <R> Property<R> property(String propertyName) {
+    return metaBean().<R>metaProperty(propertyName).createProperty(this);
+  }
+
+  @Override
+  public Set<String> propertyNames() {
+    return metaBean().metaPropertyMap().keySet();
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the currency of the exposure.
+   * @return the value of the property, not null
+   */
+  public Currency getCurrency() {
+    return currency;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the exposure dates.
+   * @return the value of the property, not null
+   */
+  public ImmutableList<LocalDate> getDates() {
+    return dates;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the discount factors at the exposure dates.
+   * @return the value of the property, not null
+   */
+  public DoubleArray getDiscountFactors() {
+    return discountFactors;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the expected exposure at each date, the expectation of the positive part of the value.
+   * @return the value of the property, not null
+   */
+  public DoubleArray getExpectedExposure() {
+    return expectedExposure;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the expected negative exposure at each date, the expectation of the negative part of the value.
+   * <p>
+   * This is negative or zero.
+   * @return the value of the property, not null
+   */
+  public DoubleArray getExpectedNegativeExposure() {
+    return expectedNegativeExposure;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the potential future exposure at each date, the quantile of the value at the confidence level.
+   * @return the value of the property, not null
+   */
+  public DoubleArray getPotentialFutureExposure() {
+    return potentialFutureExposure;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the confidence level of the potential future exposure, such as 0.95.
+   * @return the value of the property
+   */
+  public double getConfidenceLevel() {
+    return confidenceLevel;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the number of simulated paths.
+   * @return the value of the property
+   */
+  public int getPathCount() {
+    return pathCount;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      ExposureProfile other = (ExposureProfile) obj;
+      return JodaBeanUtils.equal(currency, other.currency) &&
+          JodaBeanUtils.equal(dates, other.dates) &&
+          JodaBeanUtils.equal(discountFactors, other.discountFactors) &&
+          JodaBeanUtils.equal(expectedExposure, other.expectedExposure) &&
+          JodaBeanUtils.equal(expectedNegativeExposure, other.expectedNegativeExposure) &&
+          JodaBeanUtils.equal(potentialFutureExposure, other.potentialFutureExposure) &&
+          JodaBeanUtils.equal(confidenceLevel, other.confidenceLevel) &&
+          (pathCount == other.pathCount);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(currency);
+    hash = hash * 31 + JodaBeanUtils.hashCode(dates);
+    hash = hash * 31 + JodaBeanUtils.hashCode(discountFactors);
+    hash = hash * 31 + JodaBeanUtils.hashCode(expectedExposure);
+    hash = hash * 31 + JodaBeanUtils.hashCode(expectedNegativeExposure);
+    hash = hash * 31 + JodaBeanUtils.hashCode(potentialFutureExposure);
+    hash = hash * 31 + JodaBeanUtils.hashCode(confidenceLevel);
+    hash = hash * 31 + JodaBeanUtils.hashCode(pathCount);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(288);
+    buf.append("ExposureProfile{");
+    buf.append("currency").append('=').append(currency).append(',').append(' ');
+    buf.append("dates").append('=').append(dates).append(',').append(' ');
+    buf.append("discountFactors").append('=').append(discountFactors).append(',').append(' ');
+    buf.append("expectedExposure").append('=').append(expectedExposure).append(',').append(' ');
+    buf.append("expectedNegativeExposure").append('=').append(expectedNegativeExposure).append(',').append(' ');
+    buf.append("potentialFutureExposure").append('=').append(potentialFutureExposure).append(',').append(' ');
+    buf.append("confidenceLevel").append('=').append(confidenceLevel).append(',').append(' ');
+    buf.append("pathCount").append('=').append(JodaBeanUtils.toString(pathCount));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  ///CLOVER:ON
+  //-------------------------- AUTOGENERATED END --------------------------
+}
@@ -0,0 +1,459 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swap;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.tuple.Pair;
+import com.opengamma.strata.math.impl.random.NormalPointGenerator;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorPiecewiseConstantPathSimulator;
+import com.opengamma.strata.pricer.impl.rate.swap.CashFlowEquivalentCalculator;
+import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParametersProvider;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.product.swap.NotionalExchange;
+import com.opengamma.strata.product.swap.ResolvedSwap;
+import com.opengamma.strata.product.swap.ResolvedSwapLeg;
+import com.opengamma.strata.product.swap.SwapLegType;
+import com.opengamma.strata.product.swap.SwapPaymentEvent;
+
+/**
+ * Calculator of the exposure profile of swaps by Monte Carlo simulation in the Hull-White one factor model.
+ * <p>
+ * The swaps are fix-for-Ibor swaps without compounding, as supported by {@link CashFlowEquivalentCalculator},
+ * all in the same currency. They are treated as a netting set, the exposure being the total value of the swaps.
+ * <p>
+ * The model state is simulated at the exposure dates by {@link HullWhiteOneFactorPiecewiseConstantPathSimulator}.
+ * On each path and date, the swaps are valued by the analytic formula for zero-coupon bonds in the model,
+ * using their cash flow equivalents. The cash flows of all the swaps are aggregated before the simulation,
+ * so the cost of each valuation depends on the number of distinct payment dates rather than on the number of swaps.
+ * An Ibor rate is fixed at the start of its period, its value being the forward rate at the last exposure date
+ * before the fixing, or at the valuation date, which is exact when the start of the period is an exposure date.
+ * <p>
+ * The values are aggregated into the exposure profile as each block of paths is simulated,
+ * without storing the values of all the paths. The blocks are processed in parallel and the results
+ * are reproducible for a given generator, whatever the block size and the number of threads.
+ */
+public class HullWhiteSwapExposureCalculator {
+
+  /**
+   * The default number of paths in each block.
+   */
+  private static final int DEFAULT_BLOCK_SIZE = 1024;
+  /**
+   * Default implementation.
+   */
+  public static final HullWhiteSwapExposureCalculator DEFAULT = new HullWhiteSwapExposureCalculator(DEFAULT_BLOCK_SIZE);
+
+  /**
+   * The number of paths in each block.
+   */
+  private final int blockSize;
+
+  /**
+   * Creates an instance.
+   *
+   * @param blockSize  the number of paths simulated together by a thread
+   */
+  public HullWhiteSwapExposureCalculator(int blockSize) {
+    this.blockSize = ArgChecker.notNegativeOrZero(blockSize, "blockSize");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the exposure profile of a netting set of swaps.
+   * <p>
+   * The generator must support a dimension equal to the number of exposure dates.
+   * Each path uses the point of the generator with the same index.
+   *
+   * @param swaps  the swaps
+   * @param ratesProvider  the rates provider
+   * @param hwProvider  the Hull-White model parameter provider
+   * @param exposureDates  the exposure dates, strictly increasing and after the valuation date
+   * @param generator  the generator of the normal samples
+   * @param pathCount  the number of paths
+   * @param confidenceLevel  the confidence level of the potential future exposure, such as 0.95
+   * @return the exposure profile
+   */
+  public ExposureProfile exposureProfile(
+      List<ResolvedSwap> swaps,
+      RatesProvider ratesProvider,
+      HullWhiteOneFactorPiecewiseConstantParametersProvider hwProvider,
+      List<LocalDate> exposureDates,
+      NormalPointGenerator generator,
+      int pathCount,
+      double confidenceLevel) {
+
+    validate(swaps, ratesProvider, hwProvider, exposureDates);
+    ArgChecker.notNull(generator, "generator");
+    ArgChecker.notNegativeOrZero(pathCount, "pathCount");
+    ArgChecker.inRangeExclusive(confidenceLevel, 0d, 1d, "confidenceLevel");
+    Currency currency = swaps.get(0).getLegs().get(0).getCurrency();
+    int dateCount = exposureDates.size();
+    DoubleArray times = DoubleArray.of(dateCount, i -> hwProvider.relativeTime(exposureDates.get(i)));
+    HullWhiteOneFactorPiecewiseConstantPathSimulator simulator = HullWhiteOneFactorPiecewiseConstantPathSimulator.of(
+        hwProvider.getParameters(), times, times.get(dateCount - 1));
+    DoubleArray discountFactors =
+        DoubleArray.of(dateCount, i -> ratesProvider.discountFactor(currency, exposureDates.get(i)));
+    CashFlows cashFlows = CashFlows.of(swaps, ratesProvider);
+    List<DateValuation> valuations = new ArrayList<>(dateCount);
+    for (int i = 0; i < dateCount; i++) {
+      valuations.add(DateValuation.of(
+          cashFlows, i, exposureDates, discountFactors.get(i), currency, ratesProvider, hwProvider, simulator));
+    }
+    // the potential future exposure is the smallest of the largest values, as many as the paths above the quantile
+    int tailSize = Math.max(1, Math.min(pathCount, pathCount - (int) Math.ceil(confidenceLevel * pathCount) + 1));
+    TailValues tail = new TailValues(dateCount, tailSize);
+    List<double[][]> blockSums = simulator.simulate(generator, pathCount, blockSize, (startPath, count, states) -> {
+      double[][] sums = new double[2][dateCount];
+      double[] values = new double[count];
+      for (int i = 0; i < dateCount; i++) {
+        DateValuation valuation = valuations.get(i);
+        for (int p = 0; p < count; p++) {
+          double value = valuation.value(states, p * dateCount);
+          values[p] = value;
+          if (value > 0d) {
+            sums[0][i] += value;
+          } else {
+            sums[1][i] += value;
+          }
+        }
+        tail.add(i, values, count);
+      }
+      return sums;
+    });
+    double[] positive = new double[dateCount];
+    double[] negative = new double[dateCount];
+    for (double[][] sums : blockSums) {
+      for (int i = 0; i < dateCount; i++) {
+        positive[i] += sums[0][i];
+        negative[i] += sums[1][i];
+      }
+    }
+    return ExposureProfile.of(
+        currency,
+        exposureDates,
+        discountFactors,
+        DoubleArray.ofUnsafe(positive).multipliedBy(1d / pathCount),
+        DoubleArray.ofUnsafe(negative).multipliedBy(1d / pathCount),
+        DoubleArray.of(dateCount, tail::smallest),
+        confidenceLevel,
+        pathCount);
+  }
+
+  //-------------------------------------------------------------------------
+  // validate inputs
+  private void validate(
+      List<ResolvedSwap> swaps,
+      RatesProvider ratesProvider,
+      HullWhiteOneFactorPiecewiseConstantParametersProvider hwProvider,
+      List<LocalDate> exposureDates) {
+
+    ArgChecker.notEmpty(swaps, "swaps");
+    ArgChecker.notEmpty(exposureDates, "exposureDates");
+    ArgChecker.isTrue(hwProvider.getValuationDateTime().toLocalDate().equals(ratesProvider.getValuationDate()),
+        "Hull-White model data and rate data should be for the same date");
+    Currency currency = swaps.get(0).getLegs().get(0).getCurrency();
+    for (ResolvedSwap swap : swaps) {
+      ArgChecker.isTrue(swap.getLegs().size() == 2, "swap should have 2 legs");
+      ArgChecker.isTrue(swap.getLegs(SwapLegType.FIXED).size() == 1, "swap should have unique fixed leg");
+      ArgChecker.isTrue(swap.getLegs(SwapLegType.IBOR).size() == 1, "swap should have unique Ibor leg");
+      ArgChecker.isFalse(swap.isCrossCurrency(), "swap should be single currency");
+      ArgChecker.isTrue(swap.getLegs().get(0).getCurrency().equals(currency), "swaps should have the same currency");
+    }
+    LocalDate previous = ratesProvider.getValuationDate();
+    for (LocalDate date : exposureDates) {
+      ArgChecker.isTrue(date.isAfter(previous), "exposure dates should be increasing and after the valuation date");
+      previous = date;
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The cash flow equivalents of the swaps, aggregated by date.
+   */
+  private static final class CashFlows {
+    /**
+     * The amounts, keyed by payment date.
+     */
+    private final Map<LocalDate, Double> payments;
+    /**
+     * The amounts paid at the start of an Ibor period, keyed by start date and payment date of the period.
+     */
+    private final Map<Pair<LocalDate, LocalDate>, Double> iborStarts;
+
+    private CashFlows(Map<LocalDate, Double> payments, Map<Pair<LocalDate, LocalDate>, Double> iborStarts) {
+      this.payments = payments;
+      this.iborStarts = iborStarts;
+    }
+
+    // the cash flow equivalents of the swaps
+    private static CashFlows of(List<ResolvedSwap> swaps, RatesProvider ratesProvider) {
+      Map<LocalDate, Double> payments = new LinkedHashMap<>();
+      Map<Pair<LocalDate, LocalDate>, Double> iborStarts = new LinkedHashMap<>();
+      for (ResolvedSwap swap : swaps) {
+        ResolvedSwapLeg fixedLeg = CashFlowEquivalentCalculator.cashFlowEquivalentFixedLeg(
+            swap.getLegs(SwapLegType.FIXED).get(0), ratesProvider);
+        for (SwapPaymentEvent event : fixedLeg.getPaymentEvents()) {
+          NotionalExchange payment = (NotionalExchange) event;
+          payments.merge(payment.getPaymentDate(), payment.getPaymentAmount().getAmount(), Double::sum);
+        }
+        // the Ibor leg equivalent has two payments for each period, at the start and at the payment date
+        ImmutableList<SwapPaymentEvent> iborEvents = CashFlowEquivalentCalculator.cashFlowEquivalentIborLeg(
+            swap.getLegs(SwapLegType.IBOR).get(0), ratesProvider).getPaymentEvents();
+        for (int i = 0; i < iborEvents.size(); i += 2) {
+          NotionalExchange start = (NotionalExchange) iborEvents.get(i);
+          NotionalExchange end = (NotionalExchange) iborEvents.get(i + 1);
+          payments.merge(end.getPaymentDate(), end.getPaymentAmount().getAmount(), Double::sum);
+          iborStarts.merge(
+              Pair.of(start.getPaymentDate(), end.getPaymentDate()), start.getPaymentAmount().getAmount(), Double::sum);
+        }
+      }
+      return new CashFlows(payments, iborStarts);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The valuation of the cash flows at an exposure date, in the forward measure of that date.
+   * <p>
+   * In the forward measure of date {@code t}, the ratio {@code P(t,u) / P(t,t)} is obtained from the simulated
+   * state {@code W} as {@code P(0,u) / P(0,t) exp(-h W - h^2 V / 2)}, where {@code h} is the loading of
+   * {@code u} relative to {@code t}. The change of measure from the simulation measure is a drift
+   * of the state, which is absorbed by taking the loadings relative to the exposure date.
+   */
+  private static final class DateValuation {
+    /**
+     * The simulator.
+     */
+    private final HullWhiteOneFactorPiecewiseConstantPathSimulator simulator;
+    /**
+     * The index of the exposure date.
+     */
+    private final int dateIndex;
+    /**
+     * The amounts of the payments, multiplied by the forward discount factor.
+     */
+    private final double[] amounts;
+    /**
+     * The relative loadings of the payments.
+     */
+    private final double[] loadings;
+    /**
+     * The amounts of the fixed Ibor periods, multiplied by the forward discount factor to the start of the period.
+     */
+    private final double[] fixedAmounts;
+    /**
+     * The relative loadings of the payment dates of the fixed Ibor periods.
+     */
+    private final double[] fixedLoadings;
+    /**
+     * The index of the exposure date at which the rate is estimated, -1 for the valuation date.
+     */
+    private final int[] fixingIndices;
+    /**
+     * The difference between the relative loadings of the start and payment dates of the fixed Ibor periods.
+     */
+    private final double[] fixingLoadings;
+    /**
+     * The deterministic part of the exponent of the estimated fixing.
+     */
+    private final double[] fixingAdjustments;
+
+    private DateValuation(
+        HullWhiteOneFactorPiecewiseConstantPathSimulator simulator,
+        int dateIndex,
+        double[] amounts,
+        double[] loadings,
+        double[] fixedAmounts,
+        double[] fixedLoadings,
+        int[] fixingIndices,
+        double[] fixingLoadings,
+        double[] fixingAdjustments) {
+
+      this.simulator = simulator;
+      this.dateIndex = dateIndex;
+      this.amounts = amounts;
+      this.loadings = loadings;
+      this.fixedAmounts = fixedAmounts;
+      this.fixedLoadings = fixedLoadings;
+      this.fixingIndices = fixingIndices;
+      this.fixingLoadings = fixingLoadings;
+      this.fixingAdjustments = fixingAdjustments;
+    }
+
+    // the cash flows remaining after an exposure date
+    private static DateValuation of(
+        CashFlows cashFlows,
+        int dateIndex,
+        List<LocalDate> exposureDates,
+        double discountFactor,
+        Currency currency,
+        RatesProvider ratesProvider,
+        HullWhiteOneFactorPiecewiseConstantParametersProvider hwProvider,
+        HullWhiteOneFactorPiecewiseConstantPathSimulator simulator) {
+
+      LocalDate exposureDate = exposureDates.get(dateIndex);
+      double exposureLoading = simulator.loading(simulator.getSimulationTimes().get(dateIndex));
+      Map<LocalDate, Double> payments = new LinkedHashMap<>();
+      cashFlows.payments.forEach((date, amount) -> {
+        if (date.isAfter(exposureDate)) {
+          payments.merge(date, amount, Double::sum);
+        }
+      });
+      List<Pair<LocalDate, LocalDate>> fixedPeriods = new ArrayList<>();
+      List<Double> fixedPeriodAmounts = new ArrayList<>();
+      cashFlows.iborStarts.forEach((period, amount) -> {
+        if (period.getFirst().isAfter(exposureDate)) {
+          payments.merge(period.getFirst(), amount, Double::sum);
+        } else if (period.getSecond().isAfter(exposureDate)) {
+          fixedPeriods.add(period);
+          fixedPeriodAmounts.add(amount);
+        }
+      });
+      int paymentCount = payments.size();
+      double[] amounts = new double[paymentCount];
+      double[] loadings = new double[paymentCount];
+      int index = 0;
+      for (Map.Entry<LocalDate, Double> entry : payments.entrySet()) {
+        LocalDate date = entry.getKey();
+        amounts[index] = entry.getValue() * ratesProvider.discountFactor(currency, date) / discountFactor;
+        loadings[index] = simulator.loading(hwProvider.relativeTime(date)) - exposureLoading;
+        index++;
+      }
+      int fixedCount = fixedPeriods.size();
+      double[] fixedAmounts = new double[fixedCount];
+      double[] fixedLoadings = new double[fixedCount];
+      int[] fixingIndices = new int[fixedCount];
+      double[] fixingLoadings = new double[fixedCount];
+      double[] fixingAdjustments = new double[fixedCount];
+      for (int i = 0; i < fixedCount; i++) {
+        LocalDate startDate = fixedPeriods.get(i).getFirst();
+        LocalDate paymentDate = fixedPeriods.get(i).getSecond();
+        double startLoading = simulator.loading(hwProvider.relativeTime(startDate)) - exposureLoading;
+        double paymentLoading = simulator.loading(hwProvider.relativeTime(paymentDate)) - exposureLoading;
+        int fixingIndex = dateIndex;
+        while (fixingIndex >= 0 && exposureDates.get(fixingIndex).isAfter(startDate)) {
+          fixingIndex--;
+        }
+        double fixingVariance = fixingIndex < 0 ? 0d : simulator.getVariances().get(fixingIndex);
+        fixedAmounts[i] =
+            fixedPeriodAmounts.get(i) * ratesProvider.discountFactor(currency, startDate) / discountFactor;
+        fixedLoadings[i] = paymentLoading;
+        fixingIndices[i] = fixingIndex;
+        fixingLoadings[i] = startLoading - paymentLoading;
+        fixingAdjustments[i] = 0.5d * (startLoading * startLoading - paymentLoading * paymentLoading) * fixingVariance;
+      }
+      return new DateValuation(
+          simulator, dateIndex, amounts, loadings, fixedAmounts, fixedLoadings, fixingIndices, fixingLoadings,
+          fixingAdjustments);
+    }
+
+    // the value on a path, the states of the path starting at the offset
+    private double value(double[] states, int offset) {
+      double state = states[offset + dateIndex];
+      double value = 0d;
+      for (int i = 0; i < amounts.length; i++) {
+        value += amounts[i] * simulator.bondFactor(dateIndex, state, loadings[i]);
+      }
+      for (int i = 0; i < fixedAmounts.length; i++) {
+        double fixingState = fixingIndices[i] < 0 ? 0d : states[offset + fixingIndices[i]];
+        value += fixedAmounts[i] * simulator.bondFactor(dateIndex, state, fixedLoadings[i]) *
+            Math.exp(-fixingLoadings[i] * fixingState - fixingAdjustments[i]);
+      }
+      return value;
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The largest values at each exposure date, each held in a min-heap.
+   * <p>
+   * The values retained do not depend on the order in which the blocks are added.
+   */
+  private static final class TailValues {
+    /**
+     * The heaps, one for each date.
+     */
+    private final double[][] heaps;
+    /**
+     * The number of values in each heap.
+     */
+    private final int[] sizes;
+
+    private TailValues(int dateCount, int tailSize) {
+      this.heaps = new double[dateCount][tailSize];
+      this.sizes = new int[dateCount];
+    }
+
+    // adds the values of a block, sorting the values in the process
+    private void add(int dateIndex, double[] values, int count) {
+      Arrays.sort(values, 0, count);
+      double[] heap = heaps[dateIndex];
+      synchronized (heap) {
+        for (int i = count - 1; i >= 0; i--) {
+          double value = values[i];
+          if (sizes[dateIndex] < heap.length) {
+            siftUp(heap, sizes[dateIndex]++, value);
+          } else if (value > heap[0]) {
+            siftDown(heap, value);
+          } else {
+            return;
+          }
+        }
+      }
+    }
+
+    // the smallest retained value
+    private double smallest(int dateIndex) {
+      return heaps[dateIndex][0];
+    }
+
+    // inserts a value at the end of the heap
+    private static void siftUp(double[] heap, int position, double value) {
+      int i = position;
+      while (i > 0) {
+        int parent = (i - 1) >>> 1;
+        if (heap[parent] <= value) {
+          break;
+        }
+        heap[i] = heap[parent];
+        i = parent;
+      }
+      heap[i] = value;
+    }
+
+    // replaces the root of a full heap
+    private static void siftDown(double[] heap, double value) {
+      int size = heap.length;
+      int i = 0;
+      while (true) {
+        int child = 2 * i + 1;
+        if (child >= size) {
+          break;
+        }
+        if (child + 1 < size && heap[child + 1] < heap[child]) {
+          child++;
+        }
+        if (value <= heap[child]) {
+          break;
+        }
+        heap[i] = heap[child];
+        i = child;
+      }
+      heap[i] = value;
+    }
+  }
+
+}
@@ -0,0 +1,265 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swap;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.index.IborIndex;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.market.amount.CashFlow;
+import com.opengamma.strata.market.amount.CashFlows;
+import com.opengamma.strata.pricer.DiscountFactors;
+import com.opengamma.strata.pricer.impl.rate.ForwardOvernightCompoundedRateComputationFn;
+import com.opengamma.strata.pricer.rate.IborIndexRates;
+import com.opengamma.strata.pricer.rate.RateComputationFn;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.product.rate.OvernightCompoundedRateComputation;
+import com.opengamma.strata.product.swap.SwapLegType;
+
+/**
+ * Pricer for vanilla swap legs that have been compiled to arrays.
+ * <p>
+ * This function provides the ability to price a {@link CompiledSwapLeg}.
+ * The discount factors and Ibor index rates are obtained from the provider once per leg,
+ * and each period and event is then priced in a single loop without dispatching on its type.
+ * <p>
+ * The results are the same as those of {@link DiscountingSwapLegPricer} for the same leg.
+ */
+public class VanillaSwapLegPricer {
+
+  /**
+   * Default implementation.
+   */
+  public static final VanillaSwapLegPricer DEFAULT =
+      new VanillaSwapLegPricer(ForwardOvernightCompoundedRateComputationFn.DEFAULT);
+
+  /**
+   * Rate computation function for compounded overnight rates.
+   */
+  private final RateComputationFn<OvernightCompoundedRateComputation> overnightCompoundedFn;
+
+  /**
+   * Creates an instance.
+   *
+   * @param overnightCompoundedFn  the rate computation function for compounded overnight rates
+   */
+  public VanillaSwapLegPricer(RateComputationFn<OvernightCompoundedRateComputation> overnightCompoundedFn) {
+    this.overnightCompoundedFn = ArgChecker.notNull(overnightCompoundedFn, "overnightCompoundedFn");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the present value of the swap leg.
+   * <p>
+   * The present value of the leg is the value on the valuation date.
+   * This is the discounted forecast value.
+   * The result is returned using the payment currency of the leg.
+   *
+   * @param leg  the compiled leg
+   * @param provider  the rates provider
+   * @return the present value of the swap leg
+   */
+  public CurrencyAmount presentValue(CompiledSwapLeg leg, RatesProvider provider) {
+    return CurrencyAmount.of(leg.getCurrency(), presentValueInternal(leg, provider));
+  }
+
+  /**
+   * Calculates the present value of the swap leg, converted to the specified currency.
+   * <p>
+   * The present value of the leg is the value on the valuation date.
+   * This is the discounted forecast value.
+   * The result is converted to the specified currency.
+   *
+   * @param leg  the compiled leg
+   * @param currency  the currency to convert to
+   * @param provider  the rates provider
+   * @return the present value of the swap leg in the specified currency
+   */
+  public CurrencyAmount presentValue(CompiledSwapLeg leg, Currency currency, RatesProvider provider) {
+    double pv = presentValueInternal(leg, provider);
+    return CurrencyAmount.of(currency, pv * provider.fxRate(leg.getCurrency(), currency));
+  }
+
+  // calculates the present value in the currency of the swap leg
+  double presentValueInternal(CompiledSwapLeg leg, RatesProvider provider) {
+    return presentValuePeriodsInternal(leg, provider) + presentValueEventsInternal(leg, provider);
+  }
+
+  /**
+   * Calculates the forecast value of the swap leg.
+   * <p>
+   * The forecast value of the leg is the value on the valuation date without present value discounting.
+   * The result is returned using the payment currency of the leg.
+   *
+   * @param leg  the compiled leg
+   * @param provider  the rates provider
+   * @return the forecast value of the swap leg
+   */
+  public CurrencyAmount forecastValue(CompiledSwapLeg leg, RatesProvider provider) {
+    LocalDate valuationDate = provider.getValuationDate();
+    IborIndexRates[] iborRates = iborRates(leg, provider);
+    double total = 0d;
+    for (int i = 0; i < leg.paymentDates.length; i++) {
+      if (!leg.paymentDates[i].isBefore(valuationDate)) {
+        total += forecastValue(leg, i, iborRates, provider);
+      }
+    }
+    for (int i = 0; i < leg.eventDates.length; i++) {
+      if (!leg.eventDates[i].isBefore(valuationDate)) {
+        total += leg.eventAmounts[i];
+      }
+    }
+    return CurrencyAmount.of(leg.getCurrency(), total);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the Present Value of a Basis Point for a swap leg.
+   * <p>
+   * The Present Value of a Basis Point is the value of the leg when the rate is equal to 1.
+   * A better name would be "Present Value of 1".
+   * The quantity is also known as "physical annuity" or "level".
+   *
+   * @param leg  the compiled leg
+   * @param provider  the rates provider
+   * @return the Present Value of a Basis Point
+   */
+  public double pvbp(CompiledSwapLeg leg, RatesProvider provider) {
+    DiscountFactors discountFactors = provider.discountFactors(leg.getCurrency());
+    double pvbp = 0d;
+    for (int i = 0; i < leg.paymentDates.length; i++) {
+      pvbp += discountFactors.discountFactor(leg.paymentDates[i]) * leg.yearFractions[i] * leg.notionals[i];
+    }
+    return pvbp;
+  }
+
+  /**
+   * Computes the par rate of a swap from its compiled legs.
+   * <p>
+   * The par rate is the common rate on all periods of the fixed leg for which the total swap present value is 0.
+   * The other leg is converted to the currency of the fixed leg.
+   * Each period of the fixed leg must have a single accrual period, as is the case for all compiled legs.
+   *
+   * @param fixedLeg  the compiled fixed leg
+   * @param otherLeg  the compiled other leg
+   * @param provider  the rates provider
+   * @return the par rate
+   * @throws IllegalArgumentException if the fixed leg is not of type {@link SwapLegType#FIXED}
+   */
+  public double parRate(CompiledSwapLeg fixedLeg, CompiledSwapLeg otherLeg, RatesProvider provider) {
+    ArgChecker.isTrue(fixedLeg.getType() == SwapLegType.FIXED, "Swap leg must be of type FIXED, but was {}",
+        fixedLeg.getType());
+    double otherLegConvertedPv = presentValueInternal(otherLeg, provider) *
+        provider.fxRate(otherLeg.getCurrency(), fixedLeg.getCurrency());
+    double fixedLegEventsPv = presentValueEventsInternal(fixedLeg, provider);
+    return -(otherLegConvertedPv + fixedLegEventsPv) / pvbp(fixedLeg, provider);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the future cash flows of the swap leg.
+   * <p>
+   * Each expected cash flow is added to the result.
+   * This is based on {@link #forecastValue(CompiledSwapLeg, RatesProvider)}.
+   *
+   * @param leg  the compiled leg for which the cash flows should be computed
+   * @param provider  the rates provider
+   * @return the cash flows
+   */
+  public CashFlows cashFlows(CompiledSwapLeg leg, RatesProvider provider) {
+    LocalDate valuationDate = provider.getValuationDate();
+    Currency currency = leg.getCurrency();
+    DiscountFactors discountFactors = provider.discountFactors(currency);
+    IborIndexRates[] iborRates = iborRates(leg, provider);
+    List<CashFlow> flows = new ArrayList<>();
+    for (int i = 0; i < leg.paymentDates.length; i++) {
+      LocalDate paymentDate = leg.paymentDates[i];
+      if (!paymentDate.isBefore(valuationDate)) {
+        double forecastValue = forecastValue(leg, i, iborRates, provider);
+        if (forecastValue != 0d) {
+          double df = discountFactors.discountFactor(paymentDate);
+          flows.add(CashFlow.ofForecastValue(paymentDate, currency, forecastValue, df));
+        }
+      }
+    }
+    for (int i = 0; i < leg.eventDates.length; i++) {
+      LocalDate paymentDate = leg.eventDates[i];
+      if (!paymentDate.isBefore(valuationDate) && leg.eventAmounts[i] != 0d) {
+        double df = discountFactors.discountFactor(paymentDate);
+        flows.add(CashFlow.ofForecastValue(paymentDate, currency, leg.eventAmounts[i], df));
+      }
+    }
+    return CashFlows.of(flows);
+  }
+
+  //-------------------------------------------------------------------------
+  // calculates the present value of the periods in the currency of the swap leg
+  private double presentValuePeriodsInternal(CompiledSwapLeg leg, RatesProvider provider) {
+    LocalDate valuationDate = provider.getValuationDate();
+    DiscountFactors discountFactors = provider.discountFactors(leg.getCurrency());
+    IborIndexRates[] iborRates = iborRates(leg, provider);
+    double total = 0d;
+    for (int i = 0; i < leg.paymentDates.length; i++) {
+      LocalDate paymentDate = leg.paymentDates[i];
+      if (!paymentDate.isBefore(valuationDate)) {
+        total += forecastValue(leg, i, iborRates, provider) * discountFactors.discountFactor(paymentDate);
+      }
+    }
+    return total;
+  }
+
+  // calculates the present value of the events in the currency of the swap leg
+  private double presentValueEventsInternal(CompiledSwapLeg leg, RatesProvider provider) {
+    LocalDate valuationDate = provider.getValuationDate();
+    DiscountFactors discountFactors = provider.discountFactors(leg.getCurrency());
+    double total = 0d;
+    for (int i = 0; i < leg.eventDates.length; i++) {
+      LocalDate paymentDate = leg.eventDates[i];
+      if (!paymentDate.isBefore(valuationDate)) {
+        total += leg.eventAmounts[i] * discountFactors.discountFactor(paymentDate);
+      }
+    }
+    return total;
+  }
+
+  // obtains the rates of each Ibor index, in the order of the index identifiers
+  private IborIndexRates[] iborRates(CompiledSwapLeg leg, RatesProvider provider) {
+    ImmutableList<IborIndex> indices = leg.getIborIndices();
+    IborIndexRates[] rates = new IborIndexRates[indices.size()];
+    for (int i = 0; i < rates.length; i++) {
+      rates[i] = provider.iborIndexRates(indices.get(i));
+    }
+    return rates;
+  }
+
+  // calculates the forecast value of a single period
+  private double forecastValue(CompiledSwapLeg leg, int i, IborIndexRates[] iborRates, RatesProvider provider) {
+    double rawRate;
+    switch (leg.rateTypes[i]) {
+      case CompiledSwapLeg.FIXED:
+        rawRate = leg.fixedRates[i];
+        break;
+      case CompiledSwapLeg.IBOR:
+        rawRate = iborRates[leg.indexIds[i]].rate(leg.iborObservations[i]);
+        break;
+      default:
+        rawRate = overnightCompoundedFn.rate(
+            leg.overnightComputations[i], leg.startDates[i], leg.endDates[i], provider);
+        break;
+    }
+    double unitAccrual = (rawRate * leg.gearings[i] + leg.spreads[i]) * leg.yearFractions[i];
+    if (leg.notNegative[i]) {
+      unitAccrual = Math.max(0d, unitAccrual);
+    }
+    return unitAccrual * leg.notionals[i];
+  }
+
+}
@@ -11,7 +11,10 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Function;
 
 import com.opengamma.strata.basics.ReferenceData;
@@ -70,6 +73,17 @@ public class SabrSwaptionCalibrator {
   
   /** The root-finder used in the Alpha calibration to ATM volatility. */
   private static final NewtonRaphsonSingleRootFinder ROOT_FINDER = new NewtonRaphsonSingleRootFinder();
+  /**
+   * The maximum chi^2 per data point for a warm-started calibration to be used without trying other starting points.
+   * The measurement error used in the fit is 1bp of volatility, thus this is an average error of 1bp.
+   */
+  private static final double WARM_START_MAX_CHI2_PER_POINT = 1d;
+  /** The maximum absolute rho used as a starting point, inside the limit of the fitter. */
+  private static final double WARM_START_MAX_RHO = 0.99d;
+  /** The minimum nu used as a starting point, inside the limit of the fitter. */
+  private static final double WARM_START_MIN_NU = 0.011d;
+  /** The maximum nu used as a starting point, inside the limit of the fitter. */
+  private static final double WARM_START_MAX_NU = 2.49d;
 
   /**
    * The default instance of the class.
@@ -178,7 +192,6 @@ public class SabrSwaptionCalibrator {
    *   expiries/tenors which throw MathException
    * @return the SABR volatility object
    */
-  @SuppressWarnings("null")
   public SabrParametersSwaptionVolatilities calibrateWithFixedBetaAndShift(
       SabrSwaptionDefinition definition,
       ZonedDateTime calibrationDateTime,
@@ -188,80 +201,180 @@ public class SabrSwaptionCalibrator {
       Surface shiftSurface,
       boolean stopOnMathException) {
 
-    SwaptionVolatilitiesName name = definition.getName();
+    List<CalibratedNode> nodes = new ArrayList<>();
+    for (Tenor tenor : data.getTenors()) {
+      nodes.addAll(calibrateTenor(
+          definition,
+          calibrationDateTime,
+          tenor,
+          data.getData(tenor),
+          ratesProvider,
+          betaSurface,
+          shiftSurface,
+          stopOnMathException,
+          false,
+          Optional.empty()));
+    }
+    return volatilities(definition, calibrationDateTime, nodes, betaSurface, shiftSurface);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calibrate SABR parameters to a set of raw swaption data, calibrating the tenors in parallel
+   * and warm-starting the calibration of each expiry/tenor node.
+   * <p>
+   * The SABR parameters are calibrated with fixed beta and fixed shift surfaces.
+   * The raw data can be (shifted) log-normal volatilities, normal volatilities or option prices.
+   * <p>
+   * Each tenor is calibrated concurrently, using the common fork-join pool, while the expiries
+   * of a tenor are calibrated in order. The calibration of each node starts from the parameters
+   * of the previous calibration at the same expiry and tenor, if provided, otherwise from the
+   * parameters calibrated for the previous expiry of the same tenor. If the fit from that starting
+   * point is good, the standard starting points are not tried. Otherwise, or if there is no starting
+   * point, the calibration proceeds as per
+   * {@link #calibrateWithFixedBetaAndShift(SabrSwaptionDefinition, ZonedDateTime, TenorRawOptionData,
+   * RatesProvider, Surface, Surface, boolean)}.
+   * <p>
+   * As the starting points differ, the parameters may differ slightly from those of the sequential calibration
+   * where the least-squares problem has more than one acceptable minimum.
+   * 
+   * @param definition  the definition of the calibration to be performed
+   * @param calibrationDateTime  the data and time of the calibration
+   * @param data  the map of raw option data, keyed by tenor
+   * @param ratesProvider  the rate provider used to compute the swap forward rates
+   * @param betaSurface  the beta surface
+   * @param shiftSurface  the shift surface
+   * @param stopOnMathException  flag indicating if the calibration should stop on math exceptions or skip the 
+   *   expiries/tenors which throw MathException
+   * @param previousCalibration  the previous calibration, such as that of the previous day, used as the
+   *   starting point for each node, empty to start from the previous expiry
+   * @return the SABR volatility object
+   */
+  public SabrParametersSwaptionVolatilities calibrateWithFixedBetaAndShiftParallel(
+      SabrSwaptionDefinition definition,
+      ZonedDateTime calibrationDateTime,
+      TenorRawOptionData data,
+      RatesProvider ratesProvider,
+      Surface betaSurface,
+      Surface shiftSurface,
+      boolean stopOnMathException,
+      Optional<SabrParametersSwaptionVolatilities> previousCalibration) {
+
+    Optional<SabrInterestRateParameters> previousParameters =
+        previousCalibration.map(SabrParametersSwaptionVolatilities::getParameters);
+    List<CompletableFuture<List<CalibratedNode>>> futures = new ArrayList<>();
+    for (Tenor tenor : data.getTenors()) {
+      futures.add(CompletableFuture.supplyAsync(() -> calibrateTenor(
+          definition,
+          calibrationDateTime,
+          tenor,
+          data.getData(tenor),
+          ratesProvider,
+          betaSurface,
+          shiftSurface,
+          stopOnMathException,
+          true,
+          previousParameters)));
+    }
+    // the results are combined in tenor order, thus the failure reported is the same as the sequential calibration
+    List<CalibratedNode> nodes = new ArrayList<>();
+    for (CompletableFuture<List<CalibratedNode>> future : futures) {
+      try {
+        nodes.addAll(future.join());
+      } catch (CompletionException ex) {
+        if (ex.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) ex.getCause();
+        }
+        throw ex;
+      }
+    }
+    return volatilities(definition, calibrationDateTime, nodes, betaSurface, shiftSurface);
+  }
+
+  //-------------------------------------------------------------------------
+  // calibrates the expiries of a single tenor, in order
+  private List<CalibratedNode> calibrateTenor(
+      SabrSwaptionDefinition definition,
+      ZonedDateTime calibrationDateTime,
+      Tenor tenor,
+      RawOptionData tenorData,
+      RatesProvider ratesProvider,
+      Surface betaSurface,
+      Surface shiftSurface,
+      boolean stopOnMathException,
+      boolean warmStart,
+      Optional<SabrInterestRateParameters> previousParameters) {
+
     FixedIborSwapConvention convention = definition.getConvention();
     DayCount dayCount = definition.getDayCount();
-    SurfaceInterpolator interpolator = definition.getInterpolator();
-
     BitSet fixed = new BitSet();
     fixed.set(1); // Beta fixed
     BusinessDayAdjustment bda = convention.getFloatingLeg().getStartDateBusinessDayAdjustment();
     LocalDate calibrationDate = calibrationDateTime.toLocalDate();
-    // Sorted maps to obtain the surfaces nodes in standard order
-    TreeMap<Double, TreeMap<Double, ParameterMetadata>> parameterMetadataTmp = new TreeMap<>(); 
-    TreeMap<Double, TreeMap<Double, DoubleArray>> dataSensitivityAlphaTmp = new TreeMap<>(); // Sensitivity to the calibrating data
-    TreeMap<Double, TreeMap<Double, DoubleArray>>  dataSensitivityRhoTmp = new TreeMap<>();
-    TreeMap<Double, TreeMap<Double, DoubleArray>>  dataSensitivityNuTmp = new TreeMap<>();
-    TreeMap<Double, TreeMap<Double, SabrFormulaData>>  sabrPointTmp = new TreeMap<>();
-    for (Tenor tenor : data.getTenors()) {
-      RawOptionData tenorData = data.getData(tenor);
-      double timeTenor = tenor.getPeriod().getYears() + tenor.getPeriod().getMonths() / 12;
-      List<Period> expiries = tenorData.getExpiries();
-      int nbExpiries = expiries.size();
-      for (int loopexpiry = 0; loopexpiry < nbExpiries; loopexpiry++) {
-        Pair<DoubleArray, DoubleArray> availableSmile = tenorData.availableSmileAtExpiry(expiries.get(loopexpiry));
-        if (availableSmile.getFirst().size() == 0) { // If not data is available, no calibration possible
-          continue;
-        }
-        LocalDate exerciseDate = expirationDate(bda, calibrationDate, expiries.get(loopexpiry));
-        LocalDate effectiveDate = convention.calculateSpotDateFromTradeDate(exerciseDate, refData);
-        double timeToExpiry = dayCount.relativeYearFraction(calibrationDate, exerciseDate);
-        double beta = betaSurface.zValue(timeToExpiry, timeTenor);
-        double shift = shiftSurface.zValue(timeToExpiry, timeTenor);
-        LocalDate endDate = effectiveDate.plus(tenor);
-        SwapTrade swap0 = convention.toTrade(calibrationDate, effectiveDate, endDate, BuySell.BUY, 1.0, 0.0);
-        double forward = swapPricer.parRate(swap0.getProduct().resolve(refData), ratesProvider);
-        SabrFormulaData sabrPoint = null;
-        DoubleMatrix inverseJacobian = null;
-        boolean error = false;
-        try {
-          Pair<SabrFormulaData, DoubleMatrix> calibrationResult =
-              calibration(forward, shift, beta, fixed, bda, calibrationDateTime, dayCount,
-                  availableSmile.getFirst(), availableSmile.getSecond(), expiries.get(loopexpiry), tenorData);
-          sabrPoint = calibrationResult.getFirst();
-          inverseJacobian = calibrationResult.getSecond();
-        } catch (MathException e) {
-          error = true;
-          if (stopOnMathException) {
-            String message = Messages.format("{} at expiry {} and tenor {}", e.getMessage(),
-                expiries.get(loopexpiry), tenor);
-            throw new MathException(message, e);
-          }
-        }
-        if (!error) {
-          if (!parameterMetadataTmp.containsKey(timeToExpiry)) {
-            parameterMetadataTmp.put(timeToExpiry, new TreeMap<>());
-            dataSensitivityAlphaTmp.put(timeToExpiry, new TreeMap<>());
-            dataSensitivityRhoTmp.put(timeToExpiry, new TreeMap<>());
-            dataSensitivityNuTmp.put(timeToExpiry, new TreeMap<>());
-            sabrPointTmp.put(timeToExpiry, new TreeMap<>());
-          }
-          TreeMap<Double, ParameterMetadata> parameterMetadataExpiryMap = parameterMetadataTmp.get(timeToExpiry);
-          TreeMap<Double, DoubleArray> dataSensitivityAlphaExpiryMap = dataSensitivityAlphaTmp.get(timeToExpiry);
-          TreeMap<Double, DoubleArray> dataSensitivityRhoExpiryMap = dataSensitivityRhoTmp.get(timeToExpiry);
-          TreeMap<Double, DoubleArray> dataSensitivityNuExpiryMap = dataSensitivityNuTmp.get(timeToExpiry);
-          TreeMap<Double, SabrFormulaData> sabrPointExpiryMap = sabrPointTmp.get(timeToExpiry);
-          parameterMetadataExpiryMap.put(timeTenor, SwaptionSurfaceExpiryTenorParameterMetadata.of(
-              timeToExpiry,
-              timeTenor,
-              expiries.get(loopexpiry).toString() + "x" + tenor.toString()));
-          dataSensitivityAlphaExpiryMap.put(timeTenor, inverseJacobian.row(0));
-          dataSensitivityRhoExpiryMap.put(timeTenor, inverseJacobian.row(2));
-          dataSensitivityNuExpiryMap.put(timeTenor, inverseJacobian.row(3));
-          sabrPointExpiryMap.put(timeTenor, sabrPoint);
+    double timeTenor = tenor.getPeriod().getYears() + tenor.getPeriod().getMonths() / 12;
+    List<Period> expiries = tenorData.getExpiries();
+    List<CalibratedNode> nodes = new ArrayList<>();
+    Optional<SabrFormulaData> previousExpiry = Optional.empty();
+    for (Period expiry : expiries) {
+      Pair<DoubleArray, DoubleArray> availableSmile = tenorData.availableSmileAtExpiry(expiry);
+      if (availableSmile.getFirst().size() == 0) { // If not data is available, no calibration possible
+        continue;
+      }
+      LocalDate exerciseDate = expirationDate(bda, calibrationDate, expiry);
+      LocalDate effectiveDate = convention.calculateSpotDateFromTradeDate(exerciseDate, refData);
+      double timeToExpiry = dayCount.relativeYearFraction(calibrationDate, exerciseDate);
+      double beta = betaSurface.zValue(timeToExpiry, timeTenor);
+      double shift = shiftSurface.zValue(timeToExpiry, timeTenor);
+      LocalDate endDate = effectiveDate.plus(tenor);
+      SwapTrade swap0 = convention.toTrade(calibrationDate, effectiveDate, endDate, BuySell.BUY, 1.0, 0.0);
+      double forward = swapPricer.parRate(swap0.getProduct().resolve(refData), ratesProvider);
+      Optional<SabrFormulaData> start = Optional.empty();
+      if (warmStart) {
+        start = previousParameters.isPresent() ?
+            Optional.of(SabrFormulaData.of(
+                previousParameters.get().alpha(timeToExpiry, timeTenor),
+                beta,
+                previousParameters.get().rho(timeToExpiry, timeTenor),
+                previousParameters.get().nu(timeToExpiry, timeTenor))) :
+            previousExpiry;
+      }
+      try {
+        Pair<SabrFormulaData, DoubleMatrix> calibrationResult =
+            calibration(forward, shift, beta, fixed, bda, calibrationDateTime, dayCount,
+                availableSmile.getFirst(), availableSmile.getSecond(), expiry, tenorData, start);
+        ParameterMetadata metadata = SwaptionSurfaceExpiryTenorParameterMetadata.of(
+            timeToExpiry,
+            timeTenor,
+            expiry.toString() + "x" + tenor.toString());
+        nodes.add(new CalibratedNode(
+            timeToExpiry, timeTenor, metadata, calibrationResult.getFirst(), calibrationResult.getSecond()));
+        previousExpiry = Optional.of(calibrationResult.getFirst());
+      } catch (MathException e) {
+        if (stopOnMathException) {
+          String message = Messages.format("{} at expiry {} and tenor {}", e.getMessage(), expiry, tenor);
+          throw new MathException(message, e);
         }
       }
     }
+    return nodes;
+  }
+
+  // creates the volatilities from the calibrated nodes, with the surface nodes in standard order
+  private SabrParametersSwaptionVolatilities volatilities(
+      SabrSwaptionDefinition definition,
+      ZonedDateTime calibrationDateTime,
+      List<CalibratedNode> nodes,
+      Surface betaSurface,
+      Surface shiftSurface) {
+
+    SwaptionVolatilitiesName name = definition.getName();
+    DayCount dayCount = definition.getDayCount();
+    SurfaceInterpolator interpolator = definition.getInterpolator();
+    // Sorted maps to obtain the surfaces nodes in standard order
+    TreeMap<Double, TreeMap<Double, CalibratedNode>> sortedNodes = new TreeMap<>();
+    for (CalibratedNode node : nodes) {
+      sortedNodes.computeIfAbsent(node.timeToExpiry, t -> new TreeMap<>()).put(node.timeTenor, node);
+    }
     DoubleArray timeToExpiryArray = DoubleArray.EMPTY;
     DoubleArray timeTenorArray = DoubleArray.EMPTY;
     DoubleArray alphaArray = DoubleArray.EMPTY;
@@ -271,23 +384,17 @@ public class SabrSwaptionCalibrator {
     List<DoubleArray> dataSensitivityAlpha = new ArrayList<>(); // Sensitivity to the calibrating data
     List<DoubleArray> dataSensitivityRho = new ArrayList<>();
     List<DoubleArray> dataSensitivityNu = new ArrayList<>();
-    for (Double timeToExpiry : parameterMetadataTmp.keySet()) {
-      TreeMap<Double, ParameterMetadata> parameterMetadataExpiryMap = parameterMetadataTmp.get(timeToExpiry);
-      TreeMap<Double, DoubleArray> dataSensitivityAlphaExpiryMap = dataSensitivityAlphaTmp.get(timeToExpiry);
-      TreeMap<Double, DoubleArray> dataSensitivityRhoExpiryMap = dataSensitivityRhoTmp.get(timeToExpiry);
-      TreeMap<Double, DoubleArray> dataSensitivityNuExpiryMap = dataSensitivityNuTmp.get(timeToExpiry);
-      TreeMap<Double, SabrFormulaData> sabrPointExpiryMap = sabrPointTmp.get(timeToExpiry);
-      for (Double timeTenor : parameterMetadataExpiryMap.keySet()) {
-        parameterMetadata.add(parameterMetadataExpiryMap.get(timeTenor));
-        dataSensitivityAlpha.add(dataSensitivityAlphaExpiryMap.get(timeTenor));
-        dataSensitivityRho.add(dataSensitivityRhoExpiryMap.get(timeTenor));
-        dataSensitivityNu.add(dataSensitivityNuExpiryMap.get(timeTenor));
-        timeToExpiryArray = timeToExpiryArray.concat(timeToExpiry);
-        timeTenorArray = timeTenorArray.concat(timeTenor);
-        SabrFormulaData sabrPt = sabrPointExpiryMap.get(timeTenor);
-        alphaArray = alphaArray.concat(sabrPt.getAlpha());
-        rhoArray = rhoArray.concat(sabrPt.getRho());
-        nuArray = nuArray.concat(sabrPt.getNu());
+    for (TreeMap<Double, CalibratedNode> expiryNodes : sortedNodes.values()) {
+      for (CalibratedNode node : expiryNodes.values()) {
+        parameterMetadata.add(node.metadata);
+        dataSensitivityAlpha.add(node.inverseJacobian.row(0));
+        dataSensitivityRho.add(node.inverseJacobian.row(2));
+        dataSensitivityNu.add(node.inverseJacobian.row(3));
+        timeToExpiryArray = timeToExpiryArray.concat(node.timeToExpiry);
+        timeTenorArray = timeTenorArray.concat(node.timeTenor);
+        alphaArray = alphaArray.concat(node.sabrPoint.getAlpha());
+        rhoArray = rhoArray.concat(node.sabrPoint.getRho());
+        nuArray = nuArray.concat(node.sabrPoint.getNu());
       }
     }
     SurfaceMetadata metadataAlpha = Surfaces.sabrParameterByExpiryTenor(
@@ -309,17 +416,17 @@ public class SabrSwaptionCalibrator {
         alphaSurface, betaSurface, rhoSurface, nuSurface, shiftSurface, sabrVolatilityFormula);
     return SabrParametersSwaptionVolatilities.builder()
         .name(name)
-        .convention(convention)
+        .convention(definition.getConvention())
         .valuationDateTime(calibrationDateTime)
         .parameters(params)
         .dataSensitivityAlpha(dataSensitivityAlpha)
         .dataSensitivityRho(dataSensitivityRho)
         .dataSensitivityNu(dataSensitivityNu).build();
   }
-      
 
-  // The main part of the calibration. The calibration is done 4 times with different starting points: low and high
-  // volatilities and high and low vol of vol. The best result (in term of chi^2) is returned.
+  // The main part of the calibration. If a start is provided, the calibration is first done from that point.
+  // If that calibration fails or is poor, the calibration is done 4 times with different starting points:
+  // low and high volatilities and high and low vol of vol. The best result (in term of chi^2) is returned.
   private Pair<SabrFormulaData, DoubleMatrix> calibration(
       double forward,
       double shift,
@@ -331,47 +438,42 @@ public class SabrSwaptionCalibrator {
       DoubleArray strike,
       DoubleArray data,
       Period expiry,
-      RawOptionData rawData) {
-
-    double rhoStart = -0.50 * beta + 0.50 * (1 - beta);
-    // Correlation is usually positive for normal and negative for log-normal;.
-    double[] alphaStart = new double[4];
-    alphaStart[0] = 0.0025 / Math.pow(forward + shift, beta); // Low vol
-    alphaStart[1] = alphaStart[0];
-    alphaStart[2] = 4 * alphaStart[0]; // High vol
-    alphaStart[3] = alphaStart[2];
-    double[] nuStart = new double[4];
-    nuStart[0] = 0.10; // Low vol of vol
-    nuStart[1] = 0.50; // High vol of vol
-    nuStart[2] = 0.10;
-    nuStart[3] = 0.50;
+      RawOptionData rawData,
+      Optional<SabrFormulaData> start) {
+
     double chi2 = 1.0E+12; // Large number 
     Pair<LeastSquareResultsWithTransform, DoubleArray> sabrCalibrationResult = null;
-    for (int i = 0; i < 4; i++) { // Try different starting points and take the best
-      DoubleArray startParameters = DoubleArray.of(alphaStart[i], beta, rhoStart, nuStart[i]);
-      Pair<LeastSquareResultsWithTransform, DoubleArray> r = null;
-      if (rawData.getDataType().equals(ValueType.NORMAL_VOLATILITY)) {
-        r = calibrateLsShiftedFromNormalVolatilities(bda, calibrationDateTime, dayCount,
-            expiry, forward, strike, rawData.getStrikeType(),
-            data, startParameters, fixed, shift);
-      } else {
-        if (rawData.getDataType().equals(ValueType.PRICE)) {
-          r = calibrateLsShiftedFromPrices(bda, calibrationDateTime, dayCount,
-              expiry, forward, strike, rawData.getStrikeType(),
-              data, startParameters, fixed, shift);
-        } else {
-          if (rawData.getDataType().equals(ValueType.BLACK_VOLATILITY)) {
-            r = calibrateLsShiftedFromBlackVolatilities(bda, calibrationDateTime, dayCount,
-                expiry, forward, strike, rawData.getStrikeType(),
-                data, rawData.getShift().orElse(0d), startParameters, fixed, shift);
-          } else {
-            throw new IllegalArgumentException("Data type not supported");
-          }
-        }
+    Optional<DoubleArray> warmStartParameters = start.flatMap(sabr -> warmStartParameters(sabr, beta));
+    if (warmStartParameters.isPresent()) {
+      try {
+        sabrCalibrationResult = calibrateLs(forward, shift, fixed, bda, calibrationDateTime, dayCount,
+            strike, data, expiry, rawData, warmStartParameters.get());
+        chi2 = sabrCalibrationResult.getFirst().getChiSq();
+      } catch (MathException ex) {
+        // fall back to the standard starting points
       }
-      if (r.getFirst().getChiSq() < chi2) { // Keep best calibration
-        sabrCalibrationResult = r;
-        chi2 = r.getFirst().getChiSq();
+    }
+    if (sabrCalibrationResult == null || chi2 > WARM_START_MAX_CHI2_PER_POINT * strike.size()) {
+      double rhoStart = -0.50 * beta + 0.50 * (1 - beta);
+      // Correlation is usually positive for normal and negative for log-normal;.
+      double[] alphaStart = new double[4];
+      alphaStart[0] = 0.0025 / Math.pow(forward + shift, beta); // Low vol
+      alphaStart[1] = alphaStart[0];
+      alphaStart[2] = 4 * alphaStart[0]; // High vol
+      alphaStart[3] = alphaStart[2];
+      double[] nuStart = new double[4];
+      nuStart[0] = 0.10; // Low vol of vol
+      nuStart[1] = 0.50; // High vol of vol
+      nuStart[2] = 0.10;
+      nuStart[3] = 0.50;
+      for (int i = 0; i < 4; i++) { // Try different starting points and take the best
+        DoubleArray startParameters = DoubleArray.of(alphaStart[i], beta, rhoStart, nuStart[i]);
+        Pair<LeastSquareResultsWithTransform, DoubleArray> r = calibrateLs(forward, shift, fixed, bda,
+            calibrationDateTime, dayCount, strike, data, expiry, rawData, startParameters);
+        if (r.getFirst().getChiSq() < chi2) { // Keep best calibration
+          sabrCalibrationResult = r;
+          chi2 = r.getFirst().getChiSq();
+        }
       }
     }
     @SuppressWarnings("null")
@@ -380,18 +482,88 @@ public class SabrSwaptionCalibrator {
     DoubleMatrix parameterSensitivityToBlackShifted =
         sabrCalibrationResult.getFirst().getModelParameterSensitivityToData();
     DoubleArray blackVolSensitivitytoRawData = sabrCalibrationResult.getSecond();
-    // Multiply the sensitivity to the intermediary (shifted) log-normal vol by its sensitivity to the raw data
-    double[][] parameterSensitivityToDataArray = new double[4][blackVolSensitivitytoRawData.size()];
-    for (int loopsabr = 0; loopsabr < 4; loopsabr++) {
-      for (int loopdata = 0; loopdata < blackVolSensitivitytoRawData.size(); loopdata++) {
-        parameterSensitivityToDataArray[loopsabr][loopdata] =
-            parameterSensitivityToBlackShifted.get(loopsabr, loopdata) * blackVolSensitivitytoRawData.get(loopdata);
-      }
-    }
-    DoubleMatrix parameterSensitivityToData = DoubleMatrix.ofUnsafe(parameterSensitivityToDataArray);
+    // The intermediary (shifted) log-normal vol of each data point depends only on that data point,
+    // thus the chain rule scales each column by the derivative of the log-normal vol to the raw data
+    DoubleMatrix parameterSensitivityToData = DoubleMatrix.ofArrayObjects(
+        parameterSensitivityToBlackShifted.rowCount(),
+        blackVolSensitivitytoRawData.size(),
+        i -> parameterSensitivityToBlackShifted.row(i).multipliedBy(blackVolSensitivitytoRawData));
     return Pair.of(sabrParameters, parameterSensitivityToData);
   }
 
+  // the least-squares calibration from one starting point, based on the type of raw data
+  private Pair<LeastSquareResultsWithTransform, DoubleArray> calibrateLs(
+      double forward,
+      double shift,
+      BitSet fixed,
+      BusinessDayAdjustment bda,
+      ZonedDateTime calibrationDateTime,
+      DayCount dayCount,
+      DoubleArray strike,
+      DoubleArray data,
+      Period expiry,
+      RawOptionData rawData,
+      DoubleArray startParameters) {
+
+    if (rawData.getDataType().equals(ValueType.NORMAL_VOLATILITY)) {
+      return calibrateLsShiftedFromNormalVolatilities(bda, calibrationDateTime, dayCount,
+          expiry, forward, strike, rawData.getStrikeType(),
+          data, startParameters, fixed, shift);
+    }
+    if (rawData.getDataType().equals(ValueType.PRICE)) {
+      return calibrateLsShiftedFromPrices(bda, calibrationDateTime, dayCount,
+          expiry, forward, strike, rawData.getStrikeType(),
+          data, startParameters, fixed, shift);
+    }
+    if (rawData.getDataType().equals(ValueType.BLACK_VOLATILITY)) {
+      return calibrateLsShiftedFromBlackVolatilities(bda, calibrationDateTime, dayCount,
+          expiry, forward, strike, rawData.getStrikeType(),
+          data, rawData.getShift().orElse(0d), startParameters, fixed, shift);
+    }
+    throw new IllegalArgumentException("Data type not supported");
+  }
+
+  // the starting parameters from previously calibrated parameters, moved inside the limits of the fitter
+  // empty if the parameters are not usable, for example if alpha is not positive
+  private static Optional<DoubleArray> warmStartParameters(SabrFormulaData sabr, double beta) {
+    double alpha = sabr.getAlpha();
+    double rho = sabr.getRho();
+    double nu = sabr.getNu();
+    if (!(alpha > 0d) || Double.isNaN(rho) || Double.isNaN(nu) || Double.isInfinite(alpha)) {
+      return Optional.empty();
+    }
+    double rhoStart = Math.max(-WARM_START_MAX_RHO, Math.min(WARM_START_MAX_RHO, rho));
+    double nuStart = Math.max(WARM_START_MIN_NU, Math.min(WARM_START_MAX_NU, nu));
+    return Optional.of(DoubleArray.of(alpha, beta, rhoStart, nuStart));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The calibrated parameters of a single expiry/tenor node.
+   */
+  private static final class CalibratedNode {
+
+    private final double timeToExpiry;
+    private final double timeTenor;
+    private final ParameterMetadata metadata;
+    private final SabrFormulaData sabrPoint;
+    private final DoubleMatrix inverseJacobian;
+
+    private CalibratedNode(
+        double timeToExpiry,
+        double timeTenor,
+        ParameterMetadata metadata,
+        SabrFormulaData sabrPoint,
+        DoubleMatrix inverseJacobian) {
+
+      this.timeToExpiry = timeToExpiry;
+      this.timeTenor = timeTenor;
+      this.metadata = metadata;
+      this.sabrPoint = sabrPoint;
+      this.inverseJacobian = inverseJacobian;
+    }
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Calibrate SABR alpha parameters to a set of ATM swaption volatilities.
@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
+import static com.opengamma.strata.basics.index.IborIndices.USD_LIBOR_3M;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.date.Tenor;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.io.BinarySnapshotReader;
+import com.opengamma.strata.collect.io.BinarySnapshotWriter;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.ImmutableMarketData;
+import com.opengamma.strata.market.curve.CurveGroup;
+import com.opengamma.strata.market.curve.CurveGroupName;
+import com.opengamma.strata.market.curve.CurveId;
+import com.opengamma.strata.market.curve.CurveName;
+import com.opengamma.strata.market.curve.Curves;
+import com.opengamma.strata.market.curve.InterpolatedNodalCurve;
+import com.opengamma.strata.market.curve.interpolator.CurveExtrapolators;
+import com.opengamma.strata.market.curve.interpolator.CurveInterpolators;
+import com.opengamma.strata.market.observable.IndexQuoteId;
+import com.opengamma.strata.market.observable.QuoteId;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.market.param.TenorDateParameterMetadata;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.pricer.swap.DiscountingSwapTradePricer;
+import com.opengamma.strata.product.common.BuySell;
+import com.opengamma.strata.product.swap.ResolvedSwapTrade;
+import com.opengamma.strata.product.swap.type.FixedIborSwapConventions;
+
+/**
+ * Test {@link BinarySnapshotWriter} and {@link BinarySnapshotReader} with trades, curves,
+ * market data and sensitivities.
+ */
+@Test
+public class BinarySnapshotTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate VAL_DATE = date(2016, 6, 30);
+  private static final CurveGroupName GROUP_NAME = CurveGroupName.of("Group");
+  private static final CurveName DSC_NAME = CurveName.of("USD-Discount");
+  private static final CurveName FWD_NAME = CurveName.of("USD-LIBOR-3M");
+  private static final InterpolatedNodalCurve DSC_CURVE = curve(DSC_NAME, 0.010);
+  private static final InterpolatedNodalCurve FWD_CURVE = curve(FWD_NAME, 0.015);
+  private static final ResolvedSwapTrade TRADE = FixedIborSwapConventions.USD_FIXED_6M_LIBOR_3M
+      .createTrade(VAL_DATE, Tenor.TENOR_5Y, BuySell.BUY, 1_000_000d, 0.012, REF_DATA)
+      .resolve(REF_DATA);
+
+  private static InterpolatedNodalCurve curve(CurveName name, double shift) {
+    List<Tenor> tenors = ImmutableList.of(Tenor.TENOR_1Y, Tenor.TENOR_2Y, Tenor.TENOR_5Y, Tenor.TENOR_10Y);
+    ImmutableList.Builder<TenorDateParameterMetadata> metadata = ImmutableList.builder();
+    double[] times = new double[tenors.size()];
+    for (int i = 0; i < tenors.size(); i++) {
+      LocalDate date = VAL_DATE.plus(tenors.get(i));
+      metadata.add(TenorDateParameterMetadata.of(date, tenors.get(i)));
+      times[i] = ACT_365F.relativeYearFraction(VAL_DATE, date);
+    }
+    return InterpolatedNodalCurve.of(
+        Curves.zeroRates(name, ACT_365F, metadata.build()),
+        DoubleArray.ofUnsafe(times),
+        DoubleArray.of(0.005, 0.010, 0.015, 0.020).plus(shift),
+        CurveInterpolators.NATURAL_SPLINE,
+        CurveExtrapolators.FLAT,
+        CurveExtrapolators.LINEAR);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_resolvedSwapTrade() {
+    assertRoundTrip(TRADE);
+  }
+
+  public void test_curveGroup() {
+    CurveGroup group = CurveGroup.of(
+        GROUP_NAME, ImmutableMap.of(USD, DSC_CURVE), ImmutableMap.of(USD_LIBOR_3M, FWD_CURVE));
+    assertRoundTrip(group);
+  }
+
+  public void test_marketData() {
+    LocalDateDoubleTimeSeries fixings = LocalDateDoubleTimeSeries.builder()
+        .put(date(2016, 6, 28), 0.0065)
+        .put(date(2016, 6, 29), 0.0066)
+        .put(date(2016, 6, 30), 0.0064)
+        .build();
+    ImmutableMarketData marketData = ImmutableMarketData.builder(VAL_DATE)
+        .addValue(CurveId.of(GROUP_NAME, DSC_NAME), DSC_CURVE)
+        .addValue(CurveId.of(GROUP_NAME, FWD_NAME), FWD_CURVE)
+        .addValue(QuoteId.of(StandardId.of("OG-Ticker", "USD-3M")), 0.0064)
+        .addTimeSeries(IndexQuoteId.of(USD_LIBOR_3M), fixings)
+        .build();
+    assertRoundTrip(marketData);
+  }
+
+  public void test_currencyParameterSensitivities() {
+    ImmutableRatesProvider provider = ImmutableRatesProvider.builder(VAL_DATE)
+        .discountCurve(USD, DSC_CURVE)
+        .iborIndexCurve(USD_LIBOR_3M, FWD_CURVE)
+        .build();
+    CurrencyParameterSensitivities sensitivities = provider.parameterSensitivity(
+        DiscountingSwapTradePricer.DEFAULT.presentValueSensitivity(TRADE, provider));
+    assertEquals(sensitivities.size(), 2);
+    assertRoundTrip(sensitivities);
+  }
+
+  //-------------------------------------------------------------------------
+  private static void assertRoundTrip(Object value) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (BinarySnapshotWriter writer = BinarySnapshotWriter.of(out)) {
+      writer.write(value);
+    }
+    try (BinarySnapshotReader reader = BinarySnapshotReader.of(new ByteArrayInputStream(out.toByteArray()))) {
+      assertEquals(reader.read(value.getClass()), value);
+    }
+  }
+
+}
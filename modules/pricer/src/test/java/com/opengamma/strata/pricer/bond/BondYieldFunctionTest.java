@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.bond;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link BondYieldFunction}.
+ */
+@Test
+public class BondYieldFunctionTest {
+
+  private static final double[] AMOUNTS = {0.025, 0.025, 0.025, 0.025, 1d};
+  private static final double[] EXPONENTS = {0.4, 1.4, 2.4, 3.4, 3.4};
+  private static final BondYieldFunction FUNCTION = BondYieldFunction.of(2d, AMOUNTS, EXPONENTS, 0d, 0d);
+  private static final BondYieldFunction FUNCTION_SIMPLE =
+      BondYieldFunction.of(2d, new double[] {1.02}, new double[] {0d}, 0.35, 0.01);
+  private static final double YIELD = 0.035;
+  private static final double TOL = 1.0e-12;
+  private static final double EPS = 1.0e-6;
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    assertThrowsIllegalArg(() -> BondYieldFunction.of(0d, AMOUNTS, EXPONENTS, 0d, 0d));
+    assertThrowsIllegalArg(() -> BondYieldFunction.of(2d, AMOUNTS, new double[] {1d}, 0d, 0d));
+  }
+
+  public void test_dirtyPrice() {
+    double expected = 0d;
+    for (int i = 0; i < AMOUNTS.length; i++) {
+      expected += AMOUNTS[i] * Math.pow(1d + YIELD / 2d, -EXPONENTS[i]);
+    }
+    assertEquals(FUNCTION.dirtyPrice(YIELD), expected, TOL);
+    assertEquals(FUNCTION_SIMPLE.dirtyPrice(YIELD), 1.02 / (1d + 0.35 * YIELD) + 0.01, TOL);
+  }
+
+  public void test_derivatives() {
+    for (BondYieldFunction function : new BondYieldFunction[] {FUNCTION, FUNCTION_SIMPLE}) {
+      double priceUp = function.dirtyPrice(YIELD + EPS);
+      double priceDw = function.dirtyPrice(YIELD - EPS);
+      assertEquals(function.dirtyPriceFirstDerivative(YIELD), 0.5 * (priceUp - priceDw) / EPS, EPS);
+      double derivativeUp = function.dirtyPriceFirstDerivative(YIELD + EPS);
+      double derivativeDw = function.dirtyPriceFirstDerivative(YIELD - EPS);
+      assertEquals(function.dirtyPriceSecondDerivative(YIELD), 0.5 * (derivativeUp - derivativeDw) / EPS, EPS);
+      double price = function.dirtyPrice(YIELD);
+      assertEquals(function.modifiedDuration(YIELD), -function.dirtyPriceFirstDerivative(YIELD) / price, TOL);
+      assertEquals(function.convexity(YIELD), function.dirtyPriceSecondDerivative(YIELD) / price, TOL);
+    }
+  }
+
+  public void test_yieldFromDirtyPrice() {
+    for (BondYieldFunction function : new BondYieldFunction[] {FUNCTION, FUNCTION_SIMPLE}) {
+      double price = function.dirtyPrice(YIELD);
+      assertEquals(function.yieldFromDirtyPrice(price, YIELD), YIELD, TOL);
+      assertEquals(function.yieldFromDirtyPrice(price, 0d), YIELD, TOL);
+      assertEquals(function.yieldFromDirtyPrice(price, 0.10), YIELD, TOL);
+    }
+  }
+
+  public void test_yieldFromDirtyPrice_fallback() {
+    // initial yield outside the domain of the function, Newton iterations fail
+    double price = FUNCTION.dirtyPrice(YIELD);
+    assertEquals(FUNCTION.yieldFromDirtyPrice(price, -3d), YIELD, 1.0e-10);
+  }
+
+  public void test_noCashFlow() {
+    BondYieldFunction test = BondYieldFunction.of(2d, new double[0], new double[0], 0d, 0d);
+    assertEquals(test.dirtyPrice(YIELD), 0d);
+    assertEquals(test.dirtyPriceFirstDerivative(YIELD), 0d);
+    assertEquals(test.dirtyPriceSecondDerivative(YIELD), 0d);
+  }
+
+}
@@ -0,0 +1,227 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.bond;
+
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.basics.date.DayCounts.ACT_ACT_ICMA;
+import static com.opengamma.strata.basics.date.HolidayCalendarIds.GBLO;
+import static com.opengamma.strata.basics.date.HolidayCalendarIds.SAT_SUN;
+import static com.opengamma.strata.basics.date.HolidayCalendarIds.USNY;
+import static com.opengamma.strata.basics.index.PriceIndices.GB_RPI;
+import static com.opengamma.strata.basics.index.PriceIndices.US_CPI_U;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static com.opengamma.strata.product.bond.CapitalIndexedBondYieldConvention.GB_IL_FLOAT;
+import static com.opengamma.strata.product.bond.CapitalIndexedBondYieldConvention.US_IL_REAL;
+import static com.opengamma.strata.product.swap.PriceIndexCalculationMethod.INTERPOLATED;
+import static com.opengamma.strata.product.swap.PriceIndexCalculationMethod.MONTHLY;
+import static org.testng.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.date.BusinessDayAdjustment;
+import com.opengamma.strata.basics.date.BusinessDayConventions;
+import com.opengamma.strata.basics.date.DayCounts;
+import com.opengamma.strata.basics.date.DaysAdjustment;
+import com.opengamma.strata.basics.date.HolidayCalendarId;
+import com.opengamma.strata.basics.index.PriceIndex;
+import com.opengamma.strata.basics.schedule.Frequency;
+import com.opengamma.strata.basics.schedule.PeriodicSchedule;
+import com.opengamma.strata.basics.schedule.RollConventions;
+import com.opengamma.strata.basics.schedule.StubConvention;
+import com.opengamma.strata.basics.value.ValueSchedule;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.product.SecurityId;
+import com.opengamma.strata.product.bond.CapitalIndexedBond;
+import com.opengamma.strata.product.bond.CapitalIndexedBondYieldConvention;
+import com.opengamma.strata.product.bond.FixedCouponBond;
+import com.opengamma.strata.product.bond.FixedCouponBondYieldConvention;
+import com.opengamma.strata.product.bond.ResolvedCapitalIndexedBond;
+import com.opengamma.strata.product.bond.ResolvedFixedCouponBond;
+import com.opengamma.strata.product.swap.InflationRateCalculation;
+import com.opengamma.strata.product.swap.PriceIndexCalculationMethod;
+
+/**
+ * Test {@link BondYieldFunctions}.
+ */
+@Test
+public class BondYieldFunctionsTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final SecurityId SECURITY_ID = SecurityId.of("OG-Ticker", "BOND1");
+  private static final StandardId ISSUER_ID = CapitalIndexedBondCurveDataSet.getIssuerId();
+  private static final double TOL = 1.0e-12;
+
+  // fixed coupon bonds, one per convention
+  private static final LocalDate SETTLEMENT = date(2013, 5, 13);
+  private static final LocalDate SETTLEMENT_LAST = date(2016, 8, 15);
+  private static final List<ResolvedFixedCouponBond> FIXED_BONDS = ImmutableList.of(
+      fixedCouponBond(FixedCouponBondYieldConvention.US_STREET, DaysAdjustment.NONE),
+      fixedCouponBond(FixedCouponBondYieldConvention.GB_BUMP_DMO, DaysAdjustment.ofCalendarDays(-7,
+          BusinessDayAdjustment.of(BusinessDayConventions.PRECEDING, SAT_SUN))),
+      fixedCouponBond(FixedCouponBondYieldConvention.DE_BONDS, DaysAdjustment.NONE),
+      fixedCouponBond(FixedCouponBondYieldConvention.JP_SIMPLE, DaysAdjustment.NONE));
+  private static final DoubleArray YIELDS = DoubleArray.of(0.04, 0.035, 0.012, 0.003);
+  private static final DiscountingFixedCouponBondProductPricer FIXED_PRICER =
+      DiscountingFixedCouponBondProductPricer.DEFAULT;
+
+  // capital indexed bonds
+  private static final LocalDate VAL_DATE = date(2016, 3, 1);
+  private static final ImmutableRatesProvider RATES_PROVIDER_GB = CapitalIndexedBondCurveDataSet.getRatesProviderGb(
+      VAL_DATE, CapitalIndexedBondCurveDataSet.getTimeSeriesGb(VAL_DATE));
+  private static final ImmutableRatesProvider RATES_PROVIDER_US = CapitalIndexedBondCurveDataSet.getRatesProvider(
+      VAL_DATE, CapitalIndexedBondCurveDataSet.getTimeSeries(VAL_DATE));
+  private static final ResolvedCapitalIndexedBond BOND_US = capitalIndexedBond(
+      US_IL_REAL, US_CPI_U, INTERPOLATED, 3, 218.085, 0.0125 * 0.5, date(2010, 7, 15), date(2020, 7, 15), USNY);
+  private static final ResolvedCapitalIndexedBond BOND_GB = capitalIndexedBond(
+      GB_IL_FLOAT, GB_RPI, MONTHLY, 8, 82.966, 0.025 * 0.5, date(1983, 10, 16), date(2020, 4, 16), GBLO);
+  private static final DiscountingCapitalIndexedBondProductPricer CAPITAL_INDEXED_PRICER =
+      DiscountingCapitalIndexedBondProductPricer.DEFAULT;
+
+  private static ResolvedFixedCouponBond fixedCouponBond(
+      FixedCouponBondYieldConvention convention,
+      DaysAdjustment exCouponPeriod) {
+
+    PeriodicSchedule schedule = PeriodicSchedule.of(date(2006, 11, 15), date(2016, 11, 15), Frequency.P6M,
+        BusinessDayAdjustment.of(BusinessDayConventions.FOLLOWING, SAT_SUN), StubConvention.SHORT_INITIAL, false);
+    return FixedCouponBond.builder()
+        .securityId(SECURITY_ID)
+        .dayCount(convention.equals(FixedCouponBondYieldConvention.JP_SIMPLE) ? DayCounts.NL_365 : ACT_ACT_ICMA)
+        .fixedRate(0.04625)
+        .legalEntityId(ISSUER_ID)
+        .currency(USD)
+        .notional(100)
+        .accrualSchedule(schedule)
+        .settlementDateOffset(DaysAdjustment.ofBusinessDays(3, SAT_SUN))
+        .yieldConvention(convention)
+        .exCouponPeriod(exCouponPeriod)
+        .build()
+        .resolve(REF_DATA);
+  }
+
+  private static ResolvedCapitalIndexedBond capitalIndexedBond(
+      CapitalIndexedBondYieldConvention convention,
+      PriceIndex index,
+      PriceIndexCalculationMethod method,
+      int lagMonths,
+      double startIndex,
+      double coupon,
+      LocalDate start,
+      LocalDate end,
+      HolidayCalendarId calendar) {
+
+    InflationRateCalculation rateCalc = InflationRateCalculation.builder()
+        .gearing(ValueSchedule.of(coupon))
+        .index(index)
+        .lag(Period.ofMonths(lagMonths))
+        .indexCalculationMethod(method)
+        .firstIndexValue(startIndex)
+        .build();
+    BusinessDayAdjustment businessAdjust = BusinessDayAdjustment.of(BusinessDayConventions.FOLLOWING, calendar);
+    PeriodicSchedule schedule = PeriodicSchedule.of(
+        start, end, Frequency.P6M, businessAdjust, StubConvention.NONE, RollConventions.NONE);
+    return CapitalIndexedBond.builder()
+        .securityId(SECURITY_ID)
+        .notional(1_000_000d)
+        .currency(convention.equals(US_IL_REAL) ? USD : GBP)
+        .dayCount(ACT_ACT_ICMA)
+        .rateCalculation(rateCalc)
+        .legalEntityId(ISSUER_ID)
+        .yieldConvention(convention)
+        .settlementDateOffset(DaysAdjustment.ofBusinessDays(1, calendar))
+        .accrualSchedule(schedule)
+        .build()
+        .resolve(REF_DATA);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    BondYieldFunctions test = BondYieldFunctions.ofFixedCouponBonds(FIXED_BONDS, SETTLEMENT);
+    assertEquals(test.size(), FIXED_BONDS.size());
+    assertEquals(BondYieldFunctions.of(test.getFunctions()).size(), FIXED_BONDS.size());
+  }
+
+  public void test_fixedCouponBonds() {
+    BondYieldFunctions test = BondYieldFunctions.ofFixedCouponBonds(FIXED_BONDS, SETTLEMENT);
+    DoubleArray prices = test.dirtyPricesFromYields(YIELDS);
+    DoubleArray durations = test.modifiedDurationsFromYields(YIELDS);
+    DoubleArray convexities = test.convexitiesFromYields(YIELDS);
+    for (int i = 0; i < FIXED_BONDS.size(); i++) {
+      ResolvedFixedCouponBond bond = FIXED_BONDS.get(i);
+      double yield = YIELDS.get(i);
+      double price = FIXED_PRICER.dirtyPriceFromYield(bond, SETTLEMENT, yield);
+      assertEquals(prices.get(i), price, TOL);
+      assertEquals(durations.get(i), FIXED_PRICER.modifiedDurationFromYield(bond, SETTLEMENT, yield), 1.0e-10);
+      assertEquals(convexities.get(i), FIXED_PRICER.convexityFromYield(bond, SETTLEMENT, yield), 1.0e-10);
+    }
+    assertYields(test, prices, YIELDS);
+  }
+
+  public void test_fixedCouponBonds_lastPeriod() {
+    List<ResolvedFixedCouponBond> bonds = FIXED_BONDS.subList(0, 3);
+    DoubleArray yields = YIELDS.subArray(0, 3);
+    BondYieldFunctions test = BondYieldFunctions.ofFixedCouponBonds(bonds, SETTLEMENT_LAST);
+    DoubleArray prices = test.dirtyPricesFromYields(yields);
+    for (int i = 0; i < bonds.size(); i++) {
+      assertEquals(prices.get(i), FIXED_PRICER.dirtyPriceFromYield(bonds.get(i), SETTLEMENT_LAST, yields.get(i)), TOL);
+    }
+    assertYields(test, prices, yields);
+  }
+
+  public void test_capitalIndexedBonds() {
+    LocalDate settlementUs = BOND_US.getSettlementDateOffset().adjust(VAL_DATE, REF_DATA);
+    LocalDate settlementGb = BOND_GB.getSettlementDateOffset().adjust(VAL_DATE, REF_DATA);
+    BondYieldFunctions testUs =
+        BondYieldFunctions.ofCapitalIndexedBonds(ImmutableList.of(BOND_US), RATES_PROVIDER_US, settlementUs);
+    BondYieldFunctions testGb =
+        BondYieldFunctions.ofCapitalIndexedBonds(ImmutableList.of(BOND_GB), RATES_PROVIDER_GB, settlementGb);
+    DoubleArray yieldUs = DoubleArray.of(-0.00189);
+    DoubleArray yieldGb = DoubleArray.of(-0.01532);
+    DoubleArray priceUs = testUs.dirtyPricesFromYields(yieldUs);
+    DoubleArray priceGb = testGb.dirtyPricesFromYields(yieldGb);
+    assertEquals(
+        priceUs.get(0),
+        CAPITAL_INDEXED_PRICER.dirtyPriceFromRealYield(BOND_US, RATES_PROVIDER_US, settlementUs, yieldUs.get(0)),
+        TOL);
+    assertEquals(
+        priceGb.get(0),
+        CAPITAL_INDEXED_PRICER.dirtyPriceFromRealYield(BOND_GB, RATES_PROVIDER_GB, settlementGb, yieldGb.get(0)),
+        TOL);
+    assertYields(testUs, priceUs, yieldUs);
+    assertYields(testGb, priceGb, yieldGb);
+  }
+
+  public void test_sizeMismatch() {
+    BondYieldFunctions test = BondYieldFunctions.ofFixedCouponBonds(FIXED_BONDS, SETTLEMENT);
+    DoubleArray wrongSize = DoubleArray.of(0.01, 0.02);
+    assertThrowsIllegalArg(() -> test.dirtyPricesFromYields(wrongSize));
+    assertThrowsIllegalArg(() -> test.yieldsFromDirtyPrices(wrongSize));
+    assertThrowsIllegalArg(() -> test.yieldsFromDirtyPrices(test.dirtyPricesFromYields(YIELDS), wrongSize));
+    assertThrowsIllegalArg(() -> test.modifiedDurationsFromYields(wrongSize));
+    assertThrowsIllegalArg(() -> test.convexitiesFromYields(wrongSize));
+  }
+
+  //-------------------------------------------------------------------------
+  // checks the yields are recovered from the prices, from the default and previous yields
+  private static void assertYields(BondYieldFunctions test, DoubleArray prices, DoubleArray expected) {
+    DoubleArray yields = test.yieldsFromDirtyPrices(prices);
+    DoubleArray yieldsWarm = test.yieldsFromDirtyPrices(prices, expected.plus(0.0001));
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(yields.get(i), expected.get(i), TOL);
+      assertEquals(yieldsWarm.get(i), expected.get(i), TOL);
+    }
+  }
+
+}
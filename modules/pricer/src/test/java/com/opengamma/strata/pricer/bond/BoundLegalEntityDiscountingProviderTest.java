@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.bond;
+
+import static com.opengamma.strata.basics.currency.Currency.EUR;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.pricer.datasets.LegalEntityDiscountingProviderDataSets;
+import com.opengamma.strata.product.SecurityId;
+import com.opengamma.strata.product.bond.ResolvedFixedCouponBond;
+
+/**
+ * Test {@link BoundLegalEntityDiscountingProvider}.
+ */
+@Test
+public class BoundLegalEntityDiscountingProviderTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LegalEntityDiscountingProvider PROVIDER = LegalEntityDiscountingProviderDataSets.ISSUER_REPO_ZERO;
+  private static final ResolvedFixedCouponBond BOND1 = BondDataSets.BOND_USD[0].resolve(REF_DATA);
+  private static final ResolvedFixedCouponBond BOND2 = BondDataSets.BOND_USD[1].resolve(REF_DATA);
+  private static final SecurityId ID_SECURITY = BOND1.getSecurityId();
+  private static final StandardId ID_ISSUER = BOND1.getLegalEntityId();
+  private static final StandardId ID_ISSUER_OTHER = StandardId.of("OG-Ticker", "GOVT2");
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    BoundLegalEntityDiscountingProvider test = BoundLegalEntityDiscountingProvider.of(PROVIDER, ImmutableList.of(BOND1));
+    assertSame(test.getProvider(), PROVIDER);
+    assertEquals(test.getValuationDate(), PROVIDER.getValuationDate());
+  }
+
+  public void test_of_notAvailable() {
+    ResolvedFixedCouponBond bond = BondDataSets.BOND_EUR[0].resolve(REF_DATA);
+    assertThrowsIllegalArg(() -> BoundLegalEntityDiscountingProvider.of(PROVIDER, ImmutableList.of(bond)));
+  }
+
+  public void test_repoCurveDiscountFactors() {
+    BoundLegalEntityDiscountingProvider test =
+        BoundLegalEntityDiscountingProvider.of(PROVIDER, ImmutableList.of(BOND1, BOND2));
+    RepoCurveDiscountFactors bound = test.repoCurveDiscountFactors(ID_SECURITY, ID_ISSUER, USD);
+    assertEquals(bound, PROVIDER.repoCurveDiscountFactors(ID_SECURITY, ID_ISSUER, USD));
+    assertSame(test.repoCurveDiscountFactors(ID_SECURITY, ID_ISSUER, USD), bound);
+    // not bound, delegates to the provider
+    SecurityId otherSecurity = SecurityId.of("OG-Ticker", "GOVT1-BOND9");
+    assertEquals(
+        test.repoCurveDiscountFactors(otherSecurity, ID_ISSUER, USD),
+        PROVIDER.repoCurveDiscountFactors(otherSecurity, ID_ISSUER, USD));
+    // the issuer is part of the key
+    assertThrowsIllegalArg(() -> test.repoCurveDiscountFactors(ID_SECURITY, ID_ISSUER_OTHER, USD));
+    assertThrowsIllegalArg(() -> test.repoCurveDiscountFactors(ID_SECURITY, ID_ISSUER, EUR));
+  }
+
+  public void test_issuerCurveDiscountFactors() {
+    BoundLegalEntityDiscountingProvider test =
+        BoundLegalEntityDiscountingProvider.of(PROVIDER, ImmutableList.of(BOND1, BOND2));
+    IssuerCurveDiscountFactors bound = test.issuerCurveDiscountFactors(ID_ISSUER, USD);
+    assertEquals(bound, PROVIDER.issuerCurveDiscountFactors(ID_ISSUER, USD));
+    assertSame(test.issuerCurveDiscountFactors(ID_ISSUER, USD), bound);
+    assertThrowsIllegalArg(() -> test.issuerCurveDiscountFactors(ID_ISSUER_OTHER, USD));
+    assertThrowsIllegalArg(() -> test.issuerCurveDiscountFactors(ID_ISSUER, EUR));
+  }
+
+  public void test_unbound() {
+    BoundLegalEntityDiscountingProvider test = BoundLegalEntityDiscountingProvider.unbound(PROVIDER);
+    assertEquals(
+        test.repoCurveDiscountFactors(ID_SECURITY, ID_ISSUER, USD),
+        PROVIDER.repoCurveDiscountFactors(ID_SECURITY, ID_ISSUER, USD));
+    assertEquals(
+        test.issuerCurveDiscountFactors(ID_ISSUER, USD),
+        PROVIDER.issuerCurveDiscountFactors(ID_ISSUER, USD));
+  }
+
+}
@@ -93,6 +93,21 @@ public class DiscountingBondFutureProductPricerTest {
     assertEquals(computed, expected, TOL);
   }
 
+  public void test_price_boundProvider() {
+    BoundLegalEntityDiscountingProvider bound =
+        BoundLegalEntityDiscountingProvider.of(PROVIDER, FUTURE_PRODUCT.getDeliveryBasket());
+    assertEquals(FUTURE_PRICER.price(FUTURE_PRODUCT, bound), FUTURE_PRICER.price(FUTURE_PRODUCT, PROVIDER));
+    assertEquals(
+        FUTURE_PRICER.priceWithZSpread(FUTURE_PRODUCT, bound, Z_SPREAD, PERIODIC, PERIOD_PER_YEAR),
+        FUTURE_PRICER.priceWithZSpread(FUTURE_PRODUCT, PROVIDER, Z_SPREAD, PERIODIC, PERIOD_PER_YEAR));
+    assertEquals(
+        FUTURE_PRICER.priceSensitivity(FUTURE_PRODUCT, bound),
+        FUTURE_PRICER.priceSensitivity(FUTURE_PRODUCT, PROVIDER));
+    assertEquals(
+        FUTURE_PRICER.priceSensitivityWithZSpread(FUTURE_PRODUCT, bound, Z_SPREAD, CONTINUOUS, 0),
+        FUTURE_PRICER.priceSensitivityWithZSpread(FUTURE_PRODUCT, PROVIDER, Z_SPREAD, CONTINUOUS, 0));
+  }
+
   //-------------------------------------------------------------------------
   public void test_priceSensitivity() {
     PointSensitivities point = FUTURE_PRICER.priceSensitivity(FUTURE_PRODUCT, PROVIDER);
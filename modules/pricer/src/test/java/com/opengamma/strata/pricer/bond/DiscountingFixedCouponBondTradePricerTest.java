@@ -231,6 +231,24 @@ public class DiscountingFixedCouponBondTradePricerTest {
         computedProduct.multipliedBy(QUANTITY).plus(pvPayment).getAmount(), NOTIONAL * QUANTITY * TOL);
   }
 
+  public void test_presentValue_boundProvider() {
+    BoundLegalEntityDiscountingProvider bound =
+        BoundLegalEntityDiscountingProvider.of(PROVIDER, ImmutableList.of(PRODUCT));
+    assertEquals(TRADE_PRICER.presentValue(TRADE, bound), TRADE_PRICER.presentValue(TRADE, PROVIDER));
+    assertEquals(
+        TRADE_PRICER.presentValueWithZSpread(TRADE, bound, Z_SPREAD, PERIODIC, PERIOD_PER_YEAR),
+        TRADE_PRICER.presentValueWithZSpread(TRADE, PROVIDER, Z_SPREAD, PERIODIC, PERIOD_PER_YEAR));
+    assertEquals(
+        TRADE_PRICER.presentValueFromCleanPrice(TRADE, bound, REF_DATA, CLEAN_PRICE),
+        TRADE_PRICER.presentValueFromCleanPrice(TRADE, PROVIDER, REF_DATA, CLEAN_PRICE));
+    assertEquals(
+        TRADE_PRICER.presentValueSensitivity(TRADE, bound),
+        TRADE_PRICER.presentValueSensitivity(TRADE, PROVIDER));
+    assertEquals(
+        TRADE_PRICER.presentValueSensitivityWithZSpread(TRADE, bound, Z_SPREAD, CONTINUOUS, 0),
+        TRADE_PRICER.presentValueSensitivityWithZSpread(TRADE, PROVIDER, Z_SPREAD, CONTINUOUS, 0));
+  }
+
   public void test_presentValue_noExcoupon() {
     CurrencyAmount computedTrade = TRADE_PRICER.presentValue(TRADE_NO_EXCOUPON, PROVIDER);
     CurrencyAmount computedProduct = PRODUCT_PRICER.presentValue(PRODUCT_NO_EXCOUPON, PROVIDER, SETTLEMENT);
@@ -34,6 +34,7 @@ import com.opengamma.strata.data.ImmutableMarketData;
 import com.opengamma.strata.data.ImmutableMarketDataBuilder;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.market.ValueType;
+import com.opengamma.strata.market.curve.Curve;
 import com.opengamma.strata.market.curve.CurveGroupDefinition;
 import com.opengamma.strata.market.curve.CurveGroupName;
 import com.opengamma.strata.market.curve.CurveMetadata;
@@ -51,6 +52,7 @@ import com.opengamma.strata.market.curve.node.IborFixingDepositCurveNode;
 import com.opengamma.strata.market.observable.QuoteId;
 import com.opengamma.strata.pricer.deposit.DiscountingIborFixingDepositProductPricer;
 import com.opengamma.strata.pricer.fra.DiscountingFraTradePricer;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
 import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.pricer.swap.DiscountingSwapProductPricer;
 import com.opengamma.strata.product.ResolvedTrade;
@@ -209,6 +211,29 @@ public class CalibrationDiscountingSimple1Test {
     }
   }
 
+  public void calibration_starting_provider() {
+    ImmutableRatesProvider base = CALIBRATOR.calibrate(CURVE_GROUP_DEFN, ALL_QUOTES, REF_DATA);
+    ImmutableMarketDataBuilder builder = ImmutableMarketData.builder(VAL_DATE);
+    for (int i = 0; i < FWD3_NB_NODES; i++) {
+      builder.addValue(QuoteId.of(StandardId.of(SCHEME, FWD3_ID_VALUE[i])), FWD3_MARKET_QUOTES[i] + 0.0001);
+    }
+    MarketData shiftedQuotes = builder.build();
+    ImmutableRatesProvider expected = CALIBRATOR.calibrate(CURVE_GROUP_DEFN, shiftedQuotes, REF_DATA);
+    ImmutableRatesProvider computed = CALIBRATOR.calibrate(CURVE_GROUP_DEFN, shiftedQuotes, REF_DATA, base);
+    Curve expectedCurve = expected.findData(ALL_CURVE_NAME).get();
+    Curve computedCurve = computed.findData(ALL_CURVE_NAME).get();
+    for (int i = 0; i < FWD3_NB_NODES; i++) {
+      assertEquals(computedCurve.getParameter(i), expectedCurve.getParameter(i), 1e-8);
+    }
+    // starting from itself, the calibration is unchanged
+    ImmutableRatesProvider recalibrated = CALIBRATOR.calibrate(CURVE_GROUP_DEFN, ALL_QUOTES, REF_DATA, base);
+    Curve baseCurve = base.findData(ALL_CURVE_NAME).get();
+    Curve recalibratedCurve = recalibrated.findData(ALL_CURVE_NAME).get();
+    for (int i = 0; i < FWD3_NB_NODES; i++) {
+      assertEquals(recalibratedCurve.getParameter(i), baseCurve.getParameter(i), 1e-8);
+    }
+  }
+
   //-------------------------------------------------------------------------
   @Test(enabled = false)
   void performance() {
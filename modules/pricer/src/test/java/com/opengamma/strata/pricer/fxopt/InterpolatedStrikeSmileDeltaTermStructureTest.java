@@ -230,6 +230,43 @@ public class InterpolatedStrikeSmileDeltaTermStructureTest {
         TOLERANCE_VOL);
   }
 
+  public void volatilities() {
+    double forward = 1.40;
+    DoubleArray strikes = DoubleArray.of(1.20, 1.35, 1.50, 1.70);
+    double[] timeToExpiry = new double[] {0.05, 0.75, 2.50, 4.00};
+    for (int looptime = 0; looptime < timeToExpiry.length; looptime++) {
+      DoubleArray volComputed = SMILE_TERM.volatilities(timeToExpiry[looptime], strikes, forward);
+      assertEquals(strikes.size(), volComputed.size());
+      for (int loopstrike = 0; loopstrike < strikes.size(); loopstrike++) {
+        double volExpected = SMILE_TERM.volatility(timeToExpiry[looptime], strikes.get(loopstrike), forward);
+        assertEquals(volExpected, volComputed.get(loopstrike), TOLERANCE_VOL);
+      }
+    }
+  }
+
+  /**
+   * Tests that the cached smiles and time interpolators give the same results as a new instance.
+   */
+  public void volatilityCached() {
+    double[] forward = new double[] {1.35, 1.40};
+    double[] timeToExpiry = new double[] {0.75, 1.50};
+    double strike = 1.45;
+    for (int loop = 0; loop < 2; loop++) {
+      for (int loopfwd = 0; loopfwd < forward.length; loopfwd++) {
+        for (int looptime = 0; looptime < timeToExpiry.length; looptime++) {
+          InterpolatedStrikeSmileDeltaTermStructure fresh =
+              InterpolatedStrikeSmileDeltaTermStructure.of(VOLATILITY_TERM, ACT_360, INTERPOLATOR_STRIKE, FLAT, FLAT);
+          double time = timeToExpiry[looptime];
+          assertEquals(fresh.volatility(time, strike, forward[loopfwd]),
+              SMILE_TERM.volatility(time, strike, forward[loopfwd]), 0d);
+          assertEquals(fresh.volatilityAndSensitivities(time, strike, forward[loopfwd]),
+              SMILE_TERM.volatilityAndSensitivities(time, strike, forward[loopfwd]));
+          assertEquals(fresh.smileForExpiry(time), SMILE_TERM.smileForExpiry(time));
+        }
+      }
+    }
+  }
+
   /**
    * Tests the interpolation and its derivative with respect to the data by comparison to finite difference.
    */
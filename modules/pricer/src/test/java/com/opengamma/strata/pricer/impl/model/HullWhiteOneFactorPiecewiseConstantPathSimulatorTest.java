@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.model;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.math.impl.random.CounterBasedRandomGenerator;
+import com.opengamma.strata.math.impl.random.NormalPointGenerator;
+import com.opengamma.strata.math.impl.random.SobolSequenceGenerator;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorPiecewiseConstantInterestRateModel;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorPiecewiseConstantPathSimulator;
+import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParameters;
+
+/**
+ * Test {@link HullWhiteOneFactorPiecewiseConstantPathSimulator}.
+ */
+@Test
+public class HullWhiteOneFactorPiecewiseConstantPathSimulatorTest {
+
+  private static final double MEAN_REVERSION = 0.01;
+  private static final DoubleArray VOLATILITY = DoubleArray.of(0.01, 0.011, 0.012, 0.013, 0.014);
+  private static final DoubleArray VOLATILITY_TIME = DoubleArray.of(0.5, 1.0, 2.0, 5.0);
+  private static final HullWhiteOneFactorPiecewiseConstantParameters MODEL_PARAMETERS =
+      HullWhiteOneFactorPiecewiseConstantParameters.of(MEAN_REVERSION, VOLATILITY, VOLATILITY_TIME);
+  private static final HullWhiteOneFactorPiecewiseConstantInterestRateModel MODEL =
+      HullWhiteOneFactorPiecewiseConstantInterestRateModel.DEFAULT;
+  private static final DoubleArray TIMES = DoubleArray.of(0.25, 0.75, 1.5, 3d, 4d, 6d, 8d, 10d);
+  private static final double NUMERAIRE_TIME = 10d;
+  private static final HullWhiteOneFactorPiecewiseConstantPathSimulator SIMULATOR =
+      HullWhiteOneFactorPiecewiseConstantPathSimulator.of(MODEL_PARAMETERS, TIMES, NUMERAIRE_TIME);
+  private static final int PATH_COUNT = 1 << 14;
+
+  public void test_of() {
+    assertEquals(SIMULATOR.getParameters(), MODEL_PARAMETERS);
+    assertEquals(SIMULATOR.getSimulationTimes(), TIMES);
+    assertEquals(SIMULATOR.getNumeraireTime(), NUMERAIRE_TIME);
+    assertEquals(SIMULATOR.getVariances().size(), TIMES.size());
+    assertThrowsIllegalArg(() -> HullWhiteOneFactorPiecewiseConstantPathSimulator.of(MODEL_PARAMETERS, TIMES, 9d));
+    assertThrowsIllegalArg(() -> HullWhiteOneFactorPiecewiseConstantPathSimulator.of(
+        MODEL_PARAMETERS, DoubleArray.EMPTY, NUMERAIRE_TIME));
+    assertThrowsIllegalArg(() -> HullWhiteOneFactorPiecewiseConstantPathSimulator.of(
+        MODEL_PARAMETERS, DoubleArray.of(2d, 1d), NUMERAIRE_TIME));
+  }
+
+  /**
+   * Tests the variance and loading against the volatility of the bond ratio in the model.
+   */
+  public void test_varianceAndLoading() {
+    double maturity = 7d;
+    for (int i = 0; i < TIMES.size(); i++) {
+      double expected = MODEL.alpha(MODEL_PARAMETERS, 0d, TIMES.get(i), NUMERAIRE_TIME, maturity);
+      double computed = SIMULATOR.loading(maturity) * Math.sqrt(SIMULATOR.getVariances().get(i));
+      assertEquals(computed, expected, 1e-12);
+    }
+    assertEquals(SIMULATOR.loading(NUMERAIRE_TIME), 0d);
+    assertEquals(SIMULATOR.bondFactor(3, 0.1, 0d), 1d);
+  }
+
+  /**
+   * Tests the simulated states have the expected variance and the bond ratios the expected mean.
+   */
+  public void test_simulateStates() {
+    int timeCount = TIMES.size();
+    double[] normals = new double[PATH_COUNT * timeCount];
+    double[] states = new double[PATH_COUNT * timeCount];
+    SIMULATOR.simulateStates(SobolSequenceGenerator.of(timeCount), 0, PATH_COUNT, normals, states);
+    double loading = SIMULATOR.loading(2d);
+    for (int j = 0; j < timeCount; j++) {
+      double sum2 = 0d;
+      double sumFactor = 0d;
+      for (int i = 0; i < PATH_COUNT; i++) {
+        double state = states[i * timeCount + j];
+        sum2 += state * state;
+        sumFactor += SIMULATOR.bondFactor(j, state, loading);
+      }
+      double variance = SIMULATOR.getVariances().get(j);
+      assertEquals(sum2 / PATH_COUNT, variance, 0.01 * variance);
+      assertEquals(sumFactor / PATH_COUNT, 1d, 5e-4);
+    }
+    assertThrowsIllegalArg(() -> SIMULATOR.simulateStates(
+        SobolSequenceGenerator.of(timeCount), 0, 10, new double[80], new double[79]));
+  }
+
+  /**
+   * Tests the results do not depend on the block size.
+   */
+  public void test_simulate() {
+    int timeCount = TIMES.size();
+    NormalPointGenerator generator = CounterBasedRandomGenerator.of(1);
+    double[] expected = new double[1000 * timeCount];
+    SIMULATOR.simulateStates(generator, 0, 1000, new double[expected.length], expected);
+    List<double[]> blocks = SIMULATOR.simulate(generator, 1000, 64, (start, count, states) -> {
+      assertEquals(start % 64, 0L);
+      return states.clone();
+    });
+    assertEquals(blocks.size(), 16);
+    int index = 0;
+    for (double[] block : blocks) {
+      for (double state : block) {
+        assertEquals(state, expected[index++]);
+      }
+    }
+    assertEquals(index, expected.length);
+    assertThrowsIllegalArg(() -> SIMULATOR.simulate(generator, 1000, 0, (start, count, states) -> states));
+    assertThrowsIllegalArg(() -> SIMULATOR.simulate(generator, 1000, 10, (start, count, states) -> {
+      throw new IllegalArgumentException();
+    }));
+  }
+
+}
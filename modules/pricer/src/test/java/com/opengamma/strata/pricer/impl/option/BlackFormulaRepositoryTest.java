@@ -8286,9 +8286,8 @@ public class BlackFormulaRepositoryTest {
         double strike = STRIKES_INPUT[i];
         double vol = VOLS[j];
 
-        double zero = BlackFormulaRepository.impliedVolatility(0., FORWARD, strike, TIME_TO_EXPIRY, vol);
-        double atm = BlackFormulaRepository.impliedVolatility(Math.pow(strike, 0.6), strike, strike,
-            TIME_TO_EXPIRY, vol);
+        double zero = BlackFormulaRepository.impliedVolatility(0., FORWARD, strike, TIME_TO_EXPIRY);
+        double atm = BlackFormulaRepository.impliedVolatility(Math.pow(strike, 0.6), strike, strike, TIME_TO_EXPIRY);
         assertEquals(0., zero, Math.abs(vol) * 1.e-13);
         assertEquals(NORMAL.getInverseCDF(0.5 * (Math.pow(strike, 0.6) / strike + 1)) * 2 / Math.sqrt(TIME_TO_EXPIRY),
             atm, 1.e-13);
@@ -8297,6 +8296,22 @@ public class BlackFormulaRepositoryTest {
     }
   }
 
+  @SuppressWarnings("deprecation")
+  public void volGuessNotUsedTest() {
+    double strike = STRIKES_INPUT[5];
+    double price = BlackFormulaRepository.price(FORWARD, strike, TIME_TO_EXPIRY, VOLS[1], true);
+    double expected = BlackFormulaRepository.impliedVolatility(price, FORWARD, strike, TIME_TO_EXPIRY);
+    ValueDerivatives expectedAdj =
+        BlackFormulaRepository.impliedVolatilityAdjoint(price, FORWARD, strike, TIME_TO_EXPIRY);
+    for (double volGuess : new double[] {0.3, -1d, Double.NaN, Double.POSITIVE_INFINITY}) {
+      assertEquals(
+          BlackFormulaRepository.impliedVolatility(price, FORWARD, strike, TIME_TO_EXPIRY, volGuess), expected);
+      assertEquals(
+          BlackFormulaRepository.impliedVolatilityAdjoint(price, FORWARD, strike, TIME_TO_EXPIRY, volGuess),
+          expectedAdj);
+    }
+  }
+
   /*
    * Implied strike tests
    */
@@ -8845,4 +8860,61 @@ public class BlackFormulaRepositoryTest {
     assertEquals(bsD2[1][2], bsD2[2][1], TOLERANCE_1, "AD Second order: 2nd - str-vol");
   }
 
+  //-------------------------------------------------------------------------
+  public void batchTest() {
+    int nStrikes = STRIKES_INPUT.length;
+    int nVols = VOLS.length;
+    int size = nStrikes * nVols;
+    double[] forwards = new double[size];
+    double[] strikes = new double[size];
+    double[] times = new double[size];
+    double[] vols = new double[size];
+    for (int i = 0; i < nStrikes; i++) {
+      for (int j = 0; j < nVols; j++) {
+        int index = i * nVols + j;
+        forwards[index] = FORWARD;
+        strikes[index] = STRIKES_INPUT[i];
+        times[index] = TIME_TO_EXPIRY * (j + 1) / nVols;
+        vols[index] = VOLS[j];
+      }
+    }
+    for (boolean isCall : new boolean[] {true, false}) {
+      double[] prices = new double[size];
+      double[] adjointPrices = new double[size];
+      double[] derivatives = new double[4 * size];
+      double[] deltas = new double[size];
+      double[] gammas = new double[size];
+      double[] vegas = new double[size];
+      BlackFormulaRepository.price(forwards, strikes, times, vols, isCall, prices);
+      BlackFormulaRepository.priceAdjoint(forwards, strikes, times, vols, isCall, adjointPrices, derivatives);
+      BlackFormulaRepository.delta(forwards, strikes, times, vols, isCall, deltas);
+      BlackFormulaRepository.gamma(forwards, strikes, times, vols, gammas);
+      BlackFormulaRepository.vega(forwards, strikes, times, vols, vegas);
+      for (int i = 0; i < size; i++) {
+        assertEquals(prices[i], BlackFormulaRepository.price(forwards[i], strikes[i], times[i], vols[i], isCall));
+        ValueDerivatives expected =
+            BlackFormulaRepository.priceAdjoint(forwards[i], strikes[i], times[i], vols[i], isCall);
+        assertEquals(adjointPrices[i], expected.getValue());
+        for (int k = 0; k < 4; k++) {
+          assertEquals(derivatives[4 * i + k], expected.getDerivative(k));
+        }
+        assertEquals(deltas[i], BlackFormulaRepository.delta(forwards[i], strikes[i], times[i], vols[i], isCall));
+        assertEquals(gammas[i], BlackFormulaRepository.gamma(forwards[i], strikes[i], times[i], vols[i]));
+        assertEquals(vegas[i], BlackFormulaRepository.vega(forwards[i], strikes[i], times[i], vols[i]));
+      }
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void batchMismatchedInputsTest() {
+    double[] values = new double[] {FORWARD, FORWARD};
+    BlackFormulaRepository.price(values, new double[] {100d}, values, values, true, new double[2]);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void batchOutputTooSmallTest() {
+    double[] values = new double[] {FORWARD, FORWARD};
+    BlackFormulaRepository.priceAdjoint(values, values, values, values, true, new double[2], new double[4]);
+  }
+
 }
@@ -0,0 +1,164 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.option;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.product.common.PutCall;
+
+/**
+ * Test {@link ImpliedVolatilityFormula}.
+ */
+@Test
+public class ImpliedVolatilityFormulaTest {
+
+  private static final double FORWARD = 100d;
+  private static final double[] STRIKES = new double[] {1d, 20d, 60d, 90d, 99.9d, 100d, 100.1d, 110d, 150d, 400d};
+  private static final double[] TIMES = new double[] {0.01, 0.25, 1d, 5d, 30d};
+  private static final double[] VOLS = new double[] {0.001, 0.01, 0.1, 0.3, 0.8, 2d};
+  private static final double[] NORMAL_VOLS = new double[] {0.01, 0.1, 1d, 10d, 50d};
+
+  //-------------------------------------------------------------------------
+  public void test_blackImpliedVolatility() {
+    for (double strike : STRIKES) {
+      for (double time : TIMES) {
+        for (double vol : VOLS) {
+          for (boolean isCall : new boolean[] {true, false}) {
+            double price = BlackFormulaRepository.price(FORWARD, strike, time, vol, isCall);
+            double otmPrice = BlackFormulaRepository.price(FORWARD, strike, time, vol, strike >= FORWARD);
+            // prices indistinguishable from the bounds do not define a volatility
+            if (otmPrice < 1e-200 || otmPrice > Math.min(FORWARD, strike) * (1d - 1e-10)) {
+              continue;
+            }
+            double computed = ImpliedVolatilityFormula.blackImpliedVolatility(price, FORWARD, strike, time, isCall);
+            double vega = BlackFormulaRepository.vega(FORWARD, strike, time, vol);
+            // the precision is limited by the rounding of the price, which is relative to the forward
+            double tol = 1e-13 * vol + 4 * Math.ulp(FORWARD) / vega;
+            assertEquals(computed, vol, tol);
+          }
+        }
+      }
+    }
+  }
+
+  public void test_blackImpliedVolatility_intrinsic() {
+    assertEquals(ImpliedVolatilityFormula.blackImpliedVolatility(0d, FORWARD, 110d, 1d, true), 0d);
+    assertEquals(ImpliedVolatilityFormula.blackImpliedVolatility(10d, FORWARD, 90d, 1d, true), 0d);
+  }
+
+  public void test_blackImpliedVolatility_bounds() {
+    assertThrowsIllegalArg(() -> ImpliedVolatilityFormula.blackImpliedVolatility(9d, FORWARD, 90d, 1d, true));
+    assertThrowsIllegalArg(() -> ImpliedVolatilityFormula.blackImpliedVolatility(FORWARD, FORWARD, 90d, 1d, true));
+    assertThrowsIllegalArg(() -> ImpliedVolatilityFormula.blackImpliedVolatility(1d, -FORWARD, 90d, 1d, true));
+    assertThrowsIllegalArg(() -> ImpliedVolatilityFormula.blackImpliedVolatility(1d, FORWARD, 0d, 1d, true));
+    assertThrowsIllegalArg(() -> ImpliedVolatilityFormula.blackImpliedVolatility(1d, FORWARD, 90d, 0d, true));
+  }
+
+  public void test_blackImpliedVolatility_batch() {
+    int size = STRIKES.length;
+    double[] forwards = new double[size];
+    double[] times = new double[size];
+    double[] prices = new double[size];
+    for (int i = 0; i < size; i++) {
+      forwards[i] = FORWARD;
+      times[i] = TIMES[i % TIMES.length];
+      prices[i] = BlackFormulaRepository.price(FORWARD, STRIKES[i], times[i], 0.25, false);
+    }
+    double[] computed = new double[size];
+    ImpliedVolatilityFormula.blackImpliedVolatility(prices, forwards, STRIKES, times, false, computed);
+    for (int i = 0; i < size; i++) {
+      assertEquals(
+          computed[i],
+          ImpliedVolatilityFormula.blackImpliedVolatility(prices[i], FORWARD, STRIKES[i], times[i], false));
+    }
+    assertThrowsIllegalArg(() -> ImpliedVolatilityFormula.blackImpliedVolatility(
+        prices, forwards, STRIKES, times, false, new double[size - 1]));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_normalImpliedVolatility() {
+    for (double strike : STRIKES) {
+      for (double time : TIMES) {
+        for (double vol : NORMAL_VOLS) {
+          for (PutCall putCall : PutCall.values()) {
+            double price = NormalFormulaRepository.price(FORWARD, strike, time, vol, putCall);
+            double otmPrice = NormalFormulaRepository.price(
+                FORWARD, strike, time, vol, strike >= FORWARD ? PutCall.CALL : PutCall.PUT);
+            if (otmPrice < 1e-200) {
+              continue;
+            }
+            double computed = ImpliedVolatilityFormula.normalImpliedVolatility(price, FORWARD, strike, time, putCall);
+            double vega = NormalFormulaRepository.vega(FORWARD, strike, time, vol, putCall);
+            double tol = 1e-13 * vol + 4 * Math.ulp(FORWARD) / vega;
+            assertEquals(computed, vol, tol);
+          }
+        }
+      }
+    }
+  }
+
+  public void test_normalImpliedVolatility_negativeRates() {
+    double forward = -0.002;
+    double strike = 0.001;
+    double vol = 0.006;
+    double price = NormalFormulaRepository.price(forward, strike, 2d, vol, PutCall.PUT);
+    assertEquals(ImpliedVolatilityFormula.normalImpliedVolatility(price, forward, strike, 2d, PutCall.PUT), vol, 1e-15);
+  }
+
+  public void test_normalImpliedVolatility_bounds() {
+    assertEquals(ImpliedVolatilityFormula.normalImpliedVolatility(10d, FORWARD, 90d, 1d, PutCall.CALL), 0d);
+    assertThrowsIllegalArg(() -> ImpliedVolatilityFormula.normalImpliedVolatility(9d, FORWARD, 90d, 1d, PutCall.CALL));
+    assertThrowsIllegalArg(() -> ImpliedVolatilityFormula.normalImpliedVolatility(1d, FORWARD, 90d, 0d, PutCall.CALL));
+  }
+
+  public void test_normalImpliedVolatility_batch() {
+    int size = STRIKES.length;
+    double[] forwards = new double[size];
+    double[] times = new double[size];
+    double[] prices = new double[size];
+    for (int i = 0; i < size; i++) {
+      forwards[i] = FORWARD;
+      times[i] = TIMES[i % TIMES.length];
+      prices[i] = NormalFormulaRepository.price(FORWARD, STRIKES[i], times[i], 20d, PutCall.CALL);
+    }
+    double[] computed = new double[size];
+    ImpliedVolatilityFormula.normalImpliedVolatility(prices, forwards, STRIKES, times, PutCall.CALL, computed);
+    for (int i = 0; i < size; i++) {
+      assertEquals(
+          computed[i],
+          ImpliedVolatilityFormula.normalImpliedVolatility(prices[i], FORWARD, STRIKES[i], times[i], PutCall.CALL));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_normalizedBlackImpliedVolatility() {
+    double[] logMoneyness = new double[] {0d, -1e-12, -1e-6, -0.01, -0.3, -1d, -5d, -20d, -100d};
+    for (double x : logMoneyness) {
+      for (double s = 1e-5; s < 30d; s *= 1.3) {
+        double beta = ImpliedVolatilityFormula.normalizedBlackPrice(x, s);
+        if (beta < 1e-100 || Math.exp(x / 2d) - beta < 1e-12) {
+          continue;
+        }
+        double h = x / s;
+        double t = s / 2d;
+        double vega = Math.exp(-(h * h + t * t) / 2d) / Math.sqrt(2d * Math.PI);
+        double tol = 1e-9 * s + 16 * Math.ulp(beta) / vega;
+        assertEquals(ImpliedVolatilityFormula.normalizedBlackImpliedVolatility(beta, x), s, tol);
+      }
+    }
+  }
+
+  public void test_normalizedNormalImpliedMoneyness() {
+    for (double eta = 1e-6; eta < 35d; eta *= 1.3) {
+      double target = ImpliedVolatilityFormula.normalizedNormalPrice(eta);
+      assertEquals(ImpliedVolatilityFormula.normalizedNormalImpliedMoneyness(target), eta, 1e-14 * eta);
+    }
+  }
+
+}
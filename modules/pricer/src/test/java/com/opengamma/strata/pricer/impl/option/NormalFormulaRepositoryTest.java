@@ -0,0 +1,68 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.option;
+
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.basics.value.ValueDerivatives;
+import com.opengamma.strata.product.common.PutCall;
+
+/**
+ * Test {@link NormalFormulaRepository}.
+ */
+@Test
+public class NormalFormulaRepositoryTest {
+
+  private static final double[] FORWARDS = new double[] {0.01, 0.01, 0.01, -0.002, 0.03, 0.02};
+  private static final double[] STRIKES = new double[] {0.005, 0.01, 0.02, 0.001, 0.03, 0.02};
+  private static final double[] TIMES = new double[] {0.5, 1d, 2d, 5d, 0d, 10d};
+  private static final double[] VOLS = new double[] {0.01, 0.005, 0.008, 0.012, 0.01, 0d};
+  private static final double NUMERAIRE = 0.9;
+
+  public void test_batch() {
+    int size = FORWARDS.length;
+    for (PutCall putCall : PutCall.values()) {
+      double[] prices = new double[size];
+      double[] adjointPrices = new double[size];
+      double[] derivatives = new double[3 * size];
+      double[] deltas = new double[size];
+      double[] gammas = new double[size];
+      double[] vegas = new double[size];
+      NormalFormulaRepository.price(FORWARDS, STRIKES, TIMES, VOLS, putCall, prices);
+      NormalFormulaRepository.priceAdjoint(
+          FORWARDS, STRIKES, TIMES, VOLS, NUMERAIRE, putCall, adjointPrices, derivatives);
+      NormalFormulaRepository.delta(FORWARDS, STRIKES, TIMES, VOLS, putCall, deltas);
+      NormalFormulaRepository.gamma(FORWARDS, STRIKES, TIMES, VOLS, putCall, gammas);
+      NormalFormulaRepository.vega(FORWARDS, STRIKES, TIMES, VOLS, putCall, vegas);
+      for (int i = 0; i < size; i++) {
+        assertEquals(prices[i], NormalFormulaRepository.price(FORWARDS[i], STRIKES[i], TIMES[i], VOLS[i], putCall));
+        ValueDerivatives expected =
+            NormalFormulaRepository.priceAdjoint(FORWARDS[i], STRIKES[i], TIMES[i], VOLS[i], NUMERAIRE, putCall);
+        assertEquals(adjointPrices[i], expected.getValue());
+        for (int k = 0; k < 3; k++) {
+          assertEquals(derivatives[3 * i + k], expected.getDerivative(k));
+        }
+        assertEquals(deltas[i], NormalFormulaRepository.delta(FORWARDS[i], STRIKES[i], TIMES[i], VOLS[i], putCall));
+        assertEquals(gammas[i], NormalFormulaRepository.gamma(FORWARDS[i], STRIKES[i], TIMES[i], VOLS[i], putCall));
+        assertEquals(vegas[i], NormalFormulaRepository.vega(FORWARDS[i], STRIKES[i], TIMES[i], VOLS[i], putCall));
+      }
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void test_batch_mismatchedInputs() {
+    NormalFormulaRepository.price(FORWARDS, new double[] {0.01}, TIMES, VOLS, PutCall.CALL, new double[FORWARDS.length]);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void test_batch_outputTooSmall() {
+    NormalFormulaRepository.priceAdjoint(
+        FORWARDS, STRIKES, TIMES, VOLS, NUMERAIRE, PutCall.CALL, new double[FORWARDS.length], new double[3]);
+  }
+
+}
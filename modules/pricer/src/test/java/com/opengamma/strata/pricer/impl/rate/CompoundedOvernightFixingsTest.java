@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate;
+
+import static com.opengamma.strata.basics.index.OvernightIndices.GBP_SONIA;
+import static com.opengamma.strata.basics.index.OvernightIndices.USD_FED_FUND;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.OptionalDouble;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.date.HolidayCalendar;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeriesBuilder;
+import com.opengamma.strata.product.rate.OvernightCompoundedRateComputation;
+
+/**
+ * Test {@link CompoundedOvernightFixings}.
+ */
+@Test
+public class CompoundedOvernightFixingsTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final HolidayCalendar CALENDAR = REF_DATA.getValue(USD_FED_FUND.getFixingCalendar());
+  private static final LocalDate START = date(2015, 1, 2);
+  private static final LocalDate END = date(2015, 3, 31);
+  private static final LocalDateDoubleTimeSeries FIXINGS = fixings(START, END);
+  private static final double TOLERANCE = 1e-14;
+
+  private static LocalDateDoubleTimeSeries fixings(LocalDate start, LocalDate end) {
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+    int i = 0;
+    for (LocalDate date = start; !date.isAfter(end); date = CALENDAR.next(date)) {
+      builder.put(date, 0.001 + 0.0001 * (i++ % 7));
+    }
+    return builder.build();
+  }
+
+  // compounds each day in turn, as the rate computation does
+  private static double expectedFactor(LocalDate start, LocalDate end, LocalDateDoubleTimeSeries fixings) {
+    OvernightCompoundedRateComputation computation =
+        OvernightCompoundedRateComputation.of(USD_FED_FUND, start, end, 0, REF_DATA);
+    double factor = 1d;
+    for (LocalDate date = start; date.isBefore(end); date = CALENDAR.next(date)) {
+      LocalDate effectiveDate = computation.calculateEffectiveFromFixing(date);
+      LocalDate maturityDate = computation.calculateMaturityFromEffective(effectiveDate);
+      double accrualFactor = USD_FED_FUND.getDayCount().yearFraction(effectiveDate, maturityDate);
+      factor *= 1d + accrualFactor * fixings.get(date).getAsDouble();
+    }
+    return factor;
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    CompoundedOvernightFixings test = CompoundedOvernightFixings.of(USD_FED_FUND, CALENDAR, FIXINGS);
+    assertEquals(test.getIndex(), USD_FED_FUND);
+    assertEquals(test.getFixingCalendar(), CALENDAR);
+    assertEquals(test.size(), FIXINGS.size());
+    assertTrue(test.matches(USD_FED_FUND, CALENDAR));
+    assertFalse(test.matches(GBP_SONIA, CALENDAR));
+  }
+
+  public void test_of_empty() {
+    CompoundedOvernightFixings test =
+        CompoundedOvernightFixings.of(USD_FED_FUND, CALENDAR, LocalDateDoubleTimeSeries.empty());
+    assertEquals(test.size(), 0);
+    assertFalse(test.compoundedFactor(START, END).isPresent());
+    assertEquals(test.compoundedFactor(START, START).getAsDouble(), 1d);
+  }
+
+  public void test_compoundedFactor() {
+    CompoundedOvernightFixings test = CompoundedOvernightFixings.of(USD_FED_FUND, CALENDAR, FIXINGS);
+    LocalDate[][] ranges = {
+        {START, date(2015, 1, 5)},
+        {date(2015, 1, 15), date(2015, 2, 17)},
+        {START, END},
+        {START, CALENDAR.next(END)}};
+    for (LocalDate[] range : ranges) {
+      OptionalDouble computed = test.compoundedFactor(range[0], range[1]);
+      assertEquals(computed.getAsDouble(), expectedFactor(range[0], range[1], FIXINGS), TOLERANCE);
+    }
+  }
+
+  public void test_compoundedFactor_notAvailable() {
+    CompoundedOvernightFixings test = CompoundedOvernightFixings.of(USD_FED_FUND, CALENDAR, FIXINGS);
+    // before the first fixing
+    assertFalse(test.compoundedFactor(date(2014, 12, 31), END).isPresent());
+    // after the last fixing
+    assertFalse(test.compoundedFactor(START, date(2015, 4, 15)).isPresent());
+    // not a business day
+    assertFalse(test.compoundedFactor(date(2015, 1, 3), END).isPresent());
+  }
+
+  public void test_compoundedFactor_missingFixing() {
+    LocalDate missingDate = date(2015, 2, 2);
+    LocalDateDoubleTimeSeries fixings = FIXINGS.filter((date, value) -> !date.equals(missingDate));
+    CompoundedOvernightFixings test = CompoundedOvernightFixings.of(USD_FED_FUND, CALENDAR, fixings);
+    assertFalse(test.compoundedFactor(START, END).isPresent());
+    assertFalse(test.compoundedFactor(missingDate, END).isPresent());
+    assertTrue(test.compoundedFactor(START, missingDate).isPresent());
+    LocalDate afterMissing = CALENDAR.next(missingDate);
+    assertEquals(test.compoundedFactor(afterMissing, END).getAsDouble(),
+        expectedFactor(afterMissing, END, fixings), TOLERANCE);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_withFixings() {
+    LocalDate split = date(2015, 2, 13);
+    CompoundedOvernightFixings base = CompoundedOvernightFixings.of(
+        USD_FED_FUND, CALENDAR, FIXINGS.filter((date, value) -> !date.isAfter(split)));
+    CompoundedOvernightFixings test = base.withFixings(FIXINGS);
+    CompoundedOvernightFixings expected = CompoundedOvernightFixings.of(USD_FED_FUND, CALENDAR, FIXINGS);
+    assertEquals(test.size(), expected.size());
+    assertFalse(base.compoundedFactor(START, END).isPresent());
+    assertEquals(test.compoundedFactor(START, END).getAsDouble(),
+        expected.compoundedFactor(START, END).getAsDouble(), TOLERANCE);
+    assertEquals(base.withFixings(LocalDateDoubleTimeSeries.empty()), base);
+    assertEquals(test.withFixings(FIXINGS), test);
+  }
+
+  public void test_withFixings_fromEmpty() {
+    CompoundedOvernightFixings test = CompoundedOvernightFixings
+        .of(USD_FED_FUND, CALENDAR, LocalDateDoubleTimeSeries.empty())
+        .withFixings(FIXINGS);
+    assertEquals(test.compoundedFactor(START, END).getAsDouble(), expectedFactor(START, END, FIXINGS), TOLERANCE);
+  }
+
+}
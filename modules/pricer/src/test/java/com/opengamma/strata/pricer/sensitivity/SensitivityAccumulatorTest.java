@@ -0,0 +1,122 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.sensitivity;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.basics.index.IborIndices.USD_LIBOR_3M;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.index.IborIndexObservation;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.market.sensitivity.PointSensitivities;
+import com.opengamma.strata.pricer.ZeroRateSensitivity;
+import com.opengamma.strata.pricer.datasets.RatesProviderDataSets;
+import com.opengamma.strata.pricer.rate.IborRateSensitivity;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+
+/**
+ * Test {@link SensitivityAccumulator}.
+ */
+@Test
+public class SensitivityAccumulatorTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final ImmutableRatesProvider PROVIDER = RatesProviderDataSets.MULTI_USD;
+  private static final IborIndexObservation OBS1 = IborIndexObservation.of(USD_LIBOR_3M, date(2014, 6, 30), REF_DATA);
+  private static final IborIndexObservation OBS2 = IborIndexObservation.of(USD_LIBOR_3M, date(2015, 6, 30), REF_DATA);
+
+  private static final PointSensitivities TRADE1 = PointSensitivities.of(
+      ZeroRateSensitivity.of(USD, 1.5d, 100d),
+      IborRateSensitivity.of(OBS1, 200d));
+  private static final PointSensitivities TRADE2 = PointSensitivities.of(
+      ZeroRateSensitivity.of(USD, 1.5d, 50d),
+      ZeroRateSensitivity.of(USD, 3d, -25d));
+  private static final PointSensitivities TRADE3 = PointSensitivities.of(
+      IborRateSensitivity.of(OBS1, -20d),
+      IborRateSensitivity.of(OBS2, 300d));
+  private static final double TOL = 1e-9;
+
+  //-------------------------------------------------------------------------
+  public void test_add_singleGroup() {
+    SensitivityAccumulator<String> test = new SensitivityAccumulator<>();
+    test.add("A", TRADE1).add("A", TRADE2).add("A", TRADE3);
+    assertThat(test.getPointCount()).isEqualTo(4);
+
+    PointSensitivities expectedPoints = TRADE1.combinedWith(TRADE2).combinedWith(TRADE3).normalized();
+    Map<String, PointSensitivities> points = test.toPointSensitivities();
+    assertThat(points.keySet()).containsExactly("A");
+    assertTrue(points.get("A").equalWithTolerance(expectedPoints, TOL));
+
+    CurrencyParameterSensitivities expected = PROVIDER.parameterSensitivity(TRADE1)
+        .combinedWith(PROVIDER.parameterSensitivity(TRADE2))
+        .combinedWith(PROVIDER.parameterSensitivity(TRADE3));
+    Map<String, CurrencyParameterSensitivities> sens = test.toParameterSensitivities(PROVIDER::parameterSensitivity);
+    assertTrue(sens.get("A").equalWithTolerance(expected, TOL));
+  }
+
+  public void test_add_multipleGroups() {
+    SensitivityAccumulator<String> test = new SensitivityAccumulator<>();
+    test.add(ImmutableList.of("Book1", "Desk", "CptyX"), TRADE1);
+    test.add(ImmutableList.of("Book1", "Desk", "CptyY"), TRADE2);
+    test.add(ImmutableList.of("Book2", "Desk", "CptyX"), TRADE3);
+    Map<String, CurrencyParameterSensitivities> sens = test.toParameterSensitivities(PROVIDER::parameterSensitivity);
+    assertThat(sens.keySet()).containsExactly("Book1", "Desk", "CptyX", "CptyY", "Book2");
+
+    CurrencyParameterSensitivities sens1 = PROVIDER.parameterSensitivity(TRADE1);
+    CurrencyParameterSensitivities sens2 = PROVIDER.parameterSensitivity(TRADE2);
+    CurrencyParameterSensitivities sens3 = PROVIDER.parameterSensitivity(TRADE3);
+    assertTrue(sens.get("Book1").equalWithTolerance(sens1.combinedWith(sens2), TOL));
+    assertTrue(sens.get("Book2").equalWithTolerance(sens3, TOL));
+    assertTrue(sens.get("Desk").equalWithTolerance(sens1.combinedWith(sens2).combinedWith(sens3), TOL));
+    assertTrue(sens.get("CptyX").equalWithTolerance(sens1.combinedWith(sens3), TOL));
+    assertTrue(sens.get("CptyY").equalWithTolerance(sens2, TOL));
+  }
+
+  public void test_toParameterSensitivities_projectedOncePerGroup() {
+    SensitivityAccumulator<String> test = new SensitivityAccumulator<>();
+    test.add(ImmutableList.of("Book1", "Desk"), TRADE1);
+    test.add(ImmutableList.of("Book1", "Desk"), TRADE2);
+    test.add(ImmutableList.of("Book2", "Desk"), TRADE3);
+    AtomicInteger count = new AtomicInteger();
+    Map<String, CurrencyParameterSensitivities> sens = test.toParameterSensitivities(points -> {
+      count.incrementAndGet();
+      return PROVIDER.parameterSensitivity(points);
+    });
+    assertThat(count.get()).isEqualTo(3);
+    assertThat(sens.keySet()).containsExactly("Book1", "Desk", "Book2");
+  }
+
+  public void test_offsetting() {
+    SensitivityAccumulator<String> test = new SensitivityAccumulator<>();
+    test.add("A", TRADE1).add("A", TRADE1.multipliedBy(-1d));
+    assertThat(test.toPointSensitivities().get("A").size()).isEqualTo(0);
+    assertThat(test.toParameterSensitivities(PROVIDER::parameterSensitivity).get("A").size()).isEqualTo(0);
+  }
+
+  public void test_empty() {
+    SensitivityAccumulator<String> test = new SensitivityAccumulator<>();
+    assertThat(test.getPointCount()).isEqualTo(0);
+    assertThat(test.toPointSensitivities()).isEmpty();
+    assertThat(test.toParameterSensitivities(PROVIDER::parameterSensitivity)).isEmpty();
+  }
+
+  public void test_add_null() {
+    SensitivityAccumulator<String> test = new SensitivityAccumulator<>();
+    assertThrowsIllegalArg(() -> test.add((String) null, TRADE1));
+    assertThrowsIllegalArg(() -> test.add("A", null));
+  }
+
+}
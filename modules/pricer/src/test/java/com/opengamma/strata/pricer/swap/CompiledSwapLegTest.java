@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swap;
+
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.basics.date.Tenor.TENOR_5Y;
+import static com.opengamma.strata.basics.index.IborIndices.GBP_LIBOR_3M;
+import static com.opengamma.strata.basics.index.IborIndices.USD_LIBOR_3M;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static com.opengamma.strata.product.common.BuySell.BUY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.product.swap.ResolvedSwap;
+import com.opengamma.strata.product.swap.ResolvedSwapLeg;
+import com.opengamma.strata.product.swap.SwapLegType;
+import com.opengamma.strata.product.swap.type.FixedIborSwapConventions;
+import com.opengamma.strata.product.swap.type.IborIborSwapConventions;
+import com.opengamma.strata.product.swap.type.XCcyIborIborSwapConventions;
+
+/**
+ * Test {@link CompiledSwapLeg}.
+ */
+@Test
+public class CompiledSwapLegTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate TRADE_DATE = date(2014, 1, 22);
+  private static final double NOTIONAL = 1_000_000d;
+
+  //-------------------------------------------------------------------------
+  public void test_of_fixedIbor() {
+    ResolvedSwap swap = FixedIborSwapConventions.USD_FIXED_6M_LIBOR_3M
+        .createTrade(TRADE_DATE, TENOR_5Y, BUY, NOTIONAL, 0.015, REF_DATA).getProduct().resolve(REF_DATA);
+    ResolvedSwapLeg fixedLeg = swap.getLegs(SwapLegType.FIXED).get(0);
+    ResolvedSwapLeg iborLeg = swap.getLegs(SwapLegType.IBOR).get(0);
+    assertThat(CompiledSwapLeg.isSupported(fixedLeg)).isTrue();
+    CompiledSwapLeg fixed = CompiledSwapLeg.of(fixedLeg);
+    assertThat(fixed.getType()).isEqualTo(SwapLegType.FIXED);
+    assertThat(fixed.getCurrency()).isEqualTo(USD);
+    assertThat(fixed.getPeriodCount()).isEqualTo(fixedLeg.getPaymentPeriods().size());
+    assertThat(fixed.getEventCount()).isEqualTo(0);
+    assertThat(fixed.getIborIndices()).isEmpty();
+    CompiledSwapLeg ibor = CompiledSwapLeg.of(iborLeg);
+    assertThat(ibor.getType()).isEqualTo(SwapLegType.IBOR);
+    assertThat(ibor.getPeriodCount()).isEqualTo(iborLeg.getPaymentPeriods().size());
+    assertThat(ibor.getIborIndices()).containsExactly(USD_LIBOR_3M);
+  }
+
+  public void test_of_notionalExchange() {
+    ResolvedSwap swap = XCcyIborIborSwapConventions.GBP_LIBOR_3M_USD_LIBOR_3M
+        .createTrade(TRADE_DATE, TENOR_5Y, BUY, NOTIONAL, NOTIONAL * 1.6, 0.001, REF_DATA)
+        .getProduct()
+        .resolve(REF_DATA);
+    CompiledSwapLeg test = CompiledSwapLeg.of(swap.getLegs().get(0));
+    assertThat(test.getCurrency()).isEqualTo(GBP);
+    assertThat(test.getIborIndices()).containsExactly(GBP_LIBOR_3M);
+    assertThat(test.getEventCount()).isEqualTo(swap.getLegs().get(0).getPaymentEvents().size());
+  }
+
+  public void test_of_notSupported() {
+    ResolvedSwap swap = IborIborSwapConventions.USD_LIBOR_3M_LIBOR_6M
+        .createTrade(TRADE_DATE, TENOR_5Y, BUY, NOTIONAL, 0.001, REF_DATA).getProduct().resolve(REF_DATA);
+    ResolvedSwapLeg compoundedLeg = swap.getLegs().get(0);
+    assertThat(CompiledSwapLeg.isSupported(compoundedLeg)).isFalse();
+    assertThrowsIllegalArg(() -> CompiledSwapLeg.of(compoundedLeg));
+    assertThat(CompiledSwapLeg.isSupported(swap.getLegs().get(1))).isTrue();
+  }
+
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swap;
+
+import static com.opengamma.strata.basics.currency.Currency.EUR;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertSerialization;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
+import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+
+import java.time.LocalDate;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * Test {@link ExposureProfile}.
+ */
+@Test
+public class ExposureProfileTest {
+
+  private static final ImmutableList<LocalDate> DATES = ImmutableList.of(date(2016, 7, 7), date(2017, 7, 7));
+  private static final DoubleArray DISCOUNT_FACTORS = DoubleArray.of(0.5, 0.25);
+  private static final DoubleArray EE = DoubleArray.of(100d, 120d);
+  private static final DoubleArray ENE = DoubleArray.of(-80d, -90d);
+  private static final DoubleArray PFE = DoubleArray.of(300d, 350d);
+
+  public void test_of() {
+    ExposureProfile test = ExposureProfile.of(EUR, DATES, DISCOUNT_FACTORS, EE, ENE, PFE, 0.95, 1000);
+    assertEquals(test.getCurrency(), EUR);
+    assertEquals(test.getDates(), DATES);
+    assertEquals(test.getDiscountFactors(), DISCOUNT_FACTORS);
+    assertEquals(test.getExpectedExposure(), EE);
+    assertEquals(test.getExpectedNegativeExposure(), ENE);
+    assertEquals(test.getPotentialFutureExposure(), PFE);
+    assertEquals(test.getConfidenceLevel(), 0.95);
+    assertEquals(test.getPathCount(), 1000);
+    assertEquals(test.getDiscountedExpectedExposure(), DoubleArray.of(50d, 30d));
+    assertEquals(test.getDiscountedExpectedNegativeExposure(), DoubleArray.of(-40d, -22.5));
+  }
+
+  public void test_of_sizeMismatch() {
+    DoubleArray single = DoubleArray.of(1d);
+    assertThrowsIllegalArg(() -> ExposureProfile.of(EUR, DATES, single, EE, ENE, PFE, 0.95, 1000));
+    assertThrowsIllegalArg(() -> ExposureProfile.of(EUR, DATES, DISCOUNT_FACTORS, single, ENE, PFE, 0.95, 1000));
+    assertThrowsIllegalArg(() -> ExposureProfile.of(EUR, DATES, DISCOUNT_FACTORS, EE, single, PFE, 0.95, 1000));
+    assertThrowsIllegalArg(() -> ExposureProfile.of(EUR, DATES, DISCOUNT_FACTORS, EE, ENE, single, 0.95, 1000));
+  }
+
+  //-------------------------------------------------------------------------
+  public void coverage() {
+    ExposureProfile test = ExposureProfile.of(EUR, DATES, DISCOUNT_FACTORS, EE, ENE, PFE, 0.95, 1000);
+    coverImmutableBean(test);
+    ExposureProfile test2 = ExposureProfile.of(
+        USD, DATES.subList(0, 1), DoubleArray.of(0.9), DoubleArray.of(1d), DoubleArray.of(-1d), DoubleArray.of(2d),
+        0.99, 10);
+    coverBeanEquals(test, test2);
+  }
+
+  public void test_serialization() {
+    ExposureProfile test = ExposureProfile.of(EUR, DATES, DISCOUNT_FACTORS, EE, ENE, PFE, 0.95, 1000);
+    assertSerialization(test);
+  }
+
+}
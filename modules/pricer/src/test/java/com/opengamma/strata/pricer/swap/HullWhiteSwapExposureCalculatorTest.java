@@ -0,0 +1,218 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swap;
+
+import static com.opengamma.strata.basics.currency.Currency.EUR;
+import static com.opengamma.strata.basics.date.BusinessDayConventions.MODIFIED_FOLLOWING;
+import static com.opengamma.strata.basics.date.DayCounts.THIRTY_U_360;
+import static com.opengamma.strata.basics.index.IborIndices.EUR_EURIBOR_6M;
+import static com.opengamma.strata.basics.schedule.Frequency.P12M;
+import static com.opengamma.strata.basics.schedule.Frequency.P6M;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.dateUtc;
+import static com.opengamma.strata.product.common.LongShort.LONG;
+import static com.opengamma.strata.product.common.PayReceive.PAY;
+import static com.opengamma.strata.product.common.PayReceive.RECEIVE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.date.AdjustableDate;
+import com.opengamma.strata.basics.date.BusinessDayAdjustment;
+import com.opengamma.strata.basics.date.DaysAdjustment;
+import com.opengamma.strata.basics.date.HolidayCalendarId;
+import com.opengamma.strata.basics.date.HolidayCalendarIds;
+import com.opengamma.strata.basics.schedule.PeriodicSchedule;
+import com.opengamma.strata.basics.schedule.StubConvention;
+import com.opengamma.strata.basics.value.ValueSchedule;
+import com.opengamma.strata.math.impl.random.CounterBasedRandomGenerator;
+import com.opengamma.strata.math.impl.random.SobolSequenceGenerator;
+import com.opengamma.strata.pricer.index.HullWhiteIborFutureDataSet;
+import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParametersProvider;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.pricer.swaption.HullWhiteSwaptionPhysicalProductPricer;
+import com.opengamma.strata.product.common.PayReceive;
+import com.opengamma.strata.product.swap.FixedRateCalculation;
+import com.opengamma.strata.product.swap.IborRateCalculation;
+import com.opengamma.strata.product.swap.NotionalSchedule;
+import com.opengamma.strata.product.swap.PaymentSchedule;
+import com.opengamma.strata.product.swap.RateCalculationSwapLeg;
+import com.opengamma.strata.product.swap.ResolvedSwap;
+import com.opengamma.strata.product.swap.Swap;
+import com.opengamma.strata.product.swaption.PhysicalSwaptionSettlement;
+import com.opengamma.strata.product.swaption.ResolvedSwaption;
+import com.opengamma.strata.product.swaption.Swaption;
+
+/**
+ * Test {@link HullWhiteSwapExposureCalculator}.
+ */
+@Test
+public class HullWhiteSwapExposureCalculatorTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate VALUATION = LocalDate.of(2011, 7, 7);
+  private static final ZonedDateTime EXPIRY = dateUtc(2016, 7, 7);
+  private static final HolidayCalendarId CALENDAR = HolidayCalendarIds.SAT_SUN;
+  private static final BusinessDayAdjustment BDA_MF = BusinessDayAdjustment.of(MODIFIED_FOLLOWING, CALENDAR);
+  private static final LocalDate SETTLE =
+      BDA_MF.adjust(CALENDAR.resolve(REF_DATA).shift(EXPIRY.toLocalDate(), 2), REF_DATA);
+  private static final LocalDate END = SETTLE.plusYears(5);
+  private static final double NOTIONAL = 100000000; //100m
+  private static final double RATE = 0.0175;
+  private static final Swap SWAP_PAY = swap(PAY);
+  private static final ResolvedSwap RSWAP_PAY = SWAP_PAY.resolve(REF_DATA);
+  private static final ResolvedSwap RSWAP_REC = swap(RECEIVE).resolve(REF_DATA);
+  private static final HullWhiteOneFactorPiecewiseConstantParametersProvider HW_PROVIDER =
+      HullWhiteIborFutureDataSet.createHullWhiteProvider(VALUATION);
+  private static final ImmutableRatesProvider RATES_PROVIDER =
+      HullWhiteIborFutureDataSet.createRatesProvider(VALUATION);
+  private static final ImmutableList<LocalDate> DATES = ImmutableList.of(
+      LocalDate.of(2014, 7, 7),
+      EXPIRY.toLocalDate(),
+      LocalDate.of(2017, 10, 9),
+      LocalDate.of(2019, 7, 8),
+      LocalDate.of(2021, 8, 2));
+  private static final int PATH_COUNT = 1 << 14;
+  private static final double CONFIDENCE_LEVEL = 0.95;
+  private static final SobolSequenceGenerator GENERATOR = SobolSequenceGenerator.of(DATES.size());
+  private static final HullWhiteSwapExposureCalculator CALCULATOR = HullWhiteSwapExposureCalculator.DEFAULT;
+  private static final ExposureProfile PROFILE = CALCULATOR.exposureProfile(
+      ImmutableList.of(RSWAP_PAY), RATES_PROVIDER, HW_PROVIDER, DATES, GENERATOR, PATH_COUNT, CONFIDENCE_LEVEL);
+  private static final double TOLERANCE_PV = 1.0E-2;
+
+  // a swap paying or receiving the fixed rate
+  private static Swap swap(PayReceive fixedPayReceive) {
+    PeriodicSchedule fixedSchedule = PeriodicSchedule.builder()
+        .startDate(SETTLE)
+        .endDate(END)
+        .frequency(P12M)
+        .businessDayAdjustment(BDA_MF)
+        .stubConvention(StubConvention.SHORT_FINAL)
+        .build();
+    PeriodicSchedule iborSchedule = fixedSchedule.toBuilder().frequency(P6M).build();
+    PaymentSchedule fixedPayment = PaymentSchedule.builder()
+        .paymentFrequency(P12M)
+        .paymentDateOffset(DaysAdjustment.NONE)
+        .build();
+    PaymentSchedule iborPayment = PaymentSchedule.builder()
+        .paymentFrequency(P6M)
+        .paymentDateOffset(DaysAdjustment.NONE)
+        .build();
+    RateCalculationSwapLeg fixedLeg = RateCalculationSwapLeg.builder()
+        .payReceive(fixedPayReceive)
+        .accrualSchedule(fixedSchedule)
+        .paymentSchedule(fixedPayment)
+        .notionalSchedule(NotionalSchedule.of(EUR, NOTIONAL))
+        .calculation(FixedRateCalculation.builder().dayCount(THIRTY_U_360).rate(ValueSchedule.of(RATE)).build())
+        .build();
+    RateCalculationSwapLeg iborLeg = RateCalculationSwapLeg.builder()
+        .payReceive(fixedPayReceive.isPay() ? RECEIVE : PAY)
+        .accrualSchedule(iborSchedule)
+        .paymentSchedule(iborPayment)
+        .notionalSchedule(NotionalSchedule.of(EUR, NOTIONAL))
+        .calculation(IborRateCalculation.builder()
+            .index(EUR_EURIBOR_6M)
+            .fixingDateOffset(DaysAdjustment.ofBusinessDays(-2, CALENDAR, BDA_MF))
+            .build())
+        .build();
+    return Swap.of(fixedLeg, iborLeg);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_profile() {
+    assertEquals(PROFILE.getCurrency(), EUR);
+    assertEquals(PROFILE.getDates(), DATES);
+    assertEquals(PROFILE.getPathCount(), PATH_COUNT);
+    assertEquals(PROFILE.getConfidenceLevel(), CONFIDENCE_LEVEL);
+    for (int i = 0; i < DATES.size(); i++) {
+      assertEquals(PROFILE.getDiscountFactors().get(i), RATES_PROVIDER.discountFactor(EUR, DATES.get(i)));
+    }
+    for (int i = 0; i < DATES.size() - 1; i++) {
+      assertTrue(PROFILE.getExpectedExposure().get(i) > 0d);
+      assertTrue(PROFILE.getExpectedNegativeExposure().get(i) < 0d);
+      assertTrue(PROFILE.getPotentialFutureExposure().get(i) > PROFILE.getExpectedExposure().get(i));
+    }
+    // after the last payment
+    int last = DATES.size() - 1;
+    assertEquals(PROFILE.getExpectedExposure().get(last), 0d);
+    assertEquals(PROFILE.getExpectedNegativeExposure().get(last), 0d);
+    assertEquals(PROFILE.getPotentialFutureExposure().get(last), 0d);
+  }
+
+  public void test_expectedValueBeforeStart() {
+    // the expected value in the forward measure is the forward value of the swap
+    double pv = DiscountingSwapProductPricer.DEFAULT.presentValue(RSWAP_PAY, EUR, RATES_PROVIDER).getAmount();
+    double expected = pv / PROFILE.getDiscountFactors().get(0);
+    double computed = PROFILE.getExpectedExposure().get(0) + PROFILE.getExpectedNegativeExposure().get(0);
+    assertEquals(computed, expected, NOTIONAL * 1.0E-4);
+  }
+
+  public void test_expectedExposureAtExpiry() {
+    // the discounted expected exposure at the expiry is the value of the swaption
+    ResolvedSwaption swaption = Swaption.builder()
+        .expiryDate(AdjustableDate.of(EXPIRY.toLocalDate(), BDA_MF))
+        .expiryTime(EXPIRY.toLocalTime())
+        .expiryZone(EXPIRY.getZone())
+        .swaptionSettlement(PhysicalSwaptionSettlement.DEFAULT)
+        .longShort(LONG)
+        .underlying(SWAP_PAY)
+        .build()
+        .resolve(REF_DATA);
+    double swaptionPv = HullWhiteSwaptionPhysicalProductPricer.DEFAULT
+        .presentValue(swaption, RATES_PROVIDER, HW_PROVIDER).getAmount();
+    assertEquals(PROFILE.getDiscountedExpectedExposure().get(1), swaptionPv, swaptionPv * TOLERANCE_PV);
+  }
+
+  public void test_netting() {
+    ExposureProfile profile = CALCULATOR.exposureProfile(
+        ImmutableList.of(RSWAP_PAY, RSWAP_REC), RATES_PROVIDER, HW_PROVIDER, DATES, GENERATOR, 1000, CONFIDENCE_LEVEL);
+    for (int i = 0; i < DATES.size(); i++) {
+      assertEquals(profile.getExpectedExposure().get(i), 0d, NOTIONAL * 1.0E-10);
+      assertEquals(profile.getExpectedNegativeExposure().get(i), 0d, NOTIONAL * 1.0E-10);
+      assertEquals(profile.getPotentialFutureExposure().get(i), 0d, NOTIONAL * 1.0E-10);
+    }
+  }
+
+  public void test_blockSize() {
+    CounterBasedRandomGenerator generator = CounterBasedRandomGenerator.of(1);
+    ExposureProfile profile1 = CALCULATOR.exposureProfile(
+        ImmutableList.of(RSWAP_PAY), RATES_PROVIDER, HW_PROVIDER, DATES, generator, 5000, 0.99);
+    ExposureProfile profile2 = new HullWhiteSwapExposureCalculator(77).exposureProfile(
+        ImmutableList.of(RSWAP_PAY), RATES_PROVIDER, HW_PROVIDER, DATES, generator, 5000, 0.99);
+    assertEquals(profile2.getPotentialFutureExposure(), profile1.getPotentialFutureExposure());
+    for (int i = 0; i < DATES.size(); i++) {
+      assertEquals(profile2.getExpectedExposure().get(i), profile1.getExpectedExposure().get(i), 1.0E-6);
+      assertEquals(
+          profile2.getExpectedNegativeExposure().get(i), profile1.getExpectedNegativeExposure().get(i), 1.0E-6);
+    }
+  }
+
+  public void test_invalid() {
+    List<ResolvedSwap> swaps = ImmutableList.of(RSWAP_PAY);
+    assertThrowsIllegalArg(() -> CALCULATOR.exposureProfile(
+        ImmutableList.of(), RATES_PROVIDER, HW_PROVIDER, DATES, GENERATOR, PATH_COUNT, CONFIDENCE_LEVEL));
+    assertThrowsIllegalArg(() -> CALCULATOR.exposureProfile(
+        swaps, RATES_PROVIDER, HW_PROVIDER, ImmutableList.of(VALUATION), GENERATOR, PATH_COUNT, CONFIDENCE_LEVEL));
+    assertThrowsIllegalArg(() -> CALCULATOR.exposureProfile(
+        swaps, RATES_PROVIDER, HW_PROVIDER, DATES.reverse(), GENERATOR, PATH_COUNT, CONFIDENCE_LEVEL));
+    assertThrowsIllegalArg(() -> CALCULATOR.exposureProfile(
+        swaps, RATES_PROVIDER, HW_PROVIDER, DATES, GENERATOR, PATH_COUNT, 1d));
+    assertThrowsIllegalArg(() -> CALCULATOR.exposureProfile(
+        swaps, RATES_PROVIDER, HW_PROVIDER, DATES, GENERATOR, 0, CONFIDENCE_LEVEL));
+    assertThrowsIllegalArg(() -> CALCULATOR.exposureProfile(
+        swaps, RATES_PROVIDER, HullWhiteIborFutureDataSet.createHullWhiteProvider(VALUATION.plusDays(1)),
+        DATES, GENERATOR, PATH_COUNT, CONFIDENCE_LEVEL));
+    assertThrowsIllegalArg(() -> new HullWhiteSwapExposureCalculator(0));
+  }
+
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swap;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.basics.date.Tenor.TENOR_10Y;
+import static com.opengamma.strata.basics.date.Tenor.TENOR_5Y;
+import static com.opengamma.strata.basics.index.IborIndices.USD_LIBOR_3M;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static com.opengamma.strata.product.common.BuySell.BUY;
+import static com.opengamma.strata.product.common.BuySell.SELL;
+import static org.testng.Assert.assertEquals;
+
+import java.time.LocalDate;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeriesBuilder;
+import com.opengamma.strata.market.amount.CashFlows;
+import com.opengamma.strata.pricer.datasets.RatesProviderDataSets;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.product.swap.ResolvedSwap;
+import com.opengamma.strata.product.swap.ResolvedSwapLeg;
+import com.opengamma.strata.product.swap.SwapLegType;
+import com.opengamma.strata.product.swap.type.FixedIborSwapConventions;
+import com.opengamma.strata.product.swap.type.FixedOvernightSwapConventions;
+import com.opengamma.strata.product.swap.type.XCcyIborIborSwapConventions;
+
+/**
+ * Test {@link VanillaSwapLegPricer}.
+ */
+@Test
+public class VanillaSwapLegPricerTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final ImmutableRatesProvider PROVIDER_USD = RatesProviderDataSets.MULTI_USD;
+  private static final ImmutableRatesProvider PROVIDER_GBP_USD = RatesProviderDataSets.MULTI_GBP_USD;
+  private static final LocalDate VAL_DATE = PROVIDER_USD.getValuationDate();
+  private static final double NOTIONAL = 100_000_000d;
+  private static final double TOL = 1e-12;
+
+  private static final ResolvedSwap SWAP_IBOR = FixedIborSwapConventions.USD_FIXED_6M_LIBOR_3M
+      .createTrade(VAL_DATE, TENOR_5Y, BUY, NOTIONAL, 0.015, REF_DATA).getProduct().resolve(REF_DATA);
+  private static final ResolvedSwap SWAP_IBOR_SEASONED = FixedIborSwapConventions.USD_FIXED_6M_LIBOR_3M
+      .createTrade(date(2012, 8, 15), TENOR_10Y, SELL, NOTIONAL, 0.02, REF_DATA).getProduct().resolve(REF_DATA);
+  private static final ResolvedSwap SWAP_OIS = FixedOvernightSwapConventions.USD_FIXED_1Y_FED_FUND_OIS
+      .createTrade(VAL_DATE, TENOR_5Y, BUY, NOTIONAL, 0.01, REF_DATA).getProduct().resolve(REF_DATA);
+  private static final ResolvedSwap SWAP_XCCY = XCcyIborIborSwapConventions.GBP_LIBOR_3M_USD_LIBOR_3M
+      .createTrade(VAL_DATE, TENOR_5Y, BUY, NOTIONAL, NOTIONAL * 1.6, 0.001, REF_DATA).getProduct().resolve(REF_DATA);
+
+  private static final DiscountingSwapLegPricer LEG_PRICER = DiscountingSwapLegPricer.DEFAULT;
+  private static final DiscountingSwapProductPricer SWAP_PRICER = DiscountingSwapProductPricer.DEFAULT;
+  private static final VanillaSwapLegPricer PRICER = VanillaSwapLegPricer.DEFAULT;
+
+  // provider with Libor fixings, for the seasoned swap
+  private static ImmutableRatesProvider providerWithFixings() {
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+    for (LocalDate date = date(2012, 8, 1); date.isBefore(VAL_DATE); date = date.plusDays(1)) {
+      builder.put(date, 0.002);
+    }
+    return PROVIDER_USD.toBuilder().timeSeries(USD_LIBOR_3M, builder.build()).build();
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_presentValue() {
+    assertLegsMatch(SWAP_IBOR, PROVIDER_USD);
+    assertLegsMatch(SWAP_IBOR_SEASONED, providerWithFixings());
+    assertLegsMatch(SWAP_OIS, PROVIDER_USD);
+    assertLegsMatch(SWAP_XCCY, PROVIDER_GBP_USD);
+  }
+
+  private void assertLegsMatch(ResolvedSwap swap, ImmutableRatesProvider provider) {
+    for (ResolvedSwapLeg leg : swap.getLegs()) {
+      CompiledSwapLeg compiled = CompiledSwapLeg.of(leg);
+      double tol = NOTIONAL * TOL;
+      assertEquals(PRICER.presentValue(compiled, provider).getAmount(),
+          LEG_PRICER.presentValue(leg, provider).getAmount(), tol);
+      assertEquals(PRICER.presentValue(compiled, USD, provider).getAmount(),
+          LEG_PRICER.presentValue(leg, USD, provider).getAmount(), tol);
+      assertEquals(PRICER.forecastValue(compiled, provider).getAmount(),
+          LEG_PRICER.forecastValue(leg, provider).getAmount(), tol);
+      assertEquals(PRICER.pvbp(compiled, provider), LEG_PRICER.pvbp(leg, provider), tol);
+      CashFlows computed = PRICER.cashFlows(compiled, provider);
+      CashFlows expected = LEG_PRICER.cashFlows(leg, provider);
+      assertEquals(computed.getCashFlows().size(), expected.getCashFlows().size());
+      for (int i = 0; i < computed.getCashFlows().size(); i++) {
+        assertEquals(computed.getCashFlow(i).getPaymentDate(), expected.getCashFlow(i).getPaymentDate());
+        assertEquals(computed.getCashFlow(i).getForecastValue().getAmount(),
+            expected.getCashFlow(i).getForecastValue().getAmount(), tol);
+        assertEquals(computed.getCashFlow(i).getDiscountFactor(), expected.getCashFlow(i).getDiscountFactor(), TOL);
+      }
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_parRate() {
+    assertParRateMatches(SWAP_IBOR, PROVIDER_USD);
+    assertParRateMatches(SWAP_IBOR_SEASONED, providerWithFixings());
+    assertParRateMatches(SWAP_OIS, PROVIDER_USD);
+  }
+
+  public void test_parRate_notFixedLeg() {
+    CompiledSwapLeg iborLeg = CompiledSwapLeg.of(SWAP_IBOR.getLegs(SwapLegType.IBOR).get(0));
+    CompiledSwapLeg fixedLeg = CompiledSwapLeg.of(SWAP_IBOR.getLegs(SwapLegType.FIXED).get(0));
+    assertThrowsIllegalArg(() -> PRICER.parRate(iborLeg, fixedLeg, PROVIDER_USD));
+  }
+
+  private void assertParRateMatches(ResolvedSwap swap, ImmutableRatesProvider provider) {
+    ResolvedSwapLeg fixed = swap.getLegs(SwapLegType.FIXED).get(0);
+    ResolvedSwapLeg other = swap.getLegs().get(0) == fixed ? swap.getLegs().get(1) : swap.getLegs().get(0);
+    CompiledSwapLeg fixedLeg = CompiledSwapLeg.of(fixed);
+    CompiledSwapLeg otherLeg = CompiledSwapLeg.of(other);
+    assertEquals(PRICER.parRate(fixedLeg, otherLeg, provider), SWAP_PRICER.parRate(swap, provider), TOL);
+  }
+
+}
@@ -136,7 +136,36 @@ public class SabrSwaptionCalibratorCubeBlackCleanDataTest {
             .xValueType(ValueType.YEAR_FRACTION).yValueType(ValueType.YEAR_FRACTION).surfaceName("Shift").build());
     SabrParametersSwaptionVolatilities calibrated = SABR_CALIBRATION.calibrateWithFixedBetaAndShift(
         DEFINITION, CALIBRATION_TIME, DATA_SPARSE, MULTICURVE, betaSurface, shiftSurface);
+    assertCalibratedPrices(calibrated, shift);
+  }
+
+  public void log_normal_cube_parallel() {
+    double beta = 0.50;
+    Surface betaSurface = ConstantSurface.of("Beta", beta)
+        .withMetadata(DefaultSurfaceMetadata.builder()
+            .xValueType(ValueType.YEAR_FRACTION).yValueType(ValueType.YEAR_FRACTION)
+            .zValueType(ValueType.SABR_BETA).surfaceName("Beta").build());
+    double shift = 0.0000;
+    Surface shiftSurface = ConstantSurface.of("Shift", shift)
+        .withMetadata(DefaultSurfaceMetadata.builder()
+            .xValueType(ValueType.YEAR_FRACTION).yValueType(ValueType.YEAR_FRACTION).surfaceName("Shift").build());
+    SabrParametersSwaptionVolatilities sequential = SABR_CALIBRATION.calibrateWithFixedBetaAndShift(
+        DEFINITION, CALIBRATION_TIME, DATA_SPARSE, MULTICURVE, betaSurface, shiftSurface);
+    // warm-started from the previous expiry
+    SabrParametersSwaptionVolatilities parallel = SABR_CALIBRATION.calibrateWithFixedBetaAndShiftParallel(
+        DEFINITION, CALIBRATION_TIME, DATA_SPARSE, MULTICURVE, betaSurface, shiftSurface, true, Optional.empty());
+    assertCalibratedPrices(parallel, shift);
+    assertEquals(parallel.getParameters().getAlphaSurface().getParameterCount(),
+        sequential.getParameters().getAlphaSurface().getParameterCount());
+    assertEquals(parallel.getDataSensitivityAlpha().get().size(), sequential.getDataSensitivityAlpha().get().size());
+    // warm-started from a previous calibration
+    SabrParametersSwaptionVolatilities restarted = SABR_CALIBRATION.calibrateWithFixedBetaAndShiftParallel(
+        DEFINITION, CALIBRATION_TIME, DATA_SPARSE, MULTICURVE, betaSurface, shiftSurface, true,
+        Optional.of(sequential));
+    assertCalibratedPrices(restarted, shift);
+  }
 
+  private void assertCalibratedPrices(SabrParametersSwaptionVolatilities calibrated, double shift) {
     for (int looptenor = 0; looptenor < TENORS.size(); looptenor++) {
       double tenor = TENORS.get(looptenor).get(ChronoUnit.YEARS);
       for (int loopexpiry = 0; loopexpiry < EXPIRIES.size(); loopexpiry++) {
@@ -5,13 +5,22 @@
  */
 package com.opengamma.strata.report.framework.expression;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.joda.beans.Bean;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.opengamma.strata.calc.runner.CalculationFunctions;
@@ -41,6 +50,13 @@ import com.opengamma.strata.market.amount.LegAmounts;
  */
 public class BeanTokenEvaluator extends TokenEvaluator<Bean> {
 
+  /**
+   * The properties of each immutable bean type, keyed by lower case property name.
+   * This avoids searching the property names of the bean for every row of a report.
+   */
+  private static final ConcurrentMap<MetaBean, Map<String, MetaProperty<?>>> PROPERTIES_BY_META_BEAN =
+      new ConcurrentHashMap<>();
+
   @Override
   public Class<Bean> getTargetType() {
     return Bean.class;
@@ -69,12 +85,10 @@ public class BeanTokenEvaluator extends TokenEvaluator<Bean> {
       String firstToken,
       List<String> remainingTokens) {
 
-    Optional<String> propertyName = bean.propertyNames().stream()
-        .filter(p -> p.equalsIgnoreCase(firstToken))
-        .findFirst();
+    Optional<MetaProperty<?>> property = findProperty(bean, firstToken);
 
-    if (propertyName.isPresent()) {
-      Object propertyValue = bean.property(propertyName.get()).get();
+    if (property.isPresent()) {
+      Object propertyValue = property.get().get(bean);
 
       return propertyValue != null ?
           EvaluationResult.success(propertyValue, remainingTokens) :
@@ -95,4 +109,33 @@ public class BeanTokenEvaluator extends TokenEvaluator<Bean> {
     return invalidTokenFailure(bean, firstToken);
   }
 
+  //-------------------------------------------------------------------------
+  // finds the property matching the token, ignoring case
+  private static Optional<MetaProperty<?>> findProperty(Bean bean, String token) {
+    if (bean instanceof ImmutableBean) {
+      return findProperty(bean.metaBean(), token);
+    }
+    return bean.propertyNames().stream()
+        .filter(p -> p.equalsIgnoreCase(token))
+        .findFirst()
+        .map(name -> bean.metaBean().metaProperty(name));
+  }
+
+  // finds the property of an immutable bean type matching the token, ignoring case
+  // the properties of an immutable bean are fixed by its type, so the lookup can be cached by meta-bean
+  static Optional<MetaProperty<?>> findProperty(MetaBean metaBean, String token) {
+    Map<String, MetaProperty<?>> properties =
+        PROPERTIES_BY_META_BEAN.computeIfAbsent(metaBean, BeanTokenEvaluator::propertiesByLowerCaseName);
+    return Optional.ofNullable(properties.get(token.toLowerCase(Locale.ENGLISH)));
+  }
+
+  // indexes the properties of the meta-bean by lower case name, the first property with a given name wins
+  private static Map<String, MetaProperty<?>> propertiesByLowerCaseName(MetaBean metaBean) {
+    Map<String, MetaProperty<?>> properties = new HashMap<>();
+    for (MetaProperty<?> property : metaBean.metaPropertyIterable()) {
+      properties.putIfAbsent(property.name().toLowerCase(Locale.ENGLISH), property);
+    }
+    return ImmutableMap.copyOf(properties);
+  }
+
 }
@@ -0,0 +1,116 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.report.framework.expression;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.report.ReportCalculationResults;
+
+/**
+ * A value path that has been parsed ready for evaluation against many rows of results.
+ * <p>
+ * The value path is split into tokens once, when this instance is created.
+ * Evaluation then walks the tokens against the row using {@link ValuePathEvaluator}.
+ * The evaluator for each type of object, and the properties of each type of bean,
+ * are resolved the first time the type is seen and reused for all subsequent rows.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class CompiledValuePath {
+
+  /**
+   * The value path.
+   */
+  private final String valuePath;
+  /**
+   * The tokens of the value path.
+   */
+  private final ImmutableList<String> tokens;
+  /**
+   * The measure encoded in the value path.
+   */
+  private final Optional<Measure> measure;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Compiles a value path.
+   * <p>
+   * Errors in the value path are reported when it is evaluated.
+   *
+   * @param valuePath  the value path
+   * @return the compiled value path
+   */
+  public static CompiledValuePath of(String valuePath) {
+    ArgChecker.notNull(valuePath, "valuePath");
+    return new CompiledValuePath(valuePath);
+  }
+
+  // restricted constructor
+  private CompiledValuePath(String valuePath) {
+    this.valuePath = valuePath;
+    this.tokens = ValuePathEvaluator.tokenize(valuePath);
+    this.measure = ValuePathEvaluator.measure(valuePath);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the value path.
+   *
+   * @return the value path
+   */
+  public String getValuePath() {
+    return valuePath;
+  }
+
+  /**
+   * Gets the measure encoded in the value path, if present.
+   *
+   * @return the measure, if present
+   */
+  public Optional<Measure> getMeasure() {
+    return measure;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Evaluates the value path against a set of results, returning the resolved result for each trade.
+   *
+   * @param results  the calculation results
+   * @return the list of resolved results for each trade
+   */
+  public List<Result<?>> evaluate(ReportCalculationResults results) {
+    int rowCount = results.getCalculationResults().getRowCount();
+    return IntStream.range(0, rowCount)
+        .mapToObj(rowIndex -> evaluate(results, rowIndex))
+        .collect(toImmutableList());
+  }
+
+  /**
+   * Evaluates the value path against a single row of a set of results.
+   *
+   * @param results  the calculation results
+   * @param rowIndex  the index of the row to evaluate against
+   * @return the resolved result for the trade in the row
+   */
+  public Result<?> evaluate(ReportCalculationResults results, int rowIndex) {
+    return ValuePathEvaluator.evaluateRow(tokens, results, rowIndex);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return valuePath;
+  }
+
+}
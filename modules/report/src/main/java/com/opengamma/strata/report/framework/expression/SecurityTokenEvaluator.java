@@ -12,6 +12,7 @@ import java.util.Set;
 import org.joda.beans.Bean;
 import org.joda.beans.JodaBeanUtils;
 import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
 
 import com.google.common.collect.Sets;
 import com.opengamma.strata.calc.runner.CalculationFunctions;
@@ -50,11 +51,9 @@ public class SecurityTokenEvaluator extends TokenEvaluator<Security> {
     MetaBean metaBean = JodaBeanUtils.metaBean(security.getClass());
 
     // security
-    Optional<String> securityPropertyName = metaBean.metaPropertyMap().keySet().stream()
-        .filter(p -> p.equalsIgnoreCase(firstToken))
-        .findFirst();
-    if (securityPropertyName.isPresent()) {
-      Object propertyValue = metaBean.metaProperty(securityPropertyName.get()).get((Bean) security);
+    Optional<MetaProperty<?>> securityProperty = BeanTokenEvaluator.findProperty(metaBean, firstToken);
+    if (securityProperty.isPresent()) {
+      Object propertyValue = securityProperty.get().get((Bean) security);
       return propertyValue != null ?
           EvaluationResult.success(propertyValue, remainingTokens) :
           EvaluationResult.failure("Property '{}' not set", firstToken);
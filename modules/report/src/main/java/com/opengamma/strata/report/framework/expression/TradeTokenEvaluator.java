@@ -12,6 +12,7 @@ import java.util.Set;
 import org.joda.beans.Bean;
 import org.joda.beans.JodaBeanUtils;
 import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
 
 import com.google.common.collect.Sets;
 import com.opengamma.strata.calc.runner.CalculationFunctions;
@@ -46,12 +47,10 @@ public class TradeTokenEvaluator extends TokenEvaluator<Trade> {
     MetaBean metaBean = JodaBeanUtils.metaBean(trade.getClass());
 
     // trade
-    Optional<String> tradePropertyName = metaBean.metaPropertyMap().keySet().stream()
-        .filter(p -> p.equalsIgnoreCase(firstToken))
-        .findFirst();
+    Optional<MetaProperty<?>> tradeProperty = BeanTokenEvaluator.findProperty(metaBean, firstToken);
 
-    if (tradePropertyName.isPresent()) {
-      Object propertyValue = metaBean.metaProperty(tradePropertyName.get()).get((Bean) trade);
+    if (tradeProperty.isPresent()) {
+      Object propertyValue = tradeProperty.get().get((Bean) trade);
       if (propertyValue == null) {
         return EvaluationResult.failure("Property '{}' not set", firstToken);
       }
@@ -5,13 +5,11 @@
  */
 package com.opengamma.strata.report.framework.expression;
 
-import static com.opengamma.strata.collect.Guavate.toImmutableList;
-
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.IntStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
@@ -53,6 +51,10 @@ public class ValuePathEvaluator {
       new BeanTokenEvaluator(),
       new IterableTokenEvaluator());
 
+  /** The evaluator to use for each type of target, populated as the types are encountered. */
+  private static final ConcurrentMap<Class<?>, Optional<TokenEvaluator<Object>>> EVALUATORS_BY_TYPE =
+      new ConcurrentHashMap<>();
+
   //-------------------------------------------------------------------------
   /**
    * Gets the measure encoded in a value path, if present.
@@ -77,24 +79,24 @@ public class ValuePathEvaluator {
 
   /**
    * Evaluates a value path against a set of results, returning the resolved result for each trade.
+   * <p>
+   * If the same value path is to be evaluated many times, {@link CompiledValuePath} should be used instead.
    *
    * @param valuePath  the value path
    * @param results  the calculation results
    * @return the list of resolved results for each trade
    */
   public static List<Result<?>> evaluate(String valuePath, ReportCalculationResults results) {
-    List<String> tokens = tokenize(valuePath);
+    return CompiledValuePath.of(valuePath).evaluate(results);
+  }
 
+  // evaluates the tokens against a single row of the results
+  static Result<?> evaluateRow(List<String> tokens, ReportCalculationResults results, int rowIndex) {
     if (tokens.size() < 1) {
-      return Collections.nCopies(
-          results.getTargets().size(),
-          Result.failure(FailureReason.INVALID, "Column expressions must not be empty"));
+      return Result.failure(FailureReason.INVALID, "Column expressions must not be empty");
     }
     CalculationFunctions functions = results.getCalculationFunctions();
-    int rowCount = results.getCalculationResults().getRowCount();
-    return IntStream.range(0, rowCount)
-        .mapToObj(rowIndex -> evaluate(functions, tokens, RootEvaluator.INSTANCE, new ResultsRow(results, rowIndex)))
-        .collect(toImmutableList());
+    return evaluate(functions, tokens, RootEvaluator.INSTANCE, new ResultsRow(results, rowIndex));
   }
 
   // Tokens always has at least one token
@@ -138,13 +140,18 @@ public class ValuePathEvaluator {
 
   //-------------------------------------------------------------------------
   // splits a value path into tokens for processing
-  private static List<String> tokenize(String valuePath) {
+  static ImmutableList<String> tokenize(String valuePath) {
     String[] tokens = valuePath.split(PATH_SEPARATOR);
     return ImmutableList.copyOf(tokens);
   }
 
-  @SuppressWarnings("unchecked")
+  // the evaluator for a type is fixed, so the search of the evaluators is only performed once per type
   private static Optional<TokenEvaluator<Object>> getEvaluator(Class<?> targetClass) {
+    return EVALUATORS_BY_TYPE.computeIfAbsent(targetClass, ValuePathEvaluator::findEvaluator);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Optional<TokenEvaluator<Object>> findEvaluator(Class<?> targetClass) {
     return EVALUATORS.stream()
         .filter(e -> e.getTargetType().isAssignableFrom(targetClass))
         .map(e -> (TokenEvaluator<Object>) e)
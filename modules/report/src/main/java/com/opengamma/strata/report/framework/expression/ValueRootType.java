@@ -6,9 +6,12 @@
 package com.opengamma.strata.report.framework.expression;
 
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.Guavate.toImmutableMap;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 import com.opengamma.strata.collect.Messages;
 
@@ -54,6 +57,11 @@ public enum ValueRootType {
   private static final List<String> VALID_ROOTS = Arrays.stream(values())
       .map(r -> r.token)
       .collect(toImmutableList());
+  /**
+   * The root types keyed by lower case token, as tokens are matched ignoring case.
+   */
+  private static final Map<String, ValueRootType> BY_LOWER_CASE_TOKEN = Arrays.stream(values())
+      .collect(toImmutableMap(r -> r.token.toLowerCase(Locale.ENGLISH)));
 
   /**
    * Creates an instance.
@@ -82,11 +90,12 @@ public enum ValueRootType {
    * @return the root type corresponding to the given string
    */
   public static ValueRootType parseToken(String rootString) {
-    return Arrays.stream(values())
-        .filter(val -> val.token.equalsIgnoreCase(rootString))
-        .findFirst()
-        .orElseThrow(() -> new IllegalArgumentException(
-            Messages.format("Invalid root: {}. Value path must start with one of: {}", rootString, VALID_ROOTS)));
+    ValueRootType rootType = BY_LOWER_CASE_TOKEN.get(rootString.toLowerCase(Locale.ENGLISH));
+    if (rootType == null) {
+      throw new IllegalArgumentException(
+          Messages.format("Invalid root: {}. Value path must start with one of: {}", rootString, VALID_ROOTS));
+    }
+    return rootType;
   }
 
 }
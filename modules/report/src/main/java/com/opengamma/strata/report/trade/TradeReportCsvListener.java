@@ -0,0 +1,238 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.report.trade;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.ColumnHeader;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.runner.CalculationFunctions;
+import com.opengamma.strata.calc.runner.CalculationListener;
+import com.opengamma.strata.calc.runner.CalculationResult;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Unchecked;
+import com.opengamma.strata.collect.io.CsvOutput;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.report.ReportCalculationResults;
+import com.opengamma.strata.report.framework.expression.CompiledValuePath;
+import com.opengamma.strata.report.framework.format.ReportOutputFormat;
+
+/**
+ * Calculation listener that writes a trade report in CSV format as the results are received.
+ * <p>
+ * A {@link TradeReport} holds every result of the calculation until the report is formatted.
+ * This listener instead evaluates the columns of the report template one row at a time,
+ * as soon as all the calculation results for the row have been received.
+ * The formatted row is written to the output and the calculation results are discarded.
+ * <p>
+ * The rows are written in the order of the calculation targets.
+ * A row that completes before an earlier row is held, in formatted form, until the earlier rows are written.
+ * <p>
+ * Instances are obtained using {@link TradeReportRunner#csvListener}.
+ * The listener must be passed to one of the asynchronous methods of the calculation runner,
+ * using the columns returned by {@link TradeReportRunner#requirements(TradeReportTemplate)}.
+ * The report template must contain at least one column referring to a measure.
+ */
+public final class TradeReportCsvListener
+    implements CalculationListener {
+
+  /**
+   * The report template.
+   */
+  private final TradeReportTemplate template;
+  /**
+   * The compiled value path of each column in the report template, empty if the column has no value.
+   */
+  private final List<Optional<CompiledValuePath>> valuePaths;
+  /**
+   * The valuation date.
+   */
+  private final LocalDate valuationDate;
+  /**
+   * The columns that are being calculated.
+   */
+  private final List<Column> columns;
+  /**
+   * The headers of the columns that are being calculated.
+   */
+  private final List<ColumnHeader> columnHeaders;
+  /**
+   * The calculation functions.
+   */
+  private final CalculationFunctions functions;
+  /**
+   * The reference data.
+   */
+  private final ReferenceData refData;
+  /**
+   * The underlying writer.
+   */
+  private final Writer writer;
+  /**
+   * The CSV output.
+   */
+  private final CsvOutput csvOutput;
+  /**
+   * The rows that have received some, but not all, of their results, keyed by row index.
+   */
+  private final Map<Integer, PendingRow> pendingRows = new HashMap<>();
+  /**
+   * The formatted rows that cannot yet be written, keyed by row index.
+   */
+  private final Map<Integer, List<String>> formattedRows = new HashMap<>();
+  /**
+   * The index of the next row to be written.
+   */
+  private int nextRowIndex;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance that writes to the specified output stream.
+   * <p>
+   * The header line of the report is written immediately.
+   *
+   * @param template  the report template
+   * @param valuationDate  the valuation date
+   * @param columns  the columns being calculated
+   * @param functions  the calculation functions
+   * @param refData  the reference data
+   * @param out  the output stream to write to
+   * @return the listener
+   * @throws IllegalArgumentException if there are no columns being calculated
+   */
+  static TradeReportCsvListener of(
+      TradeReportTemplate template,
+      LocalDate valuationDate,
+      List<Column> columns,
+      CalculationFunctions functions,
+      ReferenceData refData,
+      OutputStream out) {
+
+    ArgChecker.notNull(out, "out");
+    // rows are written when their results are received, thus there must be at least one result per row
+    ArgChecker.isFalse(columns.isEmpty(),
+        "Trade report template must contain at least one measure column to be written as results are received");
+    return new TradeReportCsvListener(
+        template, valuationDate, columns, functions, refData, new OutputStreamWriter(out, StandardCharsets.UTF_8));
+  }
+
+  // restricted constructor
+  private TradeReportCsvListener(
+      TradeReportTemplate template,
+      LocalDate valuationDate,
+      List<Column> columns,
+      CalculationFunctions functions,
+      ReferenceData refData,
+      Writer writer) {
+
+    this.template = ArgChecker.notNull(template, "template");
+    this.valuePaths = template.getColumns().stream()
+        .map(column -> column.getValue().map(CompiledValuePath::of))
+        .collect(toImmutableList());
+    this.valuationDate = ArgChecker.notNull(valuationDate, "valuationDate");
+    this.columns = ImmutableList.copyOf(columns);
+    this.columnHeaders = columns.stream().map(Column::toHeader).collect(toImmutableList());
+    this.functions = ArgChecker.notNull(functions, "functions");
+    this.refData = ArgChecker.notNull(refData, "refData");
+    this.writer = writer;
+    this.csvOutput = new CsvOutput(writer);
+    csvOutput.writeLine(template.getColumns().stream().map(TradeReportColumn::getHeader).collect(toImmutableList()));
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public void resultReceived(CalculationTarget target, CalculationResult result) {
+    int rowIndex = result.getRowIndex();
+    PendingRow row = pendingRows.computeIfAbsent(rowIndex, i -> new PendingRow(target, columns.size()));
+    if (row.add(result)) {
+      pendingRows.remove(rowIndex);
+      formattedRows.put(rowIndex, formatRow(row));
+      writeFormattedRows();
+    }
+  }
+
+  @Override
+  public void calculationsComplete() {
+    // all rows are normally written by now, this handles any gaps in the row indices
+    formattedRows.keySet().stream()
+        .sorted()
+        .forEach(rowIndex -> csvOutput.writeLine(formattedRows.get(rowIndex)));
+    formattedRows.clear();
+    Unchecked.wrap(writer::flush);
+  }
+
+  //-------------------------------------------------------------------------
+  // writes the formatted rows that are next in order
+  private void writeFormattedRows() {
+    List<String> line = formattedRows.remove(nextRowIndex);
+    while (line != null) {
+      csvOutput.writeLine(line);
+      nextRowIndex++;
+      line = formattedRows.remove(nextRowIndex);
+    }
+  }
+
+  // evaluates and formats each column of the report for a complete row
+  private List<String> formatRow(PendingRow row) {
+    ReportCalculationResults rowResults = ReportCalculationResults.of(
+        valuationDate,
+        ImmutableList.of(row.target),
+        columns,
+        Results.of(columnHeaders, Arrays.asList(row.cells)),
+        functions,
+        refData);
+
+    ImmutableList.Builder<String> line = ImmutableList.builder();
+    for (int i = 0; i < valuePaths.size(); i++) {
+      Optional<CompiledValuePath> valuePath = valuePaths.get(i);
+      Result<?> result = valuePath.isPresent() ?
+          valuePath.get().evaluate(rowResults, 0) :
+          Result.failure(FailureReason.INVALID, "No value specified in report template");
+      TradeReportColumn reportColumn = template.getColumns().get(i);
+      line.add(TradeReportFormatter.INSTANCE.formatResult(reportColumn, result, ReportOutputFormat.CSV));
+    }
+    return line.build();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The calculation results received so far for a single row.
+   */
+  private static final class PendingRow {
+
+    private final CalculationTarget target;
+    private final Result<?>[] cells;
+    private int received;
+
+    private PendingRow(CalculationTarget target, int columnCount) {
+      this.target = target;
+      this.cells = new Result<?>[columnCount];
+    }
+
+    // adds the result, returning true if the row is complete
+    private boolean add(CalculationResult result) {
+      cells[result.getColumnIndex()] = result.getResult();
+      return ++received == cells.length;
+    }
+  }
+
+}
@@ -68,7 +68,20 @@ public class TradeReportFormatter
   protected String formatData(TradeReport report, int rowIdx, int colIdx, ReportOutputFormat format) {
     TradeReportColumn templateColumn = report.getColumns().get(colIdx);
     Result<?> result = report.getData().get(rowIdx, colIdx);
+    return formatResult(templateColumn, result, format);
+  }
 
+  /**
+   * Formats a single result for display in a column of a trade report.
+   * <p>
+   * This allows a report to be formatted one cell at a time, without creating a {@link TradeReport}.
+   *
+   * @param templateColumn  the report column that the result belongs to
+   * @param result  the result to format
+   * @param format  the report output format
+   * @return the formatted result
+   */
+  String formatResult(TradeReportColumn templateColumn, Result<?> result, ReportOutputFormat format) {
     if (result.isFailure()) {
       return templateColumn.isIgnoreFailures() ? "" : Messages.format("FAIL: {}", result.getFailure().getMessage());
     }
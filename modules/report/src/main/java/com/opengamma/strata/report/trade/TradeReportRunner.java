@@ -7,18 +7,23 @@ package com.opengamma.strata.report.trade;
 
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
 
+import java.io.OutputStream;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.IntStream;
 
 import com.google.common.collect.ImmutableTable;
+import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.runner.CalculationFunctions;
 import com.opengamma.strata.collect.Guavate;
 import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.report.ReportCalculationResults;
 import com.opengamma.strata.report.ReportRequirements;
 import com.opengamma.strata.report.ReportRunner;
+import com.opengamma.strata.report.framework.expression.CompiledValuePath;
 import com.opengamma.strata.report.framework.expression.ValuePathEvaluator;
 
 /**
@@ -63,7 +68,7 @@ public class TradeReportRunner
       List<Result<?>> columnResults;
 
       if (reportColumn.getValue().isPresent()) {
-        columnResults = ValuePathEvaluator.evaluate(reportColumn.getValue().get(), results);
+        columnResults = CompiledValuePath.of(reportColumn.getValue().get()).evaluate(results);
       } else {
         columnResults = IntStream.range(0, results.getTargets().size())
             .mapToObj(i -> Result.failure(FailureReason.INVALID, "No value specified in report template"))
@@ -84,4 +89,38 @@ public class TradeReportRunner
         .build();
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Creates a listener that writes the report in CSV format as the calculation results are received.
+   * <p>
+   * This is an alternative to {@link #runReport(ReportCalculationResults, TradeReportTemplate)}
+   * for large portfolios. Each row of the report is evaluated, formatted and written as soon as
+   * all of its results have been calculated, thus the full set of results is never held in memory.
+   * <p>
+   * The listener must be passed to one of the asynchronous methods on the calculation runner,
+   * calculating the columns returned by {@link #requirements(TradeReportTemplate)}.
+   * The header line of the report is written by this method.
+   * <p>
+   * The report template must contain at least one column referring to a measure,
+   * as the rows are written when the calculation results of the row are received.
+   *
+   * @param reportTemplate  the report template
+   * @param valuationDate  the valuation date
+   * @param functions  the calculation functions used to perform the calculations
+   * @param refData  the reference data used to perform the calculations
+   * @param out  the output stream to write to
+   * @return the listener that writes the report
+   * @throws IllegalArgumentException if the report template does not refer to any measure
+   */
+  public TradeReportCsvListener csvListener(
+      TradeReportTemplate reportTemplate,
+      LocalDate valuationDate,
+      CalculationFunctions functions,
+      ReferenceData refData,
+      OutputStream out) {
+
+    List<Column> columns = requirements(reportTemplate).getTradeMeasureRequirements();
+    return TradeReportCsvListener.of(reportTemplate, valuationDate, columns, functions, refData, out);
+  }
+
 }
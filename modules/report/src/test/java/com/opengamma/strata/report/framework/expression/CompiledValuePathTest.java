@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.report.framework.expression;
+
+import static com.opengamma.strata.basics.index.IborIndices.GBP_LIBOR_3M;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static com.opengamma.strata.product.common.BuySell.BUY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.date.AdjustableDate;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.product.Trade;
+import com.opengamma.strata.product.TradeInfo;
+import com.opengamma.strata.product.fra.Fra;
+import com.opengamma.strata.product.fra.FraTrade;
+import com.opengamma.strata.report.ReportCalculationResults;
+
+/**
+ * Test {@link CompiledValuePath}.
+ */
+@Test
+public class CompiledValuePathTest {
+
+  public void evaluate() {
+    ReportCalculationResults reportResults = reportResults();
+    CompiledValuePath path = CompiledValuePath.of("Measures.PresentValue.Currency");
+
+    List<Result<?>> expected = ImmutableList.of(
+        Result.success(Currency.CAD),
+        Result.success(Currency.AUD),
+        Result.success(Currency.CHF));
+    assertThat(path.evaluate(reportResults)).isEqualTo(expected);
+    assertThat(path.evaluate(reportResults, 1)).isEqualTo(Result.success(Currency.AUD));
+    assertThat(path.getMeasure()).isEqualTo(Optional.of(Measure.of("PresentValue")));
+    assertThat(path.getValuePath()).isEqualTo("Measures.PresentValue.Currency");
+    assertThat(path.toString()).isEqualTo("Measures.PresentValue.Currency");
+  }
+
+  public void evaluate_beanPropertyIgnoringCase() {
+    ReportCalculationResults reportResults = reportResults();
+    CompiledValuePath path = CompiledValuePath.of("trade.product.NOTIONAL");
+
+    assertThat(path.getMeasure()).isEqualTo(Optional.empty());
+    for (int i = 0; i < 2; i++) {
+      // the second iteration uses the cached property lookup
+      assertThat(path.evaluate(reportResults, 2)).isEqualTo(Result.success(100_000_000d));
+    }
+  }
+
+  public void evaluate_failure_invalidProperty() {
+    ReportCalculationResults reportResults = reportResults();
+    CompiledValuePath path = CompiledValuePath.of("Trade.Product.Wibble");
+
+    Result<?> result = path.evaluate(reportResults, 0);
+    assertThat(result.isFailure()).isTrue();
+    assertThat(result.getFailure().getMessage()).contains("Wibble");
+    assertThat(result.getFailure().getMessage()).contains("notional");
+  }
+
+  //--------------------------------------------------------------------------------------------------
+
+  private static ReportCalculationResults reportResults() {
+    Measure measure = Measure.of("PresentValue");
+    Column column = Column.of(measure);
+    List<Column> columns = ImmutableList.of(column);
+    List<? extends Result<?>> resultValues = ImmutableList.of(
+        Result.success(CurrencyAmount.of(Currency.CAD, 2d)),
+        Result.success(CurrencyAmount.of(Currency.AUD, 3d)),
+        Result.success(CurrencyAmount.of(Currency.CHF, 4d)));
+    List<Trade> trades = ImmutableList.of(
+        trade("cpty1", 1_000_000),
+        trade("cpty2", 10_000_000),
+        trade("cpty3", 100_000_000));
+    Results results = Results.of(ImmutableList.of(column.toHeader()), resultValues);
+    return ReportCalculationResults.of(LocalDate.now(ZoneOffset.UTC), trades, columns, results);
+  }
+
+  private static Trade trade(String counterparty, double notional) {
+    TradeInfo tradeInfo = TradeInfo.builder()
+        .counterparty(StandardId.of("cpty", counterparty))
+        .build();
+    Fra fra = Fra.builder()
+        .buySell(BUY)
+        .notional(notional)
+        .startDate(date(2015, 8, 5))
+        .endDate(date(2015, 11, 5))
+        .paymentDate(AdjustableDate.of(date(2015, 8, 7)))
+        .fixedRate(0.25d)
+        .index(GBP_LIBOR_3M)
+        .build();
+    return FraTrade.builder()
+        .info(tradeInfo)
+        .product(fra)
+        .build();
+  }
+}
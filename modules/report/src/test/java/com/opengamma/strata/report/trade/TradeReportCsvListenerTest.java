@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2016 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.report.trade;
+
+import static com.opengamma.strata.basics.index.IborIndices.GBP_LIBOR_3M;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static com.opengamma.strata.product.common.BuySell.BUY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.date.AdjustableDate;
+import com.opengamma.strata.calc.runner.CalculationResult;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.measure.StandardComponents;
+import com.opengamma.strata.product.Trade;
+import com.opengamma.strata.product.TradeInfo;
+import com.opengamma.strata.product.fra.Fra;
+import com.opengamma.strata.product.fra.FraTrade;
+
+/**
+ * Test {@link TradeReportCsvListener}.
+ */
+@Test
+public class TradeReportCsvListenerTest {
+
+  private static final LocalDate VAL_DATE = date(2016, 6, 30);
+  private static final TradeReportTemplate TEMPLATE = TradeReportTemplate.builder()
+      .columns(
+          TradeReportColumn.builder().header("Counterparty").value("Trade.Counterparty.Value").build(),
+          TradeReportColumn.builder().header("PV").value("Measures.PresentValue").build(),
+          TradeReportColumn.builder().header("Missing").build())
+      .build();
+
+  public void test_writesRowsInOrder() {
+    Trade trade1 = trade("cpty1");
+    Trade trade2 = trade("cpty2");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TradeReportCsvListener listener = TradeReportRunner.INSTANCE.csvListener(
+        TEMPLATE, VAL_DATE, StandardComponents.calculationFunctions(), ReferenceData.standard(), out);
+
+    // the second row completes first, but is only written after the first row
+    listener.resultReceived(trade2, CalculationResult.of(1, 0, Result.success(CurrencyAmount.of(Currency.GBP, 3d))));
+    listener.resultReceived(trade1, CalculationResult.of(0, 0, Result.success(CurrencyAmount.of(Currency.GBP, 2d))));
+    listener.calculationsComplete();
+
+    List<String> lines = lines(out);
+    assertThat(lines).containsExactly(
+        "Counterparty,PV,Missing",
+        "cpty1,2,FAIL: No value specified in report template",
+        "cpty2,3,FAIL: No value specified in report template");
+  }
+
+  public void test_writesHeaderImmediately() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TradeReportCsvListener listener = TradeReportRunner.INSTANCE.csvListener(
+        TEMPLATE, VAL_DATE, StandardComponents.calculationFunctions(), ReferenceData.standard(), out);
+    listener.calculationsComplete();
+
+    assertThat(lines(out)).containsExactly("Counterparty,PV,Missing");
+  }
+
+  public void test_noMeasureColumns() {
+    TradeReportTemplate template = TradeReportTemplate.builder()
+        .columns(TradeReportColumn.builder().header("Counterparty").value("Trade.Counterparty.Value").build())
+        .build();
+    assertThrowsIllegalArg(() -> TradeReportRunner.INSTANCE.csvListener(
+        template, VAL_DATE, StandardComponents.calculationFunctions(), ReferenceData.standard(),
+        new ByteArrayOutputStream()));
+  }
+
+  //-------------------------------------------------------------------------
+  private static List<String> lines(ByteArrayOutputStream out) {
+    String csv = new String(out.toByteArray(), StandardCharsets.UTF_8);
+    return Splitter.on(System.lineSeparator()).omitEmptyStrings().splitToList(csv);
+  }
+
+  private static Trade trade(String counterparty) {
+    TradeInfo tradeInfo = TradeInfo.builder()
+        .counterparty(StandardId.of("cpty", counterparty))
+        .build();
+    Fra fra = Fra.builder()
+        .buySell(BUY)
+        .notional(1_000_000)
+        .startDate(date(2016, 8, 5))
+        .endDate(date(2016, 11, 5))
+        .paymentDate(AdjustableDate.of(date(2016, 8, 7)))
+        .fixedRate(0.25d)
+        .index(GBP_LIBOR_3M)
+        .build();
+    return FraTrade.builder()
+        .info(tradeInfo)
+        .product(fra)
+        .build();
+  }
+
+}